@@ -2,7 +2,8 @@ from flask import Flask, request, jsonify
 from flask_cors import CORS
 from config import Config
 from services.article_service import generate_article
-from services.sentence_service import evaluate_sentence
+from services.question_service import generate_question
+from services.sentence_service import evaluate_sentence, evaluate_sentences
 
 app = Flask(__name__)
 CORS(app)
@@ -21,7 +22,8 @@ def api_generate_article():
     {
         "words": [{"word": "ephemeral", "meaningCn": "短暂的"}],
         "difficulty": "medium",
-        "length": "short"
+        "length": "short",
+        "includeQuestions": true
     }
     """
     try:
@@ -34,11 +36,48 @@ def api_generate_article():
         difficulty = data.get('difficulty', 'medium')
         length = data.get('length', 'short')
         theme = data.get('theme')
+        include_questions = data.get('includeQuestions', True)
         
         if len(words) < 1:
             return jsonify({"code": 400, "msg": "至少需要 1 个单词", "data": None}), 400
         
-        result = generate_article(words, difficulty, length, theme)
+        result = generate_article(words, difficulty, length, theme, include_questions)
+        
+        if result['success']:
+            return jsonify({"code": 200, "msg": "success", "data": result['data']})
+        else:
+            return jsonify({"code": 500, "msg": result['error'], "data": None}), 500
+            
+    except Exception as e:
+        return jsonify({"code": 500, "msg": str(e), "data": None}), 500
+
+@app.route('/api/generate-question', methods=['POST'])
+def api_generate_question():
+    """
+    基于已生成的文章生成一道阅读理解题
+    
+    Request Body:
+    {
+        "article": {"title": "...", "content": "..."},
+        "type": "word_comprehension",
+        "word": {"word": "ephemeral", "meaningCn": "短暂的"}
+    }
+    """
+    try:
+        data = request.get_json()
+        
+        if not data or not data.get('article') or not data['article'].get('content'):
+            return jsonify({"code": 400, "msg": "缺少 article 参数", "data": None}), 400
+        
+        question_type = data.get('type', 'word_comprehension')
+        if question_type not in ('word_comprehension', 'main_idea'):
+            return jsonify({"code": 400, "msg": f"不支持的题目类型 '{question_type}'", "data": None}), 400
+        
+        word = data.get('word')
+        if question_type == 'word_comprehension' and (not word or not word.get('word')):
+            return jsonify({"code": 400, "msg": "缺少 word 参数", "data": None}), 400
+        
+        result = generate_question(data['article'], question_type, word)
         
         if result['success']:
             return jsonify({"code": 200, "msg": "success", "data": result['data']})
@@ -91,6 +130,62 @@ def api_evaluate_sentence():
     except Exception as e:
         return jsonify({"code": 500, "msg": str(e), "data": None}), 500
 
+@app.route('/api/evaluate-sentences', methods=['POST'])
+def api_evaluate_sentences():
+    """
+    批量评估用户造句，每个句子单独返回结果，单个句子失败不影响其他句子
+    
+    Request Body:
+    {
+        "items": [
+            {"id": "1", "word": "ephemeral", "meaning": "短暂的", "sentence": "The beauty of cherry blossoms is ephemeral."}
+        ]
+    }
+    
+    Response data:
+    {
+        "results": [{"id": "1", "code": 200, "msg": "success", "data": {...}}]
+    }
+    """
+    try:
+        data = request.get_json()
+        
+        if not data or not isinstance(data.get('items'), list) or len(data['items']) < 1:
+            return jsonify({"code": 400, "msg": "缺少 items 参数", "data": None}), 400
+        
+        if len(data['items']) > Config.EVALUATE_BATCH_MAX_ITEMS:
+            return jsonify({
+                "code": 400,
+                "msg": f"单次最多评估 {Config.EVALUATE_BATCH_MAX_ITEMS} 个句子",
+                "data": None
+            }), 400
+        
+        results = [None] * len(data['items'])
+        valid = []
+        for i, item in enumerate(data['items']):
+            item = item or {}
+            word = item.get('word')
+            sentence = item.get('sentence')
+            if not word or not sentence:
+                results[i] = {"id": item.get('id'), "code": 400, "msg": "缺少必要参数", "data": None}
+            elif word.lower() not in sentence.lower():
+                results[i] = {"id": item.get('id'), "code": 400, "msg": f"句子中未包含目标单词 '{word}'", "data": None}
+            else:
+                valid.append((i, item))
+        
+        if valid:
+            evaluated = evaluate_sentences([item for _, item in valid])
+            for (i, item), result in zip(valid, evaluated):
+                if result['success']:
+                    results[i] = {"id": item.get('id'), "code": 200, "msg": "success", "data": result['data']}
+                else:
+                    results[i] = {"id": item.get('id'), "code": 500, "msg": result['error'], "data": None}
+        
+        return jsonify({"code": 200, "msg": "success", "data": {"results": results}})
+            
+    except Exception as e:
+        return jsonify({"code": 500, "msg": str(e), "data": None}), 500
+
 if __name__ == '__main__':
     print(f"🚀 LingoFlow AI Service starting on port {Config.FLASK_PORT}")
     print(f"📡 Using model: {Config.SILICONFLOW_MODEL}")
@@ -8,3 +8,4 @@ class Config:
     SILICONFLOW_BASE_URL = os.getenv('SILICONFLOW_BASE_URL', 'https://api.siliconflow.cn/v1')
     SILICONFLOW_MODEL = os.getenv('SILICONFLOW_MODEL', 'Qwen/Qwen2.5-7B-Instruct')
     FLASK_PORT = int(os.getenv('FLASK_PORT', 5000))
+    EVALUATE_BATCH_MAX_ITEMS = int(os.getenv('EVALUATE_BATCH_MAX_ITEMS', 32))
@@ -7,7 +7,8 @@ client = OpenAI(
     base_url=Config.SILICONFLOW_BASE_URL
 )
 
-def generate_article(words: list, difficulty: str = "medium", length: str = "short", theme: str = None) -> dict:
+def generate_article(words: list, difficulty: str = "medium", length: str = "short", theme: str = None,
+                     include_questions: bool = True) -> dict:
     """
     生成包含指定单词的英文文章
     
@@ -16,6 +17,7 @@ def generate_article(words: list, difficulty: str = "medium", length: str = "sho
         difficulty: 难度 (easy/medium/hard)
         length: 长度 (short/medium/long)
         theme: 主题 (可选)
+        include_questions: 是否同时生成阅读理解题；为 False 时由调用方通过 /api/generate-question 逐题并行生成
     
     Returns:
         dict: 包含 title, content, highlightWords
@@ -37,6 +39,29 @@ def generate_article(words: list, difficulty: str = "medium", length: str = "sho
     
     theme_instruction = f"The article should be about {theme}." if theme else "Choose an interesting topic suitable for the context."
 
+    if include_questions:
+        questions_section = """3. Comprehension Questions (3 questions):
+   - Q1 & Q2: 'word_comprehension' type. Focus on the subtle meaning or usage of specific target words in the article's context.
+   - Q3: 'main_idea' type. Test understanding of the overall theme or a key detail.
+   - Options: 4 distinct choices (A-D).
+   - Explanation: Clear reasoning for the correct answer.
+
+4. """
+        questions_format = """
+    "comprehensionQuestions": [
+        {
+            "type": "word_comprehension",
+            "word": "target_word_if_applicable", 
+            "question": "Question text...",
+            "options": ["A. ...", "B. ...", "C. ...", "D. ..."],
+            "correctAnswer": "B",
+            "explanation": "Explanation..."
+        }
+    ],"""
+    else:
+        questions_section = "3. "
+        questions_format = ""
+
     prompt = f"""You are a professional English writer and educator comprising a native speaker's intuition with pedagogical expertise.
 Create a high-quality, engaging English reading lesson based on the provided target vocabulary.
 
@@ -56,13 +81,7 @@ Requirements:
    - Provide a fluent, natural Chinese translation of the article.
    - Do NOT translate word-for-word; translate the meaning and nuance.
 
-3. Comprehension Questions (3 questions):
-   - Q1 & Q2: 'word_comprehension' type. Focus on the subtle meaning or usage of specific target words in the article's context.
-   - Q3: 'main_idea' type. Test understanding of the overall theme or a key detail.
-   - Options: 4 distinct choices (A-D).
-   - Explanation: Clear reasoning for the correct answer.
-
-4. Sentence Making Tasks (One for EACH target word):
+{questions_section}Sentence Making Tasks (One for EACH target word):
    - Create a task to practice using the word in a NEW context (different from the article).
    - Theme: meaningful context (e.g., Business, Daily Life, Academic).
    - Chinese Example: A sentence in Chinese that implies the target word's usage, but is NOT a direct translation. It should serve as a prompt for the user to write the English sentence.
@@ -72,17 +91,7 @@ Output JSON Format:
     "title": "Article Title",
     "content": "Article content with **highlighted** target words...",
     "chineseTranslation": "Fluent Chinese translation...",
-    "highlightWords": ["{word_list}"],
-    "comprehensionQuestions": [
-        {{
-            "type": "word_comprehension",
-            "word": "target_word_if_applicable", 
-            "question": "Question text...",
-            "options": ["A. ...", "B. ...", "C. ...", "D. ..."],
-            "correctAnswer": "B",
-            "explanation": "Explanation..."
-        }}
-    ],
+    "highlightWords": ["{word_list}"],{questions_format}
     "sentenceMakingTasks": [
         {{
             "word": "target_word",
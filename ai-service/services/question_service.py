@@ -0,0 +1,83 @@
+import json
+from openai import OpenAI
+from config import Config
+
+client = OpenAI(
+    api_key=Config.SILICONFLOW_API_KEY,
+    base_url=Config.SILICONFLOW_BASE_URL
+)
+
+def generate_question(article: dict, question_type: str, word: dict = None) -> dict:
+    """
+    基于已生成的文章生成一道阅读理解题，每道题单独调用，便于调用方并行生成
+
+    Args:
+        article: 文章，包含 title, content
+        question_type: word_comprehension (考查 word 在文中的含义或用法) 或 main_idea (考查主旨或关键细节)
+        word: word_comprehension 题的目标单词，包含 word 和 meaningCn
+
+    Returns:
+        dict: 包含 type, word, question, options, correctAnswer, explanation
+    """
+    if question_type == "word_comprehension":
+        focus = (f"The question must focus on the subtle meaning or usage of the target word "
+                 f"\"{word['word']}\" ({word.get('meaningCn', '')}) in the article's context.")
+    else:
+        focus = "The question must test understanding of the overall theme or a key detail of the article."
+
+    prompt = f"""You are a professional English educator. Write ONE multiple-choice reading comprehension question for the article below.
+
+Title: {article.get('title', '')}
+
+{article.get('content', '')}
+
+Requirements:
+- {focus}
+- Options: 4 distinct choices (A-D).
+- Explanation: Clear reasoning for the correct answer.
+
+Output JSON Format:
+{{
+    "type": "{question_type}",
+    "word": "{word['word'] if word else ''}",
+    "question": "Question text...",
+    "options": ["A. ...", "B. ...", "C. ...", "D. ..."],
+    "correctAnswer": "B",
+    "explanation": "Explanation..."
+}}
+
+Ensure the response is strictly valid JSON."""
+
+    try:
+        response = client.chat.completions.create(
+            model=Config.SILICONFLOW_MODEL,
+            messages=[
+                {"role": "system", "content": "You are a professional English educator. Response must be valid JSON."},
+                {"role": "user", "content": prompt}
+            ],
+            temperature=0.5,
+            max_tokens=500
+        )
+
+        content = response.choices[0].message.content.strip()
+        start_idx = content.find('{')
+        end_idx = content.rfind('}')
+        if start_idx != -1 and end_idx != -1:
+            content = content[start_idx: end_idx + 1]
+
+        result = json.loads(content)
+        result["type"] = question_type
+        if word:
+            result["word"] = word["word"]
+        else:
+            result.pop("word", None)
+        return {
+            "success": True,
+            "data": result
+        }
+
+    except Exception as e:
+        return {
+            "success": False,
+            "error": str(e)
+        }
@@ -74,3 +74,86 @@ def evaluate_sentence(word: str, meaning: str, sentence: str) -> dict:
             "success": False,
             "error": str(e)
         }
+
+
+def evaluate_sentences(items: list) -> list:
+    """
+    批量评估造句，一次模型调用评估多个句子
+
+    Args:
+        items: [{"id": ..., "word": ..., "meaning": ..., "sentence": ...}]
+
+    Returns:
+        list: 与 items 一一对应，成功为 {"id", "success": True, "data"}，失败为 {"id", "success": False, "error"}
+              批量结果无法解析或缺项时，缺少结果的句子逐个调用 evaluate_sentence 重试
+    """
+    import json
+
+    if len(items) == 1:
+        item = items[0]
+        return [dict(evaluate_sentence(item["word"], item.get("meaning") or "", item["sentence"]), id=item.get("id"))]
+
+    numbered = "\n".join(
+        f'{i + 1}. 单词"{item["word"]}"（意思：{item.get("meaning") or ""}），学生的句子："{item["sentence"]}"'
+        for i, item in enumerate(items)
+    )
+    prompt = f"""你是一位专业的英语教师，正在批改学生造的句子，每个句子都要求使用指定的单词。
+
+{numbered}
+
+请对每个句子分别从以下三个方面评估：
+1. 语法正确性
+2. 目标单词的使用是否恰当
+3. 句子的表达是否清晰自然
+
+**重要：所有评价内容必须使用中文书写**，只有在给出英文例句建议时才使用英文。各句子的评价互不影响。
+
+输出格式（JSON 数组，按序号顺序，共 {len(items)} 项）：
+[
+    {{
+        "index": 序号,
+        "score": 0-100的分数,
+        "isCorrect": true或false（80分以上为true）,
+        "feedback": {{
+            "grammar": "语法评价（中文）",
+            "usage": "单词使用评价（中文）",
+            "suggestion": "改进建议（中文，可包含英文例句）"
+        }}
+    }}
+]
+
+请给出你的评价："""
+
+    evaluated = {}
+    try:
+        response = client.chat.completions.create(
+            model=Config.SILICONFLOW_MODEL,
+            messages=[
+                {"role": "system", "content": "你是一位专业的英语教师，帮助学生提高英语写作能力。请始终以有效的JSON格式回复，评价内容使用中文。"},
+                {"role": "user", "content": prompt}
+            ],
+            temperature=0.3,
+            max_tokens=400 * len(items)
+        )
+
+        content = response.choices[0].message.content.strip()
+        start_idx = content.find('[')
+        end_idx = content.rfind(']')
+        if start_idx != -1 and end_idx != -1:
+            content = content[start_idx: end_idx + 1]
+
+        for position, result in enumerate(json.loads(content)):
+            index = result.pop("index", position + 1)
+            if isinstance(index, int) and 1 <= index <= len(items) and "score" in result:
+                evaluated[index - 1] = result
+    except Exception as e:
+        print(f"⚠️ 批量评估失败，逐句重试: {e}")
+
+    results = []
+    for i, item in enumerate(items):
+        if i in evaluated:
+            results.append({"id": item.get("id"), "success": True, "data": evaluated[i]})
+        else:
+            single = evaluate_sentence(item["word"], item.get("meaning") or "", item["sentence"])
+            results.append(dict(single, id=item.get("id")))
+    return results
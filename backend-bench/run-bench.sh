@@ -0,0 +1,26 @@
+#!/usr/bin/env bash
+# 运行后端基准测试，结果写入 target/jmh-<profile>.json
+#
+# 用法: ./run-bench.sh [quick|gc|full] [JMH 过滤正则]
+#   quick  单 fork、少量迭代，用于本地快速对比
+#   gc     默认参数 + -prof gc，输出分配速率 (gc.alloc.rate.norm 为每次操作分配字节数)
+#   full   默认参数 + -prof gc + -prof stack，用于发布前记录基线
+set -euo pipefail
+
+cd "$(dirname "$0")"
+PROFILE="${1:-gc}"
+FILTER="${2:-.*}"
+JAR=target/benchmarks.jar
+
+if [ ! -f "$JAR" ]; then
+    (cd .. && mvn -B -q package -pl backend-bench -am -DskipTests)
+fi
+
+case "$PROFILE" in
+    quick) ARGS=(-f 1 -wi 2 -i 3 -w 1s -r 1s) ;;
+    gc)    ARGS=(-prof gc) ;;
+    full)  ARGS=(-prof gc -prof stack) ;;
+    *) echo "unknown profile: $PROFILE" >&2; exit 1 ;;
+esac
+
+java -jar "$JAR" "$FILTER" "${ARGS[@]}" -rf json -rff "target/jmh-$PROFILE.json"
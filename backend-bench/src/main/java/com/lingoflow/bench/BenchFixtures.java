@@ -0,0 +1,114 @@
+package com.lingoflow.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.lingoflow.entity.Vocabulary;
+import com.lingoflow.entity.Word;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * 基准测试用的数据与桩对象
+ * 所有随机数据使用固定种子，保证多次运行结果可比
+ */
+public final class BenchFixtures {
+
+    public static final String JWT_SECRET =
+            "lingoflow-default-secret-key-for-development-only-please-change-in-production";
+
+    private static final String[] POS = { "n.", "v.", "adj.", "adv." };
+    private static final String[] GLOSSES = { "短暂的", "坚持", "显著的", "谨慎地", "结构", "影响", "维持", "复杂的",
+            "资源", "假设", "评估", "独特的", "贡献", "策略", "适应", "必要的" };
+    private static final String[] DIFFICULTY = { "easy", "medium", "hard" };
+
+    private BenchFixtures() {
+    }
+
+    /**
+     * 与 Spring Boot 默认配置等价的 ObjectMapper (自动注册 JSR-310 等模块)
+     */
+    public static ObjectMapper objectMapper() {
+        return JsonMapper.builder().findAndAddModules().build();
+    }
+
+    /**
+     * 生成指定规模的词库，释义长度和词性分布接近真实 CET/IELTS 词表
+     */
+    public static List<Word> catalog(int size) {
+        Random random = new Random(42);
+        List<Word> words = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Word word = new Word();
+            word.setId((long) i + 1);
+            word.setWord(randomWord(random, 4 + random.nextInt(9)) + i);
+            word.setPhonetic("/" + randomWord(random, 6) + "/");
+            StringBuilder meaning = new StringBuilder(POS[random.nextInt(POS.length)]).append(' ');
+            int glossCount = 1 + random.nextInt(3);
+            for (int g = 0; g < glossCount; g++) {
+                if (g > 0) {
+                    meaning.append('；');
+                }
+                meaning.append(GLOSSES[random.nextInt(GLOSSES.length)]);
+            }
+            meaning.append(i % 97);
+            word.setMeaningCn(meaning.toString());
+            word.setMeaningEn("definition of word " + i);
+            word.setExampleSentence("This is an example sentence for word number " + i + ".");
+            word.setDifficulty(DIFFICULTY[random.nextInt(DIFFICULTY.length)]);
+            word.setLevelTags("CET-4,CET-6");
+            word.setCreatedAt(LocalDateTime.of(2026, 1, 1, 0, 0));
+            words.add(word);
+        }
+        return words;
+    }
+
+    public static Vocabulary vocabulary(Long id, Long userId, Word word) {
+        Vocabulary vocabulary = new Vocabulary();
+        vocabulary.setId(id);
+        vocabulary.setUserId(userId);
+        vocabulary.setWordId(word.getId());
+        vocabulary.setWord(word);
+        vocabulary.setFamiliarity(30);
+        vocabulary.setReviewCount(3);
+        vocabulary.setEasinessFactor(2.5f);
+        vocabulary.setIntervalDays(6);
+        vocabulary.setNextReviewDate(LocalDateTime.of(2026, 1, 7, 0, 0));
+        vocabulary.setLastReviewDate(LocalDateTime.of(2026, 1, 1, 0, 0));
+        return vocabulary;
+    }
+
+    /**
+     * 为 Mapper 接口创建桩实现，answers 以方法名为键，未配置的方法抛出 UnsupportedOperationException
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T stubMapper(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName() + "Stub";
+                };
+            }
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer == null) {
+                throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+            }
+            return answer.apply(args);
+        });
+    }
+
+    private static String randomWord(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('a' + random.nextInt(26)));
+        }
+        return sb.toString();
+    }
+}
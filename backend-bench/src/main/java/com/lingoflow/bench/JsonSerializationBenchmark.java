@@ -0,0 +1,91 @@
+package com.lingoflow.bench;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lingoflow.dto.LearningStateDto;
+import com.lingoflow.entity.Word;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 缓存与接口响应中的 Jackson 序列化/反序列化基准
+ * - LearningStateDto: 选词阶段状态 (learning:selection 缓存)
+ * - 复习队列 Map: ReviewService.getReviewQueue 的返回结构 (review:queue 缓存)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = { "-Xms512m", "-Xmx512m", "-XX:+UseG1GC" })
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {
+    };
+
+    @Param({ "10", "20" })
+    private int selectionSize;
+
+    @Param({ "20", "100" })
+    private int queueSize;
+
+    private ObjectMapper objectMapper;
+    private LearningStateDto learningState;
+    private String learningStateJson;
+    private Map<String, Object> reviewQueue;
+    private String reviewQueueJson;
+
+    @Setup
+    public void setup() throws Exception {
+        objectMapper = BenchFixtures.objectMapper();
+
+        List<Word> catalog = BenchFixtures.catalog(Math.max(selectionSize, queueSize));
+        learningState = new LearningStateDto();
+        learningState.setWords(new ArrayList<>(catalog.subList(0, selectionSize)));
+        learningState.setSelectedWords(new ArrayList<>(catalog.subList(0, selectionSize / 2)));
+        learningState.setCurrentIndex(selectionSize / 2);
+        learningStateJson = objectMapper.writeValueAsString(learningState);
+
+        List<Map<String, Object>> words = new ArrayList<>();
+        for (int i = 0; i < queueSize; i++) {
+            Word w = catalog.get(i);
+            Map<String, Object> item = new HashMap<>();
+            item.put("vocabularyId", (long) i + 1);
+            item.put("word", w.getWord());
+            item.put("phonetic", w.getPhonetic());
+            item.put("meaningCn", w.getMeaningCn());
+            item.put("familiarity", 40);
+            item.put("reviewCount", 3);
+            words.add(item);
+        }
+        reviewQueue = new HashMap<>();
+        reviewQueue.put("words", words);
+        reviewQueue.put("total", words.size());
+        reviewQueueJson = objectMapper.writeValueAsString(reviewQueue);
+    }
+
+    @Benchmark
+    public String serializeLearningState() throws Exception {
+        return objectMapper.writeValueAsString(learningState);
+    }
+
+    @Benchmark
+    public LearningStateDto deserializeLearningState() throws Exception {
+        return objectMapper.readValue(learningStateJson, LearningStateDto.class);
+    }
+
+    @Benchmark
+    public String serializeReviewQueue() throws Exception {
+        return objectMapper.writeValueAsString(reviewQueue);
+    }
+
+    @Benchmark
+    public Map<String, Object> deserializeReviewQueue() throws Exception {
+        return objectMapper.readValue(reviewQueueJson, MAP_TYPE);
+    }
+}
@@ -0,0 +1,64 @@
+package com.lingoflow.bench;
+
+import com.lingoflow.entity.User;
+import com.lingoflow.mapper.UserMapper;
+import com.lingoflow.security.JwtAuthenticationFilter;
+import com.lingoflow.security.JwtTokenProvider;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtAuthenticationFilter 端到端基准: 解析请求头 → 校验 Token → 查询用户 (桩) → 写入 SecurityContext
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = { "-Xms512m", "-Xmx512m", "-XX:+UseG1GC" })
+@State(Scope.Thread)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final FilterChain NOOP_CHAIN = (request, response) -> {
+    };
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setup() {
+        JwtTokenProvider jwtTokenProvider = new JwtTokenProvider(BenchFixtures.JWT_SECRET, 3_600_000L, 604_800_000L);
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("bench-user");
+        UserMapper userMapper = BenchFixtures.stubMapper(UserMapper.class, Map.of("findById", args -> user));
+
+        filter = new JwtAuthenticationFilter(jwtTokenProvider, userMapper);
+        authorization = "Bearer " + jwtTokenProvider.generateAccessToken(1L, "bench-user");
+    }
+
+    @TearDown(Level.Invocation)
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public MockHttpServletRequest authenticatedRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/review/queue");
+        request.addHeader("Authorization", authorization);
+        filter.doFilter(request, new MockHttpServletResponse(), NOOP_CHAIN);
+        return request;
+    }
+
+    @Benchmark
+    public MockHttpServletRequest anonymousRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/review/queue");
+        filter.doFilter(request, new MockHttpServletResponse(), NOOP_CHAIN);
+        return request;
+    }
+}
@@ -0,0 +1,53 @@
+package com.lingoflow.bench;
+
+import com.lingoflow.security.JwtTokenProvider;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtTokenProvider 签发/解析/校验基准
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = { "-Xms512m", "-Xmx512m", "-XX:+UseG1GC" })
+@State(Scope.Benchmark)
+public class JwtTokenProviderBenchmark {
+
+    private JwtTokenProvider jwtTokenProvider;
+    private String accessToken;
+
+    @Setup
+    public void setup() {
+        jwtTokenProvider = new JwtTokenProvider(BenchFixtures.JWT_SECRET, 3_600_000L, 604_800_000L);
+        accessToken = jwtTokenProvider.generateAccessToken(1L, "bench-user");
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtTokenProvider.generateAccessToken(1L, "bench-user");
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtTokenProvider.validateToken(accessToken);
+    }
+
+    @Benchmark
+    public Long getUserIdFromToken() {
+        return jwtTokenProvider.getUserIdFromToken(accessToken);
+    }
+
+    /**
+     * 与 JwtAuthenticationFilter 中的调用序列一致: validate + isAccessToken + getUserId
+     */
+    @Benchmark
+    public void filterSequence(Blackhole blackhole) {
+        blackhole.consume(jwtTokenProvider.validateToken(accessToken));
+        blackhole.consume(jwtTokenProvider.isAccessToken(accessToken));
+        blackhole.consume(jwtTokenProvider.getUserIdFromToken(accessToken));
+    }
+}
@@ -0,0 +1,111 @@
+package com.lingoflow.bench;
+
+import com.lingoflow.distractor.DistractorStore;
+import com.lingoflow.entity.Vocabulary;
+import com.lingoflow.entity.Word;
+import com.lingoflow.mapper.ReviewRecordMapper;
+import com.lingoflow.mapper.VocabularyMapper;
+import com.lingoflow.mapper.WordMapper;
+import com.lingoflow.service.ReviewService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.config.DependencyDescriptor;
+import org.springframework.context.annotation.ContextAnnotationAutowireCandidateResolver;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 自评"认识"后生成四选一测试题的干扰项选择基准 (ReviewService.submitRating)
+ * ReviewService 由只含 Mapper 桩和干扰项索引的 Spring 容器创建，其余依赖为 null (该路径不会调用)，
+ * 构造参数变化不需要修改基准；WordMapper 以桩对象返回内存中的词库
+ * distractors=random 为全词库随机选择，index 为预计算的近邻索引 (在 setup 中构建到临时目录，不计入测量)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = { "-Xms1g", "-Xmx1g", "-XX:+UseG1GC" })
+@State(Scope.Benchmark)
+public class ReviewQuestionBenchmark {
+
+    private static final long USER_ID = 1L;
+
+    @Param({ "1000", "5000", "20000" })
+    private int catalogSize;
+
+    @Param({ "random", "index" })
+    private String distractors;
+
+    private GenericApplicationContext context;
+    private ReviewService reviewService;
+    private Vocabulary[] targets;
+    private int next;
+    private Path indexDir;
+
+    @Setup
+    public void setup() throws IOException {
+        List<Word> catalog = BenchFixtures.catalog(catalogSize);
+        targets = new Vocabulary[256];
+        for (int i = 0; i < targets.length; i++) {
+            Word word = catalog.get((i * 7919) % catalogSize);
+            targets[i] = BenchFixtures.vocabulary((long) i + 1, USER_ID, word);
+        }
+
+        WordMapper wordMapper = BenchFixtures.stubMapper(WordMapper.class, Map.of(
+                "findAll", args -> catalog,
+                "findById", args -> catalog.get(((Long) args[0]).intValue() - 1),
+                "count", args -> catalog.size()));
+        VocabularyMapper vocabularyMapper = BenchFixtures.stubMapper(VocabularyMapper.class, Map.of(
+                "findById", args -> targets[((Long) args[0]).intValue() - 1]));
+        ReviewRecordMapper reviewRecordMapper = BenchFixtures.stubMapper(ReviewRecordMapper.class, Map.of(
+                "insert", args -> 1));
+
+        indexDir = Files.createTempDirectory("lf-distractors");
+        DistractorStore distractorStore = new DistractorStore(wordMapper, "index".equals(distractors),
+                indexDir.toString(), 16);
+        distractorStore.refresh();
+
+        context = new GenericApplicationContext();
+        context.getDefaultListableBeanFactory().setAutowireCandidateResolver(new OptionalDependencyResolver());
+        context.registerBean(WordMapper.class, () -> wordMapper);
+        context.registerBean(VocabularyMapper.class, () -> vocabularyMapper);
+        context.registerBean(ReviewRecordMapper.class, () -> reviewRecordMapper);
+        context.registerBean(DistractorStore.class, () -> distractorStore);
+        context.registerBean(ReviewService.class);
+        context.refresh();
+        reviewService = context.getBean(ReviewService.class);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        try (var files = Files.walk(indexDir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public Map<String, Object> submitKnownRating() {
+        Vocabulary target = targets[next++ & (targets.length - 1)];
+        return reviewService.submitRating(USER_ID, target.getId(), "known", false);
+    }
+
+    /**
+     * 所有依赖都视为可选，未注册的注入 null；backend jar 中带有 AOT 生成的 CGLIB 类，不能改用延迟代理
+     */
+    private static class OptionalDependencyResolver extends ContextAnnotationAutowireCandidateResolver {
+
+        @Override
+        public boolean isRequired(DependencyDescriptor descriptor) {
+            return false;
+        }
+    }
+}
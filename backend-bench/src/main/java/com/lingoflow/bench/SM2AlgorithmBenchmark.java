@@ -0,0 +1,31 @@
+package com.lingoflow.bench;
+
+import com.lingoflow.util.SM2Algorithm;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SM2Algorithm.calculate 基准
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = { "-Xms512m", "-Xmx512m", "-XX:+UseG1GC" })
+@State(Scope.Thread)
+public class SM2AlgorithmBenchmark {
+
+    @Param({ "0", "1", "6", "30" })
+    private int interval;
+
+    @Param({ "0", "5" })
+    private int quality;
+
+    private float easinessFactor = 2.5f;
+
+    @Benchmark
+    public SM2Algorithm.SM2Result calculate() {
+        return SM2Algorithm.calculate(interval, easinessFactor, quality);
+    }
+}
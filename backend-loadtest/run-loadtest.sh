@@ -0,0 +1,30 @@
+#!/usr/bin/env bash
+# 压测工具启动脚本
+#
+# 用法:
+#   ./run-loadtest.sh server [LoadTestServer 参数...]   启动自包含后端 (H2 + Redis 替身 + AI 桩)
+#   ./run-loadtest.sh client [LoadGenerator 参数...]    运行压测客户端
+#   ./run-loadtest.sh redis [端口]                       单独启动 Redis 替身 (默认 6379)
+# 首次运行时构建，MVN_ARGS 传给 mvn (如 MVN_ARGS=-Pjava21)
+#
+# 示例:
+#   ./run-loadtest.sh server --article-latency=lognormal:1500:8000 --loadtest.seed.users=1000
+#   ./run-loadtest.sh client --users=50 --journeys=500
+set -euo pipefail
+
+cd "$(dirname "$0")"
+MODE="${1:?usage: run-loadtest.sh server|client|redis [args...]}"
+shift
+
+if [ ! -f target/classpath.txt ] || [ ! -d target/classes ]; then
+    (cd .. && mvn -B -q install -pl backend-loadtest -am -DskipTests ${MVN_ARGS:-})
+    mvn -B -q dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+fi
+CP="target/classes:$(cat target/classpath.txt)"
+
+case "$MODE" in
+    server) exec java ${JAVA_OPTS:-} -cp "$CP" com.lingoflow.loadtest.LoadTestServer "$@" ;;
+    client) exec java -cp "$CP" com.lingoflow.loadtest.LoadGenerator "$@" ;;
+    redis) exec java -cp "$CP" com.lingoflow.loadtest.EmbeddedRedis "$@" ;;
+    *) echo "unknown mode: $MODE" >&2; exit 1 ;;
+esac
@@ -0,0 +1,135 @@
+package com.lingoflow.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lingoflow.cache.CacheInvalidationBus;
+import com.lingoflow.cache.CacheSpec;
+import com.lingoflow.cache.TwoLevelCache;
+import com.lingoflow.cache.TwoLevelCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 在进程内 Redis 替身上启动两个"节点" (各自的连接、缓存管理器和失效总线)，验证跨节点本地缓存失效:
+ * 1. 节点 A 写入后节点 B 的 L1 被清除
+ * 2. 序号不连续 (模拟丢失一条消息) 时节点 B 清空全部 L1
+ * 3. 已分配的序号一直未送达时，定期检查清空节点 B 的 L1
+ *
+ * 用法: java -cp ... com.lingoflow.loadtest.CacheInvalidationCheck，全部通过时退出码为 0
+ */
+public class CacheInvalidationCheck {
+
+    private static final long CHECK_INTERVAL_MS = 500;
+
+    private static final CacheSpec<String> SPEC = CacheSpec.<String>builder()
+            .name("check:value")
+            .type(new TypeReference<>() {
+            })
+            .ttl(Duration.ofMinutes(10))
+            .localTtl(Duration.ofMinutes(10))
+            .earlyExpirationBeta(0)
+            .build();
+
+    private int failures;
+
+    public static void main(String[] args) throws Exception {
+        int failures;
+        try (EmbeddedRedis redis = new EmbeddedRedis(0).start();
+                Node a = new Node("node-a", redis.getPort());
+                Node b = new Node("node-b", redis.getPort())) {
+            CacheInvalidationCheck check = new CacheInvalidationCheck();
+            check.run(a, b);
+            Timer lag = b.registry.find("lingoflow.cache.invalidation.lag").timer();
+            System.out.printf("node-b invalidation lag: count=%d mean=%.2fms max=%.2fms%n",
+                    lag.count(), lag.mean(TimeUnit.MILLISECONDS), lag.max(TimeUnit.MILLISECONDS));
+            b.registry.find("lingoflow.cache.invalidation.messages").counters().forEach(counter ->
+                    System.out.printf("node-b %s=%.0f%n", counter.getId().getTag("event"), counter.count()));
+            failures = check.failures;
+        }
+        System.out.println(failures == 0 ? "ALL PASSED" : failures + " FAILED");
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    private void run(Node a, Node b) throws InterruptedException {
+        TwoLevelCache<String> cacheA = a.cache();
+        TwoLevelCache<String> cacheB = b.cache();
+
+        cacheB.get("word:1", () -> "v1");
+        cacheA.put("word:1", "v2");
+        expect("evict propagates to other node", () -> cacheB.localSize() == 0, 2000);
+        expect("other node reads new value", () -> "v2".equals(cacheB.get("word:1", () -> "loader")), 0);
+
+        cacheB.get("word:2", () -> "v1");
+        // 只分配序号不发布，下一条消息到达时节点 B 发现序号跳跃
+        a.redisTemplate.opsForValue().increment("lf:cache:invalidation:seq");
+        cacheA.evict("word:3");
+        expect("sequence gap flushes all local entries", () -> cacheB.localSize() == 0, 2000);
+
+        cacheB.get("word:4", () -> "v1");
+        a.redisTemplate.opsForValue().increment("lf:cache:invalidation:seq");
+        expect("undelivered sequence flushes on periodic check", () -> cacheB.localSize() == 0,
+                CHECK_INTERVAL_MS * 4);
+    }
+
+    private void expect(String name, BooleanSupplier condition, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        boolean ok = condition.getAsBoolean();
+        while (!ok && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            ok = condition.getAsBoolean();
+        }
+        System.out.printf("[%s] %s%n", ok ? "PASS" : "FAIL", name);
+        if (!ok) {
+            failures++;
+        }
+    }
+
+    private static final class Node implements AutoCloseable {
+
+        private final LettuceConnectionFactory connectionFactory;
+        private final RedisMessageListenerContainer container;
+        private final StringRedisTemplate redisTemplate;
+        private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        private final TwoLevelCacheManager cacheManager;
+        private final CacheInvalidationBus bus;
+
+        Node(String nodeId, int redisPort) {
+            connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", redisPort));
+            connectionFactory.afterPropertiesSet();
+            connectionFactory.start();
+            redisTemplate = new StringRedisTemplate(connectionFactory);
+            cacheManager = new TwoLevelCacheManager(redisTemplate, new ObjectMapper(),
+                    new StaticListableBeanFactory(Map.of("registry", registry)).getBeanProvider(MeterRegistry.class));
+            container = new RedisMessageListenerContainer();
+            container.setConnectionFactory(connectionFactory);
+            container.afterPropertiesSet();
+            bus = new CacheInvalidationBus(redisTemplate, cacheManager, nodeId, CHECK_INTERVAL_MS);
+            bus.bindMetrics(registry);
+            bus.subscribe(container);
+            container.start();
+        }
+
+        TwoLevelCache<String> cache() {
+            return cacheManager.getCache(SPEC);
+        }
+
+        @Override
+        public void close() throws Exception {
+            bus.close();
+            container.stop();
+            container.destroy();
+            connectionFactory.destroy();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.lingoflow.loadtest;
+
+import com.github.fppt.jedismock.RedisServer;
+
+import java.io.IOException;
+
+/**
+ * 进程内 Redis 协议替身 (jedis-mock)，Lettuce 通过真实 TCP 连接访问
+ *
+ * 也可单独运行 (./run-loadtest.sh redis [端口])，为没有 Redis 的环境中启动的真实后端提供替身
+ */
+public class EmbeddedRedis implements AutoCloseable {
+
+    private final RedisServer server;
+
+    public static void main(String[] args) throws Exception {
+        EmbeddedRedis redis = new EmbeddedRedis(args.length > 0 ? Integer.parseInt(args[0]) : 6379).start();
+        System.out.println("Embedded redis listening on port " + redis.getPort());
+        Thread.currentThread().join();
+    }
+
+    public EmbeddedRedis(int port) {
+        this.server = RedisServer.newRedisServer(port);
+    }
+
+    public EmbeddedRedis start() throws IOException {
+        server.start();
+        return this;
+    }
+
+    public int getPort() {
+        return server.getBindPort();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.stop();
+    }
+}
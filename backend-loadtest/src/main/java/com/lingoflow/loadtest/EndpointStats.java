@@ -0,0 +1,69 @@
+package com.lingoflow.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按接口统计请求数、错误数和延迟分布
+ */
+public class EndpointStats {
+
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Map<String, Entry> entries;
+    private final String prefix;
+
+    public EndpointStats() {
+        this(new ConcurrentHashMap<>(), "");
+    }
+
+    private EndpointStats(Map<String, Entry> entries, String prefix) {
+        this.entries = entries;
+        this.prefix = prefix;
+    }
+
+    /**
+     * 共享同一份统计、接口名加前缀的视图，用于区分不同类型的虚拟用户
+     */
+    public EndpointStats withPrefix(String prefix) {
+        return new EndpointStats(entries, this.prefix + prefix);
+    }
+
+    public void record(String endpoint, long nanos, boolean success) {
+        Entry entry = entries.computeIfAbsent(prefix + endpoint, key -> new Entry());
+        entry.latency.recordValue(Math.min(MAX_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(nanos)));
+        if (!success) {
+            entry.errors.increment();
+        }
+    }
+
+    /**
+     * conc 列为按 Little 定律估算的平均并发请求数 (吞吐量 × 平均延迟)
+     */
+    public String report(double elapsedSeconds) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-40s %8s %7s %9s %9s %9s %9s %9s %7s%n",
+                "endpoint", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "conc"));
+        new TreeMap<>(entries).forEach((endpoint, entry) -> {
+            Histogram h = entry.latency;
+            double throughput = h.getTotalCount() / elapsedSeconds;
+            sb.append(String.format("%-40s %8d %7d %9.1f %9.1f %9.1f %9.1f %9.1f %7.1f%n",
+                    endpoint, h.getTotalCount(), entry.errors.sum(), throughput,
+                    h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(90) / 1000.0,
+                    h.getValueAtPercentile(99) / 1000.0, h.getMaxValue() / 1000.0,
+                    throughput * h.getMean() / 1_000_000.0));
+        });
+        return sb.toString();
+    }
+
+    private static final class Entry {
+        private final Histogram latency = new ConcurrentHistogram(MAX_TRACKABLE_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+    }
+}
@@ -0,0 +1,61 @@
+package com.lingoflow.loadtest;
+
+import java.util.Random;
+
+/**
+ * AI 桩服务的响应延迟分布
+ *
+ * 格式:
+ * - fixed:800           固定 800ms
+ * - uniform:200:1500    200~1500ms 均匀分布
+ * - lognormal:1200:6000 中位数 1200ms、p99 6000ms 的对数正态分布（接近 LLM 真实延迟的长尾）
+ */
+public final class LatencyDistribution {
+
+    private static final double Z_99 = 2.326;
+
+    private final String spec;
+    private final Sampler sampler;
+
+    private LatencyDistribution(String spec, Sampler sampler) {
+        this.spec = spec;
+        this.sampler = sampler;
+    }
+
+    public static LatencyDistribution parse(String spec) {
+        String[] parts = spec.split(":");
+        switch (parts[0]) {
+            case "fixed" -> {
+                long millis = Long.parseLong(parts[1]);
+                return new LatencyDistribution(spec, random -> millis);
+            }
+            case "uniform" -> {
+                long min = Long.parseLong(parts[1]);
+                long max = Long.parseLong(parts[2]);
+                return new LatencyDistribution(spec, random -> min + (long) (random.nextDouble() * (max - min)));
+            }
+            case "lognormal" -> {
+                double median = Double.parseDouble(parts[1]);
+                double p99 = Double.parseDouble(parts[2]);
+                double mu = Math.log(median);
+                double sigma = (Math.log(p99) - mu) / Z_99;
+                return new LatencyDistribution(spec, random -> (long) Math.exp(mu + sigma * random.nextGaussian()));
+            }
+            default -> throw new IllegalArgumentException("Unknown latency distribution: " + spec);
+        }
+    }
+
+    public long sampleMillis(Random random) {
+        return Math.max(0, sampler.sample(random));
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+
+    @FunctionalInterface
+    private interface Sampler {
+        long sample(Random random);
+    }
+}
@@ -0,0 +1,158 @@
+package com.lingoflow.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 压测客户端：并发执行用户旅程 ({@link UserJourney})，输出各接口吞吐量与 p50/p90/p99 延迟
+ *
+ * 参数 (均可选):
+ * --base-url=http://localhost:8080
+ * --users=20            并发虚拟用户数
+ * --journeys=100        总旅程数，每个旅程使用不同的预置账号 loaduser{n}
+ * --account-offset=0    账号起始编号，重复压测时避免复用已复习过的账号
+ * --review-cards=100    每个旅程复习的卡片数
+ * --words-per-article=5
+ * --password=loadtest123
+ * --scenario=journey    journey: 完整用户旅程；articles: 每个虚拟用户登录一次后循环生成文章，
+ *                       journeys 为文章总数，用于测量单节点能同时维持的文章生成数 (见报告 conc 列)；
+ *                       该场景需要关闭限流 (后端 --lingoflow.rate-limit.enabled=false)
+ *                       fairness: 第一个账号用 greedy-workers 个线程不停生成文章，其余 users 个虚拟用户执行完整旅程，
+ *                       报告中 greedy 前缀的行为贪婪用户，对比开启/关闭限流时普通用户的文章延迟
+ * --greedy-workers=8    fairness 场景中贪婪用户的并发数
+ */
+public class LoadGenerator {
+
+    public record Options(String baseUrl, int users, int journeys, int accountOffset, int reviewCards,
+            int wordsPerArticle, String password, String scenario, int greedyWorkers) {
+
+        static Options parse(String[] args) {
+            Map<String, String> m = new HashMap<>();
+            for (String arg : args) {
+                String[] kv = arg.replaceFirst("^--", "").split("=", 2);
+                if (kv.length == 2) {
+                    m.put(kv[0], kv[1]);
+                }
+            }
+            return new Options(
+                    m.getOrDefault("base-url", "http://localhost:8080"),
+                    Integer.parseInt(m.getOrDefault("users", "20")),
+                    Integer.parseInt(m.getOrDefault("journeys", "100")),
+                    Integer.parseInt(m.getOrDefault("account-offset", "0")),
+                    Integer.parseInt(m.getOrDefault("review-cards", "100")),
+                    Integer.parseInt(m.getOrDefault("words-per-article", "5")),
+                    m.getOrDefault("password", "loadtest123"),
+                    m.getOrDefault("scenario", "journey"),
+                    Integer.parseInt(m.getOrDefault("greedy-workers", "8")));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        ObjectMapper objectMapper = new ObjectMapper();
+        EndpointStats stats = new EndpointStats();
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newFixedThreadPool(Math.max(4, options.users())))
+                .build();
+
+        System.out.printf("Running %d %s with %d concurrent users against %s%n",
+                options.journeys(), "articles".equals(options.scenario()) ? "articles" : "journeys",
+                options.users(), options.baseUrl());
+
+        AtomicInteger nextJourney = new AtomicInteger();
+        LongAdder failedJourneys = new LongAdder();
+        boolean fairness = "fairness".equals(options.scenario());
+        // fairness 场景中第一个账号留给贪婪用户
+        int journeyAccountOffset = options.accountOffset() + (fairness ? 1 : 0);
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService greedy = Executors.newFixedThreadPool(Math.max(1, options.greedyWorkers()));
+        if (fairness) {
+            UserJourney greedyUser = new UserJourney(httpClient, objectMapper, stats.withPrefix("greedy "), options, -1);
+            if (greedyUser.login("loaduser" + options.accountOffset())) {
+                for (int w = 0; w < options.greedyWorkers(); w++) {
+                    greedy.submit(() -> {
+                        while (!done.get()) {
+                            try {
+                                if (greedyUser.generateArticle() == null) {
+                                    // 被限流后模拟用户反复点击
+                                    Thread.sleep(50);
+                                }
+                            } catch (InterruptedException e) {
+                                return;
+                            } catch (Exception e) {
+                                // 继续施压
+                            }
+                        }
+                    });
+                }
+            }
+        }
+
+        ExecutorService users = Executors.newFixedThreadPool(options.users());
+        long start = System.nanoTime();
+        for (int u = 0; u < options.users(); u++) {
+            int user = u;
+            users.submit(() -> {
+                if ("articles".equals(options.scenario())) {
+                    runArticles(httpClient, objectMapper, stats, options, user, nextJourney, failedJourneys);
+                    return;
+                }
+                int n;
+                while ((n = nextJourney.getAndIncrement()) < options.journeys()) {
+                    long journeyStart = System.nanoTime();
+                    boolean ok = true;
+                    try {
+                        new UserJourney(httpClient, objectMapper, stats, options, n)
+                                .run("loaduser" + (journeyAccountOffset + n));
+                    } catch (Exception e) {
+                        ok = false;
+                        failedJourneys.increment();
+                    }
+                    stats.record("JOURNEY", System.nanoTime() - journeyStart, ok);
+                }
+            });
+        }
+        users.shutdown();
+        users.awaitTermination(6, TimeUnit.HOURS);
+        done.set(true);
+        greedy.shutdown();
+        greedy.awaitTermination(5, TimeUnit.MINUTES);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%nCompleted in %.1f s, failed journeys: %d%n%n", elapsed, failedJourneys.sum());
+        System.out.print(stats.report(elapsed));
+        System.exit(0);
+    }
+
+    /**
+     * 文章场景：登录一次后循环生成文章，直到总数用完
+     */
+    private static void runArticles(HttpClient httpClient, ObjectMapper objectMapper, EndpointStats stats,
+            Options options, int user, AtomicInteger nextArticle, LongAdder failed) {
+        UserJourney journey = new UserJourney(httpClient, objectMapper, stats, options, user);
+        try {
+            if (!journey.login("loaduser" + (options.accountOffset() + user))) {
+                failed.increment();
+                return;
+            }
+            while (nextArticle.getAndIncrement() < options.journeys()) {
+                if (journey.generateArticle() == null) {
+                    failed.increment();
+                }
+            }
+        } catch (Exception e) {
+            failed.increment();
+        }
+    }
+}
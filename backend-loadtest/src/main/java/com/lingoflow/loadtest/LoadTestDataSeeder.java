@@ -0,0 +1,117 @@
+package com.lingoflow.loadtest;
+
+import com.lingoflow.datasource.ReplicaLagMonitor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 压测预置数据：词库、压测账号 (loaduser0..N-1) 以及每个账号已到期的复习单词
+ *
+ * 配置了只读副本时 (LoadTestServer --replica)，副本建表并写入同样的数据；压测期间的写入不会同步到副本
+ */
+@Slf4j
+@Component
+@Profile("loadtest")
+@RequiredArgsConstructor
+public class LoadTestDataSeeder implements ApplicationRunner {
+
+    private static final String[] DIFFICULTY = { "easy", "medium", "hard" };
+    private static final int BATCH = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectProvider<ReplicaLagMonitor> replicaLagMonitor;
+
+    @Value("${loadtest.seed.words:3000}")
+    private int wordCount;
+
+    @Value("${loadtest.seed.users:500}")
+    private int userCount;
+
+    @Value("${loadtest.seed.due-words-per-user:120}")
+    private int dueWordsPerUser;
+
+    @Value("${loadtest.seed.password:loadtest123}")
+    private String password;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.currentTimeMillis();
+        // 所有账号共用同一密码，只计算一次 BCrypt
+        String hash = passwordEncoder.encode(password);
+        Timestamp due = Timestamp.valueOf(LocalDateTime.now().minusDays(1));
+
+        int rows = seed(jdbcTemplate, hash, due);
+        log.info("Load test data seeded: {} words, {} users, {} due vocabulary rows in {} ms",
+                wordCount, userCount, rows, System.currentTimeMillis() - start);
+
+        replicaLagMonitor.ifAvailable(monitor -> monitor.getReplicas().forEach(replica -> {
+            new ResourceDatabasePopulator(new ClassPathResource("loadtest/schema-h2.sql"))
+                    .execute(replica.getDataSource());
+            seed(new JdbcTemplate(replica.getDataSource()), hash, due);
+            log.info("Replica {} seeded with the same data", replica.getName());
+        }));
+    }
+
+    /**
+     * 写入预置数据，随机种子固定，主库和副本数据一致，返回复习单词行数
+     */
+    private int seed(JdbcTemplate jdbc, String hash, Timestamp due) {
+        Random random = new Random(7);
+
+        List<Object[]> words = new ArrayList<>();
+        for (int i = 0; i < wordCount; i++) {
+            words.add(new Object[] { "word" + i, "/wɜːd" + i + "/", "释义" + i + "；第" + (i % 50) + "类",
+                    "meaning of word " + i, "An example with word" + i + ".", DIFFICULTY[random.nextInt(3)] });
+        }
+        batch(jdbc, "INSERT INTO words (word, phonetic, meaning_cn, meaning_en, example_sentence, difficulty) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", words);
+
+        jdbc.update("INSERT INTO dictionaries (name, description, total_words) VALUES "
+                + "('CET-4', '大学英语四级词汇', ?), ('CET-6', '大学英语六级词汇', 0), "
+                + "('IELTS', '雅思词汇', 0), ('TOEFL', '托福词汇', 0)", wordCount);
+        jdbc.update("INSERT INTO word_dictionary_tags (word_id, dictionary_id) SELECT id, 1 FROM words");
+
+        List<Object[]> users = new ArrayList<>();
+        for (int u = 0; u < userCount; u++) {
+            users.add(new Object[] { "loaduser" + u, hash });
+        }
+        // 预置生词的同步版本为 0，用户版本从 1 开始 (同 V13 迁移)
+        batch(jdbc, "INSERT INTO users (username, password_hash, daily_goal, difficulty_level, sync_version) "
+                + "VALUES (?, ?, 20, 'medium', 1)", users);
+
+        List<Object[]> vocabulary = new ArrayList<>();
+        for (int u = 0; u < userCount; u++) {
+            int offset = random.nextInt(wordCount);
+            for (int k = 0; k < Math.min(dueWordsPerUser, wordCount); k++) {
+                long wordId = (offset + k) % wordCount + 1;
+                vocabulary.add(new Object[] { (long) u + 1, wordId, due });
+            }
+        }
+        batch(jdbc, "INSERT INTO vocabulary (user_id, word_id, familiarity, review_count, easiness_factor, "
+                + "interval_days, next_review_date) VALUES (?, ?, 20, 1, 2.5, 1, ?)", vocabulary);
+        return vocabulary.size();
+    }
+
+    private static void batch(JdbcTemplate jdbc, String sql, List<Object[]> rows) {
+        for (int i = 0; i < rows.size(); i += BATCH) {
+            jdbc.batchUpdate(sql, rows.subList(i, Math.min(rows.size(), i + BATCH)));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.lingoflow.loadtest;
+
+import com.lingoflow.LingoflowApplication;
+import org.springframework.boot.SpringApplication;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 以自包含方式启动后端：H2 (MySQL 模式) + 进程内 Redis 替身 + AI 桩服务，无需任何外部依赖
+ *
+ * 参数 (均可选):
+ * --server-port=8080
+ * --redis-port=6390
+ * --ai-port=5090
+ * --article-latency=lognormal:1500:8000
+ * --sentence-latency=lognormal:600:2500
+ * --question-latency=lognormal:800:3000
+ * --ai-error-rate=0.0
+ * --ai-capacity=0       AI 桩同时处理的请求数上限，0 为不限；设置后可观察单个用户占满 AI 服务时对其他用户的影响
+ * --replica=0          启用读写分离，副本为第二个 H2 实例 (启动时写入相同的预置数据，不做复制)，
+ *                       值为模拟的复制延迟秒数，超过 lingoflow.datasource.max-lag-seconds 时读请求回退主库
+ * --detect-pinning=20   开启 JFR 虚拟线程钉住检测，值为阈值毫秒数，退出时输出钉住次数最多的调用点
+ * 其余参数原样传给 Spring Boot，例如 --loadtest.seed.users=1000、--spring.threads.virtual.enabled=true
+ */
+public class LoadTestServer {
+
+    private static final String REPLICA_URL = "jdbc:h2:mem:newlingoflow_replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+            + "CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        List<String> springArgs = new ArrayList<>();
+        for (String arg : args) {
+            String[] kv = arg.startsWith("--") ? arg.substring(2).split("=", 2) : new String[0];
+            if (kv.length == 2 && isHarnessOption(kv[0])) {
+                options.put(kv[0], kv[1]);
+            } else {
+                springArgs.add(arg);
+            }
+        }
+
+        EmbeddedRedis redis = new EmbeddedRedis(Integer.parseInt(options.getOrDefault("redis-port", "6390"))).start();
+        StubAiServer ai = new StubAiServer(
+                Integer.parseInt(options.getOrDefault("ai-port", "5090")),
+                LatencyDistribution.parse(options.getOrDefault("article-latency", "lognormal:1500:8000")),
+                LatencyDistribution.parse(options.getOrDefault("sentence-latency", "lognormal:600:2500")),
+                LatencyDistribution.parse(options.getOrDefault("question-latency", "lognormal:800:3000")),
+                Double.parseDouble(options.getOrDefault("ai-error-rate", "0.0")),
+                Integer.parseInt(options.getOrDefault("ai-capacity", "0"))).start();
+        PinningMonitor pinning = options.containsKey("detect-pinning")
+                ? new PinningMonitor(Duration.ofMillis(Long.parseLong(options.get("detect-pinning")))).start()
+                : null;
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            System.out.println("\n=== Stub AI service ===");
+            System.out.print(ai.summary());
+            if (pinning != null) {
+                System.out.println("\n=== Virtual thread pinning ===");
+                System.out.print(pinning.report());
+                pinning.close();
+            }
+            ai.close();
+            try {
+                redis.close();
+            } catch (Exception ignored) {
+                // 进程退出时忽略
+            }
+        }));
+
+        springArgs.add("--spring.profiles.active=loadtest");
+        springArgs.add("--server.port=" + options.getOrDefault("server-port", "8080"));
+        springArgs.add("--spring.data.redis.host=127.0.0.1");
+        springArgs.add("--spring.data.redis.port=" + redis.getPort());
+        springArgs.add("--ai.service.url=http://127.0.0.1:" + ai.getPort());
+        if (options.containsKey("replica")) {
+            springArgs.add("--lingoflow.datasource.replica-urls=" + REPLICA_URL);
+            springArgs.add("--lingoflow.datasource.lag-query=SELECT " + Long.parseLong(options.get("replica")));
+        }
+
+        try {
+            SpringApplication.run(LingoflowApplication.class, springArgs.toArray(new String[0]));
+        } catch (RuntimeException e) {
+            // 启动失败时退出进程，触发关闭钩子释放 Redis / AI 桩端口
+            System.exit(1);
+        }
+    }
+
+    private static boolean isHarnessOption(String key) {
+        return switch (key) {
+            case "server-port", "redis-port", "ai-port", "article-latency", "sentence-latency", "question-latency",
+                    "ai-error-rate", "ai-capacity", "detect-pinning", "replica" -> true;
+            default -> false;
+        };
+    }
+}
@@ -0,0 +1,100 @@
+package com.lingoflow.loadtest;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * 通过 JFR 的 jdk.VirtualThreadPinned 事件检测虚拟线程钉住载体线程的情况 (synchronized 块内阻塞、native 帧等)
+ *
+ * 事件按栈顶若干帧聚合，report() 输出次数最多的调用点；Java 21 以下没有该事件，监控不会产生任何记录
+ */
+public class PinningMonitor implements AutoCloseable {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int STACK_DEPTH = 8;
+
+    private final RecordingStream stream = new RecordingStream();
+    private final Map<String, Site> sites = new ConcurrentHashMap<>();
+    private final Duration threshold;
+
+    public PinningMonitor(Duration threshold) {
+        this.threshold = threshold;
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+    }
+
+    public PinningMonitor start() {
+        stream.startAsync();
+        return this;
+    }
+
+    public long totalEvents() {
+        return sites.values().stream().mapToLong(site -> site.count.sum()).sum();
+    }
+
+    public String report() {
+        if (Runtime.version().feature() < 21) {
+            return "Pinning detection requires Java 21+, running on " + Runtime.version() + "\n";
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("threshold=%dms pinnedEvents=%d sites=%d%n",
+                threshold.toMillis(), totalEvents(), sites.size()));
+        List<Map.Entry<String, Site>> top = sites.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Site> e) -> e.getValue().count.sum()).reversed())
+                .limit(10)
+                .collect(Collectors.toList());
+        for (Map.Entry<String, Site> entry : top) {
+            Site site = entry.getValue();
+            sb.append(String.format("%n%d events, max pinned %.1f ms%n%s",
+                    site.count.sum(), site.maxNanos / 1e6, entry.getKey()));
+        }
+        return sb.toString();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        Site site = sites.computeIfAbsent(stackKey(event.getStackTrace()), key -> new Site());
+        site.count.increment();
+        site.updateMax(event.getDuration().toNanos());
+    }
+
+    private static String stackKey(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "    <no stack trace>\n";
+        }
+        StringBuilder sb = new StringBuilder();
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        for (int i = 0; i < Math.min(STACK_DEPTH, frames.size()); i++) {
+            RecordedFrame frame = frames.get(i);
+            sb.append("    at ").append(frame.getMethod().getType().getName())
+                    .append('.').append(frame.getMethod().getName())
+                    .append(':').append(frame.getLineNumber()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+
+    private static final class Site {
+        private final LongAdder count = new LongAdder();
+        private volatile long maxNanos;
+
+        private synchronized void updateMax(long nanos) {
+            if (nanos > maxNanos) {
+                maxNanos = nanos;
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.lingoflow.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 对运行中的压测后端验证 SM-2 更新的乐观并发控制：同一账号的多个"标签页"同时对同一个生词提交自评，
+ * 每轮换一个生词，检查:
+ * 1. 成功的请求全部生效，review_count 与 version 的增量等于成功数 (没有丢失更新)
+ * 2. 重试用尽的请求返回业务错误 3002，没有 5xx 或其他错误
+ *
+ * 用法: java -cp ... com.lingoflow.loadtest.ReviewConcurrencyCheck --base-url=http://localhost:18080
+ *       [--username=loaduser0] [--password=loadtest123] [--concurrency=16] [--rounds=5]
+ *       [--metrics-auth=prometheus:loadtest]
+ * 后端需关闭限流 (--lingoflow.rate-limit.enabled=false)，全部通过时退出码为 0
+ */
+public class ReviewConcurrencyCheck {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {
+    };
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final String metricsAuth;
+    private String token;
+    private int failures;
+
+    private ReviewConcurrencyCheck(String baseUrl, String metricsAuth) {
+        this.baseUrl = baseUrl;
+        this.metricsAuth = metricsAuth;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] kv = arg.replaceFirst("^--", "").split("=", 2);
+            options.put(kv[0], kv.length > 1 ? kv[1] : "true");
+        }
+        ReviewConcurrencyCheck check = new ReviewConcurrencyCheck(
+                options.getOrDefault("base-url", "http://localhost:8080"),
+                options.getOrDefault("metrics-auth", "prometheus:loadtest"));
+        check.run(options.getOrDefault("username", "loaduser0"), options.getOrDefault("password", "loadtest123"),
+                Integer.parseInt(options.getOrDefault("concurrency", "16")),
+                Integer.parseInt(options.getOrDefault("rounds", "5")));
+        System.out.println(check.failures == 0 ? "ALL PASSED" : check.failures + " FAILED");
+        System.exit(check.failures == 0 ? 0 : 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void run(String username, String password, int concurrency, int rounds) throws Exception {
+        Map<String, Object> login = send("POST", "/api/auth/login", Map.of("username", username, "password", password));
+        token = (String) ((Map<String, Object>) login.get("data")).get("accessToken");
+
+        List<Map<String, Object>> vocabulary = vocabulary();
+        if (vocabulary.size() < rounds) {
+            expect("account has at least " + rounds + " vocabulary entries", false);
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            for (int round = 0; round < rounds; round++) {
+                Number vocabularyId = (Number) vocabulary.get(round).get("id");
+                Map<String, Object> before = find(vocabularyId);
+                int[] outcomes = submitConcurrently(executor, vocabularyId, concurrency);
+                Map<String, Object> after = find(vocabularyId);
+
+                long reviewDelta = number(after, "reviewCount") - number(before, "reviewCount");
+                long versionDelta = number(after, "version") - number(before, "version");
+                System.out.printf("round %d vocabularyId=%s succeeded=%d conflicts=%d errors=%d "
+                        + "reviewCountDelta=%d versionDelta=%d%n", round + 1, vocabularyId, outcomes[0], outcomes[1],
+                        outcomes[2], reviewDelta, versionDelta);
+                expect("round " + (round + 1) + " applies every successful review",
+                        reviewDelta == outcomes[0] && versionDelta == outcomes[0] && outcomes[0] > 0);
+                expect("round " + (round + 1) + " reports exhausted retries as 3002 only", outcomes[2] == 0);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        String metrics = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/prometheus"))
+                .header("Authorization", "Basic " + Base64.getEncoder().encodeToString(
+                        metricsAuth.getBytes(StandardCharsets.UTF_8)))
+                .build(), HttpResponse.BodyHandlers.ofString()).body();
+        metrics.lines().filter(line -> line.startsWith("lingoflow_review_sm2_conflicts")).forEach(System.out::println);
+    }
+
+    /**
+     * 返回 {成功数, 3002 冲突数, 其他错误数}
+     */
+    private int[] submitConcurrently(ExecutorService executor, Number vocabularyId, int concurrency)
+            throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Map<String, Object>>> futures = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return send("POST", "/api/review/rating", Map.of("vocabularyId", vocabularyId, "rating", "unknown"));
+            }));
+        }
+        start.countDown();
+
+        int[] outcomes = new int[3];
+        for (Future<Map<String, Object>> future : futures) {
+            Map<String, Object> body;
+            try {
+                body = future.get();
+            } catch (Exception e) {
+                body = null;
+            }
+            Object code = body == null ? null : body.get("code");
+            outcomes[Integer.valueOf(200).equals(code) ? 0 : Integer.valueOf(3002).equals(code) ? 1 : 2]++;
+        }
+        return outcomes;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> vocabulary() throws Exception {
+        Map<String, Object> data = (Map<String, Object>) send("GET", "/api/sync?since=0&limit=1000", null).get("data");
+        return (List<Map<String, Object>>) data.get("vocabulary");
+    }
+
+    private Map<String, Object> find(Number vocabularyId) throws Exception {
+        for (Map<String, Object> v : vocabulary()) {
+            if (((Number) v.get("id")).longValue() == vocabularyId.longValue()) {
+                return v;
+            }
+        }
+        throw new IllegalStateException("vocabulary " + vocabularyId + " not found");
+    }
+
+    private static long number(Map<String, Object> map, String key) {
+        Object value = map.get(key);
+        return value == null ? 0 : ((Number) value).longValue();
+    }
+
+    private Map<String, Object> send(String method, String path, Object body) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        builder.method(method, body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+        HttpResponse<String> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+        return response.body().isEmpty() ? Map.of() : objectMapper.readValue(response.body(), MAP_TYPE);
+    }
+
+    private void expect(String name, boolean ok) {
+        System.out.printf("[%s] %s%n", ok ? "PASS" : "FAIL", name);
+        if (!ok) {
+            failures++;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.lingoflow.loadtest;
+
+import com.lingoflow.ai.SentenceEvaluationBatcher;
+import com.lingoflow.exception.BusinessException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 在 AI 桩上验证造句评估微批处理:
+ * 1. 并发请求被合并为批量调用，结果全部分发回各自的 future
+ * 2. 窗口内只有一个请求时走单条接口
+ * 3. 批量结果中单个句子失败不影响同批其他句子
+ * 4. 批量接口整体失败时，isolate-failures=true 逐条回退，false 整批失败
+ *
+ * 用法: java -cp ... com.lingoflow.loadtest.SentenceBatchCheck，全部通过时退出码为 0
+ */
+public class SentenceBatchCheck {
+
+    private static final String SINGLE = "/api/evaluate-sentence";
+    private static final String BATCH = "/api/evaluate-sentences";
+    private static final int CONCURRENT = 64;
+
+    private int failures;
+
+    public static void main(String[] args) throws Exception {
+        SentenceBatchCheck check = new SentenceBatchCheck();
+        LatencyDistribution latency = LatencyDistribution.parse("fixed:100");
+        try (StubAiServer ai = new StubAiServer(0, latency, latency, latency, 0.0, 0).start();
+                StubAiServer flaky = new StubAiServer(0, latency, latency, latency, 0.25, 0).start()) {
+            check.run(ai, flaky);
+        }
+        System.out.println(check.failures == 0 ? "ALL PASSED" : check.failures + " FAILED");
+        System.exit(check.failures == 0 ? 0 : 1);
+    }
+
+    private void run(StubAiServer ai, StubAiServer flaky) throws InterruptedException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        try (SentenceEvaluationBatcher batcher = batcher(ai, registry, true)) {
+            List<Outcome> outcomes = submitConcurrently(batcher, CONCURRENT);
+            DistributionSummary sizes = registry.find("lingoflow.ai.evaluation.batch.size").summary();
+            System.out.printf("batches=%d mean=%.1f max=%.0f batchCalls=%d singleCalls=%d%n", sizes.count(),
+                    sizes.mean(), sizes.max(), ai.calls(BATCH), ai.calls(SINGLE));
+            expect("all concurrent evaluations succeed", count(outcomes, true) == CONCURRENT);
+            expect("concurrent requests are merged", ai.calls(BATCH) + ai.calls(SINGLE) <= CONCURRENT / 4);
+
+            long singleBefore = ai.calls(SINGLE);
+            long batchBefore = ai.calls(BATCH);
+            submitConcurrently(batcher, 1);
+            expect("lone request uses single endpoint",
+                    ai.calls(SINGLE) == singleBefore + 1 && ai.calls(BATCH) == batchBefore);
+
+            ai.failBatchRequests(true);
+            long singleBeforeFallback = ai.calls(SINGLE);
+            outcomes = submitConcurrently(batcher, 16);
+            expect("failed batch falls back to single calls", count(outcomes, true) == 16
+                    && ai.calls(SINGLE) - singleBeforeFallback >= 15);
+            ai.failBatchRequests(false);
+        }
+
+        try (SentenceEvaluationBatcher batcher = batcher(ai, new SimpleMeterRegistry(), false)) {
+            ai.failBatchRequests(true);
+            List<Outcome> outcomes = submitConcurrently(batcher, 16);
+            expect("failed batch fails every item without isolation", count(outcomes, false) >= 15);
+            ai.failBatchRequests(false);
+        }
+
+        try (SentenceEvaluationBatcher batcher = batcher(flaky, new SimpleMeterRegistry(), true)) {
+            List<Outcome> outcomes = submitConcurrently(batcher, CONCURRENT);
+            int ok = count(outcomes, true);
+            System.out.printf("flaky stub: succeeded=%d failed=%d%n", ok, CONCURRENT - ok);
+            expect("per-item failures stay isolated", ok > 0 && ok < CONCURRENT
+                    && outcomes.stream().allMatch(o -> o.ok || o.error instanceof BusinessException));
+        }
+    }
+
+    private static SentenceEvaluationBatcher batcher(StubAiServer ai, MeterRegistry registry,
+            boolean isolateFailures) {
+        return new SentenceEvaluationBatcher(new RestTemplate(),
+                new StaticListableBeanFactory(Map.of("registry", registry)).getBeanProvider(MeterRegistry.class),
+                "http://127.0.0.1:" + ai.getPort(), true, 16, 20, 4, 1000, 10_000, isolateFailures);
+    }
+
+    private static List<Outcome> submitConcurrently(SentenceEvaluationBatcher batcher, int count)
+            throws InterruptedException {
+        List<CompletableFuture<Map<String, Object>>> futures = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            futures.add(batcher.submit("word", "单词", "A sentence with the word number " + i + "."));
+        }
+        List<Outcome> outcomes = new ArrayList<>();
+        for (CompletableFuture<Map<String, Object>> future : futures) {
+            try {
+                Map<String, Object> data = future.get(10, TimeUnit.SECONDS);
+                outcomes.add(new Outcome(data != null && data.get("score") instanceof Integer, null));
+            } catch (ExecutionException e) {
+                outcomes.add(new Outcome(false, e.getCause()));
+            } catch (Exception e) {
+                outcomes.add(new Outcome(false, e));
+            }
+        }
+        return outcomes;
+    }
+
+    private static int count(List<Outcome> outcomes, boolean ok) {
+        return (int) outcomes.stream().filter(o -> o.ok == ok).count();
+    }
+
+    private void expect(String name, boolean ok) {
+        System.out.printf("[%s] %s%n", ok ? "PASS" : "FAIL", name);
+        if (!ok) {
+            failures++;
+        }
+    }
+
+    private record Outcome(boolean ok, Throwable error) {
+    }
+}
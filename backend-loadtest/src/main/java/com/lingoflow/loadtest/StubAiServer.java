@@ -0,0 +1,233 @@
+package com.lingoflow.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Flask AI 服务的桩实现，接口与响应结构与 ai-service/app.py 一致，延迟按配置的分布采样
+ *
+ * capacity > 0 时最多同时处理 capacity 个请求 (模拟 Flask 的工作进程数)，其余请求排队等待
+ *
+ * 批量评估接口每次调用只采样一次延迟 (一次模型调用)，错误率按句子独立生效，用于验证单句失败不影响同批其他句子
+ */
+public class StubAiServer implements AutoCloseable {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<String, EndpointState> endpoints = new LinkedHashMap<>();
+    private final double errorRate;
+    private final Semaphore capacity;
+    private volatile boolean failBatchRequests;
+
+    public StubAiServer(int port, LatencyDistribution articleLatency, LatencyDistribution sentenceLatency,
+            LatencyDistribution questionLatency, double errorRate, int capacity) throws IOException {
+        this.errorRate = errorRate;
+        this.capacity = capacity > 0 ? new Semaphore(capacity, true) : null;
+        this.server = HttpServer.create(new InetSocketAddress(port), 512);
+        server.setExecutor(executor);
+
+        register("/api/generate-article", articleLatency, errorRate, this::article);
+        register("/api/generate-question", questionLatency, errorRate, this::question);
+        register("/api/evaluate-sentence", sentenceLatency, errorRate, this::evaluation);
+        register("/api/evaluate-sentences", sentenceLatency, 0, this::batchEvaluation);
+        server.createContext("/health", exchange -> write(exchange, 200, Map.of("status", "ok")));
+    }
+
+    public StubAiServer start() {
+        server.start();
+        return this;
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * 各接口的调用次数与最大并发数，用于观察后端能同时维持多少个 AI 调用
+     */
+    public String summary() {
+        StringBuilder sb = new StringBuilder();
+        endpoints.forEach((path, state) -> sb.append(String.format(
+                "%-26s latency=%-22s calls=%-7d items=%-7d maxInFlight=%d%n",
+                path, state.latency, state.calls.get(), state.items.get(), state.maxInFlight.get())));
+        return sb.toString();
+    }
+
+    public long calls(String path) {
+        return endpoints.get(path).calls.get();
+    }
+
+    /**
+     * 让批量评估接口整体返回 500，用于验证调用方的逐条回退
+     */
+    public void failBatchRequests(boolean fail) {
+        this.failBatchRequests = fail;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void register(String path, LatencyDistribution latency, double requestErrorRate, Responder responder) {
+        EndpointState state = new EndpointState(latency);
+        endpoints.put(path, state);
+        server.createContext(path, exchange -> {
+            int current = state.inFlight.incrementAndGet();
+            state.maxInFlight.accumulateAndGet(current, Math::max);
+            state.calls.incrementAndGet();
+            try {
+                Map<String, Object> request = objectMapper.readValue(exchange.getRequestBody(), Map.class);
+                state.items.addAndGet(request.get("items") instanceof List<?> items ? items.size() : 1);
+                process(latency);
+                if (ThreadLocalRandom.current().nextDouble() < requestErrorRate
+                        || (failBatchRequests && request.containsKey("items"))) {
+                    write(exchange, 500, Map.of("code", 500, "msg", "stub failure"));
+                    return;
+                }
+                write(exchange, 200, Map.of("code", 200, "msg", "success", "data", responder.respond(request)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                write(exchange, 503, Map.of("code", 503, "msg", "interrupted"));
+            } finally {
+                state.inFlight.decrementAndGet();
+            }
+        });
+    }
+
+    private void process(LatencyDistribution latency) throws InterruptedException {
+        if (capacity == null) {
+            Thread.sleep(latency.sampleMillis(ThreadLocalRandom.current()));
+            return;
+        }
+        capacity.acquire();
+        try {
+            Thread.sleep(latency.sampleMillis(ThreadLocalRandom.current()));
+        } finally {
+            capacity.release();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> article(Map<String, Object> request) {
+        List<Map<String, Object>> words = (List<Map<String, Object>>) request.getOrDefault("words", List.of());
+        List<String> highlight = new ArrayList<>();
+        List<Map<String, Object>> questions = new ArrayList<>();
+        List<Map<String, Object>> tasks = new ArrayList<>();
+        StringBuilder content = new StringBuilder("Once upon a time in a quiet town, ");
+        for (Map<String, Object> w : words) {
+            String word = String.valueOf(w.get("word"));
+            highlight.add(word);
+            content.append("people found the **").append(word).append("** surprisingly useful. ");
+            questions.add(Map.of("type", "word_comprehension", "word", word,
+                    "question", "What does '" + word + "' mean in the passage?",
+                    "options", List.of("A. " + w.get("meaningCn"), "B. 其他", "C. 无关", "D. 相反"),
+                    "correctAnswer", "A", "explanation", "Stub explanation"));
+            tasks.add(Map.of("word", word, "theme", "daily life", "chineseExample", "请用 " + word + " 造句"));
+        }
+        questions.add(Map.of("type", "main_idea", "question", "What is the main idea?",
+                "options", List.of("A. Town life", "B. Space", "C. Sports", "D. Food"),
+                "correctAnswer", "A", "explanation", "Stub explanation"));
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("title", "A Stub Story");
+        data.put("content", content.toString());
+        data.put("chineseTranslation", "这是一个桩文章的中文翻译。");
+        data.put("highlightWords", highlight);
+        if (!Boolean.FALSE.equals(request.get("includeQuestions"))) {
+            data.put("comprehensionQuestions", questions);
+        }
+        data.put("sentenceMakingTasks", tasks);
+        return data;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> question(Map<String, Object> request) {
+        Map<String, Object> word = (Map<String, Object>) request.get("word");
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("type", request.getOrDefault("type", "word_comprehension"));
+        if (word != null) {
+            data.put("word", word.get("word"));
+            data.put("question", "What does '" + word.get("word") + "' mean in the passage?");
+            data.put("options", List.of("A. " + word.get("meaningCn"), "B. 其他", "C. 无关", "D. 相反"));
+        } else {
+            data.put("question", "What is the main idea?");
+            data.put("options", List.of("A. Town life", "B. Space", "C. Sports", "D. Food"));
+        }
+        data.put("correctAnswer", "A");
+        data.put("explanation", "Stub explanation");
+        return data;
+    }
+
+    private Map<String, Object> evaluation(Map<String, Object> request) {
+        Random random = ThreadLocalRandom.current();
+        int score = 55 + random.nextInt(45);
+        return Map.of("score", score, "isCorrect", score >= 80,
+                "feedback", Map.of("grammar", "语法正确", "usage", "用法恰当", "suggestion", "可以尝试更复杂的句式"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> batchEvaluation(Map<String, Object> request) {
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (Map<String, Object> item : (List<Map<String, Object>>) request.getOrDefault("items", List.of())) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("id", item.get("id"));
+            if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+                result.put("code", 500);
+                result.put("msg", "stub failure");
+                result.put("data", null);
+            } else {
+                result.put("code", 200);
+                result.put("msg", "success");
+                result.put("data", evaluation(item));
+            }
+            results.add(result);
+        }
+        return Map.of("results", results);
+    }
+
+    private void write(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsString(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Responder {
+        Map<String, Object> respond(Map<String, Object> request);
+    }
+
+    private static final class EndpointState {
+        private final LatencyDistribution latency;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong items = new AtomicLong();
+
+        private EndpointState(LatencyDistribution latency) {
+            this.latency = latency;
+        }
+    }
+}
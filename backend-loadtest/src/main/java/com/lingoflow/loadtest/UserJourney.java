@@ -0,0 +1,218 @@
+package com.lingoflow.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 一次完整的用户旅程：
+ * 登录 → 选词 → 加入生词本 → 生成文章 → 等待阅读理解题 → 逐词造句 → 复习会话 N 张卡片 → 统计页
+ */
+public class UserJourney {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {
+    };
+    private static final long QUESTION_POLL_MS = 500;
+    private static final long QUESTION_WAIT_MS = 120_000;
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final EndpointStats stats;
+    private final LoadGenerator.Options options;
+    private final Random random;
+
+    private String token;
+
+    public record Article(Long sessionId, List<Map<String, Object>> vocabulary) {
+    }
+
+    public UserJourney(HttpClient httpClient, ObjectMapper objectMapper, EndpointStats stats,
+            LoadGenerator.Options options, long seed) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.stats = stats;
+        this.options = options;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * 完整旅程
+     */
+    @SuppressWarnings("unchecked")
+    public void run(String username) throws Exception {
+        if (!login(username)) {
+            return;
+        }
+        Article article = generateArticle();
+        if (article == null) {
+            return;
+        }
+        Long sessionId = article.sessionId();
+        List<Map<String, Object>> vocabulary = article.vocabulary();
+        awaitQuestions(sessionId);
+
+        // 造句
+        for (Map<String, Object> v : vocabulary) {
+            String word = (String) ((Map<String, Object>) v.get("word")).get("word");
+            call("POST", "/api/learning/sentence", Map.of("sessionId", sessionId, "vocabularyId", v.get("id"),
+                    "sentence", "I try to use " + word + " in a sentence every day."));
+        }
+
+        // 复习：会话卡片自带测试题，自评后直接作答
+        Map<String, Object> session = data(call("GET",
+                "/api/review/session?reset=true&size=" + Math.max(1, options.reviewCards()), null));
+        if (session != null) {
+            List<Map<String, Object>> cards = (List<Map<String, Object>>) session.get("cards");
+            for (Map<String, Object> card : cards.subList(0, Math.min(options.reviewCards(), cards.size()))) {
+                review(card);
+            }
+        }
+
+        // 统计
+        call("GET", "/api/stats/overview", null);
+        call("GET", "/api/stats/weekly", null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public boolean login(String username) throws Exception {
+        Map<String, Object> login = call("POST", "/api/auth/login",
+                Map.of("username", username, "password", options.password()));
+        if (login == null) {
+            return false;
+        }
+        token = (String) ((Map<String, Object>) login.get("data")).get("accessToken");
+        return true;
+    }
+
+    /**
+     * 选词 → 加入生词本 → 生成文章，任一步失败返回 null
+     */
+    @SuppressWarnings("unchecked")
+    public Article generateArticle() throws Exception {
+        Map<String, Object> selection = data(call("GET", "/api/learning/words?count=10", null));
+        if (selection == null) {
+            return null;
+        }
+        List<Map<String, Object>> words = (List<Map<String, Object>>) selection.get("words");
+        List<Long> wordIds = new ArrayList<>();
+        for (Map<String, Object> w : words.subList(0, Math.min(options.wordsPerArticle(), words.size()))) {
+            wordIds.add(((Number) w.get("id")).longValue());
+        }
+        if (wordIds.isEmpty()) {
+            return null;
+        }
+
+        // 加入生词本
+        Map<String, Object> batch = call("POST", "/api/vocabulary/batch", Map.of("wordIds", wordIds));
+        if (batch == null) {
+            return null;
+        }
+        List<Map<String, Object>> vocabulary = (List<Map<String, Object>>) batch.get("data");
+        List<Long> vocabularyIds = new ArrayList<>();
+        for (Map<String, Object> v : vocabulary) {
+            vocabularyIds.add(((Number) v.get("id")).longValue());
+        }
+
+        Map<String, Object> article = data(call("POST", "/api/learning/article",
+                Map.of("vocabularyIds", vocabularyIds, "difficulty", "medium", "length", "short")));
+        if (article == null) {
+            return null;
+        }
+        return new Article(((Number) article.get("sessionId")).longValue(), vocabulary);
+    }
+
+    /**
+     * 轮询阅读理解题直到生成结束，"QUESTIONS READY" 记录文章返回后等待题目的时间
+     */
+    private void awaitQuestions(Long sessionId) throws Exception {
+        long start = System.nanoTime();
+        long deadline = System.currentTimeMillis() + QUESTION_WAIT_MS;
+        while (System.currentTimeMillis() < deadline) {
+            Map<String, Object> questions = data(call("GET", "/api/learning/session/" + sessionId + "/questions",
+                    null, "GET /api/learning/session/{id}/questions"));
+            if (questions == null) {
+                break;
+            }
+            if (!"generating".equals(questions.get("status"))) {
+                stats.record("QUESTIONS READY", System.nanoTime() - start, "ready".equals(questions.get("status")));
+                return;
+            }
+            Thread.sleep(QUESTION_POLL_MS);
+        }
+        stats.record("QUESTIONS READY", System.nanoTime() - start, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void review(Map<String, Object> card) throws Exception {
+        Object vocabularyId = card.get("vocabularyId");
+        double roll = random.nextDouble();
+        String rating = roll < 0.7 ? "known" : roll < 0.85 ? "fuzzy" : "unknown";
+        Map<String, Object> result = data(call("POST", "/api/review/rating",
+                Map.of("vocabularyId", vocabularyId, "rating", rating, "questionPrefetched", true)));
+        if (result == null || !Boolean.TRUE.equals(result.get("needTest"))) {
+            return;
+        }
+        Map<String, Object> question = (Map<String, Object>) card.get("testQuestion");
+        List<String> options = (List<String>) question.get("options");
+        String answer = random.nextDouble() < 0.8
+                ? (String) question.get("correctAnswer")
+                : options.get(random.nextInt(options.size()));
+        call("POST", "/api/review/answer", Map.of("vocabularyId", vocabularyId, "answer", answer,
+                "isFromErrorQueue", false, "responseTimeMs", 1500 + random.nextInt(3000)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> data(Map<String, Object> body) {
+        return body == null ? null : (Map<String, Object>) body.get("data");
+    }
+
+    /**
+     * 发送请求并记录耗时，失败 (非 2xx 或 code != 200) 或被限流 (429) 时返回 null
+     */
+    private Map<String, Object> call(String method, String path, Object body) throws Exception {
+        return call(method, path, body, method + " " + (path.contains("?") ? path.substring(0, path.indexOf('?')) : path));
+    }
+
+    /**
+     * endpoint 为统计时使用的名称，路径中带 id 时传入模板，避免每个 id 单独成行
+     */
+    private Map<String, Object> call(String method, String path, Object body, String endpoint) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(options.baseUrl() + path))
+                .timeout(Duration.ofSeconds(180))
+                .header("Content-Type", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        builder.method(method, body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 429) {
+                // 被限流是预期行为，单独统计，不计为错误
+                stats.record(endpoint + " [429]", System.nanoTime() - start, true);
+                return null;
+            }
+            Map<String, Object> parsed = response.body().isEmpty() ? null
+                    : objectMapper.readValue(response.body(), MAP_TYPE);
+            boolean ok = response.statusCode() / 100 == 2 && parsed != null
+                    && Integer.valueOf(200).equals(parsed.get("code"));
+            stats.record(endpoint, System.nanoTime() - start, ok);
+            return ok ? parsed : null;
+        } catch (Exception e) {
+            stats.record(endpoint, System.nanoTime() - start, false);
+            return null;
+        }
+    }
+}
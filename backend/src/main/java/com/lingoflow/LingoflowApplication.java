@@ -3,9 +3,11 @@ package com.lingoflow;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @MapperScan("com.lingoflow.mapper")
+@EnableScheduling
 public class LingoflowApplication {
     public static void main(String[] args) {
         SpringApplication.run(LingoflowApplication.class, args);
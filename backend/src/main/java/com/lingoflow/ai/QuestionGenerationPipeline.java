@@ -0,0 +1,299 @@
+package com.lingoflow.ai;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lingoflow.entity.SessionWord;
+import com.lingoflow.entity.Vocabulary;
+import com.lingoflow.exception.BusinessException;
+import com.lingoflow.mapper.LearningSessionMapper;
+import com.lingoflow.mapper.SessionWordMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 阅读理解题生成：文章返回后为每个生词生成一道 word_comprehension 题，另加一道 main_idea 题，
+ * 每道题单独调用 /api/generate-question 并在有界线程池上并行执行，接口无需等待题目即可返回文章
+ *
+ * 全部题目完成 (或超时) 后在一个事务内以一次 JDBC batch 写入 session_words，并更新
+ * learning_sessions.questions_status。生成期间已完成的题目保存在本节点内存中，供客户端轮询
+ */
+@Slf4j
+@Component
+public class QuestionGenerationPipeline implements AutoCloseable {
+
+    public static final String STATUS_GENERATING = "generating";
+    public static final String STATUS_READY = "ready";
+    public static final String STATUS_PARTIAL = "partial";
+    public static final String STATUS_FAILED = "failed";
+
+    private static final String WORD_COMPREHENSION = "word_comprehension";
+    private static final String MAIN_IDEA = "main_idea";
+
+    private final RestTemplate restTemplate;
+    private final SqlSessionFactory sqlSessionFactory;
+    private final LearningSessionMapper learningSessionMapper;
+    private final SessionWordMapper sessionWordMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final String aiServiceUrl;
+    private final long timeoutMillis;
+    private final ThreadPoolExecutor executor;
+    private final Map<Long, Generation> active = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final Timer generationTimer;
+
+    public QuestionGenerationPipeline(RestTemplate restTemplate, SqlSessionFactory sqlSessionFactory,
+            LearningSessionMapper learningSessionMapper, SessionWordMapper sessionWordMapper,
+            TransactionTemplate transactionTemplate, ObjectMapper objectMapper,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${ai.service.url:http://localhost:5000}") String aiServiceUrl,
+            @Value("${lingoflow.ai.question-generation.threads:8}") int threads,
+            @Value("${lingoflow.ai.question-generation.queue-capacity:256}") int queueCapacity,
+            @Value("${lingoflow.ai.question-generation.timeout-ms:60000}") long timeoutMillis) {
+        this.restTemplate = restTemplate;
+        this.sqlSessionFactory = sqlSessionFactory;
+        this.learningSessionMapper = learningSessionMapper;
+        this.sessionWordMapper = sessionWordMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.aiServiceUrl = aiServiceUrl;
+        this.timeoutMillis = timeoutMillis;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "question-gen-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+
+        this.meterRegistry = meterRegistry.getIfAvailable();
+        this.generationTimer = this.meterRegistry == null ? null : Timer
+                .builder("lingoflow.ai.questions.generation")
+                .description("Time from article ready to all comprehension questions persisted")
+                .publishPercentiles(0.5, 0.99)
+                .register(this.meterRegistry);
+    }
+
+    /**
+     * 开始为会话生成题目，立即返回
+     *
+     * @param article AI 返回的文章，至少包含 title、content
+     */
+    public void start(Long sessionId, Map<String, Object> article, List<Vocabulary> vocabularies) {
+        Map<String, Object> articleText = new HashMap<>();
+        articleText.put("title", article.get("title"));
+        articleText.put("content", article.get("content"));
+
+        List<Task> tasks = new ArrayList<>();
+        for (Vocabulary v : vocabularies) {
+            if (v.getWord() != null) {
+                Map<String, Object> word = new HashMap<>();
+                word.put("word", v.getWord().getWord());
+                word.put("meaningCn", v.getWord().getMeaningCn());
+                tasks.add(new Task(v.getId(), WORD_COMPREHENSION, word));
+            }
+        }
+        tasks.add(new Task(null, MAIN_IDEA, null));
+
+        Generation generation = new Generation(sessionId, tasks);
+        active.put(sessionId, generation);
+        CompletableFuture<?>[] steps = new CompletableFuture<?>[tasks.size()];
+        for (int i = 0; i < tasks.size(); i++) {
+            int index = i;
+            Task task = tasks.get(i);
+            CompletableFuture<Map<String, Object>> step;
+            try {
+                step = CompletableFuture.supplyAsync(() -> generate(articleText, task), executor);
+            } catch (RejectedExecutionException e) {
+                step = CompletableFuture.failedFuture(new BusinessException(2011, "AI 服务繁忙，请稍后再试"));
+            }
+            // 超时只放弃等待，已发出的 AI 调用仍占用线程直到 RestTemplate 读超时
+            steps[i] = step.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS).handle((question, error) -> {
+                if (error == null) {
+                    generation.questions.set(index, question);
+                    count("success");
+                } else {
+                    count("failed");
+                    log.warn("event=question_generation_failed sessionId={} type={} error={}", sessionId,
+                            task.type(), error.getMessage());
+                }
+                return null;
+            });
+        }
+        CompletableFuture.allOf(steps).whenComplete((ignored, error) -> persist(generation));
+    }
+
+    /**
+     * 本节点上仍在生成的会话已完成的题目，按生成顺序；不在生成中 (已写库或由其他节点生成) 时返回 null
+     */
+    public List<Map<String, Object>> progress(Long sessionId) {
+        Generation generation = active.get(sessionId);
+        return generation == null ? null : generation.completed();
+    }
+
+    /**
+     * 已写入 session_words 的题目
+     */
+    public List<Map<String, Object>> persisted(Long sessionId) {
+        List<Map<String, Object>> questions = new ArrayList<>();
+        for (SessionWord row : sessionWordMapper.findQuestionsBySessionId(sessionId)) {
+            try {
+                questions.add(objectMapper.readValue(row.getQuestionData(), new TypeReference<>() {
+                }));
+            } catch (JsonProcessingException e) {
+                log.warn("event=question_data_corrupted sessionWordId={} error={}", row.getId(), e.getMessage());
+            }
+        }
+        return questions;
+    }
+
+    /**
+     * 超过该时间仍为 generating 的会话视为生成失败 (生成节点在写库前退出)
+     */
+    public Duration staleAfter() {
+        return Duration.ofMillis(timeoutMillis * 2);
+    }
+
+    private Map<String, Object> generate(Map<String, Object> article, Task task) {
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("article", article);
+        requestBody.put("type", task.type());
+        if (task.word() != null) {
+            requestBody.put("word", task.word());
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<Map> response = restTemplate.postForEntity(aiServiceUrl + "/api/generate-question",
+                new HttpEntity<>(requestBody, headers), Map.class);
+        Map<String, Object> responseBody = response.getBody();
+        if (responseBody == null || !Integer.valueOf(200).equals(responseBody.get("code"))) {
+            throw new BusinessException(2011, "AI 服务返回错误");
+        }
+        return (Map<String, Object>) responseBody.get("data");
+    }
+
+    private void persist(Generation generation) {
+        List<SessionWord> rows = new ArrayList<>();
+        for (int i = 0; i < generation.tasks.size(); i++) {
+            Map<String, Object> question = generation.questions.get(i);
+            if (question != null) {
+                SessionWord row = new SessionWord();
+                row.setSessionId(generation.sessionId);
+                row.setVocabularyId(generation.tasks.get(i).vocabularyId());
+                row.setActionType("question");
+                row.setQuestionType(generation.tasks.get(i).type());
+                row.setQuestionData(toJson(question));
+                rows.add(row);
+            }
+        }
+        String status = rows.isEmpty() ? STATUS_FAILED
+                : rows.size() < generation.tasks.size() ? STATUS_PARTIAL : STATUS_READY;
+
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                if (!rows.isEmpty()) {
+                    // 参与当前事务，flushStatements 时一次 executeBatch
+                    try (SqlSession batch = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+                        SessionWordMapper mapper = batch.getMapper(SessionWordMapper.class);
+                        rows.forEach(mapper::insert);
+                        batch.flushStatements();
+                    }
+                }
+                learningSessionMapper.updateQuestionsStatus(generation.sessionId, status);
+            });
+            log.info("event=questions_generated sessionId={} status={} questions={}/{} elapsedMs={}",
+                    generation.sessionId, status, rows.size(), generation.tasks.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - generation.startedAt));
+        } catch (Exception e) {
+            // 状态保持 generating，超过 staleAfter 后按失败处理
+            log.warn("event=questions_persist_failed sessionId={} error={}", generation.sessionId, e.getMessage());
+        } finally {
+            active.remove(generation.sessionId);
+            if (generationTimer != null) {
+                generationTimer.record(System.nanoTime() - generation.startedAt, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private String toJson(Map<String, Object> question) {
+        try {
+            return objectMapper.writeValueAsString(question);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize question", e);
+        }
+    }
+
+    private void count(String result) {
+        if (meterRegistry != null) {
+            Counter.builder("lingoflow.ai.questions")
+                    .description("Generated comprehension questions by outcome")
+                    .tag("result", result)
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private record Task(Long vocabularyId, String type, Map<String, Object> word) {
+    }
+
+    private static final class Generation {
+
+        private final Long sessionId;
+        private final List<Task> tasks;
+        private final AtomicReferenceArray<Map<String, Object>> questions;
+        private final long startedAt = System.nanoTime();
+
+        private Generation(Long sessionId, List<Task> tasks) {
+            this.sessionId = sessionId;
+            this.tasks = tasks;
+            this.questions = new AtomicReferenceArray<>(tasks.size());
+        }
+
+        private List<Map<String, Object>> completed() {
+            List<Map<String, Object>> completed = new ArrayList<>();
+            for (int i = 0; i < questions.length(); i++) {
+                if (questions.get(i) != null) {
+                    completed.add(questions.get(i));
+                }
+            }
+            return completed;
+        }
+    }
+}
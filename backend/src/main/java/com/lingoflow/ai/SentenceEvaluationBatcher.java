@@ -0,0 +1,300 @@
+package com.lingoflow.ai;
+
+import com.lingoflow.exception.BusinessException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 造句评估微批处理：并发的评估请求在 window-ms 内或凑满 max-batch-size 个后合并为一次
+ * /api/evaluate-sentences 调用，结果按 id 分发回各自的 CompletableFuture
+ *
+ * - 窗口内只有一个请求时直接调用单条接口，低并发时行为与逐条调用相同
+ * - 批量接口逐条返回结果，单个句子失败只影响该句子
+ * - 整个批量调用失败时，isolate-failures 为 true 则改为逐条调用单条接口，否则整批失败
+ * - 同时进行的批量调用数达到 max-in-flight 时新请求继续排队，下一批因此更大
+ */
+@Slf4j
+@Component
+public class SentenceEvaluationBatcher implements AutoCloseable {
+
+    private final RestTemplate restTemplate;
+    private final String aiServiceUrl;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long windowNanos;
+    private final long timeoutMillis;
+    private final boolean isolateFailures;
+    private final BlockingQueue<Pending> queue;
+    private final Semaphore inFlight;
+    private final ExecutorService sender;
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    private final DistributionSummary batchSize;
+    private final MeterRegistry meterRegistry;
+
+    public SentenceEvaluationBatcher(RestTemplate restTemplate, ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${ai.service.url:http://localhost:5000}") String aiServiceUrl,
+            @Value("${lingoflow.ai.sentence-batch.enabled:true}") boolean enabled,
+            @Value("${lingoflow.ai.sentence-batch.max-batch-size:16}") int maxBatchSize,
+            @Value("${lingoflow.ai.sentence-batch.window-ms:20}") long windowMillis,
+            @Value("${lingoflow.ai.sentence-batch.max-in-flight:4}") int maxInFlight,
+            @Value("${lingoflow.ai.sentence-batch.queue-capacity:1000}") int queueCapacity,
+            @Value("${lingoflow.ai.sentence-batch.timeout-ms:60000}") long timeoutMillis,
+            @Value("${lingoflow.ai.sentence-batch.isolate-failures:true}") boolean isolateFailures) {
+        this.restTemplate = restTemplate;
+        this.aiServiceUrl = aiServiceUrl;
+        this.enabled = enabled;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.timeoutMillis = timeoutMillis;
+        this.isolateFailures = isolateFailures;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.inFlight = new Semaphore(Math.max(1, maxInFlight));
+        this.meterRegistry = meterRegistry.getIfAvailable();
+        this.batchSize = this.meterRegistry == null ? null : DistributionSummary
+                .builder("lingoflow.ai.evaluation.batch.size")
+                .description("Sentences per AI evaluation call")
+                .publishPercentiles(0.5, 0.99)
+                .register(this.meterRegistry);
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(Math.max(1, maxInFlight), runnable -> {
+            Thread thread = new Thread(runnable, "sentence-eval-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher = new Thread(this::runFlusher, "sentence-eval-batcher");
+        this.flusher.setDaemon(true);
+        if (enabled) {
+            flusher.start();
+            log.info("Sentence evaluation batching: maxBatchSize={} windowMs={} maxInFlight={} isolateFailures={}",
+                    this.maxBatchSize, windowMillis, maxInFlight, isolateFailures);
+        }
+    }
+
+    /**
+     * 评估一个句子，阻塞直到结果返回或超时，失败时抛出 BusinessException(2011)
+     */
+    public Map<String, Object> evaluate(String word, String meaning, String sentence) {
+        try {
+            return submit(word, meaning, sentence).get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof BusinessException business) {
+                throw business;
+            }
+            throw new BusinessException(2011, "AI 服务暂时不可用: " + e.getCause().getMessage());
+        } catch (TimeoutException e) {
+            throw new BusinessException(2011, "AI 服务响应超时");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(2011, "AI 服务调用被中断");
+        }
+    }
+
+    /**
+     * 提交一个句子等待合并评估，返回的 future 完成时为 AI 服务返回的 data (score, isCorrect, feedback)
+     */
+    public CompletableFuture<Map<String, Object>> submit(String word, String meaning, String sentence) {
+        Pending pending = new Pending(word, meaning, sentence);
+        if (!enabled) {
+            evaluateSingle(pending, "single");
+        } else if (!queue.offer(pending)) {
+            count("rejected", "batch");
+            pending.future.completeExceptionally(new BusinessException(2011, "AI 服务繁忙，请稍后再试"));
+        }
+        return pending.future;
+    }
+
+    private void runFlusher() {
+        while (running) {
+            List<Pending> batch;
+            try {
+                batch = nextBatch();
+                inFlight.acquire();
+            } catch (InterruptedException e) {
+                break;
+            }
+            try {
+                sender.execute(() -> {
+                    try {
+                        send(batch);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                inFlight.release();
+                batch.forEach(p -> p.future.completeExceptionally(e));
+            }
+        }
+    }
+
+    /**
+     * 阻塞等待第一个请求，然后在窗口内继续收集，直到窗口结束或凑满一批
+     */
+    private List<Pending> nextBatch() throws InterruptedException {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        batch.add(queue.take());
+        long deadline = System.nanoTime() + windowNanos;
+        while (batch.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    private void send(List<Pending> batch) {
+        if (batchSize != null) {
+            batchSize.record(batch.size());
+        }
+        if (batch.size() == 1) {
+            evaluateSingle(batch.get(0), "single");
+            return;
+        }
+        Map<String, Map<String, Object>> results;
+        try {
+            results = callBatch(batch);
+        } catch (Exception e) {
+            log.warn("event=sentence_batch_failed size={} isolate={} error={}", batch.size(), isolateFailures,
+                    e.getMessage());
+            if (isolateFailures) {
+                batch.forEach(p -> sender.execute(() -> evaluateSingle(p, "fallback")));
+            } else {
+                BusinessException failure = new BusinessException(2011, "AI 服务暂时不可用: " + e.getMessage());
+                batch.forEach(p -> fail(p, failure, "batch"));
+            }
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            Pending pending = batch.get(i);
+            Map<String, Object> result = results.get(String.valueOf(i));
+            if (result == null) {
+                fail(pending, new BusinessException(2011, "AI 服务返回错误"), "batch");
+            } else if (Integer.valueOf(200).equals(result.get("code"))) {
+                complete(pending, (Map<String, Object>) result.get("data"), "batch");
+            } else {
+                fail(pending, new BusinessException(2011, "AI 服务返回错误: " + result.get("msg")), "batch");
+            }
+        }
+    }
+
+    private Map<String, Map<String, Object>> callBatch(List<Pending> batch) {
+        List<Map<String, Object>> items = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Map<String, Object> item = batch.get(i).toRequest();
+            item.put("id", String.valueOf(i));
+            items.add(item);
+        }
+        Map<String, Object> data = post("/api/evaluate-sentences", Map.of("items", items));
+        Map<String, Map<String, Object>> results = new HashMap<>();
+        for (Map<String, Object> result : (List<Map<String, Object>>) data.get("results")) {
+            results.put(String.valueOf(result.get("id")), result);
+        }
+        return results;
+    }
+
+    private void evaluateSingle(Pending pending, String path) {
+        try {
+            complete(pending, post("/api/evaluate-sentence", pending.toRequest()), path);
+        } catch (BusinessException e) {
+            fail(pending, e, path);
+        } catch (Exception e) {
+            fail(pending, new BusinessException(2011, "AI 服务暂时不可用: " + e.getMessage()), path);
+        }
+    }
+
+    private Map<String, Object> post(String path, Object body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<Map> response = restTemplate.postForEntity(aiServiceUrl + path,
+                new HttpEntity<>(body, headers), Map.class);
+        Map<String, Object> responseBody = response.getBody();
+        if (responseBody == null || !Integer.valueOf(200).equals(responseBody.get("code"))) {
+            throw new BusinessException(2011, "AI 服务返回错误");
+        }
+        return (Map<String, Object>) responseBody.get("data");
+    }
+
+    private void complete(Pending pending, Map<String, Object> data, String path) {
+        count("success", path);
+        pending.future.complete(data);
+    }
+
+    private void fail(Pending pending, BusinessException e, String path) {
+        count("failed", path);
+        pending.future.completeExceptionally(e);
+    }
+
+    private void count(String result, String path) {
+        if (meterRegistry != null) {
+            Counter.builder("lingoflow.ai.evaluation.items")
+                    .description("Sentence evaluations by outcome and call path")
+                    .tag("result", result)
+                    .tag("path", path)
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        flusher.interrupt();
+        sender.shutdownNow();
+        BusinessException closed = new BusinessException(2011, "AI 服务暂时不可用: 服务正在关闭");
+        queue.forEach(p -> p.future.completeExceptionally(closed));
+        queue.clear();
+    }
+
+    private static final class Pending {
+
+        private final String word;
+        private final String meaning;
+        private final String sentence;
+        private final CompletableFuture<Map<String, Object>> future = new CompletableFuture<>();
+
+        private Pending(String word, String meaning, String sentence) {
+            this.word = word;
+            this.meaning = meaning;
+            this.sentence = sentence;
+        }
+
+        private Map<String, Object> toRequest() {
+            Map<String, Object> request = new HashMap<>();
+            request.put("word", word);
+            request.put("meaning", meaning);
+            request.put("sentence", sentence);
+            return request;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.lingoflow.aot;
+
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.type.filter.TypeFilter;
+import org.springframework.util.ClassUtils;
+
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 构建时 (AOT 处理阶段运行在 JVM 上) 按包扫描类，用于生成运行时提示
+ * 原生镜像中 .class 不是资源，运行时无法扫描，需要的类型必须在这里提前确定
+ */
+final class AotTypeScanner {
+
+    private AotTypeScanner() {
+    }
+
+    /**
+     * 扫描 basePackage 下满足 filter 的所有类，包括接口、抽象类和内部类
+     */
+    static Set<Class<?>> scan(String basePackage, TypeFilter filter, ClassLoader classLoader) {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
+                return true;
+            }
+        };
+        scanner.setResourceLoader(new DefaultResourceLoader(classLoader));
+        scanner.addIncludeFilter(filter);
+
+        Set<Class<?>> types = new LinkedHashSet<>();
+        scanner.findCandidateComponents(basePackage).stream()
+                .map(BeanDefinition::getBeanClassName)
+                .sorted(Comparator.naturalOrder())
+                .forEach(name -> types.add(ClassUtils.resolveClassName(name, classLoader)));
+        return types;
+    }
+}
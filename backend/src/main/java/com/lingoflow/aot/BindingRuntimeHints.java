@@ -0,0 +1,34 @@
+package com.lingoflow.aot;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+
+/**
+ * Jackson 在原生镜像中需要的运行时提示
+ *
+ * 控制器方法大多返回 ApiResponse&lt;Map&gt; 或 ApiResponse&lt;Object&gt;，Spring 无法从签名推断实际写出的类型，
+ * 因此实体和 DTO 全部按绑定类型注册 (Lombok 生成的 getter/setter、构造器及其属性类型)；
+ * 缓存等处的 TypeReference 匿名子类需要反射元数据才能读取泛型父类
+ */
+public class BindingRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final String[] BINDING_PACKAGES = { "com.lingoflow.entity", "com.lingoflow.dto" };
+    private static final String PROJECT_PACKAGE = "com.lingoflow";
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (String basePackage : BINDING_PACKAGES) {
+            AotTypeScanner.scan(basePackage, (reader, factory) -> true, classLoader)
+                    .forEach(type -> bindingRegistrar.registerReflectionHints(hints.reflection(), type));
+        }
+        // 匿名类没有 canonical name，registerType(Class) 会忽略，按二进制名注册
+        AotTypeScanner.scan(PROJECT_PACKAGE, new AssignableTypeFilter(TypeReference.class), classLoader)
+                .forEach(type -> hints.reflection().registerType(
+                        org.springframework.aot.hint.TypeReference.of(type.getName())));
+    }
+}
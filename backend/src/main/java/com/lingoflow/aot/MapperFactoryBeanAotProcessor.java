@@ -0,0 +1,43 @@
+package com.lingoflow.aot;
+
+import org.mybatis.spring.SqlSessionTemplate;
+import org.mybatis.spring.mapper.MapperFactoryBean;
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.beans.factory.aot.BeanRegistrationAotContribution;
+import org.springframework.beans.factory.aot.BeanRegistrationAotProcessor;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.support.RegisteredBean;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.core.ResolvableType;
+
+/**
+ * 让 Mapper 扫描生成的 MapperFactoryBean 定义可以被 AOT 处理 (通过 aot.factories 注册，只在构建时运行):
+ * - 构造参数是接口名字符串，生成的代码无法据此解析，替换为接口 Class 并声明 MapperFactoryBean&lt;Mapper&gt; 目标类型
+ * - sqlSessionTemplate 依赖 AUTOWIRE_BY_TYPE 注入，生成的代码不保留自动装配模式，改为显式引用
+ *
+ * 在生成该 bean 的定义代码之前调用，修改的合并定义即为生成代码的依据，本身不贡献额外代码
+ */
+public class MapperFactoryBeanAotProcessor implements BeanRegistrationAotProcessor {
+
+    @Override
+    public BeanRegistrationAotContribution processAheadOfTime(RegisteredBean registeredBean) {
+        RootBeanDefinition beanDefinition = registeredBean.getMergedBeanDefinition();
+        if (!beanDefinition.hasBeanClass() || !MapperFactoryBean.class.isAssignableFrom(beanDefinition.getBeanClass())
+                || !beanDefinition.getResolvableType().hasUnresolvableGenerics()) {
+            return null;
+        }
+        Object mapperInterface = beanDefinition.getPropertyValues().get("mapperInterface");
+        if (mapperInterface instanceof Class<?> type) {
+            ConstructorArgumentValues arguments = new ConstructorArgumentValues();
+            arguments.addGenericArgumentValue(type);
+            beanDefinition.setConstructorArgumentValues(arguments);
+            beanDefinition.setTargetType(ResolvableType.forClassWithGenerics(beanDefinition.getBeanClass(), type));
+        }
+        MutablePropertyValues properties = beanDefinition.getPropertyValues();
+        if (!properties.contains("sqlSessionFactory") && !properties.contains("sqlSessionTemplate")) {
+            properties.add("sqlSessionTemplate", new RuntimeBeanReference(SqlSessionTemplate.class));
+        }
+        return null;
+    }
+}
@@ -0,0 +1,17 @@
+package com.lingoflow.aot;
+
+import org.mybatis.spring.mapper.MapperScannerConfigurer;
+import org.springframework.beans.factory.aot.BeanRegistrationExcludeFilter;
+import org.springframework.beans.factory.support.RegisteredBean;
+
+/**
+ * AOT 构建时已为每个 Mapper 生成 MapperFactoryBean 定义，运行时不再需要扫描；
+ * 保留 MapperScannerConfigurer 会再次扫描同名 Mapper 并与生成的定义冲突
+ */
+public class MapperScannerExcludeFilter implements BeanRegistrationExcludeFilter {
+
+    @Override
+    public boolean isExcludedFromAotProcessing(RegisteredBean registeredBean) {
+        return MapperScannerConfigurer.class.isAssignableFrom(registeredBean.getBeanClass());
+    }
+}
@@ -0,0 +1,102 @@
+package com.lingoflow.aot;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.session.SqlSession;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.core.ResolvableType;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * MyBatis 在原生镜像中需要的运行时提示:
+ * - Mapper 接口的 JDK 代理，及 MapperMethod / ReplicaRoutingInterceptor 读取的方法签名和注解
+ * - mapper/*.xml 及解析它们用的 DTD
+ * - 实体包和 Mapper 方法签名中出现的本项目类型: Reflector 读取声明的字段、方法和构造器
+ * - MyBatis 按类名反射创建的内部类 (日志实现、语言驱动、VFS、集合默认实现)，以及 JDBC 日志和插件代理
+ */
+public class MybatisRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final String MAPPER_PACKAGE = "com.lingoflow.mapper";
+    private static final String ENTITY_PACKAGE = "com.lingoflow.entity";
+    private static final String PROJECT_PACKAGE_PREFIX = "com.lingoflow.";
+
+    private static final String[] REFLECTIVELY_CREATED = {
+            "org.apache.ibatis.logging.slf4j.Slf4jImpl",
+            "org.apache.ibatis.scripting.xmltags.XMLLanguageDriver",
+            "org.apache.ibatis.scripting.defaults.RawLanguageDriver",
+            "org.apache.ibatis.io.DefaultVFS",
+            "org.mybatis.spring.boot.autoconfigure.SpringBootVFS",
+            "java.util.ArrayList",
+            "java.util.HashMap",
+            "java.util.HashSet",
+            "java.util.TreeSet",
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.resources().registerPattern("mapper/*.xml");
+        hints.resources().registerPattern("org/apache/ibatis/builder/xml/*.dtd");
+
+        Set<Class<?>> resultTypes = new LinkedHashSet<>(
+                AotTypeScanner.scan(ENTITY_PACKAGE, (reader, factory) -> true, classLoader));
+        for (Class<?> mapper : AotTypeScanner.scan(MAPPER_PACKAGE,
+                (reader, factory) -> reader.getClassMetadata().isInterface(), classLoader)) {
+            hints.proxies().registerJdkProxy(mapper);
+            hints.reflection().registerType(mapper, MemberCategory.INVOKE_PUBLIC_METHODS);
+            for (Method method : mapper.getMethods()) {
+                collectProjectTypes(ResolvableType.forMethodReturnType(method), resultTypes);
+                for (int i = 0; i < method.getParameterCount(); i++) {
+                    collectProjectTypes(ResolvableType.forMethodParameter(method, i), resultTypes);
+                }
+            }
+        }
+        for (Class<?> type : resultTypes) {
+            hints.reflection().registerType(type, MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+        }
+
+        for (String type : REFLECTIVELY_CREATED) {
+            hints.reflection().registerType(TypeReference.of(type), MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        }
+        // Slf4jImpl 通过反射查找 LocationAwareLogger#log
+        hints.reflection().registerType(TypeReference.of("ch.qos.logback.classic.Logger"),
+                MemberCategory.INTROSPECT_PUBLIC_METHODS);
+
+        // 拦截器按 @Signature 查找 Executor 方法并以 JDK 代理包装
+        hints.reflection().registerType(Executor.class, MemberCategory.INTROSPECT_PUBLIC_METHODS);
+        hints.proxies().registerJdkProxy(Executor.class);
+        hints.proxies().registerJdkProxy(SqlSession.class);
+        // com.lingoflow.mapper 为 DEBUG 时 MyBatis 以代理包装 JDBC 对象输出 SQL
+        hints.proxies().registerJdkProxy(Connection.class);
+        hints.proxies().registerJdkProxy(PreparedStatement.class);
+        hints.proxies().registerJdkProxy(Statement.class);
+        hints.proxies().registerJdkProxy(ResultSet.class);
+    }
+
+    private static void collectProjectTypes(ResolvableType type, Set<Class<?>> types) {
+        Class<?> resolved = type.resolve();
+        if (resolved == null) {
+            return;
+        }
+        if (resolved.isArray()) {
+            collectProjectTypes(type.getComponentType(), types);
+            return;
+        }
+        if (resolved.getName().startsWith(PROJECT_PACKAGE_PREFIX)) {
+            types.add(resolved);
+        }
+        for (ResolvableType generic : type.getGenerics()) {
+            collectProjectTypes(generic, types);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.lingoflow.archive;
+
+import com.lingoflow.entity.ReviewRecord;
+import com.lingoflow.mapper.ReviewPartitionMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * review_records 分区维护与冷数据归档，每天执行一次，多节点通过 Redis 锁保证只有一个节点执行
+ *
+ * - 提前创建之后 months-ahead 个月的分区 (从 pmax 拆分)
+ * - enabled=true 时，将早于保留期 (retention-months) 的分区导出为 CSV.gz，核对行数后删除分区
+ *
+ * 表未分区 (如 H2) 时跳过
+ */
+@Slf4j
+@Component
+public class ReviewArchiveJob {
+
+    private static final String LOCK_KEY = "lf:lock:review-archive";
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final LocalDate EPOCH = LocalDate.of(1970, 1, 1);
+
+    private final ReviewPartitionMapper partitionMapper;
+    private final ReviewArchiveStore archiveStore;
+    private final StringRedisTemplate redisTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean archiveEnabled;
+    private final int retentionMonths;
+    private final int monthsAhead;
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName();
+
+    public ReviewArchiveJob(ReviewPartitionMapper partitionMapper, ReviewArchiveStore archiveStore,
+            StringRedisTemplate redisTemplate, PlatformTransactionManager transactionManager,
+            @Value("${lingoflow.review-archive.enabled:false}") boolean archiveEnabled,
+            @Value("${lingoflow.review-archive.retention-months:12}") int retentionMonths,
+            @Value("${lingoflow.review-archive.months-ahead:3}") int monthsAhead) {
+        this.partitionMapper = partitionMapper;
+        this.archiveStore = archiveStore;
+        this.redisTemplate = redisTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archiveEnabled = archiveEnabled;
+        this.retentionMonths = retentionMonths;
+        this.monthsAhead = monthsAhead;
+    }
+
+    /**
+     * 启动时只补建分区，归档留给定时任务
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain(false);
+    }
+
+    @Scheduled(cron = "${lingoflow.review-archive.cron:0 30 3 * * *}")
+    public void run() {
+        maintain(archiveEnabled);
+    }
+
+    private void maintain(boolean archive) {
+        try {
+            Boolean locked = redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, nodeId, Duration.ofHours(1));
+            if (!Boolean.TRUE.equals(locked)) {
+                log.debug("Review partition maintenance is running on another node");
+                return;
+            }
+            try {
+                List<ReviewPartition> partitions = findPartitions();
+                if (partitions.isEmpty()) {
+                    log.info("review_records is not partitioned, skipping partition maintenance");
+                    return;
+                }
+                createFuturePartitions(partitions);
+                if (archive) {
+                    archiveExpiredPartitions(partitionMapper.findPartitions());
+                }
+            } finally {
+                if (nodeId.equals(redisTemplate.opsForValue().get(LOCK_KEY))) {
+                    redisTemplate.delete(LOCK_KEY);
+                }
+            }
+        } catch (DataAccessException | UncheckedIOException e) {
+            log.warn("event=review_partition_maintenance_failed error={}", e.getMessage());
+        }
+    }
+
+    /**
+     * 不支持 information_schema.PARTITIONS 的数据库 (如 H2) 视为未分区
+     */
+    private List<ReviewPartition> findPartitions() {
+        try {
+            return partitionMapper.findPartitions();
+        } catch (BadSqlGrammarException e) {
+            return List.of();
+        }
+    }
+
+    private void createFuturePartitions(List<ReviewPartition> partitions) {
+        LocalDate last = null;
+        for (ReviewPartition partition : partitions) {
+            if (partition.getUpperBoundDate() != null) {
+                last = partition.getUpperBoundDate();
+            }
+        }
+        LocalDate target = LocalDate.now().withDayOfMonth(1).plusMonths(monthsAhead + 1L);
+        while (last != null && last.isBefore(target)) {
+            LocalDate upper = last.plusMonths(1);
+            String name = "p" + last.format(PARTITION_MONTH);
+            partitionMapper.splitMaxPartition(name, upper.toString());
+            log.info("event=review_partition_created partition={} upperBound={}", name, upper);
+            last = upper;
+        }
+    }
+
+    private void archiveExpiredPartitions(List<ReviewPartition> partitions) {
+        LocalDate cutoff = LocalDate.now().withDayOfMonth(1).minusMonths(retentionMonths);
+        List<ReviewArchiveStore.ArchivedPeriod> archived = archiveStore.periods();
+        LocalDate from = archived.isEmpty() ? EPOCH : archived.get(archived.size() - 1).to();
+
+        for (ReviewPartition partition : partitions) {
+            LocalDate upper = partition.getUpperBoundDate();
+            if (upper == null || upper.isAfter(cutoff)) {
+                break;
+            }
+            LocalDate periodFrom = from.isBefore(upper) ? from : EPOCH;
+            long start = System.currentTimeMillis();
+            long expected = partitionMapper.countRows(partition.getName());
+            Long exported = transactionTemplate.execute(status -> export(partition, periodFrom, upper));
+            if (exported == null || exported != expected) {
+                log.warn("event=review_partition_archive_mismatch partition={} expected={} exported={}",
+                        partition.getName(), expected, exported);
+                return;
+            }
+            partitionMapper.dropPartition(partition.getName());
+            log.info("event=review_partition_archived partition={} from={} to={} rows={} elapsedMs={}",
+                    partition.getName(), periodFrom, upper, exported, System.currentTimeMillis() - start);
+            from = upper;
+        }
+    }
+
+    private long export(ReviewPartition partition, LocalDate from, LocalDate to) {
+        try (Cursor<ReviewRecord> cursor = partitionMapper.scanPartition(partition.getName())) {
+            return archiveStore.write(from, to, cursor);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
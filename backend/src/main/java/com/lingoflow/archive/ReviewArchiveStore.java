@@ -0,0 +1,282 @@
+package com.lingoflow.archive;
+
+import com.lingoflow.entity.ReviewRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 已归档的复习记录，每个分区一个目录 review_records_{from}_{to}/，覆盖 [from, to)
+ *
+ * - 目录内按 user_id % 64 分为 users_{nn}.csv.gz (gzip 压缩的 CSV)，读取一个用户的历史只解压其所在的文件
+ * - 早期版本每个分区只有一个 review_records_{from}_{to}.csv.gz，仍可读取，按用户读取时整个文件过滤
+ *
+ * 多节点部署时归档目录应为共享存储，否则其他节点无法读取已归档的历史
+ */
+@Slf4j
+@Component
+public class ReviewArchiveStore {
+
+    private static final String HEADER = "id,user_id,vocabulary_id,familiarity_rating,is_correct,response_time_ms,reviewed_at";
+
+    /** 每个时间段的用户分桶数，修改后只影响新写入的归档 */
+    static final int USER_BUCKETS = 64;
+
+    private static final DateTimeFormatter FILE_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final Pattern FILE_NAME = Pattern.compile("review_records_(\\d{8})_(\\d{8})(\\.csv\\.gz)?");
+
+    private final Path dir;
+    private volatile List<ArchivedPeriod> periods;
+
+    public ReviewArchiveStore(@Value("${lingoflow.review-archive.dir:./data/archive/review_records}") String dir) {
+        this.dir = Paths.get(dir);
+    }
+
+    /**
+     * @param path 按用户分桶的目录，或早期版本的单个文件
+     */
+    public record ArchivedPeriod(LocalDate from, LocalDate to, Path path) {
+
+        public boolean contains(LocalDate date) {
+            return !date.isBefore(from) && date.isBefore(to);
+        }
+
+        boolean bucketed() {
+            return Files.isDirectory(path);
+        }
+    }
+
+    /**
+     * 已归档的时间段，按时间升序
+     */
+    public List<ArchivedPeriod> periods() {
+        List<ArchivedPeriod> current = periods;
+        if (current == null) {
+            current = refresh();
+        }
+        return current;
+    }
+
+    public Optional<ArchivedPeriod> find(LocalDate date) {
+        return periods().stream().filter(period -> period.contains(date)).findFirst();
+    }
+
+    /**
+     * 写入一个时间段的归档：各分桶写入临时目录，全部完成后整体原子改名，返回写入行数
+     */
+    public long write(LocalDate from, LocalDate to, Iterable<ReviewRecord> records) throws IOException {
+        Files.createDirectories(dir);
+        Path target = dir.resolve("review_records_" + from.format(FILE_DATE) + "_" + to.format(FILE_DATE));
+        Path tmp = dir.resolve(target.getFileName() + ".tmp");
+        deleteRecursively(tmp);
+        Files.createDirectories(tmp);
+        BufferedWriter[] writers = new BufferedWriter[USER_BUCKETS];
+        long rows = 0;
+        try {
+            try {
+                for (ReviewRecord record : records) {
+                    int bucket = bucket(record.getUserId());
+                    if (writers[bucket] == null) {
+                        writers[bucket] = openBucket(tmp.resolve(bucketFile(bucket)));
+                    }
+                    writers[bucket].write(toCsv(record));
+                    writers[bucket].newLine();
+                    rows++;
+                }
+            } finally {
+                closeAll(writers);
+            }
+            deleteRecursively(target);
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            // 重新归档早期格式的时间段时去掉旧文件，避免同一时间段被读两次
+            Files.deleteIfExists(dir.resolve(target.getFileName() + ".csv.gz"));
+        } catch (IOException | RuntimeException e) {
+            deleteRecursively(tmp);
+            throw e;
+        }
+        refresh();
+        return rows;
+    }
+
+    /**
+     * 读取一个时间段内某个用户的记录，按写入顺序
+     */
+    public void scanUser(ArchivedPeriod period, Long userId, Consumer<ReviewRecord> consumer) {
+        Path file = period.bucketed() ? period.path().resolve(bucketFile(bucket(userId))) : period.path();
+        if (!Files.exists(file)) {
+            // 该分桶没有记录
+            return;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file), 64 * 1024), StandardCharsets.UTF_8))) {
+            // 跳过表头
+            reader.readLine();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    ReviewRecord record = fromCsv(line);
+                    if (userId.equals(record.getUserId())) {
+                        consumer.accept(record);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read review archive " + file, e);
+        }
+    }
+
+    public List<ArchivedPeriod> refresh() {
+        List<ArchivedPeriod> found = new ArrayList<>();
+        if (Files.isDirectory(dir)) {
+            try (Stream<Path> files = Files.list(dir)) {
+                files.forEach(file -> {
+                    Matcher m = FILE_NAME.matcher(file.getFileName().toString());
+                    // 单个文件为早期格式，目录为按用户分桶的格式
+                    if (m.matches() && (m.group(3) != null) != Files.isDirectory(file)) {
+                        found.add(new ArchivedPeriod(LocalDate.parse(m.group(1), FILE_DATE),
+                                LocalDate.parse(m.group(2), FILE_DATE), file));
+                    }
+                });
+            } catch (IOException e) {
+                log.warn("event=review_archive_list_failed dir={} error={}", dir, e.getMessage());
+            }
+        }
+        found.sort(Comparator.comparing(ArchivedPeriod::from));
+        periods = List.copyOf(found);
+        return periods;
+    }
+
+    private static int bucket(Long userId) {
+        return (int) Math.floorMod(userId, (long) USER_BUCKETS);
+    }
+
+    private static String bucketFile(int bucket) {
+        return String.format("users_%02d.csv.gz", bucket);
+    }
+
+    private static BufferedWriter openBucket(Path file) throws IOException {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(file), 16 * 1024), StandardCharsets.UTF_8));
+        writer.write(HEADER);
+        writer.newLine();
+        return writer;
+    }
+
+    private static void closeAll(BufferedWriter[] writers) throws IOException {
+        IOException failure = null;
+        for (BufferedWriter writer : writers) {
+            if (writer == null) {
+                continue;
+            }
+            try {
+                writer.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> children = Files.list(path)) {
+                for (Path child : children.toList()) {
+                    deleteRecursively(child);
+                }
+            }
+        }
+        Files.delete(path);
+    }
+
+    private static String toCsv(ReviewRecord r) {
+        return r.getId() + "," + r.getUserId() + "," + r.getVocabularyId() + ","
+                + escape(r.getRating()) + "," + nullable(r.getTestPassed()) + ","
+                + nullable(r.getResponseTimeMs()) + "," + r.getCreatedAt();
+    }
+
+    private static ReviewRecord fromCsv(String line) {
+        String[] f = splitCsv(line);
+        ReviewRecord r = new ReviewRecord();
+        r.setId(Long.parseLong(f[0]));
+        r.setUserId(Long.parseLong(f[1]));
+        r.setVocabularyId(Long.parseLong(f[2]));
+        r.setRating(f[3]);
+        r.setTestPassed(f[4].isEmpty() ? null : Boolean.parseBoolean(f[4]));
+        r.setResponseTimeMs(f[5].isEmpty() ? null : Integer.parseInt(f[5]));
+        r.setCreatedAt(LocalDateTime.parse(f[6]));
+        return r;
+    }
+
+    private static String nullable(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String[] splitCsv(String line) {
+        String[] fields = new String[7];
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        int index = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields[index++] = current.toString();
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields[index] = current.toString();
+        return fields;
+    }
+}
@@ -0,0 +1,26 @@
+package com.lingoflow.archive;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * review_records 的一个分区，upperBound 为 information_schema 中的 PARTITION_DESCRIPTION
+ * (如 '2026-02-01' 或 MAXVALUE)
+ */
+@Data
+public class ReviewPartition {
+
+    private String name;
+    private String upperBound;
+
+    /**
+     * 分区上界 (不含)，MAXVALUE 分区返回 null
+     */
+    public LocalDate getUpperBoundDate() {
+        if (upperBound == null || "MAXVALUE".equalsIgnoreCase(upperBound)) {
+            return null;
+        }
+        return LocalDate.parse(upperBound.replace("'", "").trim().substring(0, 10));
+    }
+}
@@ -0,0 +1,31 @@
+package com.lingoflow.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 缓存值编解码器，负责缓存对象与 Redis 字符串之间的转换
+ */
+public interface CacheCodec<T> {
+
+    String encode(T value) throws Exception;
+
+    T decode(String raw) throws Exception;
+
+    /**
+     * 基于 Jackson 的 JSON 编解码器
+     */
+    static <T> CacheCodec<T> json(ObjectMapper objectMapper, JavaType type) {
+        return new CacheCodec<>() {
+            @Override
+            public String encode(T value) throws Exception {
+                return objectMapper.writeValueAsString(value);
+            }
+
+            @Override
+            public T decode(String raw) throws Exception {
+                return objectMapper.readValue(raw, type);
+            }
+        };
+    }
+}
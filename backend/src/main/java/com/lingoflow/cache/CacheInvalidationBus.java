@@ -0,0 +1,210 @@
+package com.lingoflow.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 跨节点本地缓存失效总线 (Redis pub/sub)
+ *
+ * 写入后发布 (cacheName, key)，每个节点订阅后清除对应的 L1 数据。消息序号由 Redis INCR 在同一个脚本内
+ * 分配并发布，因此各节点按序号连续收到消息：
+ * - 序号不连续 (丢消息、Redis 重启计数归零) 时清空本节点全部 L1
+ * - 定期读取当前序号，上次检查时已分配的序号仍未收到 (订阅断开期间的消息) 时同样清空
+ * - 检查 Redis 失败后恢复时清空
+ *
+ * 全量清空只影响 L1，数据仍可从 Redis 读取
+ */
+@Slf4j
+public class CacheInvalidationBus implements MessageListener, AutoCloseable {
+
+    public static final String CHANNEL = "lf:cache:invalidation";
+    static final String SEQUENCE_KEY = "lf:cache:invalidation:seq";
+
+    private static final RedisScript<Long> PUBLISH_SCRIPT = new DefaultRedisScript<>(
+            "local seq = redis.call('INCR', KEYS[1]) "
+                    + "redis.call('PUBLISH', ARGV[1], seq .. '|' .. ARGV[2]) "
+                    + "return seq",
+            Long.class);
+
+    private static final String OP_EVICT = "evict";
+
+    private final StringRedisTemplate redisTemplate;
+    private final TwoLevelCacheManager cacheManager;
+    private final String nodeId;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cache-invalidation-check");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private long lastSeq;
+    private long seqAtLastCheck;
+    private boolean checkFailed;
+
+    private Counter published;
+    private Counter publishErrors;
+    private Counter applied;
+    private Counter gapFlushes;
+    private Counter missedFlushes;
+    private Timer lag;
+
+    public CacheInvalidationBus(StringRedisTemplate redisTemplate, TwoLevelCacheManager cacheManager, String nodeId,
+            long checkIntervalMillis) {
+        this.redisTemplate = redisTemplate;
+        this.cacheManager = cacheManager;
+        this.nodeId = nodeId;
+        try {
+            this.lastSeq = readSequence();
+        } catch (Exception e) {
+            // Redis 暂不可用，恢复后由定期检查清空 L1
+            log.warn("event=cache_invalidation_check_failed error={}", e.getMessage());
+            this.checkFailed = true;
+        }
+        this.seqAtLastCheck = lastSeq;
+        cacheManager.setInvalidationPublisher(this::publish);
+        scheduler.scheduleWithFixedDelay(this::check, checkIntervalMillis, checkIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    public void subscribe(RedisMessageListenerContainer container) {
+        container.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    public void bindMetrics(MeterRegistry registry) {
+        published = eventCounter(registry, "published");
+        publishErrors = eventCounter(registry, "publish_error");
+        applied = eventCounter(registry, "applied");
+        gapFlushes = eventCounter(registry, "flush_gap");
+        missedFlushes = eventCounter(registry, "flush_missed");
+        lag = Timer.builder("lingoflow.cache.invalidation.lag")
+                .description("Time from publishing an invalidation to applying it on this node")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+    }
+
+    /**
+     * 通知所有节点清除某个缓存 key 的 L1 数据
+     */
+    public void publish(String cacheName, String key) {
+        send(OP_EVICT, cacheName, key);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * 消息格式: seq|nodeId|publishedAtMillis|op|cacheName|key
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        String[] parts = body.split("\\|", 6);
+        if (parts.length != 6) {
+            log.warn("event=cache_invalidation_malformed message={}", body);
+            return;
+        }
+        long seq = Long.parseLong(parts[0]);
+        synchronized (this) {
+            if (seq != lastSeq + 1) {
+                flushAll("gap", lastSeq, seq, gapFlushes);
+            }
+            lastSeq = seq;
+        }
+        if (!nodeId.equals(parts[1])) {
+            TwoLevelCache<?> cache = cacheManager.getCache(parts[4]);
+            if (cache != null && OP_EVICT.equals(parts[3])) {
+                cache.evictLocal(parts[5]);
+            }
+            increment(applied);
+        }
+        if (lag != null) {
+            lag.record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - Long.parseLong(parts[2]))));
+        }
+    }
+
+    private void send(String op, String cacheName, String key) {
+        String payload = nodeId + "|" + System.currentTimeMillis() + "|" + op + "|" + cacheName + "|" + key;
+        try {
+            redisTemplate.execute(PUBLISH_SCRIPT, List.of(SEQUENCE_KEY), CHANNEL, payload);
+            increment(published);
+        } catch (Exception e) {
+            // 其他节点的 L1 在 localTtl 后自然过期
+            increment(publishErrors);
+            log.warn("event=cache_invalidation_publish_failed cache={} key={} error={}", cacheName, key,
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * 上次检查时已分配的序号到现在仍未收到，说明订阅期间丢了消息
+     */
+    private void check() {
+        long current;
+        try {
+            current = readSequence();
+        } catch (Exception e) {
+            if (!checkFailed) {
+                log.warn("event=cache_invalidation_check_failed error={}", e.getMessage());
+            }
+            checkFailed = true;
+            return;
+        }
+        synchronized (this) {
+            if (checkFailed) {
+                flushAll("redis_recovered", lastSeq, current, missedFlushes);
+                lastSeq = current;
+            } else if (lastSeq < seqAtLastCheck || current < lastSeq) {
+                flushAll("missed", lastSeq, current, missedFlushes);
+                lastSeq = current;
+            }
+            seqAtLastCheck = current;
+        }
+        checkFailed = false;
+    }
+
+    private void flushAll(String reason, long lastSeen, long current, Counter counter) {
+        log.warn("event=cache_invalidation_flush reason={} lastSeq={} seq={}", reason, lastSeen, current);
+        cacheManager.clearAllLocal();
+        increment(counter);
+    }
+
+    private long readSequence() {
+        String value = redisTemplate.opsForValue().get(SEQUENCE_KEY);
+        return value == null ? 0 : Long.parseLong(value);
+    }
+
+    private static Counter eventCounter(MeterRegistry registry, String event) {
+        return Counter.builder("lingoflow.cache.invalidation.messages")
+                .description("Cache invalidation bus events")
+                .tag("event", event)
+                .register(registry);
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
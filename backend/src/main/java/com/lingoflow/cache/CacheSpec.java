@@ -0,0 +1,72 @@
+package com.lingoflow.cache;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.function.Predicate;
+
+/**
+ * 缓存定义：名称、版本、过期策略与值类型
+ *
+ * Redis 键格式为 lf:{name}:v{version}:{key}，修改缓存值结构时递增 version 即可让旧数据自然失效
+ */
+@Getter
+@Builder
+public class CacheSpec<T> {
+
+    private final String name;
+
+    @Builder.Default
+    private final int version = 1;
+
+    /**
+     * 值类型，用于默认的 JSON 编解码器
+     */
+    private final TypeReference<T> type;
+
+    /**
+     * 自定义编解码器，为空时使用 JSON
+     */
+    private final CacheCodec<T> codec;
+
+    /**
+     * Redis (L2) 过期时间
+     */
+    private final Duration ttl;
+
+    /**
+     * 过期时间不超过当天午夜，用于以 LocalDate 为键的每日数据
+     */
+    @Builder.Default
+    private final boolean expireAtMidnight = false;
+
+    /**
+     * 本地 (L1) 过期时间，为空或为 0 时不启用本地缓存
+     */
+    private final Duration localTtl;
+
+    @Builder.Default
+    private final int localMaxSize = 10_000;
+
+    /**
+     * 提前过期系数 (XFetch beta)，越大越早刷新，0 表示关闭
+     */
+    @Builder.Default
+    private final double earlyExpirationBeta = 1.0;
+
+    /**
+     * 决定加载结果是否写入缓存，例如避免缓存空列表
+     */
+    @Builder.Default
+    private final Predicate<T> cacheable = value -> value != null;
+
+    public String redisKey(String key) {
+        return "lf:" + name + ":v" + version + ":" + key;
+    }
+
+    public boolean isLocalEnabled() {
+        return localTtl != null && !localTtl.isZero() && !localTtl.isNegative();
+    }
+}
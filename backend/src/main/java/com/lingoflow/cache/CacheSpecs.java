@@ -0,0 +1,68 @@
+package com.lingoflow.cache;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.lingoflow.dto.LearningStateDto;
+import com.lingoflow.dto.ReviewSessionDto;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 应用内所有缓存的定义
+ */
+public final class CacheSpecs {
+
+    private CacheSpecs() {
+    }
+
+    /**
+     * 今日待复习队列，键为 {userId}:{date}，在午夜前过期
+     */
+    public static final CacheSpec<Map<String, Object>> REVIEW_QUEUE = CacheSpec.<Map<String, Object>>builder()
+            .name("review:queue")
+            .type(new TypeReference<>() {
+            })
+            .ttl(Duration.ofHours(24))
+            .expireAtMidnight(true)
+            .localTtl(Duration.ofSeconds(30))
+            .cacheable(value -> value != null && !((List<?>) value.getOrDefault("words", List.of())).isEmpty())
+            .build();
+
+    /**
+     * 复习会话队列 (含预生成的测试题)，键为 userId
+     * 每次请求都会出队，不启用本地缓存
+     */
+    public static final CacheSpec<ReviewSessionDto> REVIEW_SESSION = CacheSpec.<ReviewSessionDto>builder()
+            .name("review:session")
+            .type(new TypeReference<>() {
+            })
+            .ttl(Duration.ofHours(2))
+            .expireAtMidnight(true)
+            .earlyExpirationBeta(0)
+            .build();
+
+    /**
+     * 选词阶段状态，键为 userId
+     * 状态会被用户修改，不启用本地缓存
+     */
+    public static final CacheSpec<LearningStateDto> LEARNING_SELECTION = CacheSpec.<LearningStateDto>builder()
+            .name("learning:selection")
+            .type(new TypeReference<>() {
+            })
+            .ttl(Duration.ofHours(1))
+            .earlyExpirationBeta(0)
+            .cacheable(value -> value != null && value.getWords() != null && !value.getWords().isEmpty())
+            .build();
+
+    /**
+     * 学习阶段状态，键为 userId
+     */
+    public static final CacheSpec<Map<String, Object>> STUDY_STATE = CacheSpec.<Map<String, Object>>builder()
+            .name("learning:study")
+            .type(new TypeReference<>() {
+            })
+            .ttl(Duration.ofHours(1))
+            .earlyExpirationBeta(0)
+            .build();
+}
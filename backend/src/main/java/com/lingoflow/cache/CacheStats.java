@@ -0,0 +1,100 @@
+package com.lingoflow.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个缓存的命中/未命中/加载耗时统计
+ */
+public class CacheStats {
+
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder redisHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder earlyRefreshes = new LongAdder();
+    private final LongAdder coalescedLoads = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+    private final LongAdder redisNanos = new LongAdder();
+    private final LongAdder redisCalls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    void recordLocalHit() {
+        localHits.increment();
+    }
+
+    void recordRedisHit() {
+        redisHits.increment();
+    }
+
+    void recordMiss() {
+        misses.increment();
+    }
+
+    void recordEarlyRefresh() {
+        earlyRefreshes.increment();
+    }
+
+    void recordCoalescedLoad() {
+        coalescedLoads.increment();
+    }
+
+    void recordLoad(long nanos) {
+        loads.increment();
+        loadNanos.add(nanos);
+    }
+
+    void recordRedisCall(long nanos) {
+        redisCalls.increment();
+        redisNanos.add(nanos);
+    }
+
+    void recordError() {
+        errors.increment();
+    }
+
+    public long getLocalHits() {
+        return localHits.sum();
+    }
+
+    public long getRedisHits() {
+        return redisHits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEarlyRefreshes() {
+        return earlyRefreshes.sum();
+    }
+
+    public long getCoalescedLoads() {
+        return coalescedLoads.sum();
+    }
+
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    public long getLoadNanos() {
+        return loadNanos.sum();
+    }
+
+    public long getRedisCalls() {
+        return redisCalls.sum();
+    }
+
+    public long getRedisNanos() {
+        return redisNanos.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public double getHitRatio() {
+        long hits = getLocalHits() + getRedisHits();
+        long total = hits + getMisses();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
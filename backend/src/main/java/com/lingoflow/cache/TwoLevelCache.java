@@ -0,0 +1,312 @@
+package com.lingoflow.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * 两级缓存：本地 L1 + Redis L2
+ *
+ * - 未命中时同一节点内同一个 key 只有一个线程执行加载 (single-flight)，其余线程等待结果
+ * - Redis 中记录过期时间和加载耗时，按 XFetch 算法概率性地提前刷新，避免大量 key 同时过期时的缓存击穿
+ * - Redis 异常降级为直接查询数据库，并记录到统计中
+ * - 启用本地缓存时，put / evict 通过 {@link CacheInvalidationBus} 通知其他节点清除 L1
+ */
+@Slf4j
+public class TwoLevelCache<T> {
+
+    private final CacheSpec<T> spec;
+    private final CacheCodec<T> codec;
+    private final StringRedisTemplate redisTemplate;
+    private final CacheStats stats = new CacheStats();
+
+    private final Map<String, LocalEntry<T>> local = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<T>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * 本地缓存失效通知 (cacheName, key)，未配置失效总线时为 null
+     */
+    private volatile BiConsumer<String, String> invalidationPublisher;
+
+    TwoLevelCache(CacheSpec<T> spec, CacheCodec<T> codec, StringRedisTemplate redisTemplate) {
+        this.spec = spec;
+        this.codec = codec;
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * 读取缓存，未命中或需要提前刷新时调用 loader 加载
+     */
+    public T get(String key, Supplier<T> loader) {
+        Entry<T> entry = lookup(key);
+        if (entry != null) {
+            if (!shouldRefreshEarly(entry)) {
+                return entry.value;
+            }
+            // 已有线程在刷新时直接返回旧值，不再排队等待
+            if (inFlight.containsKey(key)) {
+                return entry.value;
+            }
+            stats.recordEarlyRefresh();
+        } else {
+            stats.recordMiss();
+        }
+        return load(key, loader);
+    }
+
+    /**
+     * 只读取缓存，不触发加载
+     */
+    public T getIfPresent(String key) {
+        Entry<T> entry = lookup(key);
+        if (entry == null) {
+            stats.recordMiss();
+            return null;
+        }
+        return entry.value;
+    }
+
+    public void put(String key, T value) {
+        store(key, value, 0L);
+        publishInvalidation(key);
+    }
+
+    public void evict(String key) {
+        try {
+            evictOrThrow(key);
+        } catch (Exception e) {
+            log.warn("Cache [{}] evict failed for key {}: {}", spec.getName(), key, e.getMessage());
+        }
+    }
+
+    /**
+     * 与 {@link #evict} 相同，但 Redis 删除失败时抛出异常，供需要重试的调用方 (outbox 投递) 使用
+     */
+    public void evictOrThrow(String key) {
+        local.remove(key);
+        try {
+            long start = System.nanoTime();
+            redisTemplate.delete(spec.redisKey(key));
+            stats.recordRedisCall(System.nanoTime() - start);
+        } catch (RuntimeException e) {
+            stats.recordError();
+            throw e;
+        } finally {
+            publishInvalidation(key);
+        }
+    }
+
+    /**
+     * 只清除本节点的 L1 数据
+     */
+    public void evictLocal(String key) {
+        local.remove(key);
+    }
+
+    public void clearLocal() {
+        local.clear();
+    }
+
+    void setInvalidationPublisher(BiConsumer<String, String> invalidationPublisher) {
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    public String getName() {
+        return spec.getName();
+    }
+
+    public CacheSpec<T> getSpec() {
+        return spec;
+    }
+
+    public CacheStats getStats() {
+        return stats;
+    }
+
+    public int localSize() {
+        return local.size();
+    }
+
+    private void publishInvalidation(String key) {
+        BiConsumer<String, String> publisher = invalidationPublisher;
+        if (publisher != null && spec.isLocalEnabled()) {
+            publisher.accept(spec.getName(), key);
+        }
+    }
+
+    private Entry<T> lookup(String key) {
+        long now = System.currentTimeMillis();
+
+        if (spec.isLocalEnabled()) {
+            LocalEntry<T> localEntry = local.get(key);
+            if (localEntry != null) {
+                if (localEntry.localExpiresAt > now && localEntry.entry.expiresAt > now) {
+                    stats.recordLocalHit();
+                    return localEntry.entry;
+                }
+                local.remove(key, localEntry);
+            }
+        }
+
+        String raw;
+        try {
+            long start = System.nanoTime();
+            raw = redisTemplate.opsForValue().get(spec.redisKey(key));
+            stats.recordRedisCall(System.nanoTime() - start);
+        } catch (Exception e) {
+            stats.recordError();
+            log.warn("Cache [{}] read failed for key {}: {}", spec.getName(), key, e.getMessage());
+            return null;
+        }
+        if (raw == null) {
+            return null;
+        }
+
+        Entry<T> entry;
+        try {
+            entry = unwrap(raw);
+        } catch (Exception e) {
+            // 脏数据或旧版本结构，删除后按未命中处理
+            stats.recordError();
+            log.warn("Cache [{}] decode failed for key {}, evicting: {}", spec.getName(), key, e.getMessage());
+            evict(key);
+            return null;
+        }
+
+        stats.recordRedisHit();
+        putLocal(key, entry);
+        return entry;
+    }
+
+    private T load(String key, Supplier<T> loader) {
+        CompletableFuture<T> mine = new CompletableFuture<>();
+        CompletableFuture<T> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            stats.recordCoalescedLoad();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (e.getCause() instanceof Error cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        try {
+            long start = System.nanoTime();
+            T value = loader.get();
+            long elapsed = System.nanoTime() - start;
+            stats.recordLoad(elapsed);
+            store(key, value, Duration.ofNanos(elapsed).toMillis());
+            mine.complete(value);
+            return value;
+        } catch (Throwable e) {
+            // Error 也要完成 future，否则等待中的请求会一直阻塞
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private void store(String key, T value, long deltaMillis) {
+        if (!spec.getCacheable().test(value)) {
+            return;
+        }
+
+        Duration ttl = effectiveTtl();
+        if (ttl.isZero() || ttl.isNegative()) {
+            return;
+        }
+        Entry<T> entry = new Entry<>(value, System.currentTimeMillis() + ttl.toMillis(), deltaMillis);
+
+        try {
+            String raw = entry.expiresAt + ":" + entry.deltaMillis + ":" + codec.encode(value);
+            long start = System.nanoTime();
+            redisTemplate.opsForValue().set(spec.redisKey(key), raw, ttl);
+            stats.recordRedisCall(System.nanoTime() - start);
+        } catch (Exception e) {
+            stats.recordError();
+            log.warn("Cache [{}] write failed for key {}: {}", spec.getName(), key, e.getMessage());
+        }
+        putLocal(key, entry);
+    }
+
+    private Duration effectiveTtl() {
+        Duration ttl = spec.getTtl();
+        if (spec.isExpireAtMidnight()) {
+            Duration untilMidnight = Duration.between(LocalDateTime.now(), LocalDate.now().plusDays(1).atStartOfDay());
+            if (untilMidnight.compareTo(ttl) < 0) {
+                ttl = untilMidnight;
+            }
+        }
+        return ttl;
+    }
+
+    private void putLocal(String key, Entry<T> entry) {
+        if (!spec.isLocalEnabled()) {
+            return;
+        }
+        if (local.size() >= spec.getLocalMaxSize()) {
+            trimLocal();
+        }
+        local.put(key, new LocalEntry<>(entry, System.currentTimeMillis() + spec.getLocalTtl().toMillis()));
+    }
+
+    private void trimLocal() {
+        long now = System.currentTimeMillis();
+        local.values().removeIf(e -> e.localExpiresAt <= now || e.entry.expiresAt <= now);
+        // 仍然超出上限时按迭代顺序淘汰一部分
+        Iterator<String> it = local.keySet().iterator();
+        int excess = local.size() - spec.getLocalMaxSize() * 3 / 4;
+        while (excess-- > 0 && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    /**
+     * XFetch: now - delta * beta * ln(rand) >= expiry 时提前刷新，加载越慢、越接近过期越可能刷新
+     */
+    private boolean shouldRefreshEarly(Entry<T> entry) {
+        double beta = spec.getEarlyExpirationBeta();
+        if (beta <= 0 || entry.deltaMillis <= 0) {
+            return false;
+        }
+        double rand = ThreadLocalRandom.current().nextDouble();
+        double gap = -entry.deltaMillis * beta * Math.log(rand == 0 ? Double.MIN_VALUE : rand);
+        return System.currentTimeMillis() + gap >= entry.expiresAt;
+    }
+
+    private Entry<T> unwrap(String raw) throws Exception {
+        int first = raw.indexOf(':');
+        int second = first < 0 ? -1 : raw.indexOf(':', first + 1);
+        if (second < 0) {
+            throw new IllegalStateException("missing cache envelope");
+        }
+        long expiresAt = Long.parseLong(raw.substring(0, first));
+        long deltaMillis = Long.parseLong(raw.substring(first + 1, second));
+        return new Entry<>(codec.decode(raw.substring(second + 1)), expiresAt, deltaMillis);
+    }
+
+    private record Entry<T>(T value, long expiresAt, long deltaMillis) {
+    }
+
+    private record LocalEntry<T>(Entry<T> entry, long localExpiresAt) {
+    }
+}
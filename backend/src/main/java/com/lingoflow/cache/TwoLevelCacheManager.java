@@ -0,0 +1,71 @@
+package com.lingoflow.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lingoflow.metrics.CacheMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * 两级缓存管理器，按 {@link CacheSpec} 创建并持有缓存实例
+ */
+@Component
+@RequiredArgsConstructor
+public class TwoLevelCacheManager {
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    private final Map<String, TwoLevelCache<?>> caches = new ConcurrentHashMap<>();
+    private volatile BiConsumer<String, String> invalidationPublisher;
+
+    @SuppressWarnings("unchecked")
+    public <T> TwoLevelCache<T> getCache(CacheSpec<T> spec) {
+        return (TwoLevelCache<T>) caches.computeIfAbsent(spec.getName(), name -> create(spec));
+    }
+
+    public TwoLevelCache<?> getCache(String name) {
+        return caches.get(name);
+    }
+
+    public Collection<TwoLevelCache<?>> getCaches() {
+        return Collections.unmodifiableCollection(caches.values());
+    }
+
+    /**
+     * 设置本地缓存失效通知，对已创建和之后创建的缓存都生效
+     */
+    public void setInvalidationPublisher(BiConsumer<String, String> invalidationPublisher) {
+        this.invalidationPublisher = invalidationPublisher;
+        caches.values().forEach(cache -> cache.setInvalidationPublisher(invalidationPublisher));
+    }
+
+    /**
+     * 清除本节点所有缓存的 L1 数据
+     */
+    public void clearAllLocal() {
+        caches.values().forEach(TwoLevelCache::clearLocal);
+    }
+
+    private <T> TwoLevelCache<T> create(CacheSpec<T> spec) {
+        CacheCodec<T> codec = spec.getCodec();
+        if (codec == null) {
+            JavaType type = objectMapper.getTypeFactory().constructType(spec.getType());
+            codec = CacheCodec.json(objectMapper, type);
+        }
+        TwoLevelCache<T> cache = new TwoLevelCache<>(spec, codec, redisTemplate);
+        cache.setInvalidationPublisher(invalidationPublisher);
+        meterRegistry.ifAvailable(registry -> CacheMetrics.bind(cache, registry));
+        return cache;
+    }
+}
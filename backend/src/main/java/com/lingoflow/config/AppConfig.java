@@ -1,5 +1,6 @@
 package com.lingoflow.config;
 
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
@@ -8,11 +9,14 @@ import org.springframework.web.client.RestTemplate;
 @Configuration
 public class AppConfig {
 
+    /**
+     * 通过 RestTemplateBuilder 构建，以便 Actuator 为 AI 服务调用记录 http.client.requests 指标
+     */
     @Bean
-    public RestTemplate restTemplate() {
+    public RestTemplate restTemplate(RestTemplateBuilder builder) {
         SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
         factory.setConnectTimeout(10000); // 连接超时10秒
         factory.setReadTimeout(120000); // 读取超时120秒（AI生成需要较长时间）
-        return new RestTemplate(factory);
+        return builder.requestFactory(() -> factory).build();
     }
 }
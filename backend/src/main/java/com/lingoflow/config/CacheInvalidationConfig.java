@@ -0,0 +1,42 @@
+package com.lingoflow.config;
+
+import com.lingoflow.cache.CacheInvalidationBus;
+import com.lingoflow.cache.TwoLevelCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * 跨节点本地缓存失效总线，默认开启
+ */
+@Configuration
+@ConditionalOnProperty(name = "lingoflow.cache.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+public class CacheInvalidationConfig {
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CacheInvalidationBus cacheInvalidationBus(StringRedisTemplate redisTemplate,
+            TwoLevelCacheManager cacheManager, RedisMessageListenerContainer cacheInvalidationListenerContainer,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${lingoflow.cache.invalidation.check-interval-ms:5000}") long checkIntervalMillis) {
+        CacheInvalidationBus bus = new CacheInvalidationBus(redisTemplate, cacheManager,
+                ManagementFactory.getRuntimeMXBean().getName(), checkIntervalMillis);
+        meterRegistry.ifAvailable(bus::bindMetrics);
+        bus.subscribe(cacheInvalidationListenerContainer);
+        return bus;
+    }
+}
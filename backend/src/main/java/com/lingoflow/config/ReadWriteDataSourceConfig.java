@@ -0,0 +1,96 @@
+package com.lingoflow.config;
+
+import com.lingoflow.datasource.ReadWriteRoutingDataSource;
+import com.lingoflow.datasource.ReadYourWritesTracker;
+import com.lingoflow.datasource.ReplicaLagMonitor;
+import com.lingoflow.datasource.ReplicaRoutingInterceptor;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 读写分离配置，仅在配置了 lingoflow.datasource.replica-urls 时生效，否则沿用 Spring Boot 默认的单数据源
+ *
+ * 主库使用 spring.datasource.*，副本默认沿用主库的账号密码
+ */
+@Configuration
+@ConditionalOnExpression("!'${lingoflow.datasource.replica-urls:}'.trim().isEmpty()")
+public class ReadWriteDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaLagMonitor replicaLagMonitor(DataSourceProperties properties,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${lingoflow.datasource.replica-urls}") String replicaUrls,
+            @Value("${lingoflow.datasource.replica-username:}") String username,
+            @Value("${lingoflow.datasource.replica-password:}") String password,
+            @Value("${lingoflow.datasource.replica-pool-size:10}") int poolSize,
+            @Value("${lingoflow.datasource.lag-query:SHOW REPLICA STATUS}") String lagQuery,
+            @Value("${lingoflow.datasource.max-lag-seconds:5}") long maxLagSeconds,
+            @Value("${lingoflow.datasource.lag-check-interval-ms:2000}") long checkIntervalMillis) {
+        List<ReplicaLagMonitor.Replica> replicas = new ArrayList<>();
+        for (String url : StringUtils.commaDelimitedListToStringArray(replicaUrls)) {
+            if (!StringUtils.hasText(url)) {
+                continue;
+            }
+            String name = "replica-" + (replicas.size() + 1);
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName(name);
+            replica.setJdbcUrl(url.trim());
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setUsername(StringUtils.hasText(username) ? username : properties.determineUsername());
+            replica.setPassword(StringUtils.hasText(password) ? password : properties.determinePassword());
+            replica.setMaximumPoolSize(poolSize);
+            replica.setReadOnly(true);
+            // 副本不可用时不阻塞启动，由延迟检测摘除
+            replica.setInitializationFailTimeout(-1);
+            meterRegistry.ifAvailable(registry ->
+                    replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            replicas.add(new ReplicaLagMonitor.Replica(name, replica));
+        }
+        return new ReplicaLagMonitor(replicas, lagQuery, maxLagSeconds, checkIntervalMillis);
+    }
+
+    /**
+     * 写后窗口应大于 max-lag-seconds + lag-check-interval-ms
+     */
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(
+            @Value("${lingoflow.datasource.sticky-window-ms:8000}") long windowMillis) {
+        return new ReadYourWritesTracker(windowMillis);
+    }
+
+    @Bean
+    public ReplicaRoutingInterceptor replicaRoutingInterceptor(ReadYourWritesTracker tracker) {
+        return new ReplicaRoutingInterceptor(tracker);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaLagMonitor replicaLagMonitor,
+            ReadYourWritesTracker tracker, ObjectProvider<MeterRegistry> meterRegistry) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primaryDataSource, replicaLagMonitor,
+                tracker);
+        meterRegistry.ifAvailable(routing::bindMetrics);
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -0,0 +1,185 @@
+package com.lingoflow.content;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lingoflow.entity.ContentBlob;
+import com.lingoflow.mapper.ContentBlobMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * AI 生成内容存储：序列化为 JSON，超过阈值时 deflate 压缩，按 SHA-256 去重
+ *
+ * 业务表只保存 content_blobs.id，列表查询不再携带大字段；内容在真正打开时才读取并解压
+ */
+@Slf4j
+@Component
+public class ContentStore {
+
+    public static final String IDENTITY = "identity";
+    public static final String DEFLATE = "deflate";
+
+    private final ContentBlobMapper contentBlobMapper;
+    private final ObjectMapper objectMapper;
+    private final int compressThreshold;
+    private final int compressLevel;
+    private final Counter stored;
+    private final Counter deduplicated;
+
+    public ContentStore(ContentBlobMapper contentBlobMapper, ObjectMapper objectMapper, MeterRegistry registry,
+            @Value("${lingoflow.content-store.compress-threshold-bytes:512}") int compressThreshold,
+            @Value("${lingoflow.content-store.compress-level:6}") int compressLevel) {
+        this.contentBlobMapper = contentBlobMapper;
+        this.objectMapper = objectMapper;
+        this.compressThreshold = compressThreshold;
+        this.compressLevel = compressLevel;
+        this.stored = writeCounter(registry, "stored");
+        this.deduplicated = writeCounter(registry, "deduplicated");
+    }
+
+    /**
+     * 保存内容，返回 content_blobs.id；相同内容只保存一份
+     */
+    public Long save(Object content) {
+        if (content == null) {
+            return null;
+        }
+        byte[] json = toJson(content);
+        String hash = sha256(json);
+        Long existing = contentBlobMapper.findIdByHash(hash);
+        if (existing != null) {
+            deduplicated.increment();
+            return existing;
+        }
+
+        ContentBlob blob = new ContentBlob();
+        blob.setContentHash(hash);
+        blob.setOriginalSize(json.length);
+        byte[] compressed = json.length >= compressThreshold ? deflate(json) : null;
+        if (compressed != null && compressed.length < json.length) {
+            blob.setEncoding(DEFLATE);
+            blob.setBody(compressed);
+        } else {
+            blob.setEncoding(IDENTITY);
+            blob.setBody(json);
+        }
+        try {
+            contentBlobMapper.insert(blob);
+        } catch (DuplicateKeyException e) {
+            // 并发写入相同内容
+            deduplicated.increment();
+            return contentBlobMapper.findIdByHash(hash);
+        }
+        stored.increment();
+        log.debug("event=content_stored id={} encoding={} originalBytes={} storedBytes={}",
+                blob.getId(), blob.getEncoding(), json.length, blob.getBody().length);
+        return blob.getId();
+    }
+
+    /**
+     * 读取 JSON 文本，不存在时返回 null
+     */
+    public String loadJson(Long id) {
+        if (id == null) {
+            return null;
+        }
+        ContentBlob blob = contentBlobMapper.findById(id);
+        if (blob == null) {
+            return null;
+        }
+        byte[] json = DEFLATE.equals(blob.getEncoding())
+                ? inflate(blob.getBody(), blob.getOriginalSize())
+                : blob.getBody();
+        return new String(json, StandardCharsets.UTF_8);
+    }
+
+    public <T> T load(Long id, TypeReference<T> type) {
+        String json = loadJson(id);
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupted content blob " + id, e);
+        }
+    }
+
+    private byte[] toJson(Object content) {
+        try {
+            return objectMapper.writeValueAsBytes(content);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Content is not serializable to JSON", e);
+        }
+    }
+
+    private byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(compressLevel);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] input, int originalSize) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input);
+            byte[] output = new byte[originalSize];
+            int length = 0;
+            while (!inflater.finished() && length < output.length) {
+                int n = inflater.inflate(output, length, output.length - length);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += n;
+            }
+            if (length != originalSize) {
+                throw new IllegalStateException("Content blob size mismatch: expected " + originalSize
+                        + " bytes, got " + length);
+            }
+            return output;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupted deflate content", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Counter writeCounter(MeterRegistry registry, String result) {
+        return Counter.builder("lingoflow.content.writes")
+                .description("AI content writes, by whether a new blob was stored")
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,82 @@
+package com.lingoflow.controller;
+
+import com.lingoflow.entity.User;
+import com.lingoflow.exception.BusinessException;
+import com.lingoflow.service.ExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 导出接口：边读边写入响应流，客户端支持时即时 gzip 压缩 (Content-Encoding，浏览器下载时自动解压)
+ */
+@RestController
+@RequestMapping("/api/export")
+@RequiredArgsConstructor
+public class ExportController {
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    private final ExportService exportService;
+
+    /**
+     * 导出生词本，format 为 csv (含 SM-2 字段) 或 anki (Anki 文本导入)
+     */
+    @GetMapping("/vocabulary")
+    public ResponseEntity<StreamingResponseBody> exportVocabulary(
+            @AuthenticationPrincipal User user,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        ExportService.VocabularyFormat vocabularyFormat = switch (format) {
+            case "csv" -> ExportService.VocabularyFormat.CSV;
+            case "anki" -> ExportService.VocabularyFormat.ANKI;
+            default -> throw new BusinessException(400, "不支持的导出格式");
+        };
+        Long userId = user.getId();
+        return vocabularyFormat == ExportService.VocabularyFormat.ANKI
+                ? stream("lingoflow-vocabulary-anki.txt", new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8),
+                        acceptEncoding, out -> exportService.exportVocabulary(userId, vocabularyFormat, out))
+                : stream("lingoflow-vocabulary.csv", TEXT_CSV, acceptEncoding,
+                        out -> exportService.exportVocabulary(userId, vocabularyFormat, out));
+    }
+
+    /**
+     * 导出复习历史 (含已归档的记录)
+     */
+    @GetMapping("/reviews")
+    public ResponseEntity<StreamingResponseBody> exportReviews(
+            @AuthenticationPrincipal User user,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        Long userId = user.getId();
+        return stream("lingoflow-reviews.csv", TEXT_CSV, acceptEncoding,
+                out -> exportService.exportReviews(userId, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(String filename, MediaType contentType,
+            String acceptEncoding, StreamingResponseBody body) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!gzip) {
+            return response.body(body);
+        }
+        return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(out -> {
+            GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+            body.writeTo(compressed);
+            // 只结束压缩流，响应流由容器关闭
+            compressed.finish();
+        });
+    }
+}
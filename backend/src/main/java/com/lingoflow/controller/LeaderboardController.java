@@ -0,0 +1,33 @@
+package com.lingoflow.controller;
+
+import com.lingoflow.dto.ApiResponse;
+import com.lingoflow.entity.User;
+import com.lingoflow.service.LeaderboardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/leaderboard")
+@RequiredArgsConstructor
+public class LeaderboardController {
+
+    private final LeaderboardService leaderboardService;
+
+    /**
+     * 排行榜前 limit 名 (最多 100) 和当前用户的名次
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getLeaderboard(
+            @AuthenticationPrincipal User user,
+            @RequestParam(defaultValue = "words") String metric,
+            @RequestParam(defaultValue = "week") String period,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        Map<String, Object> result = leaderboardService.getLeaderboard(user.getId(), metric, period, limit);
+        return ResponseEntity.ok(ApiResponse.success(result));
+    }
+}
@@ -2,6 +2,7 @@ package com.lingoflow.controller;
 
 import com.lingoflow.dto.ApiResponse;
 import com.lingoflow.entity.User;
+import com.lingoflow.ratelimit.RateLimit;
 import com.lingoflow.service.LearningService;
 import com.lingoflow.service.WordService;
 import lombok.RequiredArgsConstructor;
@@ -48,6 +49,7 @@ public class LearningController {
     }
 
     @PostMapping("/article")
+    @RateLimit("ai-article")
     public ResponseEntity<ApiResponse<Map<String, Object>>> generateArticle(
             @AuthenticationPrincipal User user,
             @RequestBody Map<String, Object> request) {
@@ -63,7 +65,25 @@ public class LearningController {
         return ResponseEntity.ok(ApiResponse.success(result));
     }
 
+    @GetMapping("/session/{sessionId}/article")
+    public ResponseEntity<ApiResponse<Object>> getSessionArticle(
+            @AuthenticationPrincipal User user,
+            @PathVariable Long sessionId) {
+        return ResponseEntity.ok(ApiResponse.success(learningService.getSessionArticle(user.getId(), sessionId)));
+    }
+
+    /**
+     * 阅读理解题在文章返回后生成，客户端轮询直到 status 不为 generating
+     */
+    @GetMapping("/session/{sessionId}/questions")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getSessionQuestions(
+            @AuthenticationPrincipal User user,
+            @PathVariable Long sessionId) {
+        return ResponseEntity.ok(ApiResponse.success(learningService.getSessionQuestions(user.getId(), sessionId)));
+    }
+
     @PostMapping("/sentence")
+    @RateLimit("ai-sentence")
     public ResponseEntity<ApiResponse<Map<String, Object>>> submitSentence(
             @AuthenticationPrincipal User user,
             @RequestBody Map<String, Object> request) {
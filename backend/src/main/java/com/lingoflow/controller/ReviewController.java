@@ -28,6 +28,19 @@ public class ReviewController {
         return ResponseEntity.ok(ApiResponse.success(result));
     }
 
+    /**
+     * 获取复习会话的下一批卡片 (含预生成的测试题)，客户端在作答期间预取下一批
+     */
+    @GetMapping("/session")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getReviewSession(
+            @AuthenticationPrincipal User user,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean reset) {
+
+        Map<String, Object> result = reviewService.getReviewSession(user.getId(), size, reset);
+        return ResponseEntity.ok(ApiResponse.success(result));
+    }
+
     /**
      * 提交熟悉度自评
      */
@@ -38,8 +51,10 @@ public class ReviewController {
 
         Long vocabularyId = Long.valueOf(request.get("vocabularyId").toString());
         String rating = (String) request.get("rating"); // "known" or "unknown"
+        boolean questionPrefetched = Boolean.TRUE.equals(request.get("questionPrefetched"));
 
-        Map<String, Object> result = reviewService.submitRating(user.getId(), vocabularyId, rating);
+        Map<String, Object> result = reviewService.submitRating(user.getId(), vocabularyId, rating,
+                questionPrefetched);
         return ResponseEntity.ok(ApiResponse.success(result));
     }
 
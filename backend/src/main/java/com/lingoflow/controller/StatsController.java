@@ -1,10 +1,12 @@
 package com.lingoflow.controller;
 
 import com.lingoflow.dto.ApiResponse;
+import com.lingoflow.entity.DailyCount;
 import com.lingoflow.entity.User;
+import com.lingoflow.mapper.StatsMapper;
+import com.lingoflow.service.ReviewHistoryService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
-import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
@@ -17,7 +19,11 @@ import java.util.*;
 @RequiredArgsConstructor
 public class StatsController {
 
-    private final JdbcTemplate jdbcTemplate;
+    /** 连续学习天数最多回溯的天数 */
+    private static final int STREAK_LOOKBACK_DAYS = 365;
+
+    private final StatsMapper statsMapper;
+    private final ReviewHistoryService reviewHistoryService;
 
     /**
      * 获取用户学习统计概览
@@ -29,19 +35,13 @@ public class StatsController {
         Long userId = user.getId();
 
         // 今日学习词数
-        Integer todayLearned = jdbcTemplate.queryForObject(
-                "SELECT COUNT(*) FROM vocabulary WHERE user_id = ? AND DATE(created_at) = CURDATE()",
-                Integer.class, userId);
+        Integer todayLearned = statsMapper.countLearnedToday(userId);
 
         // 待复习词数
-        Integer pendingReview = jdbcTemplate.queryForObject(
-                "SELECT COUNT(*) FROM vocabulary WHERE user_id = ? AND next_review_date <= NOW()",
-                Integer.class, userId);
+        Integer pendingReview = statsMapper.countPendingReview(userId);
 
         // 总词汇量
-        Integer totalWords = jdbcTemplate.queryForObject(
-                "SELECT COUNT(*) FROM vocabulary WHERE user_id = ?",
-                Integer.class, userId);
+        Integer totalWords = statsMapper.countTotalWords(userId);
 
         // 连续学习天数 (简化计算)
         Integer streakDays = calculateStreak(userId);
@@ -68,24 +68,20 @@ public class StatsController {
         List<Map<String, Object>> weeklyData = new ArrayList<>();
 
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM-dd");
+        LocalDate today = LocalDate.now();
 
-        for (int i = 6; i >= 0; i--) {
-            LocalDate date = LocalDate.now().minusDays(i);
-
-            // 学习数量：当天新增的单词
-            Integer learnCount = jdbcTemplate.queryForObject(
-                    "SELECT COUNT(*) FROM vocabulary WHERE user_id = ? AND DATE(created_at) = ?",
-                    Integer.class, userId, date);
+        // 学习数量：当天新增的单词；复习数量：当天的复习记录数，各用一次分组查询
+        Map<LocalDate, Integer> learnCounts = countLearnedByDay(userId, today.minusDays(6));
+        Map<LocalDate, Integer> reviewCounts = reviewHistoryService.countReviewsByDay(userId,
+                today.minusDays(6), today);
 
-            // 复习数量：当天的复习记录数
-            Integer reviewCount = jdbcTemplate.queryForObject(
-                    "SELECT COUNT(*) FROM review_records WHERE user_id = ? AND DATE(reviewed_at) = ?",
-                    Integer.class, userId, date);
+        for (int i = 6; i >= 0; i--) {
+            LocalDate date = today.minusDays(i);
 
             Map<String, Object> dayData = new HashMap<>();
             dayData.put("date", date.format(formatter));
-            dayData.put("count", learnCount != null ? learnCount : 0);
-            dayData.put("reviewCount", reviewCount != null ? reviewCount : 0);
+            dayData.put("count", learnCounts.getOrDefault(date, 0));
+            dayData.put("reviewCount", reviewCounts.getOrDefault(date, 0));
             weeklyData.add(dayData);
         }
 
@@ -93,16 +89,13 @@ public class StatsController {
     }
 
     private Integer calculateStreak(Long userId) {
-        // 简化的连续学习天数计算
-        Integer streak = 0;
+        // 一次分组查询取回过去一年每天的新增数，今天还没学习时从昨天开始计算
         LocalDate date = LocalDate.now();
+        Map<LocalDate, Integer> learnCounts = countLearnedByDay(userId, date.minusDays(STREAK_LOOKBACK_DAYS - 1));
+        Integer streak = 0;
 
-        for (int i = 0; i < 365; i++) {
-            Integer count = jdbcTemplate.queryForObject(
-                    "SELECT COUNT(*) FROM vocabulary WHERE user_id = ? AND DATE(created_at) = ?",
-                    Integer.class, userId, date.minusDays(i));
-
-            if (count != null && count > 0) {
+        for (int i = 0; i < STREAK_LOOKBACK_DAYS; i++) {
+            if (learnCounts.getOrDefault(date.minusDays(i), 0) > 0) {
                 streak++;
             } else if (i > 0) {
                 break;
@@ -111,4 +104,12 @@ public class StatsController {
 
         return streak;
     }
+
+    private Map<LocalDate, Integer> countLearnedByDay(Long userId, LocalDate from) {
+        Map<LocalDate, Integer> counts = new HashMap<>();
+        for (DailyCount day : statsMapper.countLearnedByDay(userId, from.atStartOfDay())) {
+            counts.put(day.getStatDate(), day.getTotal());
+        }
+        return counts;
+    }
 }
@@ -0,0 +1,33 @@
+package com.lingoflow.controller;
+
+import com.lingoflow.dto.ApiResponse;
+import com.lingoflow.entity.User;
+import com.lingoflow.service.SyncService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/sync")
+@RequiredArgsConstructor
+public class SyncController {
+
+    private final SyncService syncService;
+
+    /**
+     * 增量同步生词本 (含 SM-2 字段) 和删除记录
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<Map<String, Object>>> sync(
+            @AuthenticationPrincipal User user,
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = "500") int limit) {
+
+        Map<String, Object> result = syncService.getChanges(user.getId(), since, afterId, limit);
+        return ResponseEntity.ok(ApiResponse.success(result));
+    }
+}
@@ -0,0 +1,18 @@
+package com.lingoflow.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标记可以路由到只读副本的 Mapper 查询，标在接口上时对其全部查询生效
+ *
+ * 只有允许读到几秒前数据的查询才应标记 (统计、列表等)；写事务内、当前用户刚写入后的查询仍走主库
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD, ElementType.TYPE })
+public @interface ReadReplica {
+}
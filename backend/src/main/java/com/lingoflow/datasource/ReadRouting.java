@@ -0,0 +1,33 @@
+package com.lingoflow.datasource;
+
+/**
+ * 当前线程的读路由提示，由 {@link ReplicaRoutingInterceptor} 在执行 {@link ReadReplica} 查询期间设置
+ */
+final class ReadRouting {
+
+    private static final ThreadLocal<Boolean> REPLICA_PREFERRED = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    static boolean isReplicaPreferred() {
+        return Boolean.TRUE.equals(REPLICA_PREFERRED.get());
+    }
+
+    /**
+     * 设置提示并返回之前的值，调用方在 finally 中通过 {@link #restore(Boolean)} 恢复
+     */
+    static Boolean preferReplica() {
+        Boolean previous = REPLICA_PREFERRED.get();
+        REPLICA_PREFERRED.set(Boolean.TRUE);
+        return previous;
+    }
+
+    static void restore(Boolean previous) {
+        if (previous == null) {
+            REPLICA_PREFERRED.remove();
+        } else {
+            REPLICA_PREFERRED.set(previous);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.lingoflow.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * 读写分离数据源：只读事务 (@Transactional(readOnly = true)) 和 {@link ReadReplica} 查询走副本，其余走主库
+ *
+ * 以下情况读请求回退到主库:
+ * - 处于读写事务中
+ * - 当前用户处于写后窗口内 ({@link ReadYourWritesTracker})
+ * - 没有可用副本，或副本延迟超过阈值 ({@link ReplicaLagMonitor})
+ * - 获取副本连接失败
+ *
+ * 需要包装在 LazyConnectionDataSourceProxy 中使用，使选库发生在事务只读标记设置之后
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWritesTracker tracker;
+
+    private Counter primaryDefault;
+    private Counter replicaReads;
+    private Counter stickyReads;
+    private Counter fallbackReads;
+
+    public ReadWriteRoutingDataSource(DataSource primary, ReplicaLagMonitor lagMonitor,
+            ReadYourWritesTracker tracker) {
+        this.primary = primary;
+        this.lagMonitor = lagMonitor;
+        this.tracker = tracker;
+    }
+
+    public void bindMetrics(MeterRegistry registry) {
+        primaryDefault = routeCounter(registry, "primary", "read_write");
+        replicaReads = routeCounter(registry, "replica", "read");
+        stickyReads = routeCounter(registry, "primary", "read_your_writes");
+        fallbackReads = routeCounter(registry, "primary", "no_usable_replica");
+        lagMonitor.bindMetrics(registry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!isReplicaRead()) {
+            increment(primaryDefault);
+            return primary.getConnection();
+        }
+        if (tracker.isSticky()) {
+            increment(stickyReads);
+            return primary.getConnection();
+        }
+        ReplicaLagMonitor.Replica replica = lagMonitor.pick();
+        while (replica != null) {
+            try {
+                Connection connection = replica.getDataSource().getConnection();
+                increment(replicaReads);
+                return connection;
+            } catch (SQLException e) {
+                lagMonitor.markUnavailable(replica, e);
+                replica = lagMonitor.pick();
+            }
+        }
+        increment(fallbackReads);
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    private static boolean isReplicaRead() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        }
+        return ReadRouting.isReplicaPreferred();
+    }
+
+    private static Counter routeCounter(MeterRegistry registry, String target, String reason) {
+        return Counter.builder("lingoflow.datasource.connections")
+                .description("Connections handed out by the read/write router")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+}
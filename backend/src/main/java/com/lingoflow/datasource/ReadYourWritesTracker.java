@@ -0,0 +1,61 @@
+package com.lingoflow.datasource;
+
+import com.lingoflow.entity.User;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 读己之写：用户写入后的一小段时间内，该用户的读请求固定走主库
+ *
+ * 记录保存在本节点内存中，窗口应大于副本允许的最大延迟加上一次延迟检测间隔；
+ * 多节点部署时写入和随后的读取落在不同节点上不受保护，需要负载均衡按用户保持会话
+ */
+public class ReadYourWritesTracker {
+
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private final long windowMillis;
+    private final Map<Long, Long> primaryUntil = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * 记录当前登录用户的一次写入，未登录时忽略
+     */
+    public void recordWrite() {
+        Long userId = currentUserId();
+        if (userId == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        primaryUntil.put(userId, now + windowMillis);
+        if (primaryUntil.size() > PURGE_THRESHOLD) {
+            primaryUntil.values().removeIf(until -> until < now);
+        }
+    }
+
+    /**
+     * 当前登录用户是否仍处于写后窗口内
+     */
+    public boolean isSticky() {
+        Long userId = currentUserId();
+        if (userId == null) {
+            return false;
+        }
+        Long until = primaryUntil.get(userId);
+        return until != null && until > System.currentTimeMillis();
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            return user.getId();
+        }
+        return null;
+    }
+}
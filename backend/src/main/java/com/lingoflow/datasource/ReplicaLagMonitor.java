@@ -0,0 +1,171 @@
+package com.lingoflow.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 定期检测各只读副本的复制延迟，只有可用且延迟不超过 maxLagSeconds 的副本参与读路由
+ *
+ * 默认通过 SHOW REPLICA STATUS 的 Seconds_Behind_Source (旧版本为 Seconds_Behind_Master) 判断；
+ * 复制线程停止 (值为 NULL) 或查询失败视为不可用；查询无结果 (实例不是副本，例如本地两个独立实例) 视为无延迟
+ */
+@Slf4j
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    private final List<Replica> replicas;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-lag-monitor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ReplicaLagMonitor(List<Replica> replicas, String lagQuery, long maxLagSeconds, long checkIntervalMillis) {
+        this.replicas = replicas;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+        replicas.forEach(this::check);
+        scheduler.scheduleWithFixedDelay(() -> replicas.forEach(this::check),
+                checkIntervalMillis, checkIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * 轮询选择一个可用且延迟在阈值内的副本，没有时返回 null
+     */
+    public Replica pick() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.isUsable(maxLagSeconds)) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 获取副本连接失败时立即摘除，等待下一次检测恢复
+     */
+    public void markUnavailable(Replica replica, SQLException cause) {
+        if (replica.available) {
+            log.warn("event=replica_unavailable replica={} error={}", replica.getName(), cause.getMessage());
+        }
+        replica.available = false;
+    }
+
+    public void bindMetrics(MeterRegistry registry) {
+        for (Replica replica : replicas) {
+            Gauge.builder("lingoflow.datasource.replica.lag", replica,
+                            r -> r.available && r.lagSeconds >= 0 ? r.lagSeconds : Double.NaN)
+                    .description("Replication lag of the read replica")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.getName())
+                    .register(registry);
+            Gauge.builder("lingoflow.datasource.replica.usable", replica, r -> r.isUsable(maxLagSeconds) ? 1 : 0)
+                    .description("Whether the replica currently receives reads")
+                    .tag("replica", replica.getName())
+                    .register(registry);
+        }
+    }
+
+    private void check(Replica replica) {
+        boolean wasUsable = replica.isUsable(maxLagSeconds);
+        try (Connection connection = replica.getDataSource().getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery(lagQuery)) {
+            if (!rs.next()) {
+                if (!replica.notReplicatingLogged) {
+                    log.warn("event=replica_not_replicating replica={} query=\"{}\" action=treat_as_in_sync",
+                            replica.getName(), lagQuery);
+                    replica.notReplicatingLogged = true;
+                }
+                replica.lagSeconds = 0;
+                replica.available = true;
+            } else {
+                Number lag = readLag(rs);
+                replica.lagSeconds = lag != null ? lag.longValue() : -1;
+                replica.available = lag != null;
+            }
+        } catch (SQLException | RuntimeException e) {
+            replica.available = false;
+            replica.lagSeconds = -1;
+            log.debug("Replica {} lag check failed", replica.getName(), e);
+        }
+        boolean usable = replica.isUsable(maxLagSeconds);
+        if (!replica.checked) {
+            replica.checked = true;
+            log.info("Replica {} usable={} lagSeconds={}", replica.getName(), usable, replica.lagSeconds);
+        } else if (usable != wasUsable) {
+            log.warn("event=replica_routing_changed replica={} usable={} lagSeconds={} maxLagSeconds={}",
+                    replica.getName(), usable, replica.lagSeconds, maxLagSeconds);
+        }
+    }
+
+    private static Number readLag(ResultSet rs) throws SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        for (int i = 1; i <= meta.getColumnCount(); i++) {
+            String column = meta.getColumnLabel(i);
+            if ("Seconds_Behind_Source".equalsIgnoreCase(column) || "Seconds_Behind_Master".equalsIgnoreCase(column)) {
+                return (Number) rs.getObject(i);
+            }
+        }
+        // 自定义检测语句: 取第一列作为延迟秒数
+        return (Number) rs.getObject(1);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        for (Replica replica : replicas) {
+            if (replica.getDataSource() instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.debug("Failed to close replica {}", replica.getName(), e);
+                }
+            }
+        }
+    }
+
+    public static class Replica {
+
+        @Getter
+        private final String name;
+        @Getter
+        private final DataSource dataSource;
+        private volatile boolean available;
+        private volatile long lagSeconds = -1;
+        private volatile boolean notReplicatingLogged;
+        private volatile boolean checked;
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        boolean isUsable(long maxLagSeconds) {
+            return available && lagSeconds >= 0 && lagSeconds <= maxLagSeconds;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.lingoflow.datasource;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 为 {@link ReadReplica} 查询设置读路由提示，并为写语句记录读己之写窗口
+ *
+ * 非事务调用时 MyBatis 在执行语句时才获取连接，因此提示在 {@link ReadWriteRoutingDataSource} 选库时有效；
+ * 事务内连接已在第一条语句时确定，提示不会改变已绑定的连接
+ */
+@RequiredArgsConstructor
+@Intercepts({
+        @Signature(type = Executor.class, method = "update",
+                args = { MappedStatement.class, Object.class }),
+        @Signature(type = Executor.class, method = "query",
+                args = { MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class }),
+        @Signature(type = Executor.class, method = "query",
+                args = { MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class,
+                        CacheKey.class, BoundSql.class })
+})
+public class ReplicaRoutingInterceptor implements Interceptor {
+
+    private final ReadYourWritesTracker tracker;
+    private final Map<String, Boolean> replicaStatements = new ConcurrentHashMap<>();
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement statement = (MappedStatement) invocation.getArgs()[0];
+        if ("update".equals(invocation.getMethod().getName())) {
+            tracker.recordWrite();
+            return invocation.proceed();
+        }
+        if (!replicaStatements.computeIfAbsent(statement.getId(), ReplicaRoutingInterceptor::isReplicaRead)) {
+            return invocation.proceed();
+        }
+        Boolean previous = ReadRouting.preferReplica();
+        try {
+            return invocation.proceed();
+        } finally {
+            ReadRouting.restore(previous);
+        }
+    }
+
+    /**
+     * statement id 形如 com.lingoflow.mapper.StatsMapper.countTotalWords，按接口和方法上的 {@link ReadReplica} 判断
+     */
+    private static boolean isReplicaRead(String statementId) {
+        int dot = statementId.lastIndexOf('.');
+        if (dot < 0) {
+            return false;
+        }
+        Class<?> mapper;
+        try {
+            mapper = ClassUtils.forName(statementId.substring(0, dot), ReplicaRoutingInterceptor.class.getClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+        if (mapper.isAnnotationPresent(ReadReplica.class)) {
+            return true;
+        }
+        String methodName = statementId.substring(dot + 1);
+        for (Method method : mapper.getMethods()) {
+            if (method.getName().equals(methodName) && method.isAnnotationPresent(ReadReplica.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
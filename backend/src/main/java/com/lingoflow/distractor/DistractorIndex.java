@@ -0,0 +1,100 @@
+package com.lingoflow.distractor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 内存映射的干扰项近邻索引 (只读)，由 {@link DistractorIndexBuilder} 生成
+ *
+ * 文件布局 (大端):
+ * - 头部 6 个 int: magic, version, k, maxWordId, 单词数, 保留
+ * - 近邻: (maxWordId + 1) * k 个 int，按 word id 直接定位，0 表示空位
+ * - 释义偏移: maxWordId + 2 个 int，word id 的释义为 [offset[id], offset[id + 1]) 的 UTF-8 字节
+ * - 释义字节
+ *
+ * 查询只按下标读取映射内存，不访问数据库
+ */
+final class DistractorIndex {
+
+    static final int MAGIC = 0x4C464449;
+    static final int VERSION = 1;
+    private static final int HEADER_BYTES = 6 * Integer.BYTES;
+
+    private final Path file;
+    private final ByteBuffer buffer;
+    private final int k;
+    private final int maxWordId;
+    private final int wordCount;
+    private final int offsetsStart;
+    private final int meaningsStart;
+
+    private DistractorIndex(Path file, ByteBuffer buffer) {
+        this.file = file;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalStateException("Not a distractor index: " + file);
+        }
+        this.k = buffer.getInt(8);
+        this.maxWordId = buffer.getInt(12);
+        this.wordCount = buffer.getInt(16);
+        this.offsetsStart = HEADER_BYTES + (maxWordId + 1) * k * Integer.BYTES;
+        this.meaningsStart = offsetsStart + (maxWordId + 2) * Integer.BYTES;
+        if (meaningsStart > buffer.capacity()
+                || meaningsStart + buffer.getInt(meaningsStart - Integer.BYTES) != buffer.capacity()) {
+            throw new IllegalStateException("Truncated distractor index: " + file);
+        }
+    }
+
+    /**
+     * 映射整个文件；映射在通道关闭后仍然有效，直到缓冲区被回收
+     */
+    static DistractorIndex open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new DistractorIndex(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    Path file() {
+        return file;
+    }
+
+    int k() {
+        return k;
+    }
+
+    int maxWordId() {
+        return maxWordId;
+    }
+
+    int wordCount() {
+        return wordCount;
+    }
+
+    /**
+     * 第 rank 近的单词 id (rank 从 0 开始)，没有时返回 0
+     */
+    int neighbour(long wordId, int rank) {
+        if (wordId <= 0 || wordId > maxWordId || rank >= k) {
+            return 0;
+        }
+        return buffer.getInt(HEADER_BYTES + ((int) wordId * k + rank) * Integer.BYTES);
+    }
+
+    String meaning(int wordId) {
+        if (wordId <= 0 || wordId > maxWordId) {
+            return null;
+        }
+        int start = buffer.getInt(offsetsStart + wordId * Integer.BYTES);
+        int end = buffer.getInt(offsetsStart + (wordId + 1) * Integer.BYTES);
+        if (end <= start) {
+            return null;
+        }
+        byte[] bytes = new byte[end - start];
+        buffer.get(meaningsStart + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
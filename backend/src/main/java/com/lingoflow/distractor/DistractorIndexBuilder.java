@@ -0,0 +1,331 @@
+package com.lingoflow.distractor;
+
+import com.lingoflow.entity.Word;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * 离线计算每个单词最相似的 k 个单词，写成 {@link DistractorIndex} 文件
+ *
+ * 相似度综合以下几项，共有的 n-gram 数通过倒排表统计，每个单词仍与全部单词打分 (O(n²) 次算术，并行计算):
+ * - 拼写：字符三元组的 Jaccard 系数，候选重排时再加上编辑距离
+ * - 词性：释义开头的 n. / v. / adj. 等标记有交集
+ * - 释义：去掉词性后的中文释义的二元组重叠，以及释义长度接近
+ *
+ * 释义相同或有相同义项的单词不作为干扰项 (会出现两个正确选项)
+ */
+final class DistractorIndexBuilder {
+
+    private static final float ORTHO_WEIGHT = 0.30f;
+    private static final float EDIT_WEIGHT = 0.15f;
+    private static final float POS_WEIGHT = 0.25f;
+    private static final float MEANING_WEIGHT = 0.15f;
+    private static final float LENGTH_WEIGHT = 0.15f;
+    /** 拼写、释义相似度计算后保留 k 的多少倍候选，用编辑距离重排 */
+    private static final int CANDIDATE_FACTOR = 4;
+
+    private static final Pattern POS_TAG = Pattern.compile(
+            "(?<![A-Za-z])(n|v|vt|vi|aux|adj|a|adv|ad|prep|conj|pron|num|art|int|interj|abbr)\\.");
+    private static final Pattern SENSE_SEPARATOR = Pattern.compile("[；;，,、/]");
+
+    private DistractorIndexBuilder() {
+    }
+
+    /**
+     * 计算近邻并写入 file (先写同目录下唯一的临时文件再原子改名，并发构建互不覆盖)
+     */
+    static void write(List<Word> words, int k, Path file) throws IOException {
+        int maxWordId = 0;
+        for (Word word : words) {
+            maxWordId = Math.max(maxWordId, Math.toIntExact(word.getId()));
+        }
+        long neighbourBytes = (long) (maxWordId + 1) * k * Integer.BYTES;
+        if (neighbourBytes > Integer.MAX_VALUE / 2) {
+            throw new IllegalStateException("Word ids are too sparse for a distractor index: maxWordId=" + maxWordId);
+        }
+
+        int[][] neighbours = nearest(words, k);
+        int[][] byWordId = new int[maxWordId + 1][];
+        byte[][] meanings = new byte[maxWordId + 1][];
+        for (int i = 0; i < words.size(); i++) {
+            int id = words.get(i).getId().intValue();
+            byWordId[id] = neighbours[i];
+            String meaning = words.get(i).getMeaningCn();
+            meanings[id] = meaning == null ? null : meaning.getBytes(StandardCharsets.UTF_8);
+        }
+
+        Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(tmp), 64 * 1024))) {
+            out.writeInt(DistractorIndex.MAGIC);
+            out.writeInt(DistractorIndex.VERSION);
+            out.writeInt(k);
+            out.writeInt(maxWordId);
+            out.writeInt(words.size());
+            out.writeInt(0);
+            for (int id = 0; id <= maxWordId; id++) {
+                int[] row = byWordId[id];
+                for (int rank = 0; rank < k; rank++) {
+                    out.writeInt(row != null && rank < row.length ? row[rank] : 0);
+                }
+            }
+            int offset = 0;
+            for (int id = 0; id <= maxWordId; id++) {
+                out.writeInt(offset);
+                offset += meanings[id] == null ? 0 : meanings[id].length;
+            }
+            out.writeInt(offset);
+            for (byte[] meaning : meanings) {
+                if (meaning != null) {
+                    out.write(meaning);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * 每个单词 (与 words 下标对应) 按相似度降序的最多 k 个近邻 word id
+     */
+    static int[][] nearest(List<Word> words, int k) {
+        Features[] features = words.stream().map(Features::of).toArray(Features[]::new);
+        Map<Integer, int[]> gramPostings = postings(features, Features::grams);
+        Map<Integer, int[]> meaningPostings = postings(features, Features::meaningGrams);
+        ThreadLocal<int[][]> scratch = ThreadLocal.withInitial(() -> new int[2][features.length]);
+        int[][] result = new int[features.length][];
+        IntStream.range(0, features.length).parallel().forEach(i ->
+                result[i] = nearest(features, gramPostings, meaningPostings, scratch.get(), i, k));
+        return result;
+    }
+
+    /**
+     * n-gram 到包含它的单词下标的倒排表，用于统计共有的 n-gram 数，避免逐对归并
+     */
+    private static Map<Integer, int[]> postings(Features[] features, Function<Features, int[]> grams) {
+        Map<Integer, List<Integer>> lists = new HashMap<>();
+        for (int i = 0; i < features.length; i++) {
+            for (int gram : grams.apply(features[i])) {
+                lists.computeIfAbsent(gram, ignored -> new ArrayList<>()).add(i);
+            }
+        }
+        Map<Integer, int[]> postings = new HashMap<>(lists.size() * 2);
+        lists.forEach((gram, ids) -> postings.put(gram, ids.stream().mapToInt(Integer::intValue).toArray()));
+        return postings;
+    }
+
+    private static int[] nearest(Features[] features, Map<Integer, int[]> gramPostings,
+            Map<Integer, int[]> meaningPostings, int[][] scratch, int target, int k) {
+        Features a = features[target];
+        int[] commonGrams = count(a.grams, gramPostings, scratch[0]);
+        int[] commonMeaning = count(a.meaningGrams, meaningPostings, scratch[1]);
+
+        int capacity = k * CANDIDATE_FACTOR;
+        int[] candidates = new int[capacity];
+        float[] scores = new float[capacity];
+        int size = 0;
+        int min = 0;
+        for (int j = 0; j < features.length; j++) {
+            Features b = features[j];
+            float score = ORTHO_WEIGHT * jaccard(commonGrams[j], a.grams.length, b.grams.length)
+                    + POS_WEIGHT * posScore(a.pos, b.pos)
+                    + MEANING_WEIGHT * jaccard(commonMeaning[j], a.meaningGrams.length, b.meaningGrams.length)
+                    + LENGTH_WEIGHT * lengthScore(a.glossLength, b.glossLength);
+            if ((size == capacity && score <= scores[min]) || j == target || a.excludes(b)) {
+                continue;
+            }
+            if (size < capacity) {
+                candidates[size] = j;
+                scores[size++] = score;
+                if (size == capacity) {
+                    min = argMin(scores, size);
+                }
+            } else {
+                candidates[min] = j;
+                scores[min] = score;
+                min = argMin(scores, size);
+            }
+        }
+
+        // 只对候选计算编辑距离
+        Integer[] order = new Integer[size];
+        for (int c = 0; c < size; c++) {
+            Features b = features[candidates[c]];
+            scores[c] += EDIT_WEIGHT * (1 - (float) editDistance(a.word, b.word)
+                    / Math.max(1, Math.max(a.word.length(), b.word.length())));
+            order[c] = c;
+        }
+        float[] ranked = scores;
+        Arrays.sort(order, (x, y) -> Float.compare(ranked[y], ranked[x]));
+        int[] nearest = new int[Math.min(k, size)];
+        for (int r = 0; r < nearest.length; r++) {
+            nearest[r] = features[candidates[order[r]]].id;
+        }
+        return nearest;
+    }
+
+    /**
+     * 统计每个单词与目标共有的 n-gram 数，counts 为线程复用的数组
+     */
+    private static int[] count(int[] grams, Map<Integer, int[]> postings, int[] counts) {
+        Arrays.fill(counts, 0);
+        for (int gram : grams) {
+            for (int j : postings.get(gram)) {
+                counts[j]++;
+            }
+        }
+        return counts;
+    }
+
+    private static int argMin(float[] scores, int size) {
+        int min = 0;
+        for (int i = 1; i < size; i++) {
+            if (scores[i] < scores[min]) {
+                min = i;
+            }
+        }
+        return min;
+    }
+
+    /**
+     * 词性有交集为 1，都有词性但不同为 0，缺少词性标记时为 0.5
+     */
+    private static float posScore(int a, int b) {
+        if (a == 0 || b == 0) {
+            return 0.5f;
+        }
+        return (a & b) != 0 ? 1 : 0;
+    }
+
+    private static float lengthScore(int a, int b) {
+        return Math.max(a, b) == 0 ? 1 : (float) Math.min(a, b) / Math.max(a, b);
+    }
+
+    private static float jaccard(int common, int a, int b) {
+        return common == 0 ? 0 : (float) common / (a + b - common);
+    }
+
+    private static int intersection(int[] a, int[] b) {
+        int common = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] == b[j]) {
+                common++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return common;
+    }
+
+    private static int editDistance(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    /**
+     * 预先计算的单词特征，n-gram 以 int 表示并排序，便于归并求交集
+     */
+    private record Features(int id, String word, String meaning, int pos, int[] grams, int[] meaningGrams,
+            int[] senses, int glossLength) {
+
+        static Features of(Word word) {
+            String text = word.getWord() == null ? "" : word.getWord().toLowerCase(Locale.ROOT);
+            String meaning = word.getMeaningCn() == null ? "" : word.getMeaningCn().trim();
+
+            int pos = 0;
+            Matcher matcher = POS_TAG.matcher(meaning);
+            while (matcher.find()) {
+                pos |= posBit(matcher.group(1));
+            }
+            // 词性标记也作为义项分隔 ("v. 放弃 n. 放纵")
+            String gloss = POS_TAG.matcher(meaning).replaceAll("；");
+
+            List<Integer> meaningGrams = new ArrayList<>();
+            List<Integer> senses = new ArrayList<>();
+            int glossLength = 0;
+            for (String sense : SENSE_SEPARATOR.split(gloss)) {
+                sense = sense.trim();
+                if (sense.isEmpty()) {
+                    continue;
+                }
+                senses.add(sense.hashCode());
+                glossLength += sense.length();
+                if (sense.length() == 1) {
+                    meaningGrams.add((int) sense.charAt(0));
+                }
+                for (int i = 0; i + 1 < sense.length(); i++) {
+                    meaningGrams.add(sense.charAt(i) << 16 | sense.charAt(i + 1));
+                }
+            }
+
+            String padded = "^" + text + "$";
+            List<Integer> grams = new ArrayList<>();
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + 3).hashCode());
+            }
+            return new Features(word.getId().intValue(), text, meaning, pos, sorted(grams), sorted(meaningGrams),
+                    sorted(senses), glossLength);
+        }
+
+        boolean excludes(Features other) {
+            return other.meaning.isEmpty() || meaning.equals(other.meaning) || word.equals(other.word)
+                    || intersection(senses, other.senses) > 0;
+        }
+
+        private static int posBit(String tag) {
+            return switch (tag) {
+                case "n" -> 1;
+                case "v", "vt", "vi", "aux" -> 1 << 1;
+                case "adj", "a" -> 1 << 2;
+                case "adv", "ad" -> 1 << 3;
+                case "prep" -> 1 << 4;
+                case "conj" -> 1 << 5;
+                case "pron" -> 1 << 6;
+                case "num" -> 1 << 7;
+                case "art" -> 1 << 8;
+                case "int", "interj" -> 1 << 9;
+                default -> 1 << 10;
+            };
+        }
+
+        private static int[] sorted(List<Integer> values) {
+            return values.stream().mapToInt(Integer::intValue).sorted().distinct().toArray();
+        }
+    }
+}
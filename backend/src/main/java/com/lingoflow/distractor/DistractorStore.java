@@ -0,0 +1,191 @@
+package com.lingoflow.distractor;
+
+import com.lingoflow.entity.Word;
+import com.lingoflow.mapper.WordMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 复习测试题的难干扰项：预先计算的相似词近邻索引，复习时按 word id 直接读取，不做相似度搜索
+ *
+ * - 索引文件按词库内容 (id、单词、释义) 的哈希命名 (distractors-{hash}-k{k}.idx)，启动时映射已有的文件，没有则先构建
+ * - 定时读取词库计算哈希，词典导入或释义修改后重建并替换映射；各节点使用本地目录，互不影响
+ * - 检查和构建在单独的后台线程上进行，不阻塞启动和其他定时任务；已有一次检查在排队时新的请求直接忽略
+ * - 索引未就绪时 {@link #pick} 返回 null，调用方退回随机选择
+ */
+@Slf4j
+@Component
+public class DistractorStore implements AutoCloseable {
+
+    private static final String FILE_PREFIX = "distractors-";
+    private static final String FILE_SUFFIX = ".idx";
+
+    private final WordMapper wordMapper;
+    private final boolean enabled;
+    private final Path dir;
+    private final int neighbors;
+    private final ThreadPoolExecutor refresher;
+    private volatile DistractorIndex index;
+
+    public DistractorStore(WordMapper wordMapper,
+            @Value("${lingoflow.distractor-index.enabled:true}") boolean enabled,
+            @Value("${lingoflow.distractor-index.dir:./data/distractor-index}") String dir,
+            @Value("${lingoflow.distractor-index.neighbors:16}") int neighbors) {
+        this.wordMapper = wordMapper;
+        this.enabled = enabled;
+        this.dir = Paths.get(dir);
+        this.neighbors = Math.max(1, neighbors);
+        this.refresher = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "distractor-index");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        refresher.execute(this::refresh);
+    }
+
+    @Scheduled(cron = "${lingoflow.distractor-index.check-cron:0 */10 * * * *}")
+    public void check() {
+        refresher.execute(this::refresh);
+    }
+
+    /**
+     * 词库变化时重建索引并切换映射，查询只读 volatile 引用，不受切换影响
+     *
+     * 同步执行，同一时间只有一次刷新 (后台线程与直接调用方互斥)
+     */
+    public synchronized void refresh() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            // 按实际读到的词库命名，构建期间有新导入时下一次检查会再重建
+            List<Word> words = new ArrayList<>(wordMapper.findAll());
+            if (words.isEmpty()) {
+                return;
+            }
+            words.sort(Comparator.comparing(Word::getId));
+            Path file = dir.resolve(FILE_PREFIX + contentHash(words) + "-k" + neighbors + FILE_SUFFIX);
+            DistractorIndex current = index;
+            if (current != null && current.file().equals(file)) {
+                return;
+            }
+
+            long start = System.currentTimeMillis();
+            boolean built = false;
+            if (!Files.exists(file)) {
+                Files.createDirectories(dir);
+                DistractorIndexBuilder.write(words, neighbors, file);
+                built = true;
+            }
+            DistractorIndex loaded = DistractorIndex.open(file);
+            index = loaded;
+            deleteOthers(file);
+            log.info("event=distractor_index_loaded file={} words={} maxWordId={} neighbors={} built={} elapsedMs={}",
+                    file.getFileName(), loaded.wordCount(), loaded.maxWordId(), loaded.k(), built,
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.warn("event=distractor_index_refresh_failed dir={} error={}", dir, e.getMessage());
+        }
+    }
+
+    /**
+     * 与 wordId 最相似的单词中随机取 count 个不同的释义 (在前 2 * count 个近邻中选，避免每次题目相同)
+     *
+     * @return 索引未就绪或近邻不足时返回 null
+     */
+    public List<String> pick(Long wordId, String correctAnswer, int count) {
+        DistractorIndex current = index;
+        if (current == null || wordId == null) {
+            return null;
+        }
+        List<String> candidates = new ArrayList<>(count * 2);
+        for (int rank = 0; rank < current.k() && candidates.size() < count * 2; rank++) {
+            int neighbour = current.neighbour(wordId, rank);
+            if (neighbour == 0) {
+                break;
+            }
+            String meaning = current.meaning(neighbour);
+            if (meaning != null && !meaning.equals(correctAnswer) && !candidates.contains(meaning)) {
+                candidates.add(meaning);
+            }
+        }
+        if (candidates.size() < count) {
+            return null;
+        }
+        Collections.shuffle(candidates, ThreadLocalRandom.current());
+        return candidates.subList(0, count);
+    }
+
+    /**
+     * 索引依赖的字段 (id、单词、释义) 的 SHA-256 前 16 位十六进制，words 需按 id 排序
+     */
+    private static String contentHash(List<Word> words) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (Word word : words) {
+            digest.update((word.getId() + "\u0000" + nullToEmpty(word.getWord()) + "\u0000"
+                    + nullToEmpty(word.getMeaningCn()) + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        return HexFormat.of().formatHex(digest.digest(), 0, 8);
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    /**
+     * 删除旧索引 (不含其他进程正在写的临时文件)；仍被映射的文件在部分平台 (Windows) 上删除失败，下次刷新时再删
+     */
+    private void deleteOthers(Path keep) {
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(file -> !file.equals(keep))
+                    .filter(file -> file.getFileName().toString().startsWith(FILE_PREFIX)
+                            && file.getFileName().toString().endsWith(FILE_SUFFIX))
+                    .forEach(file -> {
+                        try {
+                            Files.deleteIfExists(file);
+                        } catch (IOException e) {
+                            log.debug("Could not delete old distractor index {}: {}", file, e.getMessage());
+                        }
+                    });
+        } catch (IOException e) {
+            log.debug("Could not list distractor index dir {}: {}", dir, e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        refresher.shutdownNow();
+    }
+}
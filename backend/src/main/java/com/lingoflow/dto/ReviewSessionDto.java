@@ -0,0 +1,18 @@
+package com.lingoflow.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 复习会话的服务端队列：已预生成测试题、尚未发给客户端的卡片，以及本次会话已发出的生词本 ID
+ */
+@Data
+public class ReviewSessionDto {
+    private List<Map<String, Object>> cards = new ArrayList<>();
+    private List<Long> servedIds = new ArrayList<>();
+    /** 今日到期的单词已全部进入队列 */
+    private boolean exhausted = false;
+}
@@ -0,0 +1,14 @@
+package com.lingoflow.entity;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+public class ContentBlob {
+    private Long id;
+    private String contentHash; // SHA-256(JSON)，十六进制
+    private String encoding; // identity, deflate
+    private Integer originalSize;
+    private byte[] body;
+    private LocalDateTime createdAt;
+}
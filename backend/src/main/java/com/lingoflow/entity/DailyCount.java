@@ -0,0 +1,10 @@
+package com.lingoflow.entity;
+
+import lombok.Data;
+import java.time.LocalDate;
+
+@Data
+public class DailyCount {
+    private LocalDate statDate;
+    private Integer total;
+}
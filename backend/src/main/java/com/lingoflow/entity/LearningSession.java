@@ -8,13 +8,14 @@ public class LearningSession {
     private Long id;
     private Long userId;
     private String sessionType;
-    private String aiArticle;
+    private Long articleContentId; // content_blobs.id
     private Integer wordsLearned;
     private Integer wordsCorrect;
     private Integer durationSeconds;
     private String theme;
     private String difficultyPreference;
     private Integer targetWordCount;
+    private String questionsStatus; // generating, ready, partial, failed
     private LocalDateTime startedAt;
     private LocalDateTime endedAt;
 }
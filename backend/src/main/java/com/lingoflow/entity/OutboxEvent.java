@@ -0,0 +1,17 @@
+package com.lingoflow.entity;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+public class OutboxEvent {
+    private Long id;
+    private Long userId;
+    /** {@link com.lingoflow.outbox.OutboxEventType} 的名称 */
+    private String eventType;
+    /** JSON */
+    private String payload;
+    private Integer attempts;
+    private LocalDateTime nextAttemptAt;
+    private LocalDateTime createdAt;
+}
@@ -10,7 +10,7 @@ public class SessionWord {
     private Long vocabularyId;
     private String actionType;
     private String userSentence;
-    private String aiFeedback;
+    private Long feedbackContentId; // content_blobs.id
     private Integer score;
     private String questionType;
     private String questionData;
@@ -0,0 +1,13 @@
+package com.lingoflow.entity;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+public class UserWordBestSentence {
+    private Long userId;
+    private Long wordId;
+    private Integer score;
+    private Long sessionWordId;
+    private LocalDateTime updatedAt;
+}
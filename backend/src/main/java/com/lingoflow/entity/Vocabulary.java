@@ -14,6 +14,10 @@ public class Vocabulary {
     private Integer intervalDays;
     private LocalDateTime nextReviewDate;
     private LocalDateTime lastReviewDate;
+    /** 最后一次修改时的用户生词本版本，用于增量同步 */
+    private Long syncVersion;
+    /** 乐观锁版本，SM-2 更新时校验 */
+    private Integer version;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
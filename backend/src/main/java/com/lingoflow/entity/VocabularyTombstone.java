@@ -0,0 +1,13 @@
+package com.lingoflow.entity;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+public class VocabularyTombstone {
+    private Long userId;
+    private Long vocabularyId;
+    private Long wordId;
+    private Long syncVersion;
+    private LocalDateTime deletedAt;
+}
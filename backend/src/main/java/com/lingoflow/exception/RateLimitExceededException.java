@@ -0,0 +1,17 @@
+package com.lingoflow.exception;
+
+import lombok.Getter;
+
+/**
+ * 请求超出限流，由 GlobalExceptionHandler 转换为 429 + Retry-After
+ */
+@Getter
+public class RateLimitExceededException extends BusinessException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(long retryAfterSeconds) {
+        super(429, "请求过于频繁，请 " + retryAfterSeconds + " 秒后重试");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
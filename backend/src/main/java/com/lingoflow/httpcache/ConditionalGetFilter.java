@@ -0,0 +1,169 @@
+package com.lingoflow.httpcache;
+
+import com.lingoflow.httpcache.ResourceVersions.Scope;
+import com.lingoflow.security.JwtTokenProvider;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 读多写少接口的条件 GET：由资源版本计算弱 ETag，If-None-Match 匹配时直接返回 304
+ *
+ * 位于安全过滤链中 JwtAuthenticationFilter 之前，只校验 JWT 签名，命中时不查询用户、不执行接口、不序列化响应体。
+ * 未命中时 ETag 存入请求属性，由 {@link ConditionalGetResponseAdvice} 在成功响应上写出
+ *
+ * 复习队列、统计概览等结果还随时间变化 (next_review_date &lt;= NOW())，这些接口的 ETag 额外包含
+ * time-bucket-minutes 粒度的时间段，无写操作时最多滞后一个时间段
+ */
+@Component
+public class ConditionalGetFilter extends OncePerRequestFilter {
+
+    static final String ETAG_ATTRIBUTE = ConditionalGetFilter.class.getName() + ".etag";
+
+    private static final List<Route> ROUTES = List.of(
+            new Route("/api/dictionaries", Scope.DICTIONARY, false),
+            new Route("/api/words/{id}", Scope.DICTIONARY, false),
+            new Route("/api/vocabulary", Scope.VOCABULARY, true),
+            new Route("/api/review/queue", Scope.VOCABULARY, true),
+            new Route("/api/stats/overview", Scope.VOCABULARY, true),
+            new Route("/api/sync", Scope.VOCABULARY, false));
+
+    private final ResourceVersions resourceVersions;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final long timeBucketMillis;
+
+    public ConditionalGetFilter(ResourceVersions resourceVersions, JwtTokenProvider jwtTokenProvider,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${lingoflow.http-cache.enabled:true}") boolean enabled,
+            @Value("${lingoflow.http-cache.time-bucket-minutes:5}") long timeBucketMinutes) {
+        this.resourceVersions = resourceVersions;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.meterRegistry = meterRegistry.getIfAvailable();
+        this.enabled = enabled;
+        this.timeBucketMillis = Math.max(1, timeBucketMinutes) * 60_000;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !"GET".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        Route route = match(request);
+        String etag = route == null ? null : etag(request, route);
+        if (etag == null) {
+            if (route != null) {
+                count(route, "bypass");
+            }
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            count(route, "not_modified");
+            ConditionalGetResponseAdvice.writeValidators(response::setHeader, etag);
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        count(route, "modified");
+        request.setAttribute(ETAG_ATTRIBUTE, etag);
+        filterChain.doFilter(request, response);
+    }
+
+    private Route match(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(
+                request.getRequestURI().substring(request.getContextPath().length()));
+        for (Route route : ROUTES) {
+            if (route.pattern().matches(path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 没有有效的 access token 或取不到版本时返回 null，请求按原流程处理 (包括返回 401)
+     */
+    private String etag(HttpServletRequest request, Route route) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (!StringUtils.hasText(header) || !header.startsWith("Bearer ")) {
+            return null;
+        }
+        String token = header.substring(7);
+        if (!jwtTokenProvider.validateToken(token) || !jwtTokenProvider.isAccessToken(token)) {
+            return null;
+        }
+        Long userId = route.scope().isGlobal() ? null : jwtTokenProvider.getUserIdFromToken(token);
+        List<String> versions = resourceVersions.current(List.of(route.scope()), userId);
+        if (versions == null) {
+            return null;
+        }
+
+        StringBuilder source = new StringBuilder(request.getRequestURI())
+                .append('?').append(request.getQueryString())
+                .append('|').append(userId)
+                .append('|').append(String.join(",", versions));
+        if (route.timeDependent()) {
+            source.append('|').append(LocalDate.now()).append('|')
+                    .append(System.currentTimeMillis() / timeBucketMillis);
+        }
+        return "W/\"" + DigestUtils.md5DigestAsHex(source.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * 弱比较：忽略 W/ 前缀，支持逗号分隔的多个值和 *
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (!StringUtils.hasText(ifNoneMatch)) {
+            return false;
+        }
+        String opaque = etag.substring(2);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || (value.startsWith("W/") ? value.substring(2) : value).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void count(Route route, String result) {
+        if (meterRegistry != null) {
+            Counter.builder("lingoflow.http.conditional")
+                    .description("Conditional GET outcomes on versioned endpoints")
+                    .tag("uri", route.pattern().getPatternString())
+                    .tag("result", result)
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+
+    private record Route(PathPattern pattern, Scope scope, boolean timeDependent) {
+
+        Route(String pattern, Scope scope, boolean timeDependent) {
+            this(PathPatternParser.defaultInstance.parse(pattern), scope, timeDependent);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.lingoflow.httpcache;
+
+import com.lingoflow.dto.ApiResponse;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.function.BiConsumer;
+
+/**
+ * 在成功响应上写出 {@link ConditionalGetFilter} 计算的 ETag；业务错误 (code 不是 200) 不带 ETag，避免客户端缓存错误结果
+ *
+ * Cache-Control 设为 private, no-cache：允许浏览器保存并在每次使用前重新验证，同时阻止 Spring Security 默认写入的 no-store
+ */
+@RestControllerAdvice
+public class ConditionalGetResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    static void writeValidators(BiConsumer<String, String> headers, String etag) {
+        headers.accept(HttpHeaders.ETAG, etag);
+        headers.accept(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        headers.accept(HttpHeaders.VARY, HttpHeaders.AUTHORIZATION);
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType,
+            ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && servletRequest.getServletRequest().getAttribute(ConditionalGetFilter.ETAG_ATTRIBUTE)
+                        instanceof String etag
+                && (!(body instanceof ApiResponse<?> apiResponse) || Integer.valueOf(200).equals(apiResponse.getCode()))) {
+            writeValidators(response.getHeaders()::set, etag);
+        }
+        return body;
+    }
+}
@@ -0,0 +1,143 @@
+package com.lingoflow.httpcache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 资源版本：写操作提交后为受影响的资源生成新版本，读接口据此计算 ETag (见 {@link ConditionalGetFilter})
+ *
+ * - 版本保存在 Redis，所有节点共享。每次更新写入随机值而不是递增计数，键过期或被淘汰后新生成的值不会与客户端手中的旧 ETag 相同
+ * - 在事务中调用 bump 时推迟到提交之后，避免其他请求读到新版本却查到未提交的旧数据
+ * - Redis 不可用时 current 返回 null (不做条件请求)；更新失败的键记录在本节点，Redis 恢复后补写
+ */
+@Slf4j
+@Component
+public class ResourceVersions {
+
+    private static final String KEY_PREFIX = "lf:version:";
+    private static final long REDIS_BACKOFF_MS = 5_000;
+
+    /**
+     * 版本范围，global 为 true 时所有用户共享一个版本
+     */
+    public enum Scope {
+        /** 词典和单词内容，由词典导入更新 */
+        DICTIONARY("dictionary", true),
+        /** 用户生词本 (含 SM-2 复习进度)，复习队列和统计概览也由它决定 */
+        VOCABULARY("vocabulary", false);
+
+        private final String key;
+        private final boolean global;
+
+        Scope(String key, boolean global) {
+            this.key = key;
+            this.global = global;
+        }
+
+        public boolean isGlobal() {
+            return global;
+        }
+    }
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration ttl;
+    private final Set<String> pendingBumps = ConcurrentHashMap.newKeySet();
+    private volatile long redisRetryAt;
+
+    public ResourceVersions(StringRedisTemplate redisTemplate,
+            @Value("${lingoflow.http-cache.version-ttl-hours:24}") long ttlHours) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = Duration.ofHours(ttlHours);
+    }
+
+    /**
+     * 资源已修改，全局范围的 userId 传 null
+     */
+    public void bump(Scope scope, Long userId) {
+        String key = key(scope, userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    write(key);
+                }
+            });
+        } else {
+            write(key);
+        }
+    }
+
+    /**
+     * 当前版本，与 scopes 一一对应；Redis 不可用时返回 null
+     */
+    public List<String> current(List<Scope> scopes, Long userId) {
+        if (System.currentTimeMillis() < redisRetryAt) {
+            return null;
+        }
+        List<String> keys = scopes.stream().map(scope -> key(scope, userId)).toList();
+        try {
+            flushPending();
+            List<String> values = redisTemplate.opsForValue().multiGet(keys);
+            List<String> versions = new ArrayList<>(keys.size());
+            for (int i = 0; i < keys.size(); i++) {
+                String value = values == null ? null : values.get(i);
+                if (value == null) {
+                    // 首次访问或已过期：生成初始版本，并发初始化时以先写入的为准
+                    value = newVersion();
+                    if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(keys.get(i), value, ttl))) {
+                        value = redisTemplate.opsForValue().get(keys.get(i));
+                    }
+                }
+                versions.add(value);
+            }
+            return versions.contains(null) ? null : versions;
+        } catch (Exception e) {
+            redisRetryAt = System.currentTimeMillis() + REDIS_BACKOFF_MS;
+            log.warn("event=resource_version_read_failed retryInMs={} error={}", REDIS_BACKOFF_MS, e.getMessage());
+            return null;
+        }
+    }
+
+    private void write(String key) {
+        try {
+            redisTemplate.opsForValue().set(key, newVersion(), ttl);
+        } catch (Exception e) {
+            pendingBumps.add(key);
+            redisRetryAt = System.currentTimeMillis() + REDIS_BACKOFF_MS;
+            log.warn("event=resource_version_bump_failed key={} pending={} error={}", key, pendingBumps.size(),
+                    e.getMessage());
+        }
+    }
+
+    private void flushPending() {
+        for (String key : pendingBumps) {
+            redisTemplate.opsForValue().set(key, newVersion(), ttl);
+            pendingBumps.remove(key);
+        }
+    }
+
+    private static String key(Scope scope, Long userId) {
+        if (scope.global) {
+            return KEY_PREFIX + scope.key;
+        }
+        if (userId == null) {
+            throw new IllegalArgumentException("userId is required for scope " + scope);
+        }
+        return KEY_PREFIX + scope.key + ":" + userId;
+    }
+
+    private static String newVersion() {
+        return Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    }
+}
@@ -0,0 +1,13 @@
+package com.lingoflow.leaderboard;
+
+import lombok.Data;
+
+/**
+ * 对账时从数据库统计出的一个用户的分数
+ */
+@Data
+public class BoardScore {
+
+    private Long userId;
+    private Long score;
+}
@@ -0,0 +1,49 @@
+package com.lingoflow.leaderboard;
+
+import com.lingoflow.entity.OutboxEvent;
+import com.lingoflow.leaderboard.Leaderboards.Metric;
+import com.lingoflow.outbox.OutboxEventType;
+import com.lingoflow.outbox.OutboxHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 按 outbox 事件增量更新排行榜，计入事件发生当天所在的周榜
+ *
+ * 重试可能重复计分，由 {@link LeaderboardReconcileJob} 修正
+ */
+@Component
+@RequiredArgsConstructor
+public class LeaderboardProjection implements OutboxHandler {
+
+    private final Leaderboards leaderboards;
+
+    @Override
+    public Set<OutboxEventType> eventTypes() {
+        return EnumSet.of(OutboxEventType.VOCABULARY_ADDED, OutboxEventType.REVIEW_APPLIED,
+                OutboxEventType.SENTENCE_SCORED);
+    }
+
+    @Override
+    public void handle(OutboxEvent event, Map<String, Object> payload) {
+        switch (OutboxEventType.valueOf(event.getEventType())) {
+            case VOCABULARY_ADDED -> leaderboards.increment(Metric.WORDS, event.getUserId(), event.getCreatedAt()
+                    .toLocalDate(), number(payload, "count"), number(payload, "count"));
+            case REVIEW_APPLIED -> leaderboards.increment(Metric.REVIEWS, event.getUserId(), event.getCreatedAt()
+                    .toLocalDate(), 1, 1);
+            case SENTENCE_SCORED -> leaderboards.increment(Metric.SENTENCES, event.getUserId(), event.getCreatedAt()
+                    .toLocalDate(), number(payload, "allTimeDelta"), number(payload, "weekDelta"));
+            default -> {
+            }
+        }
+    }
+
+    private static long number(Map<String, Object> payload, String key) {
+        Object value = payload.get(key);
+        return value instanceof Number number ? number.longValue() : 0;
+    }
+}
@@ -0,0 +1,114 @@
+package com.lingoflow.leaderboard;
+
+import com.lingoflow.leaderboard.Leaderboards.Metric;
+import com.lingoflow.leaderboard.Leaderboards.Period;
+import com.lingoflow.mapper.LeaderboardMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * 排行榜对账：按数据库统计重建 Redis 中的榜，修正重复投递、死信事件和删除生词造成的偏差
+ *
+ * - 周榜每小时重建一次，总榜每天一次 (全表聚合)
+ * - 启动时重建不存在的榜 (首次部署或 Redis 数据丢失)
+ * - 多节点通过 Redis 锁保证只有一个节点执行；统计查询走主库，避免副本延迟扩大偏差
+ */
+@Slf4j
+@Component
+public class LeaderboardReconcileJob {
+
+    private static final String LOCK_KEY = "lf:lock:leaderboard-reconcile";
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final int BATCH_SIZE = 1000;
+
+    private final Leaderboards leaderboards;
+    private final LeaderboardMapper leaderboardMapper;
+    private final StringRedisTemplate redisTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName();
+
+    public LeaderboardReconcileJob(Leaderboards leaderboards, LeaderboardMapper leaderboardMapper,
+            StringRedisTemplate redisTemplate, PlatformTransactionManager transactionManager) {
+        this.leaderboards = leaderboards;
+        this.leaderboardMapper = leaderboardMapper;
+        this.redisTemplate = redisTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        reconcile(true, true, true);
+    }
+
+    @Scheduled(cron = "${lingoflow.leaderboard.week-reconcile-cron:0 20 * * * *}")
+    public void reconcileWeek() {
+        reconcile(true, false, false);
+    }
+
+    @Scheduled(cron = "${lingoflow.leaderboard.all-time-reconcile-cron:0 40 4 * * *}")
+    public void reconcileAllTime() {
+        reconcile(false, true, false);
+    }
+
+    private void reconcile(boolean week, boolean allTime, boolean onlyMissing) {
+        try {
+            Boolean locked = redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, nodeId, Duration.ofMinutes(30));
+            if (!Boolean.TRUE.equals(locked)) {
+                log.debug("Leaderboard reconciliation is running on another node");
+                return;
+            }
+            try {
+                LocalDate today = LocalDate.now();
+                LocalDateTime weekStart = Leaderboards.weekStart(today);
+                for (Metric metric : Metric.values()) {
+                    if (week && (!onlyMissing || !leaderboards.exists(metric, Period.WEEK, today))) {
+                        rebuild(metric, Period.WEEK, today, weekStart);
+                    }
+                    if (allTime && (!onlyMissing || !leaderboards.exists(metric, Period.ALL, today))) {
+                        rebuild(metric, Period.ALL, today, EPOCH);
+                    }
+                }
+            } finally {
+                if (nodeId.equals(redisTemplate.opsForValue().get(LOCK_KEY))) {
+                    redisTemplate.delete(LOCK_KEY);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("event=leaderboard_reconcile_failed error={}", e.getMessage());
+        }
+    }
+
+    private void rebuild(Metric metric, Period period, LocalDate day, LocalDateTime since) {
+        long start = System.currentTimeMillis();
+        Function<LocalDateTime, Cursor<BoardScore>> query = switch (metric) {
+            case WORDS -> leaderboardMapper::countWordsSince;
+            case REVIEWS -> period == Period.ALL ? ignored -> leaderboardMapper.sumReviews()
+                    : leaderboardMapper::countReviewsSince;
+            case SENTENCES -> leaderboardMapper::sumBestSentences;
+        };
+        Long members = transactionTemplate.execute(status -> {
+            try (Cursor<BoardScore> cursor = query.apply(since)) {
+                return leaderboards.replace(metric, period, day, cursor, BATCH_SIZE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        log.info("event=leaderboard_reconciled metric={} period={} users={} elapsedMs={}", metric.key(), period,
+                members, System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,220 @@
+package com.lingoflow.leaderboard;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 排行榜：每个指标一个总榜和按 ISO 周分桶的周榜，保存在 Redis 有序集合 (member 为 userId)
+ *
+ * - 写操作通过 outbox 异步增量更新 (ZINCRBY)，周榜键在该周结束一天后自动过期
+ * - 排名查询 ZREVRANK / ZSCORE 为 O(log n)
+ * - 重复投递或死信造成的偏差由 {@link LeaderboardReconcileJob} 定期按数据库重建修正
+ * - 查询时 Redis 不可用，5 秒内不再访问，返回 null
+ */
+@Slf4j
+@Component
+public class Leaderboards {
+
+    private static final String KEY_PREFIX = "lf:board:";
+    private static final long REDIS_BACKOFF_MS = 5_000;
+
+    /**
+     * KEYS[1] 总榜, KEYS[2] 周榜; ARGV: 总榜增量, 周榜增量, userId, 周榜过期时间 (秒级时间戳)
+     */
+    private static final RedisScript<Long> INCREMENT_SCRIPT = new DefaultRedisScript<>("""
+            if tonumber(ARGV[1]) ~= 0 then
+                redis.call('ZINCRBY', KEYS[1], ARGV[1], ARGV[3])
+            end
+            if tonumber(ARGV[2]) ~= 0 then
+                redis.call('ZINCRBY', KEYS[2], ARGV[2], ARGV[3])
+                redis.call('EXPIREAT', KEYS[2], ARGV[4])
+            end
+            return 1
+            """, Long.class);
+
+    /**
+     * 排行指标
+     */
+    public enum Metric {
+        /** 加入生词本的单词数 */
+        WORDS("words"),
+        /** 完成的复习次数 (每次 SM-2 更新计一次) */
+        REVIEWS("reviews"),
+        /** 各单词最高造句得分之和 */
+        SENTENCES("sentences");
+
+        private final String key;
+
+        Metric(String key) {
+            this.key = key;
+        }
+
+        public String key() {
+            return key;
+        }
+    }
+
+    public enum Period {
+        WEEK, ALL
+    }
+
+    /**
+     * 排行榜中的一项，rank 从 1 开始
+     */
+    public record Entry(long rank, long userId, long score) {
+    }
+
+    private final StringRedisTemplate redisTemplate;
+    private volatile long redisRetryAt;
+
+    public Leaderboards(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * 增加分数，由 {@link LeaderboardProjection} 在事件提交后调用；Redis 写入失败时抛出异常，由 outbox 重试
+     *
+     * @param day       事件发生的日期，决定计入哪一周的周榜
+     * @param weekDelta 周榜的增量，与总榜不同时 (如造句分数替换了上周的记录) 分开传入
+     */
+    public void increment(Metric metric, Long userId, LocalDate day, long allTimeDelta, long weekDelta) {
+        if (allTimeDelta == 0 && weekDelta == 0) {
+            return;
+        }
+        redisTemplate.execute(INCREMENT_SCRIPT,
+                List.of(key(metric, Period.ALL, day), key(metric, Period.WEEK, day)),
+                String.valueOf(allTimeDelta), String.valueOf(weekDelta), String.valueOf(userId),
+                String.valueOf(weekExpireAt(day)));
+    }
+
+    /**
+     * 前 limit 名；Redis 不可用时返回 null
+     */
+    public List<Entry> top(Metric metric, Period period, int limit) {
+        if (System.currentTimeMillis() < redisRetryAt) {
+            return null;
+        }
+        try {
+            Set<ZSetOperations.TypedTuple<String>> tuples = redisTemplate.opsForZSet()
+                    .reverseRangeWithScores(key(metric, period, LocalDate.now()), 0, limit - 1);
+            List<Entry> entries = new ArrayList<>();
+            if (tuples != null) {
+                for (ZSetOperations.TypedTuple<String> tuple : tuples) {
+                    entries.add(new Entry(entries.size() + 1, Long.parseLong(tuple.getValue()),
+                            tuple.getScore() == null ? 0 : tuple.getScore().longValue()));
+                }
+            }
+            return entries;
+        } catch (Exception e) {
+            backOff("top", e);
+            return null;
+        }
+    }
+
+    /**
+     * 用户的排名和分数，不在榜上时 rank 为 0；Redis 不可用时返回 null
+     */
+    public Entry rank(Metric metric, Period period, Long userId) {
+        if (System.currentTimeMillis() < redisRetryAt) {
+            return null;
+        }
+        String key = key(metric, period, LocalDate.now());
+        try {
+            Long rank = redisTemplate.opsForZSet().reverseRank(key, String.valueOf(userId));
+            Double score = rank == null ? null : redisTemplate.opsForZSet().score(key, String.valueOf(userId));
+            return new Entry(rank == null ? 0 : rank + 1, userId, score == null ? 0 : score.longValue());
+        } catch (Exception e) {
+            backOff("rank", e);
+            return null;
+        }
+    }
+
+    /**
+     * 用数据库统计结果整体替换一个榜：写入临时键后 RENAME，读请求不会看到未写完的榜
+     *
+     * 重建期间提交的增量会被覆盖，留给下一次对账修正
+     *
+     * @return 榜上的用户数
+     */
+    long replace(Metric metric, Period period, LocalDate day, Iterable<BoardScore> scores, int batchSize) {
+        String key = key(metric, period, day);
+        String temp = key + ":rebuild";
+        redisTemplate.delete(temp);
+        Set<ZSetOperations.TypedTuple<String>> batch = new HashSet<>();
+        long members = 0;
+        for (BoardScore score : scores) {
+            if (score.getScore() == null || score.getScore() <= 0) {
+                continue;
+            }
+            batch.add(new DefaultTypedTuple<>(String.valueOf(score.getUserId()), score.getScore().doubleValue()));
+            if (batch.size() >= batchSize) {
+                redisTemplate.opsForZSet().add(temp, batch);
+                members += batch.size();
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            redisTemplate.opsForZSet().add(temp, batch);
+            members += batch.size();
+        }
+
+        if (members == 0) {
+            redisTemplate.delete(key);
+            return 0;
+        }
+        redisTemplate.rename(temp, key);
+        if (period == Period.WEEK) {
+            redisTemplate.expireAt(key, Instant.ofEpochSecond(weekExpireAt(day)));
+        }
+        return members;
+    }
+
+    boolean exists(Metric metric, Period period, LocalDate day) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(key(metric, period, day)));
+    }
+
+    /**
+     * day 所在 ISO 周 (周一开始) 的起始时间
+     */
+    public static LocalDateTime weekStart(LocalDate day) {
+        return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay();
+    }
+
+    private void backOff(String operation, Exception e) {
+        redisRetryAt = System.currentTimeMillis() + REDIS_BACKOFF_MS;
+        log.warn("event=leaderboard_read_failed operation={} retryInMs={} error={}", operation, REDIS_BACKOFF_MS,
+                e.getMessage());
+    }
+
+    private static String key(Metric metric, Period period, LocalDate day) {
+        if (period == Period.ALL) {
+            return KEY_PREFIX + metric.key() + ":all";
+        }
+        return KEY_PREFIX + metric.key() + ":w:" + day.get(IsoFields.WEEK_BASED_YEAR) + "-"
+                + day.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
+    }
+
+    /**
+     * 周榜在该周结束一天后过期，留出节点间时钟偏差和跨周对账的余量
+     */
+    private static long weekExpireAt(LocalDate day) {
+        return weekStart(day).plusDays(8).atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+}
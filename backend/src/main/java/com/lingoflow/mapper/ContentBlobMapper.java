@@ -0,0 +1,26 @@
+package com.lingoflow.mapper;
+
+import com.lingoflow.entity.ContentBlob;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+/**
+ * AI 生成内容 (文章、造句反馈) 存储，按内容哈希去重
+ */
+@Mapper
+public interface ContentBlobMapper {
+
+    @Select("SELECT id FROM content_blobs WHERE content_hash = #{hash}")
+    Long findIdByHash(@Param("hash") String hash);
+
+    @Select("SELECT id, content_hash, encoding, original_size, body, created_at FROM content_blobs WHERE id = #{id}")
+    ContentBlob findById(@Param("id") Long id);
+
+    @Insert("INSERT INTO content_blobs (content_hash, encoding, original_size, body, created_at) "
+            + "VALUES (#{contentHash}, #{encoding}, #{originalSize}, #{body}, NOW())")
+    @Options(useGeneratedKeys = true, keyProperty = "id")
+    int insert(ContentBlob blob);
+}
@@ -1,5 +1,6 @@
 package com.lingoflow.mapper;
 
+import com.lingoflow.datasource.ReadReplica;
 import com.lingoflow.entity.Dictionary;
 import org.apache.ibatis.annotations.*;
 
@@ -33,6 +34,7 @@ public interface DictionaryMapper {
     /**
      * 获取用户在特定词典的已学单词数
      */
+    @ReadReplica
     @Select("SELECT COUNT(DISTINCT v.word_id) " +
             "FROM vocabulary v " +
             "INNER JOIN word_dictionary_tags wdt ON v.word_id = wdt.word_id " +
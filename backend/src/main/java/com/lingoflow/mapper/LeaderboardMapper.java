@@ -0,0 +1,46 @@
+package com.lingoflow.mapper;
+
+import com.lingoflow.leaderboard.BoardScore;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 排行榜对账统计，每个用户一行，结果流式读取，需要在事务内消费
+ *
+ * 口径与增量更新一致：单词数为生词本现有单词，复习数为 SM-2 更新次数，造句为各单词最高分之和
+ */
+@Mapper
+public interface LeaderboardMapper {
+
+    @Select("SELECT user_id, COUNT(*) AS score FROM vocabulary "
+            + "WHERE created_at >= #{since} GROUP BY user_id")
+    @Options(fetchSize = Integer.MIN_VALUE)
+    Cursor<BoardScore> countWordsSince(@Param("since") LocalDateTime since);
+
+    /**
+     * vocabulary.review_count 包含已归档的复习记录
+     */
+    @Select("SELECT user_id, SUM(review_count) AS score FROM vocabulary "
+            + "WHERE review_count > 0 GROUP BY user_id")
+    @Options(fetchSize = Integer.MIN_VALUE)
+    Cursor<BoardScore> sumReviews();
+
+    /**
+     * 自评 "known" 的记录在答题后才更新 SM-2 (is_correct 非空)，未答题的不计
+     */
+    @Select("SELECT user_id, COUNT(*) AS score FROM review_records "
+            + "WHERE reviewed_at >= #{since} AND (familiarity_rating <> 'known' OR is_correct IS NOT NULL) "
+            + "GROUP BY user_id")
+    @Options(fetchSize = Integer.MIN_VALUE)
+    Cursor<BoardScore> countReviewsSince(@Param("since") LocalDateTime since);
+
+    @Select("SELECT user_id, SUM(score) AS score FROM user_word_best_sentence "
+            + "WHERE updated_at >= #{since} GROUP BY user_id")
+    @Options(fetchSize = Integer.MIN_VALUE)
+    Cursor<BoardScore> sumBestSentences(@Param("since") LocalDateTime since);
+}
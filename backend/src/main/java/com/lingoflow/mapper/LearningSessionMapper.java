@@ -13,10 +13,14 @@ public interface LearningSessionMapper {
 
     List<LearningSession> findByUserId(@Param("userId") Long userId, @Param("limit") int limit);
 
+    String findLegacyArticle(@Param("id") Long id);
+
     int insert(LearningSession session);
 
     int update(LearningSession session);
 
+    int updateQuestionsStatus(@Param("id") Long id, @Param("status") String status);
+
     int endSession(@Param("id") Long id, @Param("wordsLearned") int wordsLearned,
             @Param("wordsCorrect") int wordsCorrect, @Param("durationSeconds") int durationSeconds);
 }
@@ -0,0 +1,49 @@
+package com.lingoflow.mapper;
+
+import com.lingoflow.entity.OutboxEvent;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * outbox_events：status 0 为待投递，1 为死信，投递成功的事件直接删除
+ */
+@Mapper
+public interface OutboxMapper {
+
+    @Insert("INSERT INTO outbox_events (user_id, event_type, payload, created_at) "
+            + "VALUES (#{userId}, #{eventType}, #{payload}, CURRENT_TIMESTAMP(3))")
+    @Options(useGeneratedKeys = true, keyProperty = "id")
+    int insert(OutboxEvent event);
+
+    /**
+     * 按 id 顺序的可投递事件：跳过还在等待重试的事件，以及同一用户排在其后的事件 (保证同一用户的事件按顺序投递)，
+     * 积压中等待重试的事件不会占满一批而挡住其他用户
+     */
+    @Select("SELECT e.id, e.user_id, e.event_type, e.payload, e.attempts, e.next_attempt_at, e.created_at "
+            + "FROM outbox_events e "
+            + "WHERE e.status = 0 AND (e.next_attempt_at IS NULL OR e.next_attempt_at <= NOW()) "
+            + "AND NOT EXISTS (SELECT 1 FROM outbox_events b WHERE b.user_id = e.user_id AND b.status = 0 "
+            + "AND b.id < e.id AND b.next_attempt_at > NOW()) "
+            + "ORDER BY e.id LIMIT #{limit}")
+    List<OutboxEvent> findPending(@Param("limit") int limit);
+
+    @Delete("<script>DELETE FROM outbox_events WHERE id IN "
+            + "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach></script>")
+    int deleteByIds(@Param("ids") List<Long> ids);
+
+    @Update("UPDATE outbox_events SET attempts = #{attempts}, next_attempt_at = #{nextAttemptAt}, "
+            + "last_error = #{error} WHERE id = #{id}")
+    int scheduleRetry(@Param("id") Long id, @Param("attempts") int attempts,
+            @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("error") String error);
+
+    @Update("UPDATE outbox_events SET status = 1, attempts = #{attempts}, last_error = #{error} WHERE id = #{id}")
+    int markDead(@Param("id") Long id, @Param("attempts") int attempts, @Param("error") String error);
+}
@@ -0,0 +1,32 @@
+package com.lingoflow.mapper;
+
+import com.lingoflow.datasource.ReadReplica;
+import com.lingoflow.reminder.DueCount;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 复习提醒统计，允许秒级延迟，走只读副本
+ */
+@Mapper
+@ReadReplica
+public interface ReminderMapper {
+
+    @Select("SELECT MAX(id) FROM users")
+    Long findMaxUserId();
+
+    /**
+     * (afterUserId, toUserId] 范围内用户在 until 之前到期的单词数，按 user_id 升序最多 limit 个用户
+     *
+     * 在 idx_next_review (user_id, next_review_date) 上按范围扫描，不回表
+     */
+    @Select("SELECT user_id, COUNT(*) AS due_count FROM vocabulary "
+            + "WHERE user_id > #{afterUserId} AND user_id <= #{toUserId} AND next_review_date < #{until} "
+            + "GROUP BY user_id ORDER BY user_id LIMIT #{limit}")
+    List<DueCount> countDueByUserRange(@Param("afterUserId") long afterUserId, @Param("toUserId") long toUserId,
+            @Param("until") LocalDateTime until, @Param("limit") int limit);
+}
@@ -0,0 +1,53 @@
+package com.lingoflow.mapper;
+
+import com.lingoflow.archive.ReviewPartition;
+import com.lingoflow.entity.ReviewRecord;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.cursor.Cursor;
+
+import java.util.List;
+
+/**
+ * review_records 分区维护 Mapper (MySQL)
+ *
+ * 分区名由 ReviewArchiveJob 生成 (p_history / pYYYYMM / pmax)，不接受外部输入，因此可以直接拼接
+ */
+@Mapper
+public interface ReviewPartitionMapper {
+
+    /**
+     * 按顺序列出分区，未分区时返回空列表
+     */
+    @Select("SELECT PARTITION_NAME AS name, PARTITION_DESCRIPTION AS upper_bound "
+            + "FROM information_schema.PARTITIONS "
+            + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'review_records' AND PARTITION_NAME IS NOT NULL "
+            + "ORDER BY PARTITION_ORDINAL_POSITION")
+    List<ReviewPartition> findPartitions();
+
+    @Select("SELECT COUNT(*) FROM review_records PARTITION (${name})")
+    long countRows(@Param("name") String name);
+
+    /**
+     * 流式读取整个分区，需要在事务内消费
+     */
+    @Select("SELECT id, user_id, vocabulary_id, familiarity_rating AS rating, is_correct AS test_passed, "
+            + "response_time_ms, reviewed_at AS created_at "
+            + "FROM review_records PARTITION (${name}) ORDER BY id")
+    @Options(fetchSize = Integer.MIN_VALUE)
+    Cursor<ReviewRecord> scanPartition(@Param("name") String name);
+
+    /**
+     * 从 pmax 拆出一个新分区
+     */
+    @Update("ALTER TABLE review_records REORGANIZE PARTITION pmax INTO ("
+            + "PARTITION ${name} VALUES LESS THAN ('${upperBound}'), "
+            + "PARTITION pmax VALUES LESS THAN (MAXVALUE))")
+    void splitMaxPartition(@Param("name") String name, @Param("upperBound") String upperBound);
+
+    @Update("ALTER TABLE review_records DROP PARTITION ${name}")
+    void dropPartition(@Param("name") String name);
+}
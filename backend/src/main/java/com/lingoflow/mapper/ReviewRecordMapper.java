@@ -4,6 +4,7 @@ import com.lingoflow.entity.ReviewRecord;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Mapper
@@ -14,7 +15,21 @@ public interface ReviewRecordMapper {
     List<ReviewRecord> findByUserIdAndVocabularyId(@Param("userId") Long userId,
             @Param("vocabularyId") Long vocabularyId);
 
+    ReviewRecord findLatestByUserIdAndVocabularyId(@Param("userId") Long userId,
+            @Param("vocabularyId") Long vocabularyId,
+            @Param("since") LocalDateTime since);
+
+    /**
+     * 按 (reviewed_at, id) 升序的一页，afterReviewedAt 为空时从头读取
+     */
+    List<ReviewRecord> findPageByUserId(@Param("userId") Long userId,
+            @Param("afterReviewedAt") LocalDateTime afterReviewedAt,
+            @Param("afterId") Long afterId,
+            @Param("limit") int limit);
+
     int insert(ReviewRecord record);
 
     int update(ReviewRecord record);
+
+    int deleteByUserIdAndVocabularyId(@Param("userId") Long userId, @Param("vocabularyId") Long vocabularyId);
 }
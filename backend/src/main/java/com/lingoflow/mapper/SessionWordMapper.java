@@ -13,11 +13,7 @@ public interface SessionWordMapper {
 
     List<SessionWord> findBySessionId(@Param("sessionId") Long sessionId);
 
-    /**
-     * 查询用户对某个单词的造句记录（仅限action_type='sentence'）
-     * 用于实现造句只保留最高分的逻辑
-     */
-    SessionWord findSentenceByUserIdAndWordId(@Param("userId") Long userId, @Param("wordId") Long wordId);
+    List<SessionWord> findQuestionsBySessionId(@Param("sessionId") Long sessionId);
 
     int insert(SessionWord sessionWord);
 
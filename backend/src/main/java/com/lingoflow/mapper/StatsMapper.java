@@ -0,0 +1,68 @@
+package com.lingoflow.mapper;
+
+import com.lingoflow.datasource.ReadReplica;
+import com.lingoflow.entity.DailyCount;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 学习统计 Mapper，统计查询允许秒级延迟，全部走只读副本
+ */
+@Mapper
+@ReadReplica
+public interface StatsMapper {
+
+    /**
+     * 今日学习词数
+     */
+    @Select("SELECT COUNT(*) FROM vocabulary WHERE user_id = #{userId} AND DATE(created_at) = CURDATE()")
+    Integer countLearnedToday(@Param("userId") Long userId);
+
+    /**
+     * 待复习词数
+     */
+    @Select("SELECT COUNT(*) FROM vocabulary WHERE user_id = #{userId} AND next_review_date <= NOW()")
+    Integer countPendingReview(@Param("userId") Long userId);
+
+    /**
+     * 总词汇量
+     */
+    @Select("SELECT COUNT(*) FROM vocabulary WHERE user_id = #{userId}")
+    Integer countTotalWords(@Param("userId") Long userId);
+
+    /**
+     * from 之后每天新增的单词数，没有新增的日期不返回
+     */
+    @Select("SELECT DATE(created_at) AS stat_date, COUNT(*) AS total FROM vocabulary "
+            + "WHERE user_id = #{userId} AND created_at >= #{from} GROUP BY DATE(created_at)")
+    List<DailyCount> countLearnedByDay(@Param("userId") Long userId, @Param("from") LocalDateTime from);
+
+    /**
+     * 某天的复习记录数；已归档的日期见 ReviewHistoryService
+     */
+    default Integer countReviewsOn(Long userId, LocalDate date) {
+        return countReviewsBetween(userId, date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * [from, to) 内的复习记录数，使用 reviewed_at 范围条件以便裁剪分区和使用索引
+     */
+    @Select("SELECT COUNT(*) FROM review_records WHERE user_id = #{userId} "
+            + "AND reviewed_at >= #{from} AND reviewed_at < #{to}")
+    Integer countReviewsBetween(@Param("userId") Long userId, @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    /**
+     * [from, to) 内每天的复习记录数，没有记录的日期不返回
+     */
+    @Select("SELECT DATE(reviewed_at) AS stat_date, COUNT(*) AS total FROM review_records "
+            + "WHERE user_id = #{userId} AND reviewed_at >= #{from} AND reviewed_at < #{to} "
+            + "GROUP BY DATE(reviewed_at)")
+    List<DailyCount> countReviewsByDay(@Param("userId") Long userId, @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+}
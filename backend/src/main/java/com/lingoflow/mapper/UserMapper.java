@@ -4,11 +4,15 @@ import com.lingoflow.entity.User;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.List;
+
 @Mapper
 public interface UserMapper {
 
     User findById(@Param("id") Long id);
 
+    List<User> findByIds(@Param("ids") List<Long> ids);
+
     User findByUsername(@Param("username") String username);
 
     User findByEmail(@Param("email") String email);
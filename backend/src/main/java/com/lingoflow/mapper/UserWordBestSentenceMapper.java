@@ -0,0 +1,44 @@
+package com.lingoflow.mapper;
+
+import com.lingoflow.entity.UserWordBestSentence;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+/**
+ * 用户对每个单词的最高分造句，主键 (user_id, word_id)
+ */
+@Mapper
+public interface UserWordBestSentenceMapper {
+
+    @Select("SELECT user_id, word_id, score, session_word_id, updated_at FROM user_word_best_sentence "
+            + "WHERE user_id = #{userId} AND word_id = #{wordId}")
+    UserWordBestSentence findByUserIdAndWordId(@Param("userId") Long userId, @Param("wordId") Long wordId);
+
+    /**
+     * 当前读并加锁，需要在事务内调用
+     */
+    @Select("SELECT user_id, word_id, score, session_word_id, updated_at FROM user_word_best_sentence "
+            + "WHERE user_id = #{userId} AND word_id = #{wordId} FOR UPDATE")
+    UserWordBestSentence lockByUserIdAndWordId(@Param("userId") Long userId, @Param("wordId") Long wordId);
+
+    /**
+     * 插入首条记录，已存在时不修改 (空更新只为对已有行加排他锁，不用 INSERT IGNORE 的共享锁，
+     * 避免随后的加锁读在并发事务间死锁)；之后用 lockByUserIdAndWordId 读取并判断是否由本事务插入
+     */
+    @Insert("INSERT INTO user_word_best_sentence (user_id, word_id, score, session_word_id, updated_at) "
+            + "VALUES (#{userId}, #{wordId}, #{score}, #{sessionWordId}, NOW()) "
+            + "ON DUPLICATE KEY UPDATE user_id = user_id")
+    int insertOrLock(@Param("userId") Long userId, @Param("wordId") Long wordId,
+            @Param("score") Integer score, @Param("sessionWordId") Long sessionWordId);
+
+    /**
+     * 替换最高分造句，调用前需已通过 lockByUserIdAndWordId 持有行锁
+     */
+    @Update("UPDATE user_word_best_sentence SET score = #{score}, session_word_id = #{sessionWordId}, "
+            + "updated_at = NOW() WHERE user_id = #{userId} AND word_id = #{wordId}")
+    int replace(@Param("userId") Long userId, @Param("wordId") Long wordId,
+            @Param("score") Integer score, @Param("sessionWordId") Long sessionWordId);
+}
@@ -1,8 +1,10 @@
 package com.lingoflow.mapper;
 
+import com.lingoflow.datasource.ReadReplica;
 import com.lingoflow.entity.Vocabulary;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 
 import java.util.List;
 
@@ -13,6 +15,7 @@ public interface VocabularyMapper {
 
     Vocabulary findByUserIdAndWordId(@Param("userId") Long userId, @Param("wordId") Long wordId);
 
+    @ReadReplica
     List<Vocabulary> findByUserId(@Param("userId") Long userId,
             @Param("status") String status,
             @Param("offset") int offset,
@@ -22,15 +25,42 @@ public interface VocabularyMapper {
 
     List<Vocabulary> findByUserIdAndWordIds(@Param("userId") Long userId, @Param("wordIds") List<Long> wordIds);
 
+    @ReadReplica
     int countByUserId(@Param("userId") Long userId, @Param("status") String status);
 
     boolean existsByUserIdAndWordId(@Param("userId") Long userId, @Param("wordId") Long wordId);
 
+    List<Vocabulary> findChangedSince(@Param("userId") Long userId,
+            @Param("since") long since,
+            @Param("afterId") long afterId,
+            @Param("limit") int limit);
+
+    Cursor<Vocabulary> streamByUserId(@Param("userId") Long userId);
+
     int insert(Vocabulary vocabulary);
 
+    /**
+     * 一条语句插入多个新生词，共用同一个同步版本
+     */
+    int insertBatch(@Param("userId") Long userId, @Param("wordIds") List<Long> wordIds,
+            @Param("syncVersion") long syncVersion);
+
+    /**
+     * 按 version 条件更新 SM-2 字段并将 version 加 1，返回 0 表示记录已被并发修改 (或已删除)
+     */
     int update(Vocabulary vocabulary);
 
+    /**
+     * 在 {@link #update} 成功后的同一事务内写入同步版本
+     */
+    int updateSyncVersion(@Param("id") Long id, @Param("syncVersion") long syncVersion);
+
     int deleteById(@Param("id") Long id);
 
+    /**
+     * 锁住生词行直到事务结束，返回其 word_id；不存在时返回 null
+     */
+    Long lockWordId(@Param("userId") Long userId, @Param("id") Long id);
+
     int deleteByUserIdAndId(@Param("userId") Long userId, @Param("id") Long id);
 }
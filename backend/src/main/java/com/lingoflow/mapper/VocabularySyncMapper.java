@@ -0,0 +1,37 @@
+package com.lingoflow.mapper;
+
+import com.lingoflow.entity.VocabularyTombstone;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
+
+/**
+ * 生词本同步版本 (users.sync_version) 与删除墓碑 (vocabulary_tombstones)
+ */
+@Mapper
+public interface VocabularySyncMapper {
+
+    /**
+     * 递增用户版本并锁住用户行直到事务结束，需要在事务内调用；不改变 updated_at
+     */
+    @Update("UPDATE users SET sync_version = sync_version + 1, updated_at = updated_at WHERE id = #{userId}")
+    int incrementVersion(@Param("userId") Long userId);
+
+    @Select("SELECT sync_version FROM users WHERE id = #{userId}")
+    Long findVersion(@Param("userId") Long userId);
+
+    @Insert("INSERT INTO vocabulary_tombstones (user_id, vocabulary_id, word_id, sync_version, deleted_at) "
+            + "VALUES (#{userId}, #{vocabularyId}, #{wordId}, #{version}, NOW())")
+    int insertTombstone(@Param("userId") Long userId, @Param("vocabularyId") Long vocabularyId,
+            @Param("wordId") Long wordId, @Param("version") long version);
+
+    @Select("SELECT user_id, vocabulary_id, word_id, sync_version, deleted_at FROM vocabulary_tombstones "
+            + "WHERE user_id = #{userId} AND sync_version > #{since} AND sync_version <= #{until} "
+            + "ORDER BY sync_version")
+    List<VocabularyTombstone> findTombstones(@Param("userId") Long userId, @Param("since") long since,
+            @Param("until") long until);
+}
@@ -0,0 +1,46 @@
+package com.lingoflow.metrics;
+
+import com.lingoflow.cache.CacheStats;
+import com.lingoflow.cache.TwoLevelCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 将 {@link CacheStats} 注册为 Micrometer 指标，标签 cache 为缓存名
+ */
+public final class CacheMetrics {
+
+    private CacheMetrics() {
+    }
+
+    public static void bind(TwoLevelCache<?> cache, MeterRegistry registry) {
+        CacheStats stats = cache.getStats();
+        Tags tags = Tags.of("cache", cache.getName());
+
+        FunctionCounter.builder("lingoflow.cache.gets", stats, CacheStats::getLocalHits)
+                .tags(tags).tag("result", "local_hit").register(registry);
+        FunctionCounter.builder("lingoflow.cache.gets", stats, CacheStats::getRedisHits)
+                .tags(tags).tag("result", "redis_hit").register(registry);
+        FunctionCounter.builder("lingoflow.cache.gets", stats, CacheStats::getMisses)
+                .tags(tags).tag("result", "miss").register(registry);
+        FunctionCounter.builder("lingoflow.cache.early.refreshes", stats, CacheStats::getEarlyRefreshes)
+                .tags(tags).register(registry);
+        FunctionCounter.builder("lingoflow.cache.coalesced.loads", stats, CacheStats::getCoalescedLoads)
+                .tags(tags).register(registry);
+        FunctionCounter.builder("lingoflow.cache.errors", stats, CacheStats::getErrors)
+                .tags(tags).register(registry);
+        FunctionTimer.builder("lingoflow.cache.loads", stats, CacheStats::getLoads, CacheStats::getLoadNanos,
+                TimeUnit.NANOSECONDS).tags(tags).register(registry);
+        FunctionTimer.builder("lingoflow.cache.redis", stats, CacheStats::getRedisCalls, CacheStats::getRedisNanos,
+                TimeUnit.NANOSECONDS).tags(tags).register(registry);
+        Gauge.builder("lingoflow.cache.hit.ratio", stats, CacheStats::getHitRatio)
+                .tags(tags).register(registry);
+        Gauge.builder("lingoflow.cache.local.size", cache, TwoLevelCache::localSize)
+                .tags(tags).register(registry);
+    }
+}
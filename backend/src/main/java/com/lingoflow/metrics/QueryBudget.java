@@ -0,0 +1,77 @@
+package com.lingoflow.metrics;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 当前线程（请求）内的 SQL 语句计数
+ *
+ * 由 {@link QueryBudgetFilter} 在请求开始时开启，{@link MybatisMetricsInterceptor} 在每条语句执行后记录
+ */
+public final class QueryBudget {
+
+    private static final ThreadLocal<Stats> CURRENT = new ThreadLocal<>();
+
+    private QueryBudget() {
+    }
+
+    public static Stats begin() {
+        Stats stats = new Stats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static Stats current() {
+        return CURRENT.get();
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    static void record(String statementId, long nanos) {
+        Stats stats = CURRENT.get();
+        if (stats != null) {
+            stats.record(statementId, nanos);
+        }
+    }
+
+    public static class Stats {
+
+        private int statementCount;
+        private long dbNanos;
+        private final Map<String, Integer> perStatement = new HashMap<>();
+
+        void record(String statementId, long nanos) {
+            statementCount++;
+            dbNanos += nanos;
+            perStatement.merge(statementId, 1, Integer::sum);
+        }
+
+        public int getStatementCount() {
+            return statementCount;
+        }
+
+        public long getDbNanos() {
+            return dbNanos;
+        }
+
+        public double getDbMillis() {
+            return dbNanos / 1_000_000.0;
+        }
+
+        public Map<String, Integer> getPerStatement() {
+            return Collections.unmodifiableMap(perStatement);
+        }
+
+        /**
+         * 执行次数最多的语句，没有语句时返回 null
+         */
+        public Map.Entry<String, Integer> getMostRepeated() {
+            return perStatement.entrySet().stream()
+                    .max(Map.Entry.comparingByValue())
+                    .orElse(null);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.lingoflow.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 统计每个请求执行的 SQL 语句数和数据库耗时
+ *
+ * - 指标: http.server.queries (语句数) / http.server.db.time (数据库耗时)，按 method + uri 打标签
+ * - 超出语句预算或同一语句重复执行超过阈值 (疑似 N+1) 时输出结构化告警日志
+ * - 开发环境下由 {@link QueryBudgetResponseAdvice} 写入 X-Query-Count / X-Query-Time-Ms 响应头
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final int maxStatements;
+    private final int maxRepeats;
+
+    public QueryBudgetFilter(MeterRegistry meterRegistry,
+            @Value("${lingoflow.query-budget.max-statements:20}") int maxStatements,
+            @Value("${lingoflow.query-budget.max-repeats:5}") int maxRepeats) {
+        this.meterRegistry = meterRegistry;
+        this.maxStatements = maxStatements;
+        this.maxRepeats = maxRepeats;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+
+        QueryBudget.Stats stats = QueryBudget.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            QueryBudget.end();
+            report(request, stats);
+        }
+    }
+
+    private void report(HttpServletRequest request, QueryBudget.Stats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String method = request.getMethod();
+
+        DistributionSummary.builder("http.server.queries")
+                .description("SQL statements executed per request")
+                .tag("method", method)
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.getStatementCount());
+        Timer.builder("http.server.db.time")
+                .description("Database time spent per request")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(stats.getDbNanos(), TimeUnit.NANOSECONDS);
+
+        Map.Entry<String, Integer> mostRepeated = stats.getMostRepeated();
+        boolean overBudget = stats.getStatementCount() > maxStatements;
+        boolean repeated = mostRepeated != null && mostRepeated.getValue() > maxRepeats;
+        if (overBudget || repeated) {
+            log.warn("event=query_budget_exceeded method={} uri={} statements={} budget={} dbTimeMs={} "
+                    + "topStatement={} topStatementCount={} repeatLimit={}",
+                    method, uri, stats.getStatementCount(), maxStatements,
+                    String.format("%.2f", stats.getDbMillis()),
+                    mostRepeated != null ? mostRepeated.getKey() : null,
+                    mostRepeated != null ? mostRepeated.getValue() : 0,
+                    maxRepeats);
+        }
+    }
+}
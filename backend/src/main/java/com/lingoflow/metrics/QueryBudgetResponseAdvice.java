@@ -0,0 +1,39 @@
+package com.lingoflow.metrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * 开发环境下在响应头中输出本次请求的 SQL 语句数和数据库耗时
+ *
+ * 响应体写出后无法再修改响应头，因此在序列化之前写入
+ */
+@RestControllerAdvice
+public class QueryBudgetResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    @Value("${lingoflow.query-budget.expose-headers:false}")
+    private boolean exposeHeaders;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return exposeHeaders;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType,
+            ServerHttpRequest request, ServerHttpResponse response) {
+        QueryBudget.Stats stats = QueryBudget.current();
+        if (stats != null) {
+            response.getHeaders().set("X-Query-Count", String.valueOf(stats.getStatementCount()));
+            response.getHeaders().set("X-Query-Time-Ms", String.format("%.2f", stats.getDbMillis()));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,15 @@
+package com.lingoflow.outbox;
+
+/**
+ * outbox 事件类型，payload 字段见各项说明
+ */
+public enum OutboxEventType {
+    /** 加入生词本: count */
+    VOCABULARY_ADDED,
+    /** 移除生词: vocabularyId */
+    VOCABULARY_REMOVED,
+    /** 一次复习更新了 SM-2 进度: vocabularyId */
+    REVIEW_APPLIED,
+    /** 造句刷新了单词最高分: allTimeDelta, weekDelta (各单词最高分之和的变化) */
+    SENTENCE_SCORED
+}
@@ -0,0 +1,18 @@
+package com.lingoflow.outbox;
+
+import com.lingoflow.entity.OutboxEvent;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 派生视图的投影，由 {@link OutboxProjector} 在事务提交后异步调用
+ *
+ * 投递为至少一次：失败 (抛出异常) 时整个事件按退避重试，同一事件的其他投影也会再次执行，处理需要幂等或容忍重复
+ */
+public interface OutboxHandler {
+
+    Set<OutboxEventType> eventTypes();
+
+    void handle(OutboxEvent event, Map<String, Object> payload);
+}
@@ -0,0 +1,268 @@
+package com.lingoflow.outbox;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lingoflow.entity.OutboxEvent;
+import com.lingoflow.mapper.OutboxMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 投递 outbox 事件到派生视图 (复习队列缓存、资源版本、排行榜)，请求在主写入提交后即返回
+ *
+ * - 单个后台线程按 id 顺序批量读取待投递事件，本节点提交事务后立即唤醒，否则按 poll-interval-ms 轮询
+ * - 同一用户的事件按顺序投递：前面的事件失败或在等待重试时，该用户后续的事件留到下一轮
+ * - 至少一次投递：全部处理器成功后才删除，失败按指数退避重试，超过 max-attempts 次转为死信 (status = 1) 不再投递
+ * - 多节点通过 Redis 租约保证只有一个节点投递；Redis 不可用时暂停投递，事件留在表中
+ */
+@Slf4j
+@Component
+public class OutboxProjector implements AutoCloseable {
+
+    private static final String LEASE_KEY = "lf:lock:outbox-projector";
+    private static final long REDIS_BACKOFF_MS = 5_000;
+    private static final long MAX_RETRY_DELAY_SECONDS = 300;
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {
+    };
+
+    /**
+     * KEYS[1] 租约; ARGV: 节点, 租约毫秒数。获取或续租成功返回 1，租约属于其他节点返回 0
+     */
+    private static final RedisScript<Long> LEASE_SCRIPT = new DefaultRedisScript<>("""
+            local owner = redis.call('GET', KEYS[1])
+            if not owner then
+                redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+                return 1
+            end
+            if owner == ARGV[1] then
+                redis.call('PEXPIRE', KEYS[1], ARGV[2])
+                return 1
+            end
+            return 0
+            """, Long.class);
+
+    private final OutboxMapper outboxMapper;
+    private final OutboxPublisher publisher;
+    private final Map<OutboxEventType, List<OutboxHandler>> handlers = new EnumMap<>(OutboxEventType.class);
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long pollMillis;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName();
+    private final Semaphore wakeUps = new Semaphore(0);
+    private volatile Thread worker;
+    private long leaseValidUntil;
+
+    public OutboxProjector(OutboxMapper outboxMapper, OutboxPublisher publisher, ObjectProvider<OutboxHandler> handlers,
+            StringRedisTemplate redisTemplate, ObjectMapper objectMapper, ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${lingoflow.outbox.enabled:true}") boolean enabled,
+            @Value("${lingoflow.outbox.batch-size:200}") int batchSize,
+            @Value("${lingoflow.outbox.poll-interval-ms:100}") long pollMillis,
+            @Value("${lingoflow.outbox.max-attempts:8}") int maxAttempts,
+            @Value("${lingoflow.outbox.lease-seconds:10}") long leaseSeconds) {
+        this.outboxMapper = outboxMapper;
+        this.publisher = publisher;
+        handlers.orderedStream().forEach(handler -> handler.eventTypes().forEach(type ->
+                this.handlers.computeIfAbsent(type, ignored -> new ArrayList<>()).add(handler)));
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry.getIfAvailable();
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.pollMillis = Math.max(10, pollMillis);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || worker != null) {
+            return;
+        }
+        publisher.setCommitListener(this::wakeUp);
+        Thread thread = new Thread(this::loop, "outbox-projector");
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+        log.info("event=outbox_projector_started batchSize={} pollIntervalMs={} maxAttempts={}", batchSize,
+                pollMillis, maxAttempts);
+    }
+
+    /**
+     * 本节点提交了新事件
+     */
+    void wakeUp() {
+        if (wakeUps.availablePermits() == 0) {
+            wakeUps.release();
+        }
+    }
+
+    private void loop() {
+        while (worker == Thread.currentThread()) {
+            try {
+                long delay = pollMillis;
+                if (!holdLease()) {
+                    delay = Math.max(pollMillis, lease.toMillis() / 2);
+                } else if (drainOnce() >= batchSize) {
+                    // 整批投递成功，可能还有积压，继续下一批
+                    continue;
+                }
+                wakeUps.tryAcquire(delay, TimeUnit.MILLISECONDS);
+                wakeUps.drainPermits();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.warn("event=outbox_drain_failed error={}", e.getMessage());
+                sleep(REDIS_BACKOFF_MS);
+            }
+        }
+    }
+
+    /**
+     * 获取或续租；租约剩余时间超过一半时不访问 Redis
+     */
+    private boolean holdLease() {
+        long now = System.currentTimeMillis();
+        if (now < leaseValidUntil - lease.toMillis() / 2) {
+            return true;
+        }
+        try {
+            Long owned = redisTemplate.execute(LEASE_SCRIPT, List.of(LEASE_KEY), nodeId,
+                    String.valueOf(lease.toMillis()));
+            leaseValidUntil = owned != null && owned == 1 ? now + lease.toMillis() : 0;
+        } catch (Exception e) {
+            leaseValidUntil = 0;
+            log.warn("event=outbox_lease_failed retryInMs={} error={}", REDIS_BACKOFF_MS, e.getMessage());
+            sleep(REDIS_BACKOFF_MS);
+        }
+        return leaseValidUntil > now;
+    }
+
+    /**
+     * 投递一批事件
+     *
+     * @return 本批投递成功的事件数，等于 batchSize 时表示可能还有积压；有失败时等到下一轮，不空转
+     */
+    int drainOnce() {
+        List<OutboxEvent> events = outboxMapper.findPending(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> blockedUsers = new HashSet<>();
+        List<Long> delivered = new ArrayList<>();
+        for (OutboxEvent event : events) {
+            if (blockedUsers.contains(event.getUserId())) {
+                continue;
+            }
+            // findPending 已按数据库时间过滤，这里防止节点时钟与数据库不一致
+            if (event.getNextAttemptAt() != null && event.getNextAttemptAt().isAfter(now)) {
+                blockedUsers.add(event.getUserId());
+                continue;
+            }
+            try {
+                dispatch(event);
+                delivered.add(event.getId());
+                record(event, "delivered");
+            } catch (Exception e) {
+                blockedUsers.add(event.getUserId());
+                fail(event, e);
+            }
+        }
+        if (!delivered.isEmpty()) {
+            outboxMapper.deleteByIds(delivered);
+        }
+        return delivered.size();
+    }
+
+    private void dispatch(OutboxEvent event) throws Exception {
+        OutboxEventType type = OutboxEventType.valueOf(event.getEventType());
+        Map<String, Object> payload = event.getPayload() == null ? Map.of()
+                : objectMapper.readValue(event.getPayload(), PAYLOAD_TYPE);
+        for (OutboxHandler handler : handlers.getOrDefault(type, List.of())) {
+            handler.handle(event, payload);
+        }
+    }
+
+    private void fail(OutboxEvent event, Exception e) {
+        int attempts = (event.getAttempts() != null ? event.getAttempts() : 0) + 1;
+        String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        if (error.length() > 500) {
+            error = error.substring(0, 500);
+        }
+        if (attempts >= maxAttempts) {
+            outboxMapper.markDead(event.getId(), attempts, error);
+            record(event, "dead");
+            log.error("event=outbox_dead_lettered id={} type={} userId={} attempts={} error={}", event.getId(),
+                    event.getEventType(), event.getUserId(), attempts, error);
+            return;
+        }
+        long delaySeconds = Math.min(1L << Math.min(attempts, 20), MAX_RETRY_DELAY_SECONDS);
+        outboxMapper.scheduleRetry(event.getId(), attempts, LocalDateTime.now().plusSeconds(delaySeconds), error);
+        record(event, "retried");
+        log.warn("event=outbox_delivery_failed id={} type={} userId={} attempts={} retryInSec={} error={}",
+                event.getId(), event.getEventType(), event.getUserId(), attempts, delaySeconds, error);
+    }
+
+    private void record(OutboxEvent event, String result) {
+        if (meterRegistry == null) {
+            return;
+        }
+        Counter.builder("lingoflow.outbox.events")
+                .description("Outbox events handled by the projector")
+                .tag("type", event.getEventType())
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+        if ("delivered".equals(result) && event.getCreatedAt() != null) {
+            Timer.builder("lingoflow.outbox.lag")
+                    .description("Time from commit to delivery of an outbox event")
+                    .register(meterRegistry)
+                    .record(Duration.between(event.getCreatedAt(), LocalDateTime.now()));
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        Thread thread = worker;
+        worker = null;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+}
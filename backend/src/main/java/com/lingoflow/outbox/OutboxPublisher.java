@@ -0,0 +1,56 @@
+package com.lingoflow.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lingoflow.entity.OutboxEvent;
+import com.lingoflow.mapper.OutboxMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+
+/**
+ * 在领域写操作的事务内记录 outbox 事件，提交后唤醒本节点的 {@link OutboxProjector}
+ */
+@Component
+public class OutboxPublisher {
+
+    private final OutboxMapper outboxMapper;
+    private final ObjectMapper objectMapper;
+    private volatile Runnable commitListener;
+
+    public OutboxPublisher(OutboxMapper outboxMapper, ObjectMapper objectMapper) {
+        this.outboxMapper = outboxMapper;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(Long userId, OutboxEventType type, Map<String, Object> payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setUserId(userId);
+        event.setEventType(type.name());
+        try {
+            event.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unserializable outbox payload for " + type, e);
+        }
+        outboxMapper.insert(event);
+
+        Runnable listener = commitListener;
+        if (listener != null) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    listener.run();
+                }
+            });
+        }
+    }
+
+    void setCommitListener(Runnable commitListener) {
+        this.commitListener = commitListener;
+    }
+}
@@ -0,0 +1,39 @@
+package com.lingoflow.outbox;
+
+import com.lingoflow.entity.OutboxEvent;
+import com.lingoflow.httpcache.ResourceVersions;
+import com.lingoflow.service.ReviewService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 生词本变化后失效复习队列缓存并更新资源版本 (ETag)
+ *
+ * 先删缓存再换版本：投递完成前读到的是旧版本和旧数据，不会出现新 ETag 对应旧内容。
+ * 缓存按事件创建日期定位，删除失败时抛出异常，由 outbox 重试
+ */
+@Component
+@RequiredArgsConstructor
+public class VocabularyViewProjection implements OutboxHandler {
+
+    private final ReviewService reviewService;
+    private final ResourceVersions resourceVersions;
+
+    @Override
+    public Set<OutboxEventType> eventTypes() {
+        return EnumSet.of(OutboxEventType.VOCABULARY_ADDED, OutboxEventType.VOCABULARY_REMOVED,
+                OutboxEventType.REVIEW_APPLIED);
+    }
+
+    @Override
+    public void handle(OutboxEvent event, Map<String, Object> payload) {
+        LocalDate day = event.getCreatedAt() != null ? event.getCreatedAt().toLocalDate() : LocalDate.now();
+        reviewService.evictReviewQueue(event.getUserId(), day);
+        resourceVersions.bump(ResourceVersions.Scope.VOCABULARY, event.getUserId());
+    }
+}
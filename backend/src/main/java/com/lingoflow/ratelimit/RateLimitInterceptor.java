@@ -0,0 +1,44 @@
+package com.lingoflow.ratelimit;
+
+import com.lingoflow.entity.User;
+import com.lingoflow.exception.RateLimitExceededException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * 对标注了 {@link RateLimit} 的接口按 (用户, 桶) 限流，超出时抛出 {@link RateLimitExceededException}
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final TokenBucketRateLimiter rateLimiter;
+
+    @Value("${lingoflow.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!enabled || !(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        RateLimit rateLimit = method.getMethodAnnotation(RateLimit.class);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (rateLimit == null || authentication == null || !(authentication.getPrincipal() instanceof User user)) {
+            return true;
+        }
+        TokenBucketRateLimiter.Decision decision = rateLimiter.tryAcquire(rateLimit.value(),
+                String.valueOf(user.getId()));
+        if (!decision.allowed()) {
+            throw new RateLimitExceededException(Math.max(1, (decision.retryAfterMillis() + 999) / 1000));
+        }
+        return true;
+    }
+}
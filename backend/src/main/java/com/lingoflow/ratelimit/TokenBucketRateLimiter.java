@@ -0,0 +1,180 @@
+package com.lingoflow.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 令牌桶限流：桶状态保存在 Redis，由 Lua 脚本原子地补充和扣减，所有节点共享同一个桶
+ *
+ * Redis 不可用时退化为本节点内存中的令牌桶 (多节点时总速率为配置值乘以节点数)，并在 5 秒内不再访问 Redis
+ */
+@Slf4j
+@Component
+public class TokenBucketRateLimiter {
+
+    private static final long REDIS_BACKOFF_MS = 5_000;
+    private static final int LOCAL_MAX_BUCKETS = 100_000;
+
+    /**
+     * KEYS[1] 桶; ARGV: 容量, 每毫秒补充的令牌数, 当前毫秒时间戳。返回 {是否放行, 需要等待的毫秒数}
+     */
+    private static final RedisScript<List> ACQUIRE_SCRIPT = new DefaultRedisScript<>("""
+            local capacity = tonumber(ARGV[1])
+            local rate = tonumber(ARGV[2])
+            local now = tonumber(ARGV[3])
+            local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+            local tokens = tonumber(state[1])
+            local ts = tonumber(state[2])
+            if tokens == nil or ts == nil then
+                tokens = capacity
+                ts = now
+            end
+            if now > ts then
+                tokens = math.min(capacity, tokens + (now - ts) * rate)
+                ts = now
+            end
+            local allowed = 0
+            local wait = 0
+            if tokens >= 1 then
+                tokens = tokens - 1
+                allowed = 1
+            else
+                wait = math.ceil((1 - tokens) / rate)
+            end
+            redis.call('HMSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(ts))
+            redis.call('PEXPIRE', KEYS[1], math.ceil(capacity / rate) + 1000)
+            return {allowed, wait}
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, BucketConfig> configs = new ConcurrentHashMap<>();
+    private final Map<String, LocalBucket> localBuckets = new ConcurrentHashMap<>();
+    private volatile long redisRetryAt;
+
+    public TokenBucketRateLimiter(StringRedisTemplate redisTemplate, Environment environment,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.environment = environment;
+        this.meterRegistry = meterRegistry.getIfAvailable();
+    }
+
+    /**
+     * 限流结果，retryAfterMillis 仅在未放行时有意义
+     */
+    public record Decision(boolean allowed, long retryAfterMillis) {
+    }
+
+    /**
+     * 从 bucket 桶中为 subject 取一个令牌
+     */
+    public Decision tryAcquire(String bucket, String subject) {
+        BucketConfig config = configs.computeIfAbsent(bucket, this::loadConfig);
+        long now = System.currentTimeMillis();
+        String key = "lf:ratelimit:" + bucket + ":" + subject;
+
+        Decision decision = null;
+        String backend = "redis";
+        if (now >= redisRetryAt) {
+            decision = acquireFromRedis(key, config, now);
+        }
+        if (decision == null) {
+            backend = "local";
+            decision = acquireLocally(key, config, now);
+        }
+        count(bucket, decision.allowed() ? "allowed" : "throttled", backend);
+        return decision;
+    }
+
+    private Decision acquireFromRedis(String key, BucketConfig config, long now) {
+        try {
+            List<?> result = redisTemplate.execute(ACQUIRE_SCRIPT, List.of(key), String.valueOf(config.capacity()),
+                    String.valueOf(config.tokensPerMilli()), String.valueOf(now));
+            return new Decision(((Number) result.get(0)).longValue() == 1, ((Number) result.get(1)).longValue());
+        } catch (Exception e) {
+            redisRetryAt = now + REDIS_BACKOFF_MS;
+            log.warn("event=rate_limit_redis_failed fallback=local retryInMs={} error={}", REDIS_BACKOFF_MS,
+                    e.getMessage());
+            return null;
+        }
+    }
+
+    private Decision acquireLocally(String key, BucketConfig config, long now) {
+        if (localBuckets.size() >= LOCAL_MAX_BUCKETS) {
+            localBuckets.values().removeIf(bucket -> bucket.isFull(config, now));
+        }
+        return localBuckets.computeIfAbsent(key, k -> new LocalBucket(config.capacity(), now))
+                .tryAcquire(config, now);
+    }
+
+    private BucketConfig loadConfig(String bucket) {
+        String prefix = "lingoflow.rate-limit." + bucket + ".";
+        int burst = environment.getProperty(prefix + "burst", Integer.class, 5);
+        double refillPerMinute = environment.getProperty(prefix + "refill-per-minute", Double.class, 10.0);
+        if (burst < 1 || refillPerMinute <= 0) {
+            throw new IllegalStateException("Invalid rate limit for bucket " + bucket
+                    + ": burst and refill-per-minute must be positive");
+        }
+        log.info("Rate limit bucket {}: burst={} refillPerMinute={}", bucket, burst, refillPerMinute);
+        return new BucketConfig(burst, refillPerMinute / 60_000.0);
+    }
+
+    private void count(String bucket, String result, String backend) {
+        if (meterRegistry != null) {
+            Counter.builder("lingoflow.ratelimit.requests")
+                    .description("Rate-limited requests by outcome")
+                    .tag("bucket", bucket)
+                    .tag("result", result)
+                    .tag("backend", backend)
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+
+    private record BucketConfig(int capacity, double tokensPerMilli) {
+    }
+
+    private static final class LocalBucket {
+
+        private double tokens;
+        private long timestamp;
+
+        LocalBucket(double tokens, long timestamp) {
+            this.tokens = tokens;
+            this.timestamp = timestamp;
+        }
+
+        synchronized Decision tryAcquire(BucketConfig config, long now) {
+            refill(config, now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return new Decision(true, 0);
+            }
+            return new Decision(false, (long) Math.ceil((1 - tokens) / config.tokensPerMilli()));
+        }
+
+        synchronized boolean isFull(BucketConfig config, long now) {
+            refill(config, now);
+            return tokens >= config.capacity();
+        }
+
+        private void refill(BucketConfig config, long now) {
+            if (now > timestamp) {
+                tokens = Math.min(config.capacity(), tokens + (now - timestamp) * config.tokensPerMilli());
+                timestamp = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.lingoflow.reminder;
+
+import lombok.Data;
+
+/**
+ * 一个用户到某天结束时到期的复习词数
+ */
+@Data
+public class DueCount {
+
+    private Long userId;
+    private Integer dueCount;
+}
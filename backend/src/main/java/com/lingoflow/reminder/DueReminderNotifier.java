@@ -0,0 +1,18 @@
+package com.lingoflow.reminder;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 复习提醒的发送方式，所有实现此接口的 bean 都会收到每一批结果
+ *
+ * 节点在处理完一批后、写入检查点前故障时，这一批会由接手的节点再次发送 (至少一次)，实现需要容忍重复
+ */
+public interface DueReminderNotifier {
+
+    /**
+     * @param day       提醒日期
+     * @param dueCounts 按 userId 升序，只包含有到期单词的用户
+     */
+    void notify(LocalDate day, List<DueCount> dueCounts);
+}
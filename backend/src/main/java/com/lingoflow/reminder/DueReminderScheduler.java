@@ -0,0 +1,228 @@
+package com.lingoflow.reminder;
+
+import com.lingoflow.mapper.ReminderMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 每日复习提醒：按 user_id 范围把用户分成若干分片，各节点通过 Redis 租约分担分片
+ *
+ * - 当天第一次执行时固定分片方案 (最大 userId 和分片数)，之后加入的用户次日再提醒
+ * - 节点从随机分片开始依次尝试获取租约，按 chunk-size 个用户一批查询到期数并交给 {@link DueReminderNotifier}
+ * - 每批处理完在 Redis 中记录检查点并续租 (同一个 Lua 脚本，租约已被接管时不写)，节点故障后其他节点从检查点继续
+ * - 定时任务在提醒时段内重复触发，已完成的分片直接跳过 (获取租约后再确认一次)，只补做租约过期的分片
+ *
+ * Redis 不可用时本次不执行，避免多个节点重复发送
+ */
+@Slf4j
+@Component
+public class DueReminderScheduler {
+
+    private static final String KEY_PREFIX = "lf:reminder:";
+    private static final String DONE = "done";
+    private static final Duration STATE_TTL = Duration.ofDays(2);
+
+    /**
+     * KEYS[1] 租约, KEYS[2] 检查点; ARGV: 节点, 租约毫秒数, 分片, 检查点。租约不属于本节点时返回 0
+     */
+    private static final RedisScript<Long> CHECKPOINT_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) ~= ARGV[1] then
+                return 0
+            end
+            redis.call('HSET', KEYS[2], ARGV[3], ARGV[4])
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            return 1
+            """, Long.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final ReminderMapper reminderMapper;
+    private final List<DueReminderNotifier> notifiers;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int shards;
+    private final int chunkSize;
+    private final Duration lease;
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName();
+
+    public DueReminderScheduler(ReminderMapper reminderMapper, ObjectProvider<DueReminderNotifier> notifiers,
+            StringRedisTemplate redisTemplate, ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${lingoflow.due-reminder.enabled:true}") boolean enabled,
+            @Value("${lingoflow.due-reminder.shards:16}") int shards,
+            @Value("${lingoflow.due-reminder.chunk-size:1000}") int chunkSize,
+            @Value("${lingoflow.due-reminder.lease-seconds:120}") long leaseSeconds) {
+        this.reminderMapper = reminderMapper;
+        this.notifiers = notifiers.orderedStream().toList();
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry.getIfAvailable();
+        this.enabled = enabled;
+        this.shards = Math.max(1, shards);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+    }
+
+    @Scheduled(cron = "${lingoflow.due-reminder.cron:0 0/10 8-11 * * *}")
+    public void run() {
+        if (enabled) {
+            sweep(LocalDate.now());
+        }
+    }
+
+    private void sweep(LocalDate day) {
+        try {
+            Plan plan = plan(day);
+            if (plan == null) {
+                return;
+            }
+            int first = ThreadLocalRandom.current().nextInt(plan.shards());
+            for (int i = 0; i < plan.shards(); i++) {
+                int shard = (first + i) % plan.shards();
+                String leaseKey = key(day, "lease:" + shard);
+                if (DONE.equals(redisTemplate.opsForHash().get(key(day, "checkpoint"), String.valueOf(shard)))
+                        || !Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(leaseKey, nodeId, lease))) {
+                    continue;
+                }
+                try {
+                    processShard(day, plan, shard, leaseKey);
+                } finally {
+                    redisTemplate.execute(RELEASE_SCRIPT, List.of(leaseKey), nodeId);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("event=due_reminder_sweep_failed day={} error={}", day, e.getMessage());
+        }
+    }
+
+    /**
+     * 当天的分片方案，先写入的节点为准；没有用户时返回 null
+     */
+    private Plan plan(LocalDate day) {
+        String planKey = key(day, "plan");
+        String stored = redisTemplate.opsForValue().get(planKey);
+        if (stored == null) {
+            Long maxUserId = reminderMapper.findMaxUserId();
+            if (maxUserId == null) {
+                return null;
+            }
+            redisTemplate.opsForValue().setIfAbsent(planKey, maxUserId + ":" + shards, STATE_TTL);
+            stored = redisTemplate.opsForValue().get(planKey);
+        }
+        String[] parts = stored.split(":");
+        return new Plan(Long.parseLong(parts[0]), Integer.parseInt(parts[1]));
+    }
+
+    private void processShard(LocalDate day, Plan plan, int shard, String leaseKey) {
+        String checkpointKey = key(day, "checkpoint");
+        // 获取租约前检查过一次，但其他节点可能在此期间完成该分片并释放了租约
+        Object checkpoint = redisTemplate.opsForHash().get(checkpointKey, String.valueOf(shard));
+        if (DONE.equals(checkpoint)) {
+            count("already_done");
+            log.debug("event=due_reminder_shard_already_done day={} shard={}", day, shard);
+            return;
+        }
+        long after = checkpoint != null ? Long.parseLong(checkpoint.toString()) : plan.lowerBound(shard);
+        long to = plan.upperBound(shard);
+        LocalDateTime until = day.plusDays(1).atStartOfDay();
+        long start = System.currentTimeMillis();
+        long users = 0;
+
+        while (true) {
+            long chunkStart = System.nanoTime();
+            List<DueCount> dueCounts = reminderMapper.countDueByUserRange(after, to, until, chunkSize);
+            if (!dueCounts.isEmpty()) {
+                for (DueReminderNotifier notifier : notifiers) {
+                    notifier.notify(day, dueCounts);
+                }
+                after = dueCounts.get(dueCounts.size() - 1).getUserId();
+                users += dueCounts.size();
+            }
+            boolean finished = dueCounts.size() < chunkSize;
+            Long owned = redisTemplate.execute(CHECKPOINT_SCRIPT, List.of(leaseKey, checkpointKey), nodeId,
+                    String.valueOf(lease.toMillis()), String.valueOf(shard), finished ? DONE : String.valueOf(after));
+            redisTemplate.expire(checkpointKey, STATE_TTL);
+            record(dueCounts.size(), System.nanoTime() - chunkStart);
+
+            if (owned == null || owned == 0) {
+                count("lease_lost");
+                log.warn("event=due_reminder_lease_lost day={} shard={} afterUserId={}", day, shard, after);
+                return;
+            }
+            if (finished) {
+                break;
+            }
+        }
+
+        long elapsedMs = System.currentTimeMillis() - start;
+        count("completed");
+        log.info("event=due_reminder_shard_completed day={} shard={}/{} users={} elapsedMs={} usersPerSec={}",
+                day, shard, plan.shards(), users, elapsedMs, elapsedMs == 0 ? users : users * 1000 / elapsedMs);
+    }
+
+    private void record(int users, long nanos) {
+        if (meterRegistry != null) {
+            Counter.builder("lingoflow.reminder.users")
+                    .description("Users handed to due-review notifiers")
+                    .register(meterRegistry)
+                    .increment(users);
+            Timer.builder("lingoflow.reminder.chunk")
+                    .description("Due count query and notification per chunk")
+                    .register(meterRegistry)
+                    .record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void count(String result) {
+        if (meterRegistry != null) {
+            Counter.builder("lingoflow.reminder.shards")
+                    .description("Reminder shards processed by this node")
+                    .tag("result", result)
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+
+    private static String key(LocalDate day, String suffix) {
+        return KEY_PREFIX + day + ":" + suffix;
+    }
+
+    /**
+     * 分片 i 负责 (i * size, (i + 1) * size] 的 userId
+     */
+    private record Plan(long maxUserId, int shards) {
+
+        long size() {
+            return maxUserId / shards + 1;
+        }
+
+        long lowerBound(int shard) {
+            return shard * size();
+        }
+
+        long upperBound(int shard) {
+            return (shard + 1) * size();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.lingoflow.reminder;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 只输出日志的提醒，用于本地开发和压测；接入推送或邮件后可通过 lingoflow.due-reminder.log-notifier.enabled 关闭
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "lingoflow.due-reminder.log-notifier.enabled", havingValue = "true", matchIfMissing = true)
+public class LogDueReminderNotifier implements DueReminderNotifier {
+
+    @Override
+    public void notify(LocalDate day, List<DueCount> dueCounts) {
+        log.info("event=due_reminder_batch day={} users={} firstUserId={} lastUserId={}", day, dueCounts.size(),
+                dueCounts.get(0).getUserId(), dueCounts.get(dueCounts.size() - 1).getUserId());
+        if (log.isDebugEnabled()) {
+            for (DueCount dueCount : dueCounts) {
+                log.debug("event=due_reminder day={} userId={} due={}", day, dueCount.getUserId(),
+                        dueCount.getDueCount());
+            }
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.lingoflow.entity.Dictionary;
 import com.lingoflow.mapper.DictionaryMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashMap;
 import java.util.List;
@@ -27,8 +28,9 @@ public class DictionaryService {
     }
 
     /**
-     * 获取用户在特定词典的学习进度
+     * 获取用户在特定词典的学习进度，只读事务内的查询走只读副本
      */
+    @Transactional(readOnly = true)
     public Map<String, Object> getUserDictionaryProgress(Long userId, Long dictionaryId) {
         Dictionary dictionary = dictionaryMapper.findById(dictionaryId);
         if (dictionary == null) {
@@ -0,0 +1,159 @@
+package com.lingoflow.service;
+
+import com.lingoflow.entity.ReviewRecord;
+import com.lingoflow.entity.Vocabulary;
+import com.lingoflow.entity.Word;
+import com.lingoflow.mapper.VocabularyMapper;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 生词本和复习历史导出
+ *
+ * 生词本在只读事务内用 MyBatis 流式游标逐行读取，复习历史按归档和分页查询读取 (不占用事务)，
+ * 直接写入调用方提供的输出流，内存占用与数据量无关。输出流的压缩和关闭由调用方负责
+ */
+@Service
+public class ExportService {
+
+    public enum VocabularyFormat {
+        /** 含 SM-2 字段的 CSV */
+        CSV,
+        /** Anki 文本导入格式：制表符分隔，正面为单词，背面为音标和释义，词典标签作为 Anki 标签 */
+        ANKI
+    }
+
+    /** Excel 需要 BOM 才能按 UTF-8 打开中文 CSV */
+    private static final String BOM = "\uFEFF";
+    private static final String VOCABULARY_HEADER = "vocabulary_id,word,phonetic,meaning_cn,meaning_en,example_sentence,"
+            + "familiarity,review_count,easiness_factor,interval_days,next_review_date,last_review_date,created_at";
+    private static final String ANKI_HEADER = "#separator:tab\n#html:false\n#deck:LingoFlow\n#tags column:3\n";
+    private static final String REVIEW_HEADER = "vocabulary_id,rating,test_passed,response_time_ms,reviewed_at";
+
+    private final VocabularyMapper vocabularyMapper;
+    private final ReviewHistoryService reviewHistoryService;
+    private final TransactionTemplate transactionTemplate;
+
+    public ExportService(VocabularyMapper vocabularyMapper, ReviewHistoryService reviewHistoryService,
+            PlatformTransactionManager transactionManager) {
+        this.vocabularyMapper = vocabularyMapper;
+        this.reviewHistoryService = reviewHistoryService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public void exportVocabulary(Long userId, VocabularyFormat format, OutputStream out) throws IOException {
+        Writer writer = writer(out);
+        writer.write(format == VocabularyFormat.ANKI ? ANKI_HEADER : BOM + VOCABULARY_HEADER + "\n");
+        inTransaction(() -> {
+            try (Cursor<Vocabulary> cursor = vocabularyMapper.streamByUserId(userId)) {
+                for (Vocabulary v : cursor) {
+                    if (v.getWord() != null) {
+                        writer.write(format == VocabularyFormat.ANKI ? toAnki(v.getWord()) : toCsv(v));
+                        writer.write('\n');
+                    }
+                }
+            }
+        });
+        writer.flush();
+    }
+
+    /**
+     * 复习历史 (含已归档的记录)，按复习时间升序，vocabulary_id 对应生词本导出中的同名列
+     */
+    public void exportReviews(Long userId, OutputStream out) throws IOException {
+        Writer writer = writer(out);
+        writer.write(BOM + REVIEW_HEADER + "\n");
+        try {
+            reviewHistoryService.forEachRecord(userId, record -> {
+                try {
+                    writer.write(toCsv(record));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // 多为客户端中断下载
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private interface ExportBody {
+        void run() throws IOException;
+    }
+
+    private void inTransaction(ExportBody body) throws IOException {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try {
+                    body.run();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // 多为客户端中断下载
+            throw e.getCause();
+        }
+    }
+
+    private static Writer writer(OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    private static String toCsv(Vocabulary v) {
+        Word w = v.getWord();
+        return v.getId() + "," + csv(w.getWord()) + "," + csv(w.getPhonetic()) + "," + csv(w.getMeaningCn()) + ","
+                + csv(w.getMeaningEn()) + "," + csv(w.getExampleSentence()) + ","
+                + nullable(v.getFamiliarity()) + "," + nullable(v.getReviewCount()) + ","
+                + nullable(v.getEasinessFactor()) + "," + nullable(v.getIntervalDays()) + ","
+                + nullable(v.getNextReviewDate()) + "," + nullable(v.getLastReviewDate()) + ","
+                + nullable(v.getCreatedAt());
+    }
+
+    private static String toCsv(ReviewRecord r) {
+        return r.getVocabularyId() + "," + csv(r.getRating()) + "," + nullable(r.getTestPassed()) + ","
+                + nullable(r.getResponseTimeMs()) + "," + r.getCreatedAt();
+    }
+
+    private static String toAnki(Word w) {
+        String back = w.getPhonetic() == null || w.getPhonetic().isBlank()
+                ? w.getMeaningCn()
+                : w.getPhonetic() + " " + w.getMeaningCn();
+        String tags = w.getLevelTags() == null ? "" : w.getLevelTags().replace(',', ' ');
+        return field(w.getWord()) + "\t" + field(back) + "\t" + field(tags);
+    }
+
+    private static String nullable(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Anki 字段不能包含分隔符和换行
+     */
+    private static String field(String value) {
+        return value == null ? "" : value.replaceAll("[\t\r\n]+", " ");
+    }
+}
@@ -0,0 +1,82 @@
+package com.lingoflow.service;
+
+import com.lingoflow.entity.User;
+import com.lingoflow.exception.BusinessException;
+import com.lingoflow.leaderboard.Leaderboards;
+import com.lingoflow.leaderboard.Leaderboards.Entry;
+import com.lingoflow.leaderboard.Leaderboards.Metric;
+import com.lingoflow.leaderboard.Leaderboards.Period;
+import com.lingoflow.mapper.UserMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 排行榜查询：名次和分数来自 Redis ({@link Leaderboards})，只为榜上的用户按主键查用户名
+ */
+@Service
+@RequiredArgsConstructor
+public class LeaderboardService {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final Leaderboards leaderboards;
+    private final UserMapper userMapper;
+
+    /**
+     * 前 limit 名和当前用户的名次；Redis 不可用时 available 为 false
+     *
+     * @param metric words / reviews / sentences
+     * @param period week (本周，周一开始) / all
+     */
+    public Map<String, Object> getLeaderboard(Long userId, String metric, String period, int limit) {
+        Metric boardMetric = parse(Metric.class, metric);
+        Period boardPeriod = parse(Period.class, period);
+        List<Entry> top = leaderboards.top(boardMetric, boardPeriod, Math.max(1, Math.min(limit, MAX_LIMIT)));
+        Entry me = top == null ? null : leaderboards.rank(boardMetric, boardPeriod, userId);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("metric", boardMetric.key());
+        result.put("period", boardPeriod.name().toLowerCase(Locale.ROOT));
+        result.put("available", me != null);
+        if (me == null) {
+            result.put("entries", List.of());
+            return result;
+        }
+
+        Map<Long, String> usernames = top.isEmpty() ? Map.of()
+                : userMapper.findByIds(top.stream().map(Entry::userId).toList()).stream()
+                        .collect(Collectors.toMap(User::getId, User::getUsername));
+        List<Map<String, Object>> entries = new ArrayList<>();
+        for (Entry entry : top) {
+            Map<String, Object> item = item(entry);
+            item.put("username", usernames.get(entry.userId()));
+            entries.add(item);
+        }
+        result.put("entries", entries);
+        result.put("me", item(me));
+        return result;
+    }
+
+    private static Map<String, Object> item(Entry entry) {
+        Map<String, Object> item = new HashMap<>();
+        item.put("rank", entry.rank() > 0 ? entry.rank() : null);
+        item.put("userId", entry.userId());
+        item.put("score", entry.score());
+        return item;
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String value) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(400, "不支持的排行榜参数: " + value);
+        }
+    }
+}
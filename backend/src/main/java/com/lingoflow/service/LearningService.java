@@ -1,21 +1,31 @@
 package com.lingoflow.service;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.lingoflow.ai.QuestionGenerationPipeline;
+import com.lingoflow.ai.SentenceEvaluationBatcher;
+import com.lingoflow.cache.CacheSpecs;
+import com.lingoflow.cache.TwoLevelCacheManager;
+import com.lingoflow.content.ContentStore;
 import com.lingoflow.entity.LearningSession;
 import com.lingoflow.entity.SessionWord;
+import com.lingoflow.entity.UserWordBestSentence;
 import com.lingoflow.entity.Vocabulary;
 import com.lingoflow.exception.BusinessException;
+import com.lingoflow.leaderboard.Leaderboards;
 import com.lingoflow.mapper.LearningSessionMapper;
 import com.lingoflow.mapper.SessionWordMapper;
+import com.lingoflow.mapper.UserWordBestSentenceMapper;
+import com.lingoflow.outbox.OutboxEventType;
+import com.lingoflow.outbox.OutboxPublisher;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestTemplate;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.core.type.TypeReference;
 
-import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.*;
 
 @Service
@@ -24,55 +34,39 @@ public class LearningService {
 
     private final LearningSessionMapper learningSessionMapper;
     private final SessionWordMapper sessionWordMapper;
+    private final UserWordBestSentenceMapper bestSentenceMapper;
     private final VocabularyService vocabularyService;
     private final RestTemplate restTemplate;
-    private final StringRedisTemplate redisTemplate;
-    private final ObjectMapper objectMapper;
+    private final SentenceEvaluationBatcher sentenceEvaluationBatcher;
+    private final QuestionGenerationPipeline questionGenerationPipeline;
+    private final TwoLevelCacheManager cacheManager;
     private final WordService wordService;
+    private final ContentStore contentStore;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxPublisher outboxPublisher;
 
     @Value("${ai.service.url:http://localhost:5000}")
     private String aiServiceUrl;
 
-    private static final String STUDY_STATE_KEY_PREFIX = "learning:study:";
-    private static final Duration STUDY_STATE_TTL = Duration.ofHours(1);
-
     /**
      * 保存学习阶段状态到 Redis
      */
     public void saveLearningState(Long userId, Map<String, Object> state) {
-        String key = STUDY_STATE_KEY_PREFIX + userId;
-        try {
-            String json = objectMapper.writeValueAsString(state);
-            redisTemplate.opsForValue().set(key, json, STUDY_STATE_TTL);
-        } catch (Exception e) {
-            // 缓存失败不影响主流程
-        }
+        cacheManager.getCache(CacheSpecs.STUDY_STATE).put(String.valueOf(userId), state);
     }
 
     /**
      * 从 Redis 获取学习阶段状态
      */
     public Map<String, Object> getLearningState(Long userId) {
-        String key = STUDY_STATE_KEY_PREFIX + userId;
-        String cachedValue = redisTemplate.opsForValue().get(key);
-
-        if (cachedValue != null) {
-            try {
-                return objectMapper.readValue(cachedValue, new TypeReference<Map<String, Object>>() {
-                });
-            } catch (Exception e) {
-                redisTemplate.delete(key);
-            }
-        }
-        return null;
+        return cacheManager.getCache(CacheSpecs.STUDY_STATE).getIfPresent(String.valueOf(userId));
     }
 
     /**
      * 清除学习阶段状态
      */
     public void clearLearningState(Long userId) {
-        String key = STUDY_STATE_KEY_PREFIX + userId;
-        redisTemplate.delete(key);
+        cacheManager.getCache(CacheSpecs.STUDY_STATE).evict(String.valueOf(userId));
         wordService.clearLearningProgress(userId);
     }
 
@@ -103,6 +97,8 @@ public class LearningService {
         requestBody.put("words", words);
         requestBody.put("difficulty", difficulty != null ? difficulty : "medium");
         requestBody.put("length", length != null ? length : "short");
+        // 阅读理解题在文章返回后并行生成
+        requestBody.put("includeQuestions", false);
         if (theme != null && !theme.isEmpty()) {
             requestBody.put("theme", theme);
         }
@@ -126,15 +122,20 @@ public class LearningService {
                 LearningSession session = new LearningSession();
                 session.setUserId(userId);
                 session.setSessionType("article");
-                session.setAiArticle(responseBody.get("data").toString());
+                session.setArticleContentId(contentStore.save(responseBody.get("data")));
                 session.setTheme(theme);
                 session.setDifficultyPreference(difficulty);
                 session.setTargetWordCount(vocabularyIds.size());
+                session.setQuestionsStatus(QuestionGenerationPipeline.STATUS_GENERATING);
                 learningSessionMapper.insert(session);
 
+                Map<String, Object> article = (Map<String, Object>) responseBody.get("data");
+                questionGenerationPipeline.start(session.getId(), article, vocabularyList);
+
                 Map<String, Object> result = new HashMap<>();
                 result.put("sessionId", session.getId());
-                result.put("article", responseBody.get("data"));
+                result.put("article", article);
+                result.put("questionsStatus", QuestionGenerationPipeline.STATUS_GENERATING);
                 return result;
             } else {
                 throw new BusinessException(2011, "AI 服务返回错误");
@@ -161,84 +162,136 @@ public class LearningService {
             throw new BusinessException(2021, "句子中未包含目标单词 '" + targetWord + "'");
         }
 
-        // 调用 Flask AI 服务
-        Map<String, Object> requestBody = new HashMap<>();
-        requestBody.put("word", targetWord);
-        requestBody.put("meaning", vocabulary.getWord().getMeaningCn());
-        requestBody.put("sentence", sentence);
+        // 调用 Flask AI 服务，并发的评估请求合并为批量调用
+        Map<String, Object> data = sentenceEvaluationBatcher.evaluate(
+                targetWord, vocabulary.getWord().getMeaningCn(), sentence);
+        Integer newScore = (Integer) data.get("score");
 
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
+        Map<String, Object> result = new HashMap<>(data);
+        result.putAll(transactionTemplate.execute(status ->
+                saveSentence(userId, wordId, sessionId, vocabularyId, sentence, newScore, data)));
+        return result;
+    }
 
-            ResponseEntity<Map> response = restTemplate.postForEntity(
-                    aiServiceUrl + "/api/evaluate-sentence",
-                    entity,
-                    Map.class);
+    /**
+     * 保存造句，每个单词只保留最高分：先锁住 user_word_best_sentence 中该单词的行，新分数 >= 锁内读到的最高分时替换并删除原记录，
+     * 比较、删除和排行榜增量都基于加锁后的行，同一单词的并发提交串行执行
+     */
+    private Map<String, Object> saveSentence(Long userId, Long wordId, Long sessionId, Long vocabularyId,
+            String sentence, Integer newScore, Map<String, Object> feedback) {
+        // 最高分只增不减，不加锁读到更高分时可以直接拒绝，省去写入后再删除
+        UserWordBestSentence snapshot = bestSentenceMapper.findByUserIdAndWordId(userId, wordId);
+        if (snapshot != null && newScore < snapshot.getScore()) {
+            return rejected(snapshot.getScore(), newScore);
+        }
 
-            Map<String, Object> responseBody = response.getBody();
-            if (responseBody != null && (Integer) responseBody.get("code") == 200) {
-                Map<String, Object> data = (Map<String, Object>) responseBody.get("data");
-                Integer newScore = (Integer) data.get("score");
-
-                // 查询用户对该单词是否已有造句记录
-                SessionWord existingSentence = sessionWordMapper.findSentenceByUserIdAndWordId(userId, wordId);
-
-                Map<String, Object> result = new HashMap<>(data);
-
-                if (existingSentence != null) {
-                    // 已有造句记录，只有新分数 >= 旧分数才替换
-                    if (newScore >= existingSentence.getScore()) {
-                        // 删除旧记录
-                        sessionWordMapper.deleteById(existingSentence.getId());
-
-                        // 保存新记录
-                        SessionWord sessionWord = new SessionWord();
-                        sessionWord.setSessionId(sessionId);
-                        sessionWord.setVocabularyId(vocabularyId);
-                        sessionWord.setActionType("sentence");
-                        sessionWord.setUserSentence(sentence);
-                        sessionWord.setAiFeedback(data.toString());
-                        sessionWord.setScore(newScore);
-                        sessionWordMapper.insert(sessionWord);
-
-                        result.put("replaced", true);
-                        result.put("previousScore", existingSentence.getScore());
-                        result.put("message", "造句已更新（此前最高分: " + existingSentence.getScore() + "）");
-                    } else {
-                        // 新分数低于旧分数，不保存，返回旧记录信息
-                        result.put("replaced", false);
-                        result.put("previousScore", existingSentence.getScore());
-                        result.put("message", "此前造句得分更高（" + existingSentence.getScore() + " > " + newScore + "），保留原记录");
-                    }
-                } else {
-                    // 没有旧记录，直接保存
-                    SessionWord sessionWord = new SessionWord();
-                    sessionWord.setSessionId(sessionId);
-                    sessionWord.setVocabularyId(vocabularyId);
-                    sessionWord.setActionType("sentence");
-                    sessionWord.setUserSentence(sentence);
-                    sessionWord.setAiFeedback(data.toString());
-                    sessionWord.setScore(newScore);
-                    sessionWordMapper.insert(sessionWord);
-
-                    result.put("replaced", false);
-                    result.put("message", "造句已保存");
-                }
+        SessionWord sessionWord = new SessionWord();
+        sessionWord.setSessionId(sessionId);
+        sessionWord.setVocabularyId(vocabularyId);
+        sessionWord.setActionType("sentence");
+        sessionWord.setUserSentence(sentence);
+        sessionWord.setFeedbackContentId(contentStore.save(feedback));
+        sessionWord.setScore(newScore);
+        sessionWordMapper.insert(sessionWord);
+
+        bestSentenceMapper.insertOrLock(userId, wordId, newScore, sessionWord.getId());
+        UserWordBestSentence previous = bestSentenceMapper.lockByUserIdAndWordId(userId, wordId);
+        Map<String, Object> outcome = new HashMap<>();
+        if (sessionWord.getId().equals(previous.getSessionWordId())) {
+            // 本事务插入了首条记录
+            recordSentenceScore(userId, null, newScore);
+            outcome.put("replaced", false);
+            outcome.put("message", "造句已保存");
+            return outcome;
+        }
+        if (newScore < previous.getScore()) {
+            // 并发提交的更高分已先写入
+            sessionWordMapper.deleteById(sessionWord.getId());
+            return rejected(previous.getScore(), newScore);
+        }
+
+        bestSentenceMapper.replace(userId, wordId, newScore, sessionWord.getId());
+        sessionWordMapper.deleteById(previous.getSessionWordId());
+        recordSentenceScore(userId, previous, newScore);
+        outcome.put("replaced", true);
+        outcome.put("previousScore", previous.getScore());
+        outcome.put("message", "造句已更新（此前最高分: " + previous.getScore() + "）");
+        return outcome;
+    }
 
+    private static Map<String, Object> rejected(int previousScore, int newScore) {
+        Map<String, Object> outcome = new HashMap<>();
+        outcome.put("replaced", false);
+        outcome.put("previousScore", previousScore);
+        outcome.put("message", "此前造句得分更高（" + previousScore + " > " + newScore + "），保留原记录");
+        return outcome;
+    }
+
+    /**
+     * 造句排行榜为各单词最高分之和：总榜加上分数的提升，原最高分不是本周取得的，周榜按新分数整体计入
+     */
+    private void recordSentenceScore(Long userId, UserWordBestSentence previous, int newScore) {
+        int previousScore = previous != null ? previous.getScore() : 0;
+        boolean previousThisWeek = previous != null && previous.getUpdatedAt() != null
+                && !previous.getUpdatedAt().isBefore(Leaderboards.weekStart(LocalDate.now()));
+        outboxPublisher.publish(userId, OutboxEventType.SENTENCE_SCORED, Map.of(
+                "allTimeDelta", newScore - previousScore,
+                "weekDelta", previousThisWeek ? newScore - previousScore : newScore));
+    }
+
+    public LearningSession getSessionById(Long id) {
+        return learningSessionMapper.findById(id);
+    }
+
+    /**
+     * 会话的阅读理解题：生成中时返回本节点已完成的部分，完成后从 session_words 读取；
+     * 题目随文章一起生成的旧会话返回文章中的题目
+     */
+    public Map<String, Object> getSessionQuestions(Long userId, Long sessionId) {
+        LearningSession session = learningSessionMapper.findById(sessionId);
+        if (session == null || !session.getUserId().equals(userId)) {
+            throw new BusinessException(2012, "学习会话不存在");
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        String status = session.getQuestionsStatus();
+        if (status == null) {
+            Object article = getSessionArticle(userId, sessionId);
+            result.put("status", QuestionGenerationPipeline.STATUS_READY);
+            result.put("questions", article instanceof Map<?, ?> map && map.get("comprehensionQuestions") != null
+                    ? map.get("comprehensionQuestions") : List.of());
+            return result;
+        }
+        if (QuestionGenerationPipeline.STATUS_GENERATING.equals(status)) {
+            List<Map<String, Object>> partial = questionGenerationPipeline.progress(sessionId);
+            if (partial != null) {
+                result.put("status", status);
+                result.put("questions", partial);
                 return result;
-            } else {
-                throw new BusinessException(2011, "AI 服务返回错误");
             }
-        } catch (BusinessException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new BusinessException(2011, "AI 服务暂时不可用: " + e.getMessage());
+            if (session.getStartedAt() != null && session.getStartedAt()
+                    .isBefore(LocalDateTime.now().minus(questionGenerationPipeline.staleAfter()))) {
+                status = QuestionGenerationPipeline.STATUS_FAILED;
+            }
         }
+
+        result.put("status", status);
+        result.put("questions", questionGenerationPipeline.persisted(sessionId));
+        return result;
     }
 
-    public LearningSession getSessionById(Long id) {
-        return learningSessionMapper.findById(id);
+    /**
+     * 打开会话文章时才读取并解压内容；迁移前的会话返回原始文本
+     */
+    public Object getSessionArticle(Long userId, Long sessionId) {
+        LearningSession session = learningSessionMapper.findById(sessionId);
+        if (session == null || !session.getUserId().equals(userId)) {
+            throw new BusinessException(2012, "学习会话不存在");
+        }
+        if (session.getArticleContentId() == null) {
+            return learningSessionMapper.findLegacyArticle(sessionId);
+        }
+        return contentStore.load(session.getArticleContentId(), new TypeReference<Map<String, Object>>() {
+        });
     }
 }
@@ -0,0 +1,116 @@
+package com.lingoflow.service;
+
+import com.lingoflow.archive.ReviewArchiveStore;
+import com.lingoflow.entity.DailyCount;
+import com.lingoflow.entity.ReviewRecord;
+import com.lingoflow.mapper.ReviewRecordMapper;
+import com.lingoflow.mapper.StatsMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 复习历史查询：统一读取 review_records 和已归档的分区 ({@link ReviewArchiveStore})，
+ * 调用方无需关心某段时间是否已归档
+ *
+ * 归档数据按用户分桶，每次只解压该用户所在的文件，仍按顺序扫描，只适合统计、导出等低频读取
+ */
+@Service
+@RequiredArgsConstructor
+public class ReviewHistoryService {
+
+    /** 导出时每次查询 review_records 的行数 */
+    static final int PAGE_SIZE = 1000;
+
+    private final ReviewRecordMapper reviewRecordMapper;
+    private final StatsMapper statsMapper;
+    private final ReviewArchiveStore archiveStore;
+
+    /**
+     * 某天的复习记录数
+     */
+    public int countReviewsOn(Long userId, LocalDate date) {
+        Optional<ReviewArchiveStore.ArchivedPeriod> period = archiveStore.find(date);
+        if (period.isEmpty()) {
+            Integer count = statsMapper.countReviewsOn(userId, date);
+            return count != null ? count : 0;
+        }
+        AtomicInteger count = new AtomicInteger();
+        archiveStore.scanUser(period.get(), userId, record -> {
+            if (date.equals(record.getCreatedAt().toLocalDate())) {
+                count.incrementAndGet();
+            }
+        });
+        return count.get();
+    }
+
+    /**
+     * [from, to] 内每天的复习记录数，没有记录的日期不返回；未归档的日期合并为一次分组查询
+     */
+    public Map<LocalDate, Integer> countReviewsByDay(Long userId, LocalDate from, LocalDate to) {
+        Map<LocalDate, Integer> counts = new HashMap<>();
+        for (DailyCount day : statsMapper.countReviewsByDay(userId, from.atStartOfDay(),
+                to.plusDays(1).atStartOfDay())) {
+            counts.put(day.getStatDate(), day.getTotal());
+        }
+        for (ReviewArchiveStore.ArchivedPeriod period : archiveStore.periods()) {
+            if (!period.to().isAfter(from) || period.from().isAfter(to)) {
+                continue;
+            }
+            // 与 countReviewsOn 一致，已归档的日期只以归档文件为准
+            counts.keySet().removeIf(period::contains);
+            archiveStore.scanUser(period, userId, record -> {
+                LocalDate date = record.getCreatedAt().toLocalDate();
+                if (period.contains(date) && !date.isBefore(from) && !date.isAfter(to)) {
+                    counts.merge(date, 1, Integer::sum);
+                }
+            });
+        }
+        return counts;
+    }
+
+    /**
+     * 某个生词的全部复习记录 (含已归档)，按时间倒序
+     */
+    public List<ReviewRecord> findHistory(Long userId, Long vocabularyId) {
+        List<ReviewRecord> history = new ArrayList<>(reviewRecordMapper.findByUserIdAndVocabularyId(userId, vocabularyId));
+        for (ReviewArchiveStore.ArchivedPeriod period : archiveStore.periods()) {
+            archiveStore.scanUser(period, userId, record -> {
+                if (vocabularyId.equals(record.getVocabularyId())) {
+                    history.add(record);
+                }
+            });
+        }
+        history.sort(Comparator.comparing(ReviewRecord::getCreatedAt).reversed());
+        return history;
+    }
+
+    /**
+     * 逐条读取用户的全部复习记录：先按时间段读取归档，再分页读取 review_records，不在内存中累积
+     *
+     * 不在事务内调用：读取归档和 consumer 写出时不占用数据库连接，每页查询结束即归还连接
+     */
+    public void forEachRecord(Long userId, Consumer<ReviewRecord> consumer) {
+        for (ReviewArchiveStore.ArchivedPeriod period : archiveStore.periods()) {
+            archiveStore.scanUser(period, userId, consumer);
+        }
+        List<ReviewRecord> page = reviewRecordMapper.findPageByUserId(userId, null, null, PAGE_SIZE);
+        while (!page.isEmpty()) {
+            page.forEach(consumer);
+            if (page.size() < PAGE_SIZE) {
+                break;
+            }
+            ReviewRecord last = page.get(page.size() - 1);
+            page = reviewRecordMapper.findPageByUserId(userId, last.getCreatedAt(), last.getId(), PAGE_SIZE);
+        }
+    }
+}
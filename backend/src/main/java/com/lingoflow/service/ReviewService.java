@@ -1,5 +1,10 @@
 package com.lingoflow.service;
 
+import com.lingoflow.cache.CacheSpecs;
+import com.lingoflow.cache.TwoLevelCache;
+import com.lingoflow.cache.TwoLevelCacheManager;
+import com.lingoflow.distractor.DistractorStore;
+import com.lingoflow.dto.ReviewSessionDto;
 import com.lingoflow.entity.ReviewRecord;
 import com.lingoflow.entity.Vocabulary;
 import com.lingoflow.entity.Word;
@@ -7,118 +12,277 @@ import com.lingoflow.exception.BusinessException;
 import com.lingoflow.mapper.ReviewRecordMapper;
 import com.lingoflow.mapper.VocabularyMapper;
 import com.lingoflow.mapper.WordMapper;
+import com.lingoflow.outbox.OutboxEventType;
+import com.lingoflow.outbox.OutboxPublisher;
 import com.lingoflow.util.SM2Algorithm;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ReviewService {
 
+    /** 复习会话单次返回的卡片数上限 */
+    private static final int MAX_SESSION_BATCH = 50;
+    /** SM-2 更新遇到版本冲突时的最多尝试次数 */
+    private static final int MAX_SM2_ATTEMPTS = 5;
+    /** 四选一测试题的干扰项数 */
+    private static final int DISTRACTOR_COUNT = 3;
+    /** 复习会话按用户串行出队：锁的有效期和等待上限 */
+    private static final String SESSION_LOCK_PREFIX = "lf:lock:review-session:";
+    private static final Duration SESSION_LOCK_TTL = Duration.ofSeconds(10);
+    private static final long SESSION_LOCK_WAIT_MS = 3_000;
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
     private final VocabularyMapper vocabularyMapper;
     private final WordMapper wordMapper;
     private final ReviewRecordMapper reviewRecordMapper;
-    private final org.springframework.data.redis.core.StringRedisTemplate redisTemplate;
-    private final com.fasterxml.jackson.databind.ObjectMapper objectMapper;
+    private final TwoLevelCacheManager cacheManager;
+    private final SyncService syncService;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxPublisher outboxPublisher;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final DistractorStore distractorStore;
+    private final StringRedisTemplate redisTemplate;
 
     /**
      * 获取今日待复习队列
      */
     public Map<String, Object> getReviewQueue(Long userId) {
-        String key = "review:queue:" + userId + ":" + java.time.LocalDate.now();
-        String cachedValue = redisTemplate.opsForValue().get(key);
-
-        if (cachedValue != null) {
-            try {
-                return objectMapper.readValue(cachedValue,
-                        new com.fasterxml.jackson.core.type.TypeReference<Map<String, Object>>() {
-                        });
-            } catch (Exception e) {
-                // Ignore cache error
-            }
-        }
+        return cacheManager.getCache(CacheSpecs.REVIEW_QUEUE)
+                .get(reviewQueueKey(userId), () -> loadReviewQueue(userId));
+    }
 
+    private Map<String, Object> loadReviewQueue(Long userId) {
         List<Vocabulary> vocabulary = vocabularyMapper.findByUserId(userId, "review", 0, 100);
 
         List<Map<String, Object>> words = new ArrayList<>();
         for (Vocabulary v : vocabulary) {
             if (v.getWord() != null) {
-                Map<String, Object> item = new HashMap<>();
-                item.put("vocabularyId", v.getId());
-                item.put("word", v.getWord().getWord());
-                item.put("phonetic", v.getWord().getPhonetic());
-                item.put("meaningCn", v.getWord().getMeaningCn());
-                item.put("familiarity", v.getFamiliarity());
-                item.put("reviewCount", v.getReviewCount());
-                words.add(item);
+                words.add(reviewItem(v));
             }
         }
 
         Map<String, Object> result = new HashMap<>();
         result.put("words", words);
         result.put("total", words.size());
+        return result;
+    }
 
-        if (!words.isEmpty()) {
-            try {
-                // Cache for 24 hours, but we will invalidate on update
-                redisTemplate.opsForValue().set(key, objectMapper.writeValueAsString(result),
-                        java.time.Duration.ofHours(24));
-            } catch (Exception e) {
-                // Ignore
-            }
+    private Map<String, Object> reviewItem(Vocabulary v) {
+        Map<String, Object> item = new HashMap<>();
+        item.put("vocabularyId", v.getId());
+        item.put("word", v.getWord().getWord());
+        item.put("phonetic", v.getWord().getPhonetic());
+        item.put("meaningCn", v.getWord().getMeaningCn());
+        item.put("familiarity", v.getFamiliarity());
+        item.put("reviewCount", v.getReviewCount());
+        return item;
+    }
+
+    /**
+     * 失效某天的复习队列缓存，生词本变化后由 outbox 投递调用；Redis 删除失败时抛出异常，由 outbox 重试
+     *
+     * @param day 变更发生的日期，跨零点投递时失效的仍是变更当天的缓存
+     */
+    public void evictReviewQueue(Long userId, LocalDate day) {
+        cacheManager.getCache(CacheSpecs.REVIEW_QUEUE).evictOrThrow(reviewQueueKey(userId, day));
+    }
+
+    private String reviewQueueKey(Long userId) {
+        return reviewQueueKey(userId, LocalDate.now());
+    }
+
+    private static String reviewQueueKey(Long userId, LocalDate day) {
+        return userId + ":" + day;
+    }
+
+    /**
+     * 获取复习会话的下一批卡片，每张卡片附带预生成的四选一测试题
+     *
+     * 队列保存在服务端，每次出队后补足到两批，下一次请求直接返回已生成的卡片；
+     * 已发出的卡片不会重复返回，reset 为 true 时重新开始会话。
+     * 读取、出队、写回之间持有该用户的会话锁，同一用户的并发请求 (多个标签页、重试) 不会拿到同一张卡片
+     */
+    public Map<String, Object> getReviewSession(Long userId, int size, boolean reset) {
+        String lockToken = lockSession(userId);
+        try {
+            return nextSessionBatch(userId, size, reset);
+        } finally {
+            unlockSession(userId, lockToken);
+        }
+    }
+
+    private Map<String, Object> nextSessionBatch(Long userId, int size, boolean reset) {
+        int batchSize = Math.max(1, Math.min(size, MAX_SESSION_BATCH));
+        TwoLevelCache<ReviewSessionDto> cache = cacheManager.getCache(CacheSpecs.REVIEW_SESSION);
+        String key = String.valueOf(userId);
+        ReviewSessionDto session = reset ? null : cache.getIfPresent(key);
+        if (session == null) {
+            session = new ReviewSessionDto();
+        }
+
+        if (session.getCards().size() < batchSize * 2 && !session.isExhausted()) {
+            refillSession(userId, session, batchSize * 2);
+        }
+        List<Map<String, Object>> batchCards = session.getCards().subList(0,
+                Math.min(batchSize, session.getCards().size()));
+        List<Map<String, Object>> cards = new ArrayList<>(batchCards);
+        batchCards.clear();
+        for (Map<String, Object> card : cards) {
+            session.getServedIds().add(((Number) card.get("vocabularyId")).longValue());
         }
+        cache.put(key, session);
 
+        Map<String, Object> result = new HashMap<>();
+        result.put("cards", cards);
+        result.put("hasMore", !session.getCards().isEmpty() || !session.isExhausted());
         return result;
     }
 
+    /**
+     * 获取会话锁，返回锁令牌；Redis 不可用时会话缓存同样不可用，不加锁继续并返回 null
+     */
+    private String lockSession(Long userId) {
+        String lockKey = SESSION_LOCK_PREFIX + userId;
+        String token = UUID.randomUUID().toString();
+        long deadline = System.currentTimeMillis() + SESSION_LOCK_WAIT_MS;
+        try {
+            while (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(lockKey, token, SESSION_LOCK_TTL))) {
+                if (System.currentTimeMillis() >= deadline) {
+                    throw new BusinessException(3003, "复习会话正在加载，请稍后重试");
+                }
+                Thread.sleep(20);
+            }
+            return token;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(3003, "复习会话正在加载，请稍后重试");
+        } catch (BusinessException e) {
+            throw e;
+        } catch (Exception e) {
+            log.warn("event=review_session_lock_failed userId={} error={}", userId, e.getMessage());
+            return null;
+        }
+    }
+
+    private void unlockSession(Long userId, String token) {
+        if (token == null) {
+            return;
+        }
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(SESSION_LOCK_PREFIX + userId), token);
+        } catch (Exception e) {
+            // 锁到期后自动释放
+            log.warn("event=review_session_unlock_failed userId={} error={}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * 从今日到期的单词中补充队列；干扰项索引未就绪时同一批卡片共用一次词库查询生成测试题
+     *
+     * 已发出并评分的单词不再到期，查询结果少于 limit 只说明到期的单词都已读出，
+     * 其中未进入队列的单词本次取不完时会话还不能结束
+     */
+    private void refillSession(Long userId, ReviewSessionDto session, int target) {
+        Set<Long> known = new HashSet<>(session.getServedIds());
+        for (Map<String, Object> card : session.getCards()) {
+            known.add(((Number) card.get("vocabularyId")).longValue());
+        }
+        int limit = known.size() + target;
+        int needed = Math.max(0, target - session.getCards().size());
+        List<Vocabulary> due = vocabularyMapper.findByUserId(userId, "review", 0, limit);
+        List<Vocabulary> candidates = due.stream()
+                .filter(v -> v.getWord() != null && !known.contains(v.getId()))
+                .toList();
+        if (due.size() < limit && candidates.size() <= needed) {
+            session.setExhausted(true);
+        }
+        List<Vocabulary> fresh = candidates.subList(0, Math.min(needed, candidates.size()));
+        if (fresh.isEmpty()) {
+            return;
+        }
+        List<List<Word>> loaded = new ArrayList<>(1);
+        Supplier<List<Word>> allWords = () -> {
+            if (loaded.isEmpty()) {
+                loaded.add(wordMapper.findAll());
+            }
+            return loaded.get(0);
+        };
+        for (Vocabulary v : fresh) {
+            Map<String, Object> card = reviewItem(v);
+            card.put("testQuestion", generateTestQuestion(v, allWords));
+            session.getCards().add(card);
+        }
+    }
+
     /**
      * 提交熟悉度自评
      * 
      * @param rating "known" 或 "unknown"
+     * @param questionPrefetched 客户端已从复习会话拿到测试题，"known" 时不再生成
      */
-    public Map<String, Object> submitRating(Long userId, Long vocabularyId, String rating) {
+    public Map<String, Object> submitRating(Long userId, Long vocabularyId, String rating,
+            boolean questionPrefetched) {
         Vocabulary vocabulary = vocabularyMapper.findById(vocabularyId);
         if (vocabulary == null || !vocabulary.getUserId().equals(userId)) {
             throw new BusinessException(3001, "生词本记录不存在");
         }
 
-        // 记录评价
+        // 记录评价，需要更新 SM-2 时与其在同一事务内写入
         ReviewRecord record = new ReviewRecord();
         record.setUserId(userId);
         record.setVocabularyId(vocabularyId);
         record.setRating(rating);
-        reviewRecordMapper.insert(record);
+        Runnable insertRecord = () -> reviewRecordMapper.insert(record);
 
         Map<String, Object> result = new HashMap<>();
 
         if ("unknown".equals(rating)) {
             // 不认识：直接显示答案，SM-2 按 quality=0 处理
-            applySM2(vocabulary, 0);
+            applySM2(vocabulary, 0, insertRecord);
 
             result.put("needTest", false);
             result.put("correctAnswer", vocabulary.getWord().getMeaningCn());
             result.put("word", vocabulary.getWord().getWord());
         } else if ("fuzzy".equals(rating)) {
             // 模糊：直接显示答案，SM-2 按 quality=1 处理
-            applySM2(vocabulary, 1);
+            applySM2(vocabulary, 1, insertRecord);
 
             result.put("needTest", false);
             result.put("correctAnswer", vocabulary.getWord().getMeaningCn());
             result.put("word", vocabulary.getWord().getWord());
         } else {
             // 认识：返回四选一题目
+            insertRecord.run();
             result.put("needTest", true);
-            result.put("testQuestion", generateTestQuestion(vocabulary));
+            if (!questionPrefetched) {
+                result.put("testQuestion", generateTestQuestion(vocabulary, wordMapper::findAll));
+            }
         }
 
-        // Invalidate cache
-        String key = "review:queue:" + userId + ":" + java.time.LocalDate.now();
-        redisTemplate.delete(key);
-
         return result;
     }
 
@@ -141,42 +305,81 @@ public class ReviewService {
         result.put("isCorrect", isCorrect);
         result.put("correctAnswer", correctAnswer);
 
+        // 更新复习记录：答题紧跟在自评之后，只查最近一天的分区
+        ReviewRecord record = reviewRecordMapper.findLatestByUserIdAndVocabularyId(userId, vocabularyId,
+                LocalDateTime.now().minusDays(1));
+        Runnable updateRecord = () -> {
+            if (record != null) {
+                record.setTestPassed(isCorrect);
+                record.setResponseTimeMs(responseTimeMs);
+                reviewRecordMapper.update(record);
+            }
+        };
+
         // 只有非错误队列的答题才影响 SM-2
         if (!isFromErrorQueue) {
-            if (isCorrect) {
-                // 认识+正确：quality=5
-                applySM2(vocabulary, 5);
-            } else {
-                // 认识+错误：quality=0
-                applySM2(vocabulary, 0);
-            }
+            // 认识+正确：quality=5；认识+错误：quality=0
+            applySM2(vocabulary, isCorrect ? 5 : 0, updateRecord);
 
             result.put("nextReviewDate", vocabulary.getNextReviewDate());
             result.put("newFamiliarity", vocabulary.getFamiliarity());
-        }
-
-        // 更新复习记录
-        List<ReviewRecord> records = reviewRecordMapper.findByUserIdAndVocabularyId(userId, vocabularyId);
-        if (!records.isEmpty()) {
-            ReviewRecord record = records.get(0);
-            record.setTestPassed(isCorrect);
-            record.setResponseTimeMs(responseTimeMs);
-            reviewRecordMapper.update(record);
-        }
-
-        // Invalidate cache if review status changed (SM-2 applied)
-        if (!isFromErrorQueue) {
-            String key = "review:queue:" + userId + ":" + java.time.LocalDate.now();
-            redisTemplate.delete(key);
+        } else {
+            updateRecord.run();
         }
 
         return result;
     }
 
     /**
-     * 应用 SM-2 算法更新词汇
+     * 应用 SM-2 算法更新词汇，更新成功时在同一事务内执行 withUpdate (写入复习记录)
+     *
+     * 乐观并发：按读取时的 version 条件更新，其他请求 (多个标签页、客户端重试) 已先更新时重新读取最新状态，
+     * 在其基础上重算，最多尝试 MAX_SM2_ATTEMPTS 次；不预先加行锁，冲突的请求不会等待
      */
-    private void applySM2(Vocabulary vocabulary, int quality) {
+    private void applySM2(Vocabulary vocabulary, int quality, Runnable withUpdate) {
+        for (int attempt = 1; ; attempt++) {
+            calculateSM2(vocabulary, quality);
+
+            // 先按 version 条件更新，成功后才分配同步版本 (锁用户行)，冲突的请求不会排队等待用户行锁
+            Boolean updated = transactionTemplate.execute(status -> {
+                if (vocabularyMapper.update(vocabulary) == 0) {
+                    return false;
+                }
+                vocabulary.setSyncVersion(syncService.nextVersion(vocabulary.getUserId()));
+                vocabularyMapper.updateSyncVersion(vocabulary.getId(), vocabulary.getSyncVersion());
+                withUpdate.run();
+                // 复习队列缓存、ETag 和排行榜由 outbox 在提交后异步更新
+                outboxPublisher.publish(vocabulary.getUserId(), OutboxEventType.REVIEW_APPLIED,
+                        Map.of("vocabularyId", vocabulary.getId()));
+                return true;
+            });
+            if (Boolean.TRUE.equals(updated)) {
+                vocabulary.setVersion(vocabulary.getVersion() + 1);
+                if (attempt > 1) {
+                    countConflict("resolved");
+                }
+                break;
+            }
+
+            Vocabulary latest = vocabularyMapper.findById(vocabulary.getId());
+            if (latest == null) {
+                throw new BusinessException(3001, "生词本记录不存在");
+            }
+            if (attempt >= MAX_SM2_ATTEMPTS) {
+                countConflict("exhausted");
+                log.warn("event=sm2_update_conflict vocabularyId={} attempts={}", vocabulary.getId(), attempt);
+                throw new BusinessException(3002, "复习进度已在其他设备更新，请重试");
+            }
+            countConflict("retried");
+            vocabulary.setFamiliarity(latest.getFamiliarity());
+            vocabulary.setReviewCount(latest.getReviewCount());
+            vocabulary.setEasinessFactor(latest.getEasinessFactor());
+            vocabulary.setIntervalDays(latest.getIntervalDays());
+            vocabulary.setVersion(latest.getVersion());
+        }
+    }
+
+    private static void calculateSM2(Vocabulary vocabulary, int quality) {
         SM2Algorithm.SM2Result sm2Result = SM2Algorithm.calculate(
                 vocabulary.getIntervalDays() != null ? vocabulary.getIntervalDays() : 0,
                 vocabulary.getEasinessFactor() != null ? vocabulary.getEasinessFactor() : 2.5f,
@@ -192,29 +395,40 @@ public class ReviewService {
         int currentFamiliarity = vocabulary.getFamiliarity() != null ? vocabulary.getFamiliarity() : 0;
         int newFamiliarity = Math.max(0, Math.min(100, currentFamiliarity + sm2Result.getFamiliarityDelta()));
         vocabulary.setFamiliarity(newFamiliarity);
+    }
 
-        vocabularyMapper.update(vocabulary);
+    private void countConflict(String outcome) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            Counter.builder("lingoflow.review.sm2.conflicts")
+                    .description("Optimistic lock conflicts on vocabulary SM-2 updates")
+                    .tag("outcome", outcome)
+                    .register(registry)
+                    .increment();
+        }
     }
 
     /**
      * 生成四选一测试题
      */
-    private Map<String, Object> generateTestQuestion(Vocabulary vocabulary) {
+    private Map<String, Object> generateTestQuestion(Vocabulary vocabulary, Supplier<List<Word>> allWords) {
         Word targetWord = vocabulary.getWord();
         String correctAnswer = targetWord.getMeaningCn();
 
-        // 获取干扰项
-        List<Word> allWords = wordMapper.findAll();
-        List<String> distractors = allWords.stream()
-                .filter(w -> !w.getId().equals(targetWord.getId()))
-                .map(Word::getMeaningCn)
-                .distinct()
-                .collect(Collectors.toList());
+        // 优先从预计算的相似词中取干扰项 (拼写、词性、释义相近)，索引未就绪时从词库随机选
+        List<String> distractors = distractorStore.pick(targetWord.getId(), correctAnswer, DISTRACTOR_COUNT);
+        if (distractors == null) {
+            distractors = allWords.get().stream()
+                    .filter(w -> !w.getId().equals(targetWord.getId()))
+                    .map(Word::getMeaningCn)
+                    .distinct()
+                    .collect(Collectors.toList());
+            Collections.shuffle(distractors);
+        }
 
-        Collections.shuffle(distractors);
         List<String> options = new ArrayList<>();
         options.add(correctAnswer);
-        options.addAll(distractors.subList(0, Math.min(3, distractors.size())));
+        options.addAll(distractors.subList(0, Math.min(DISTRACTOR_COUNT, distractors.size())));
         Collections.shuffle(options);
 
         Map<String, Object> question = new HashMap<>();
@@ -0,0 +1,92 @@
+package com.lingoflow.service;
+
+import com.lingoflow.entity.Vocabulary;
+import com.lingoflow.mapper.VocabularyMapper;
+import com.lingoflow.mapper.VocabularySyncMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 生词本增量同步
+ *
+ * 每个用户有一个单调递增的版本 (users.sync_version)，生词的新增、SM-2 更新和删除都在同一事务内分配新版本，
+ * 行锁保证同一用户的版本按提交顺序递增。客户端保存本地副本和最后同步的版本，只拉取更新版本的生词和墓碑
+ */
+@Service
+@RequiredArgsConstructor
+public class SyncService {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final VocabularyMapper vocabularyMapper;
+    private final VocabularySyncMapper vocabularySyncMapper;
+
+    /**
+     * 为当前事务中的写操作分配新版本，同一事务内多次写入共用一个版本即可
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long nextVersion(Long userId) {
+        vocabularySyncMapper.incrementVersion(userId);
+        return vocabularySyncMapper.findVersion(userId);
+    }
+
+    /**
+     * 删除生词时写入墓碑，word_id 由调用方在锁住生词行时读出
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeletion(Long userId, Long vocabularyId, Long wordId, long version) {
+        vocabularySyncMapper.insertTombstone(userId, vocabularyId, wordId, version);
+    }
+
+    /**
+     * 获取 since 之后的变更，since 为 0 时返回全量
+     *
+     * 结果按 (version, afterId) 游标分页：hasMore 为 true 时带上返回的 version 和 afterId 继续请求，
+     * 否则 version 为用户当前版本，下次从这里开始。since 大于当前版本 (如数据已恢复到旧备份) 时返回全量并置 reset，
+     * 客户端应先清空本地副本
+     *
+     * 不标记 readOnly：只读事务会路由到只读副本，副本落后时读到的版本小于客户端的 since，会被误判为 reset，
+     * 因此同步读取固定走主库
+     */
+    @Transactional
+    public Map<String, Object> getChanges(Long userId, long since, long afterId, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        long current = vocabularySyncMapper.findVersion(userId);
+        boolean reset = since > current;
+        if (reset) {
+            afterId = 0;
+        }
+        boolean full = reset || (since <= 0 && afterId == 0);
+        if (full) {
+            // 迁移前的生词版本为 0
+            since = -1;
+        }
+
+        List<Vocabulary> changed = vocabularyMapper.findChangedSince(userId, since, afterId, pageSize + 1);
+        boolean hasMore = changed.size() > pageSize;
+        long version = current;
+        long nextAfterId = 0;
+        if (hasMore) {
+            changed = changed.subList(0, pageSize);
+            Vocabulary last = changed.get(pageSize - 1);
+            version = last.getSyncVersion();
+            nextAfterId = last.getId();
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("vocabulary", changed);
+        // 全量同步时客户端没有本地副本，不需要墓碑
+        result.put("deleted", full ? List.of() : vocabularySyncMapper.findTombstones(userId, since, version));
+        result.put("version", version);
+        result.put("afterId", nextAfterId);
+        result.put("hasMore", hasMore);
+        result.put("reset", reset);
+        return result;
+    }
+}
@@ -1,15 +1,22 @@
 package com.lingoflow.service;
 
 import com.lingoflow.entity.Vocabulary;
+import com.lingoflow.entity.Word;
 import com.lingoflow.exception.BusinessException;
+import com.lingoflow.mapper.ReviewRecordMapper;
 import com.lingoflow.mapper.VocabularyMapper;
 import com.lingoflow.mapper.WordMapper;
+import com.lingoflow.outbox.OutboxEventType;
+import com.lingoflow.outbox.OutboxPublisher;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -17,7 +24,11 @@ public class VocabularyService {
 
     private final VocabularyMapper vocabularyMapper;
     private final WordMapper wordMapper;
+    private final ReviewRecordMapper reviewRecordMapper;
+    private final SyncService syncService;
+    private final OutboxPublisher outboxPublisher;
 
+    @Transactional
     public Map<String, Object> addToVocabulary(Long userId, Long wordId) {
         // 检查单词是否存在
         if (wordMapper.findById(wordId) == null) {
@@ -33,24 +44,34 @@ public class VocabularyService {
         vocabulary.setUserId(userId);
         vocabulary.setWordId(wordId);
         vocabulary.setFamiliarity(0);
+        vocabulary.setSyncVersion(syncService.nextVersion(userId));
 
         vocabularyMapper.insert(vocabulary);
+        outboxPublisher.publish(userId, OutboxEventType.VOCABULARY_ADDED, Map.of("count", 1));
 
         Map<String, Object> result = new HashMap<>();
         result.put("vocabularyId", vocabulary.getId());
         return result;
     }
 
+    @Transactional
     public List<Vocabulary> batchAddOrGet(Long userId, List<Long> wordIds) {
-        // 1. 遍历尝试添加（如果不存在）
-        for (Long wordId : wordIds) {
-            if (wordMapper.findById(wordId) != null && !vocabularyMapper.existsByUserIdAndWordId(userId, wordId)) {
-                Vocabulary vocabulary = new Vocabulary();
-                vocabulary.setUserId(userId);
-                vocabulary.setWordId(wordId);
-                vocabulary.setFamiliarity(0);
-                vocabularyMapper.insert(vocabulary);
-            }
+        if (wordIds.isEmpty()) {
+            return List.of();
+        }
+
+        // 1. 一次查出存在的单词和已在生词本中的单词，其余的一条语句插入，共用一个同步版本
+        Set<Long> existing = vocabularyMapper.findByUserIdAndWordIds(userId, wordIds).stream()
+                .map(Vocabulary::getWordId)
+                .collect(Collectors.toSet());
+        List<Long> toAdd = wordMapper.findByIds(wordIds).stream()
+                .map(Word::getId)
+                .filter(wordId -> !existing.contains(wordId))
+                .distinct()
+                .toList();
+        if (!toAdd.isEmpty()) {
+            vocabularyMapper.insertBatch(userId, toAdd, syncService.nextVersion(userId));
+            outboxPublisher.publish(userId, OutboxEventType.VOCABULARY_ADDED, Map.of("count", toAdd.size()));
         }
 
         // 2. 批量获取并返回
@@ -66,11 +87,20 @@ public class VocabularyService {
         return vocabularyMapper.countByUserId(userId, status);
     }
 
+    /**
+     * 移除生词，同时清理其复习记录 (review_records 分区后不再有外键级联删除，已归档的记录保留)
+     */
+    @Transactional
     public void removeFromVocabulary(Long userId, Long vocabularyId) {
-        int deleted = vocabularyMapper.deleteByUserIdAndId(userId, vocabularyId);
-        if (deleted == 0) {
+        // 与复习更新相同，先锁生词行再锁用户行 (分配同步版本)，避免两者互相等待
+        Long wordId = vocabularyMapper.lockWordId(userId, vocabularyId);
+        if (wordId == null) {
             throw new BusinessException(2003, "生词本记录不存在");
         }
+        syncService.recordDeletion(userId, vocabularyId, wordId, syncService.nextVersion(userId));
+        vocabularyMapper.deleteByUserIdAndId(userId, vocabularyId);
+        reviewRecordMapper.deleteByUserIdAndVocabularyId(userId, vocabularyId);
+        outboxPublisher.publish(userId, OutboxEventType.VOCABULARY_REMOVED, Map.of("vocabularyId", vocabularyId));
     }
 
     public Vocabulary getVocabularyById(Long id) {
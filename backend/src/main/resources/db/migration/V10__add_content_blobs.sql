@@ -0,0 +1,21 @@
+-- ========================================
+-- AI 生成内容存储：文章与造句反馈改存 JSON，压缩并按内容哈希去重
+-- ========================================
+
+CREATE TABLE IF NOT EXISTS content_blobs (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    content_hash CHAR(64) NOT NULL COMMENT 'SHA-256(JSON)',
+    encoding VARCHAR(16) NOT NULL COMMENT 'identity / deflate',
+    original_size INT NOT NULL COMMENT '未压缩的 JSON 字节数',
+    body MEDIUMBLOB NOT NULL,
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE KEY uk_content_hash (content_hash)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci;
+
+ALTER TABLE learning_sessions
+ADD COLUMN article_content_id BIGINT DEFAULT NULL COMMENT 'content_blobs.id' AFTER ai_article;
+
+ALTER TABLE session_words
+ADD COLUMN feedback_content_id BIGINT DEFAULT NULL COMMENT 'content_blobs.id' AFTER ai_feedback;
+
+-- ai_article / ai_feedback 仅保留历史数据 (Map.toString 格式，无法还原为 JSON)，新记录不再写入
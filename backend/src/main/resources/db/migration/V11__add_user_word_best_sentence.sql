@@ -0,0 +1,31 @@
+-- ========================================
+-- 每个用户每个单词的最高分造句，替代 session_words / learning_sessions / vocabulary 三表关联查询
+-- ========================================
+
+CREATE TABLE IF NOT EXISTS user_word_best_sentence (
+    user_id BIGINT NOT NULL,
+    word_id BIGINT NOT NULL,
+    score INT NOT NULL,
+    session_word_id BIGINT NOT NULL COMMENT 'session_words.id',
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, word_id),
+    FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE,
+    -- 造句记录随生词删除时一并删除
+    FOREIGN KEY (session_word_id) REFERENCES session_words (id) ON DELETE CASCADE
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci;
+
+-- 回填已有造句中的最高分 (同分取最新)
+INSERT INTO user_word_best_sentence (user_id, word_id, score, session_word_id, updated_at)
+SELECT user_id, word_id, score, id, created_at
+FROM (
+    SELECT ls.user_id, v.word_id, sw.score, sw.id, sw.created_at,
+           ROW_NUMBER() OVER (PARTITION BY ls.user_id, v.word_id
+                              ORDER BY sw.score DESC, sw.created_at DESC, sw.id DESC) AS rn
+    FROM session_words sw
+    JOIN learning_sessions ls ON sw.session_id = ls.id
+    JOIN vocabulary v ON sw.vocabulary_id = v.id
+    WHERE sw.action_type = 'sentence'
+      AND sw.user_sentence IS NOT NULL
+      AND sw.score IS NOT NULL
+) ranked
+WHERE rn = 1;
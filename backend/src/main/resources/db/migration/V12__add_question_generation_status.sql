@@ -0,0 +1,11 @@
+-- ========================================
+-- 阅读理解题在文章返回后并行生成，生成结果批量写入 session_words
+-- ========================================
+
+-- 题目生成状态: generating, ready, partial (部分题目生成失败), failed；迁移前的会话为 NULL
+ALTER TABLE learning_sessions
+ADD COLUMN questions_status VARCHAR(20) DEFAULT NULL COMMENT '阅读理解题生成状态';
+
+-- main_idea 题不对应单个生词
+ALTER TABLE session_words
+MODIFY COLUMN vocabulary_id BIGINT NULL;
@@ -0,0 +1,25 @@
+-- ========================================
+-- 生词本增量同步：每个用户一个单调递增的变更版本，生词写入时记录版本，删除时写入墓碑
+-- ========================================
+
+-- 用户当前的生词本版本，分配新版本时行锁保证同一用户的版本按提交顺序递增
+ALTER TABLE users
+ADD COLUMN sync_version BIGINT NOT NULL DEFAULT 0 COMMENT '生词本变更版本';
+
+ALTER TABLE vocabulary
+ADD COLUMN sync_version BIGINT NOT NULL DEFAULT 0 COMMENT '最后一次修改时的用户版本',
+ADD INDEX idx_user_sync (user_id, sync_version);
+
+-- 已有生词的版本为 0，用户版本从 1 开始，客户端首次全量同步后不会重复拉取
+UPDATE users SET sync_version = 1, updated_at = updated_at;
+
+CREATE TABLE IF NOT EXISTS vocabulary_tombstones (
+    user_id BIGINT NOT NULL,
+    vocabulary_id BIGINT NOT NULL,
+    word_id BIGINT NOT NULL,
+    sync_version BIGINT NOT NULL,
+    deleted_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, vocabulary_id),
+    INDEX idx_tombstone_user_sync (user_id, sync_version),
+    FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci;
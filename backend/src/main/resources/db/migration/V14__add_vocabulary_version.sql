@@ -0,0 +1,6 @@
+-- ========================================
+-- 生词 SM-2 更新的乐观并发控制：UPDATE ... WHERE id = ? AND version = ?，版本不一致时由服务层重读重算
+-- ========================================
+
+ALTER TABLE vocabulary
+ADD COLUMN version INT NOT NULL DEFAULT 0 COMMENT '乐观锁版本，每次 SM-2 更新加 1';
@@ -0,0 +1,16 @@
+-- ========================================
+-- 事务性 outbox：领域写操作在同一事务内记录事件，由 OutboxProjector 异步投递到缓存、排行榜等派生视图
+-- ========================================
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    payload VARCHAR(1000),
+    status TINYINT NOT NULL DEFAULT 0 COMMENT '0 待投递, 1 死信；投递成功后删除',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME COMMENT '失败后下一次重试时间',
+    last_error VARCHAR(500),
+    created_at DATETIME(3) DEFAULT CURRENT_TIMESTAMP(3),
+    INDEX idx_outbox_status (status, id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci;
@@ -0,0 +1,6 @@
+-- ========================================
+-- outbox 待投递查询按用户排除排在等待重试事件之后的事件 (NOT EXISTS 子查询)
+-- ========================================
+
+ALTER TABLE outbox_events
+ADD INDEX idx_outbox_user (user_id, status, id);
@@ -0,0 +1,89 @@
+-- ========================================
+-- review_records 按月分区 (reviewed_at)
+-- ========================================
+-- 分区表的限制:
+--   1. 不支持外键：删除 user_id / vocabulary_id 外键，移除生词时由 VocabularyService 清理复习记录
+--   2. 主键和唯一键必须包含分区列：主键改为 (id, reviewed_at)
+-- 分区按执行当天生成：过去 12 个月 (lingoflow.review-archive.retention-months) 和之后 3 个月
+-- (months-ahead) 各一个分区，更早的记录进入 p_history；之后月份的分区由 ReviewArchiveJob 每天提前创建
+-- (从 pmax 拆分)，超过保留期的分区导出为 CSV.gz 后删除
+
+UPDATE review_records SET reviewed_at = NOW() WHERE reviewed_at IS NULL;
+
+DELIMITER //
+
+-- 外键和外键自动创建的 vocabulary_id 索引由 MySQL 命名，按 information_schema 查出实际名称后删除
+CREATE PROCEDURE drop_review_records_foreign_keys()
+BEGIN
+    DECLARE drops TEXT DEFAULT NULL;
+
+    SELECT GROUP_CONCAT(CONCAT('DROP FOREIGN KEY `', CONSTRAINT_NAME, '`') SEPARATOR ', ') INTO drops
+    FROM information_schema.REFERENTIAL_CONSTRAINTS
+    WHERE CONSTRAINT_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'review_records';
+    IF drops IS NOT NULL THEN
+        SET @ddl = CONCAT('ALTER TABLE review_records ', drops);
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+
+    SET drops = NULL;
+    SELECT GROUP_CONCAT(DISTINCT CONCAT('DROP INDEX `', INDEX_NAME, '`') SEPARATOR ', ') INTO drops
+    FROM information_schema.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'review_records'
+      AND INDEX_NAME <> 'PRIMARY'
+      AND SEQ_IN_INDEX = 1
+      AND COLUMN_NAME = 'vocabulary_id';
+    IF drops IS NOT NULL THEN
+        SET @ddl = CONCAT('ALTER TABLE review_records ', drops);
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END //
+
+-- 按当前日期生成分区，与 ReviewArchiveJob 的命名一致：pYYYYMM 保存该月的记录
+CREATE PROCEDURE partition_review_records(IN history_months INT, IN months_ahead INT)
+BEGIN
+    DECLARE partitioned INT DEFAULT 0;
+    DECLARE this_month DATE DEFAULT DATE_FORMAT(CURDATE(), '%Y-%m-01');
+    DECLARE month_start DATE;
+    DECLARE partition_list TEXT;
+
+    SELECT COUNT(*) INTO partitioned
+    FROM information_schema.PARTITIONS
+    WHERE TABLE_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'review_records'
+      AND PARTITION_NAME IS NOT NULL;
+
+    IF partitioned = 0 THEN
+        SET month_start = DATE_SUB(this_month, INTERVAL history_months MONTH);
+        SET partition_list = CONCAT('PARTITION p_history VALUES LESS THAN (''', month_start, ''')');
+        WHILE month_start <= DATE_ADD(this_month, INTERVAL months_ahead MONTH) DO
+            SET partition_list = CONCAT(partition_list, ', PARTITION p', DATE_FORMAT(month_start, '%Y%m'),
+                ' VALUES LESS THAN (''', DATE_ADD(month_start, INTERVAL 1 MONTH), ''')');
+            SET month_start = DATE_ADD(month_start, INTERVAL 1 MONTH);
+        END WHILE;
+        SET @ddl = CONCAT('ALTER TABLE review_records PARTITION BY RANGE COLUMNS (reviewed_at) (',
+            partition_list, ', PARTITION pmax VALUES LESS THAN (MAXVALUE))');
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END //
+
+DELIMITER ;
+
+CALL drop_review_records_foreign_keys();
+DROP PROCEDURE IF EXISTS drop_review_records_foreign_keys;
+
+ALTER TABLE review_records
+    MODIFY reviewed_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, reviewed_at),
+    ADD INDEX idx_user_vocab_review (user_id, vocabulary_id, reviewed_at);
+
+CALL partition_review_records(12, 3);
+DROP PROCEDURE IF EXISTS partition_review_records;
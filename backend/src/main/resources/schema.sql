@@ -13,6 +13,7 @@ CREATE TABLE IF NOT EXISTS users (
     avatar_url VARCHAR(255),
     daily_goal INT DEFAULT 20,
     difficulty_level VARCHAR(20) DEFAULT 'medium',
+    sync_version BIGINT NOT NULL DEFAULT 0,
     created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
     updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     INDEX idx_username (username),
@@ -44,12 +45,53 @@ CREATE TABLE IF NOT EXISTS vocabulary (
     interval_days INT DEFAULT 1,
     next_review_date DATETIME,
     last_review_date DATETIME,
+    sync_version BIGINT NOT NULL DEFAULT 0,
+    version INT NOT NULL DEFAULT 0,
     created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
     updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE,
     FOREIGN KEY (word_id) REFERENCES words (id) ON DELETE CASCADE,
     UNIQUE KEY idx_user_word (user_id, word_id),
-    INDEX idx_next_review (user_id, next_review_date)
+    INDEX idx_next_review (user_id, next_review_date),
+    INDEX idx_user_sync (user_id, sync_version)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci;
+
+-- 已删除生词的墓碑，供增量同步返回删除
+CREATE TABLE IF NOT EXISTS vocabulary_tombstones (
+    user_id BIGINT NOT NULL,
+    vocabulary_id BIGINT NOT NULL,
+    word_id BIGINT NOT NULL,
+    sync_version BIGINT NOT NULL,
+    deleted_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, vocabulary_id),
+    INDEX idx_tombstone_user_sync (user_id, sync_version),
+    FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci;
+
+-- 事务性 outbox，投递成功后删除，status = 1 为死信
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    payload VARCHAR(1000),
+    status TINYINT NOT NULL DEFAULT 0,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME,
+    last_error VARCHAR(500),
+    created_at DATETIME(3) DEFAULT CURRENT_TIMESTAMP(3),
+    INDEX idx_outbox_status (status, id),
+    INDEX idx_outbox_user (user_id, status, id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci;
+
+-- AI 生成内容 (文章、造句反馈)，JSON，超过阈值时 deflate 压缩，按内容哈希去重
+CREATE TABLE IF NOT EXISTS content_blobs (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    content_hash CHAR(64) NOT NULL,
+    encoding VARCHAR(16) NOT NULL,
+    original_size INT NOT NULL,
+    body MEDIUMBLOB NOT NULL,
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE KEY uk_content_hash (content_hash)
 ) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci;
 
 -- 学习会话表
@@ -58,11 +100,13 @@ CREATE TABLE IF NOT EXISTS learning_sessions (
     user_id BIGINT NOT NULL,
     session_type VARCHAR(20) NOT NULL,
     ai_article TEXT,
+    article_content_id BIGINT DEFAULT NULL,
     words_learned INT DEFAULT 0,
     words_correct INT DEFAULT 0,
     duration_seconds INT DEFAULT 0,
     started_at DATETIME DEFAULT CURRENT_TIMESTAMP,
     ended_at DATETIME,
+    questions_status VARCHAR(20) DEFAULT NULL,
     FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE,
     INDEX idx_user_session (user_id, started_at)
 ) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci;
@@ -71,31 +115,86 @@ CREATE TABLE IF NOT EXISTS learning_sessions (
 CREATE TABLE IF NOT EXISTS session_words (
     id BIGINT PRIMARY KEY AUTO_INCREMENT,
     session_id BIGINT NOT NULL,
-    vocabulary_id BIGINT NOT NULL,
+    vocabulary_id BIGINT,
     action_type VARCHAR(20) NOT NULL,
     user_sentence TEXT,
     ai_feedback TEXT,
+    feedback_content_id BIGINT DEFAULT NULL,
     score INT,
+    question_type VARCHAR(30) DEFAULT 'sentence_making',
+    question_data JSON,
     created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (session_id) REFERENCES learning_sessions (id) ON DELETE CASCADE,
     FOREIGN KEY (vocabulary_id) REFERENCES vocabulary (id) ON DELETE CASCADE,
     INDEX idx_session (session_id)
 ) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci;
 
+-- 每个用户每个单词的最高分造句
+CREATE TABLE IF NOT EXISTS user_word_best_sentence (
+    user_id BIGINT NOT NULL,
+    word_id BIGINT NOT NULL,
+    score INT NOT NULL,
+    session_word_id BIGINT NOT NULL,
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, word_id),
+    FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE,
+    FOREIGN KEY (session_word_id) REFERENCES session_words (id) ON DELETE CASCADE
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci;
+
 -- 复习记录表
 CREATE TABLE IF NOT EXISTS review_records (
-    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    id BIGINT AUTO_INCREMENT,
     user_id BIGINT NOT NULL,
     vocabulary_id BIGINT NOT NULL,
     familiarity_rating VARCHAR(20) NOT NULL,
     is_correct BOOLEAN,
     response_time_ms INT,
-    reviewed_at DATETIME DEFAULT CURRENT_TIMESTAMP,
-    FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE,
-    FOREIGN KEY (vocabulary_id) REFERENCES vocabulary (id) ON DELETE CASCADE,
-    INDEX idx_user_review (user_id, reviewed_at)
+    reviewed_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    -- 按月分区 (见 V9__partition_review_records.sql)：不支持外键，主键需包含分区列
+    PRIMARY KEY (id, reviewed_at),
+    INDEX idx_user_review (user_id, reviewed_at),
+    INDEX idx_user_vocab_review (user_id, vocabulary_id, reviewed_at)
 ) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci;
 
+-- 与 V9 相同：按当前日期生成过去 12 个月和之后 3 个月的月分区，已分区时不重复执行
+DROP PROCEDURE IF EXISTS partition_review_records;
+
+DELIMITER //
+
+CREATE PROCEDURE partition_review_records(IN history_months INT, IN months_ahead INT)
+BEGIN
+    DECLARE partitioned INT DEFAULT 0;
+    DECLARE this_month DATE DEFAULT DATE_FORMAT(CURDATE(), '%Y-%m-01');
+    DECLARE month_start DATE;
+    DECLARE partition_list TEXT;
+
+    SELECT COUNT(*) INTO partitioned
+    FROM information_schema.PARTITIONS
+    WHERE TABLE_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'review_records'
+      AND PARTITION_NAME IS NOT NULL;
+
+    IF partitioned = 0 THEN
+        SET month_start = DATE_SUB(this_month, INTERVAL history_months MONTH);
+        SET partition_list = CONCAT('PARTITION p_history VALUES LESS THAN (''', month_start, ''')');
+        WHILE month_start <= DATE_ADD(this_month, INTERVAL months_ahead MONTH) DO
+            SET partition_list = CONCAT(partition_list, ', PARTITION p', DATE_FORMAT(month_start, '%Y%m'),
+                ' VALUES LESS THAN (''', DATE_ADD(month_start, INTERVAL 1 MONTH), ''')');
+            SET month_start = DATE_ADD(month_start, INTERVAL 1 MONTH);
+        END WHILE;
+        SET @ddl = CONCAT('ALTER TABLE review_records PARTITION BY RANGE COLUMNS (reviewed_at) (',
+            partition_list, ', PARTITION pmax VALUES LESS THAN (MAXVALUE))');
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END //
+
+DELIMITER ;
+
+CALL partition_review_records(12, 3);
+DROP PROCEDURE IF EXISTS partition_review_records;
+
 -- ========================================
 -- Phase 6: 词典系统
 -- ========================================
@@ -0,0 +1,51 @@
+package com.lingoflow;
+
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+
+/**
+ * 流式查询使用 MySQL 驱动的 fetchSize = Integer.MIN_VALUE，H2 不接受负数；测试环境下忽略负的 fetchSize (与 backend-loadtest 中的同名类相同)
+ */
+@Component
+@Profile("test")
+@Intercepts(@Signature(type = StatementHandler.class, method = "prepare", args = { Connection.class, Integer.class }))
+public class H2FetchSizeInterceptor implements Interceptor {
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Connection connection = (Connection) invocation.getArgs()[0];
+        invocation.getArgs()[0] = proxy(Connection.class, connection, (target, method, args) -> {
+            Object result = method.invoke(target, args);
+            return result instanceof Statement statement && method.getName().startsWith("prepare")
+                    ? proxy((Class<Statement>) method.getReturnType(), statement, (s, m, a) ->
+                            "setFetchSize".equals(m.getName()) && (Integer) a[0] < 0 ? null : m.invoke(s, a))
+                    : result;
+        });
+        return invocation.proceed();
+    }
+
+    private interface Handler<T> {
+        Object invoke(T target, java.lang.reflect.Method method, Object[] args) throws Throwable;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, Handler<T> handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (p, method, args) -> {
+            try {
+                return handler.invoke(target, method, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+}
@@ -0,0 +1,50 @@
+package com.lingoflow;
+
+import com.github.fppt.jedismock.RedisServer;
+import com.lingoflow.ai.SentenceEvaluationBatcher;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * 集成测试基类：完整的应用上下文，H2 (MySQL 模式) + 进程内 Redis 替身 (jedis-mock)，不依赖外部服务
+ *
+ * 所有子类必须共用一个上下文：后台任务的 Redis 租约按进程区分节点，同一 JVM 中的两个上下文会同时持有租约。
+ * 因此替身 (@MockBean) 和自动配置统一放在这里，子类不要再声明；测试数据需自行隔离 (各自插入用户)
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+// 测试环境默认不创建 Prometheus 注册表
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+public abstract class IntegrationTest {
+
+    /** AI 造句评估，未设置返回值时返回 null */
+    @MockBean
+    protected SentenceEvaluationBatcher sentenceEvaluationBatcher;
+
+    private static final RedisServer REDIS = startRedis();
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", () -> "127.0.0.1");
+        registry.add("spring.data.redis.port", REDIS::getBindPort);
+    }
+
+    private static RedisServer startRedis() {
+        try {
+            RedisServer server = RedisServer.newRedisServer(0);
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
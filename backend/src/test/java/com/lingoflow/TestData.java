@@ -0,0 +1,59 @@
+package com.lingoflow;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.util.UUID;
+
+/**
+ * 直接写库准备测试数据，名称带随机后缀，共用上下文的测试之间互不影响
+ */
+public class TestData {
+
+    private final JdbcTemplate jdbc;
+
+    public TestData(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public long user() {
+        String name = "u" + UUID.randomUUID().toString().substring(0, 12);
+        return insert("INSERT INTO users (username, email, password_hash) VALUES (?, ?, ?)",
+                name, name + "@test.local", "x");
+    }
+
+    public long word(String meaningCn) {
+        String word = "w" + UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+        return insert("INSERT INTO words (word, meaning_cn) VALUES (?, ?)", word, meaningCn);
+    }
+
+    public String wordText(long wordId) {
+        return jdbc.queryForObject("SELECT word FROM words WHERE id = ?", String.class, wordId);
+    }
+
+    /**
+     * 已到期的生词
+     */
+    public long vocabulary(long userId, long wordId) {
+        return insert("INSERT INTO vocabulary (user_id, word_id, next_review_date) "
+                + "VALUES (?, ?, DATEADD('DAY', -1, CURRENT_TIMESTAMP))", userId, wordId);
+    }
+
+    public long session(long userId, String type) {
+        return insert("INSERT INTO learning_sessions (user_id, session_type) VALUES (?, ?)", userId, type);
+    }
+
+    private long insert(String sql, Object... args) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbc.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, new String[] {"id"});
+            for (int i = 0; i < args.length; i++) {
+                ps.setObject(i + 1, args[i]);
+            }
+            return ps;
+        }, keys);
+        return keys.getKey().longValue();
+    }
+}
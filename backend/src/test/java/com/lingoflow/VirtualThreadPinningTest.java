@@ -0,0 +1,126 @@
+package com.lingoflow;
+
+import com.lingoflow.mapper.WordMapper;
+import com.lingoflow.service.ReviewService;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.condition.JRE;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 在虚拟线程上并发执行 JDBC (MyBatis + Hikari) 和 Redis (Lettuce) 调用，用 JFR 记录 jdk.VirtualThreadPinned 事件，
+ * 断言这些路径不会在 synchronized 块内阻塞而钉住载体线程。
+ * 只在 java21 profile 中运行 (mvn -Pjava21 test)，负载下的钉住统计见 backend-loadtest 的 PinningMonitor
+ *
+ * H2 内部的 synchronized 只存在于测试环境 (生产使用 MySQL 驱动)，其事件不计入
+ */
+@EnabledIfSystemProperty(named = "lingoflow.pinning-test", matches = "true")
+@EnabledForJreRange(min = JRE.JAVA_21)
+class VirtualThreadPinningTest extends IntegrationTest {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int TASKS = 64;
+    private static final int STACK_DEPTH = 12;
+
+    @Autowired
+    private WordMapper wordMapper;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void jdbcAndRedisPathsDoNotPinCarrierThreads() throws Exception {
+        TestData data = new TestData(jdbc);
+        long userId = data.user();
+        data.vocabulary(userId, data.word("n. 虚拟线程"));
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(PINNED_EVENT).withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+            // 任务数多于连接池大小，部分任务要等待 Hikari 连接
+            runOnVirtualThreads(() -> {
+                wordMapper.count();
+                redisTemplate.opsForValue().set("lf:test:pinning:" + Thread.currentThread().getId(), "1");
+                redisTemplate.opsForValue().get("lf:test:pinning");
+                reviewService.getReviewQueue(userId);
+                reviewService.evictReviewQueue(userId, LocalDate.now());
+            });
+            recording.stop();
+            Path file = dir.resolve("pinning.jfr");
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        }
+
+        List<String> pinnedSites = events.stream()
+                .filter(event -> PINNED_EVENT.equals(event.getEventType().getName()))
+                .map(VirtualThreadPinningTest::stack)
+                .filter(stack -> !stack.contains("org.h2."))
+                .distinct()
+                .collect(Collectors.toList());
+        assertThat(pinnedSites).as("virtual thread pinned at").isEmpty();
+    }
+
+    private static void runOnVirtualThreads(Runnable task) throws Exception {
+        // 以 Java 17 为目标编译，通过反射创建虚拟线程执行器
+        ExecutorService executor = (ExecutorService) Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < TASKS; i++) {
+                futures.add(executor.submit(task));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private static String stack(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "<no stack trace>";
+        }
+        StringBuilder sb = new StringBuilder();
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        for (int i = 0; i < Math.min(STACK_DEPTH, frames.size()); i++) {
+            RecordedFrame frame = frames.get(i);
+            sb.append("\n    at ").append(frame.getMethod().getType().getName())
+                    .append('.').append(frame.getMethod().getName())
+                    .append(':').append(frame.getLineNumber());
+        }
+        return sb.toString();
+    }
+}
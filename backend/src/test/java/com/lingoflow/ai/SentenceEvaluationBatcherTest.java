@@ -0,0 +1,223 @@
+package com.lingoflow.ai;
+
+import com.lingoflow.exception.BusinessException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.search.RequiredSearch;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 造句评估微批处理：按窗口或批大小合并、单条直连、批内单句失败、整批失败的隔离与不隔离、队列满时拒绝
+ *
+ * AI 服务由桩 RestTemplate 代替：句子含 "bad" 时批量接口对该句返回错误，failBatches 为 true 时批量接口整体失败
+ */
+class SentenceEvaluationBatcherTest {
+
+    private static final String URL = "http://ai.test";
+
+    private final RestTemplate restTemplate = mock(RestTemplate.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    /** 每次调用的句子数，单条接口记为 -1 */
+    private final List<Integer> calls = new CopyOnWriteArrayList<>();
+    private volatile boolean failBatches;
+    private volatile CountDownLatch singleGate;
+    private final CountDownLatch singleEntered = new CountDownLatch(1);
+    private SentenceEvaluationBatcher batcher;
+
+    @AfterEach
+    void close() {
+        if (batcher != null) {
+            batcher.close();
+        }
+    }
+
+    @Test
+    void fullBatchIsSentWithoutWaitingForTheWindow() throws Exception {
+        batcher = batcher(4, 60_000, 1000, true);
+
+        List<CompletableFuture<Map<String, Object>>> futures = submit("s0", "s1", "s2", "s3");
+
+        for (int i = 0; i < futures.size(); i++) {
+            assertThat(futures.get(i).get(5, TimeUnit.SECONDS)).containsEntry("sentence", "s" + i);
+        }
+        assertThat(calls).containsExactly(4);
+    }
+
+    @Test
+    void windowFlushesAPartialBatch() throws Exception {
+        batcher = batcher(16, 100, 1000, true);
+
+        List<CompletableFuture<Map<String, Object>>> futures = submit("s0", "s1", "s2");
+
+        for (int i = 0; i < futures.size(); i++) {
+            assertThat(futures.get(i).get(5, TimeUnit.SECONDS)).containsEntry("sentence", "s" + i);
+        }
+        assertThat(calls).containsExactly(3);
+    }
+
+    @Test
+    void singleRequestUsesTheSingleEndpoint() {
+        batcher = batcher(16, 20, 1000, true);
+
+        assertThat(batcher.evaluate("w", "m", "alone")).containsEntry("sentence", "alone");
+        assertThat(calls).containsExactly(-1);
+        assertThat(items("success", "single")).isEqualTo(1);
+    }
+
+    @Test
+    void failedItemOnlyFailsItsOwnRequest() throws Exception {
+        batcher = batcher(3, 60_000, 1000, true);
+
+        List<CompletableFuture<Map<String, Object>>> futures = submit("s0", "bad", "s2");
+
+        assertThat(futures.get(0).get(5, TimeUnit.SECONDS)).containsEntry("sentence", "s0");
+        assertThat(futures.get(2).get(5, TimeUnit.SECONDS)).containsEntry("sentence", "s2");
+        assertThat(failure(futures.get(1))).hasMessageContaining("rejected");
+        assertThat(calls).containsExactly(3);
+        assertThat(items("failed", "batch")).isEqualTo(1);
+    }
+
+    @Test
+    void failedBatchFallsBackToSingleCallsWhenIsolated() throws Exception {
+        failBatches = true;
+        batcher = batcher(3, 60_000, 1000, true);
+
+        List<CompletableFuture<Map<String, Object>>> futures = submit("s0", "s1", "s2");
+
+        for (int i = 0; i < futures.size(); i++) {
+            assertThat(futures.get(i).get(5, TimeUnit.SECONDS)).containsEntry("sentence", "s" + i);
+        }
+        assertThat(calls).containsExactlyInAnyOrder(3, -1, -1, -1);
+        assertThat(items("success", "fallback")).isEqualTo(3);
+    }
+
+    @Test
+    void failedBatchFailsEveryRequestWhenNotIsolated() {
+        failBatches = true;
+        batcher = batcher(3, 60_000, 1000, false);
+
+        List<CompletableFuture<Map<String, Object>>> futures = submit("s0", "s1", "s2");
+
+        for (CompletableFuture<Map<String, Object>> future : futures) {
+            assertThat(failure(future)).hasMessageContaining("AI 服务暂时不可用");
+        }
+        assertThat(calls).containsExactly(3);
+        assertThat(items("failed", "batch")).isEqualTo(3);
+    }
+
+    @Test
+    void fullQueueRejectsImmediately() throws Exception {
+        singleGate = new CountDownLatch(1);
+        batcher = batcher(1, 0, 1, true);
+
+        // 唯一的发送线程阻塞在第一个请求上
+        CompletableFuture<Map<String, Object>> first = batcher.submit("w", "m", "first");
+        assertThat(singleEntered.await(5, TimeUnit.SECONDS)).isTrue();
+        // 批处理线程最多再取走一个等待发送，队列再容纳一个，其余立即拒绝
+        List<CompletableFuture<Map<String, Object>>> rest = submit("s0", "s1", "s2", "s3");
+
+        List<CompletableFuture<Map<String, Object>>> rejected = new ArrayList<>();
+        for (CompletableFuture<Map<String, Object>> future : rest) {
+            if (future.isCompletedExceptionally()) {
+                assertThat(failure(future)).hasMessageContaining("繁忙");
+                rejected.add(future);
+            }
+        }
+        assertThat(rejected).hasSizeGreaterThanOrEqualTo(2);
+        assertThat(items("rejected", "batch")).isEqualTo(rejected.size());
+
+        singleGate.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).containsEntry("sentence", "first");
+        for (CompletableFuture<Map<String, Object>> future : rest) {
+            if (!rejected.contains(future)) {
+                assertThat(future.get(5, TimeUnit.SECONDS)).containsKey("sentence");
+            }
+        }
+    }
+
+    private SentenceEvaluationBatcher batcher(int maxBatchSize, long windowMillis, int queueCapacity,
+            boolean isolateFailures) {
+        given(restTemplate.postForEntity(anyString(), any(), eq(Map.class))).willAnswer(invocation -> {
+            String url = invocation.getArgument(0);
+            Object body = ((HttpEntity<?>) invocation.getArgument(1)).getBody();
+            return url.endsWith("/api/evaluate-sentences")
+                    ? evaluateBatch((Map<String, List<Map<String, Object>>>) body)
+                    : evaluateSingle((Map<String, Object>) body);
+        });
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("meterRegistry", registry);
+        return new SentenceEvaluationBatcher(restTemplate, beans.getBeanProvider(MeterRegistry.class), URL, true,
+                maxBatchSize, windowMillis, 1, queueCapacity, 5_000, isolateFailures);
+    }
+
+    private ResponseEntity<Map> evaluateBatch(Map<String, List<Map<String, Object>>> body) {
+        List<Map<String, Object>> items = body.get("items");
+        calls.add(items.size());
+        if (failBatches) {
+            throw new ResourceAccessException("batch endpoint down");
+        }
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (Map<String, Object> item : items) {
+            String sentence = (String) item.get("sentence");
+            results.add(sentence.contains("bad")
+                    ? Map.of("id", item.get("id"), "code", 400, "msg", "rejected")
+                    : Map.of("id", item.get("id"), "code", 200, "data", Map.of("sentence", sentence)));
+        }
+        return ResponseEntity.ok(Map.of("code", 200, "data", Map.of("results", results)));
+    }
+
+    private ResponseEntity<Map> evaluateSingle(Map<String, Object> body) throws InterruptedException {
+        calls.add(-1);
+        singleEntered.countDown();
+        CountDownLatch gate = singleGate;
+        if (gate != null) {
+            gate.await(5, TimeUnit.SECONDS);
+        }
+        return ResponseEntity.ok(Map.of("code", 200, "data", Map.of("sentence", body.get("sentence"))));
+    }
+
+    private List<CompletableFuture<Map<String, Object>>> submit(String... sentences) {
+        List<CompletableFuture<Map<String, Object>>> futures = new ArrayList<>();
+        for (String sentence : sentences) {
+            futures.add(batcher.submit("w", "m", sentence));
+        }
+        return futures;
+    }
+
+    private static BusinessException failure(CompletableFuture<?> future) {
+        Throwable thrown = catchThrowable(() -> future.get(5, TimeUnit.SECONDS));
+        assertThat(thrown).isInstanceOf(ExecutionException.class);
+        assertThat(thrown.getCause()).isInstanceOf(BusinessException.class);
+        BusinessException failure = (BusinessException) thrown.getCause();
+        assertThat(failure.getCode()).isEqualTo(2011);
+        return failure;
+    }
+
+    private double items(String result, String path) {
+        RequiredSearch search = registry.get("lingoflow.ai.evaluation.items").tag("result", result).tag("path", path);
+        return search.counter().count();
+    }
+}
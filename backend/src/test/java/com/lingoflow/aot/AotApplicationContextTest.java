@@ -0,0 +1,49 @@
+package com.lingoflow.aot;
+
+import com.github.fppt.jedismock.RedisServer;
+import com.lingoflow.LingoflowApplication;
+import com.lingoflow.mapper.UserMapper;
+import com.lingoflow.mapper.WordMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.support.MergedBeanDefinitionPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 以 AOT 模式 (spring.aot.enabled=true) 启动应用：使用构建时生成的 bean 定义，验证 Mapper 等定义可以在运行时装配。
+ * 依赖 process-aot 的产物，只在 fast-startup profile 中运行 (mvn -Pfast-startup verify)
+ */
+@EnabledIfSystemProperty(named = "lingoflow.aot-test", matches = "true")
+class AotApplicationContextTest {
+
+    @Test
+    void startsFromGeneratedBeanDefinitions() throws Exception {
+        RedisServer redis = RedisServer.newRedisServer(0);
+        redis.start();
+        System.setProperty(AotDetector.AOT_ENABLED, "true");
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LingoflowApplication.class)
+                // 生成的初始化器按主类名查找，测试中推断不出主类
+                .main(LingoflowApplication.class)
+                .profiles("test")
+                // 命令行参数优先于 application.yml
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:lingoflow_aot;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+                                + "CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.data.redis.host=127.0.0.1",
+                        "--spring.data.redis.port=" + redis.getBindPort())) {
+            assertThat(AotDetector.useGeneratedArtifacts()).isTrue();
+            assertThat(context.getBean(UserMapper.class).findByUsername("nobody")).isNull();
+            assertThat(context.getBean(WordMapper.class).count()).isZero();
+            // 修正 Mapper 定义的处理器只在构建时运行，不应作为 bean 出现在运行时上下文中
+            assertThat(context.getBeansOfType(MergedBeanDefinitionPostProcessor.class, false, false).values())
+                    .noneMatch(processor -> processor.getClass().getPackageName().startsWith("com.lingoflow"));
+        } finally {
+            System.clearProperty(AotDetector.AOT_ENABLED);
+            redis.stop();
+        }
+    }
+}
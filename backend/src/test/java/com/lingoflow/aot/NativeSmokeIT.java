@@ -0,0 +1,199 @@
+package com.lingoflow.aot;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 原生可执行文件冒烟测试，覆盖原生镜像最容易缺少运行时提示的路径:
+ * 注册/登录 (jjwt 签发、校验)、Mapper XML 与 resultMap (MyBatis 代理和实体反射)、
+ * {@code @ReadReplica} 路由拦截器、Redis 两级缓存 (Jackson TypeReference)、校验失败和未认证请求
+ *
+ * 由 native profile 的 failsafe 在 package 之后运行 (mvn -Pnative verify)，启动 native.binary 指向的可执行文件，
+ * 需要应用配置中的 MySQL 和 Redis，额外的启动参数用 -Dnative.smoke.args 传入。
+ * 设置 native.smoke.base-url 时只对已启动的实例 (任意构建方式) 运行检查
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class NativeSmokeIT {
+
+    private static final Pattern MISSING_METADATA = Pattern.compile("MissingReflectionRegistrationError|"
+            + "MissingResourceRegistrationError|UnsupportedFeatureError|ClassNotFoundException|NoSuchMethodException");
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String username = "smoke" + UUID.randomUUID().toString().replace("-", "").substring(0, 10);
+    private final String password = "smoke-" + UUID.randomUUID().toString().substring(0, 8);
+
+    private String baseUrl;
+    private Process process;
+    private Path log;
+    private String token;
+
+    @BeforeAll
+    void start() throws Exception {
+        baseUrl = System.getProperty("native.smoke.base-url", "");
+        if (!baseUrl.isEmpty()) {
+            return;
+        }
+        Path binary = Path.of(System.getProperty("native.binary", "target/lingoflow-backend"));
+        assertThat(binary).as("build with mvn -Pnative package").isExecutable();
+        int port = Integer.getInteger("native.smoke.port", 18091);
+        baseUrl = "http://127.0.0.1:" + port;
+        log = Files.createTempFile("native-smoke", ".log");
+
+        List<String> command = new ArrayList<>(List.of(binary.toString(), "--server.port=" + port));
+        String args = System.getProperty("native.smoke.args", "").trim();
+        if (!args.isEmpty()) {
+            command.addAll(Arrays.asList(args.split("\\s+")));
+        }
+        long startedAt = System.nanoTime();
+        process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        long deadline = startedAt + Duration.ofSeconds(Long.getLong("native.smoke.timeout-s", 30)).toNanos();
+        while (!ready()) {
+            assertThat(process.isAlive()).as("%s exited, see %s", binary, log).isTrue();
+            assertThat(System.nanoTime()).as("%s did not become ready, see %s", binary, log).isLessThan(deadline);
+            Thread.sleep(20);
+        }
+        System.out.printf("ready in %dms%n", Duration.ofNanos(System.nanoTime() - startedAt).toMillis());
+    }
+
+    @AfterAll
+    void stop() throws Exception {
+        if (process != null) {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    @Test
+    @Order(1)
+    void readinessProbe() throws Exception {
+        assertThat(get("/actuator/health/readiness", null).statusCode()).isEqualTo(200);
+    }
+
+    @Test
+    @Order(2)
+    void registerValidatesAndInsertsUser() throws Exception {
+        assertOk(post("/api/auth/register", "{\"username\":\"" + username + "\",\"email\":\"" + username
+                + "@example.com\",\"password\":\"" + password + "\",\"confirmPassword\":\"" + password + "\"}"));
+
+        JsonNode invalid = json(post("/api/auth/register", "{\"username\":\"x\",\"password\":\"1\"}"));
+        assertThat(invalid.path("code").asInt()).as("Bean Validation").isNotEqualTo(200);
+    }
+
+    @Test
+    @Order(3)
+    void loginIssuesJwt() throws Exception {
+        JsonNode login = assertOk(post("/api/auth/login",
+                "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}"));
+        token = login.path("data").path("accessToken").asText();
+        assertThat(token).isNotEmpty();
+    }
+
+    @Test
+    @Order(4)
+    void profileParsesJwtAndMapsResult() throws Exception {
+        JsonNode profile = assertOk(get("/api/user/profile", token));
+        assertThat(profile.path("data").path("username").asText()).isEqualTo(username);
+    }
+
+    @Test
+    @Order(5)
+    void readReplicaAndAnnotationMappers() throws Exception {
+        assertOk(get("/api/dictionaries", token));
+        assertOk(get("/api/stats/overview", token));
+    }
+
+    @Test
+    @Order(6)
+    void redisBackedCachesAndDtos() throws Exception {
+        // 第二次从两级缓存读取 (Jackson TypeReference 反序列化)
+        assertOk(get("/api/review/queue", token));
+        assertOk(get("/api/review/queue", token));
+        assertOk(get("/api/review/session?reset=true&size=5", token));
+        assertOk(get("/api/learning/state", token));
+    }
+
+    @Test
+    @Order(7)
+    void unauthenticatedRequestIsRejected() throws Exception {
+        assertThat(get("/api/user/profile", null).statusCode()).isGreaterThanOrEqualTo(400);
+    }
+
+    @Test
+    @Order(8)
+    void logHasNoMissingMetadataErrors() throws IOException {
+        if (log == null) {
+            return;
+        }
+        try (var lines = Files.lines(log)) {
+            assertThat(lines.filter(line -> MISSING_METADATA.matcher(line).find()).toList()).isEmpty();
+        }
+    }
+
+    private boolean ready() {
+        try {
+            return get("/actuator/health/readiness", null).statusCode() == 200;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private HttpResponse<String> get(String path, String bearer) throws IOException, InterruptedException {
+        return send(request(path, bearer).GET());
+    }
+
+    private HttpResponse<String> post(String path, String body) throws IOException, InterruptedException {
+        return send(request(path, null).header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    private HttpRequest.Builder request(String path, String bearer) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(10));
+        if (bearer != null) {
+            builder.header("Authorization", "Bearer " + bearer);
+        }
+        return builder;
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder builder) throws IOException, InterruptedException {
+        return http.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private JsonNode assertOk(HttpResponse<String> response) throws IOException {
+        assertThat(response.statusCode()).as(response.body()).isEqualTo(200);
+        JsonNode body = json(response);
+        assertThat(body.path("code").asInt()).as(response.body()).isEqualTo(200);
+        return body;
+    }
+
+    private JsonNode json(HttpResponse<String> response) throws IOException {
+        return objectMapper.readTree(response.body());
+    }
+}
@@ -0,0 +1,140 @@
+package com.lingoflow.cache;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fppt.jedismock.RedisServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 失效总线：两个节点共用一个 Redis 替身，验证 evict 广播、序号不连续和订阅期间丢消息时清空 L1
+ */
+class CacheInvalidationBusTest {
+
+    private static final CacheSpec<String> SPEC = CacheSpec.<String>builder()
+            .name("test:bus")
+            .type(new TypeReference<>() {
+            })
+            .ttl(Duration.ofHours(1))
+            .localTtl(Duration.ofHours(1))
+            .build();
+
+    private RedisServer redis;
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+    private final List<AutoCloseable> resources = new ArrayList<>();
+
+    @BeforeEach
+    void startRedis() throws Exception {
+        redis = RedisServer.newRedisServer(0);
+        redis.start();
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redis.getHost(), redis.getBindPort()));
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterEach
+    void stopRedis() throws Exception {
+        for (AutoCloseable resource : resources) {
+            resource.close();
+        }
+        connectionFactory.destroy();
+        redis.stop();
+    }
+
+    @Test
+    void evictFansOutToOtherNodes() throws Exception {
+        Node a = node("node-a", true);
+        Node b = node("node-b", true);
+        b.cache().get("k", () -> "v1");
+        assertThat(b.cache().localSize()).isEqualTo(1);
+
+        a.cache().put("k", "v2");
+
+        await(() -> b.cache().localSize() == 0);
+        assertThat(b.cache().get("k", () -> "unexpected load")).isEqualTo("v2");
+        assertThat(b.count("applied")).isEqualTo(1);
+        // 发布方自己的消息不计入 applied
+        assertThat(a.count("applied")).isZero();
+    }
+
+    @Test
+    void sequenceGapFlushesAllLocalEntries() throws Exception {
+        Node a = node("node-a", true);
+        Node b = node("node-b", true);
+        b.cache().get("other", () -> "cached");
+
+        // 一条消息丢失：序号已分配但没有发布
+        redisTemplate.opsForValue().increment(CacheInvalidationBus.SEQUENCE_KEY);
+        a.cache().evict("unrelated");
+
+        // 发布方同样按序号收到自己的消息
+        await(() -> b.count("flush_gap") == 1 && a.count("flush_gap") == 1);
+        assertThat(b.cache().localSize()).isZero();
+    }
+
+    @Test
+    void messagesMissedWhileUnsubscribedFlushOnCheck() throws Exception {
+        Node a = node("node-a", true);
+        Node b = node("node-b", false);
+        b.cache().get("k", () -> "v1");
+
+        a.cache().put("k", "v2");
+
+        // 第一次检查记下序号，下一次检查仍未收到该序号的消息时清空
+        await(() -> b.count("flush_missed") == 1);
+        assertThat(b.cache().localSize()).isZero();
+        assertThat(b.cache().get("k", () -> "unexpected load")).isEqualTo("v2");
+        assertThat(a.count("flush_missed")).isZero();
+    }
+
+    private Node node(String nodeId, boolean subscribed) throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TwoLevelCacheManager cacheManager = new TwoLevelCacheManager(redisTemplate, new ObjectMapper(),
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+        CacheInvalidationBus bus = new CacheInvalidationBus(redisTemplate, cacheManager, nodeId, 100);
+        bus.bindMetrics(registry);
+        resources.add(bus);
+        if (subscribed) {
+            RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+            container.setConnectionFactory(connectionFactory);
+            container.afterPropertiesSet();
+            bus.subscribe(container);
+            container.start();
+            resources.add(container::destroy);
+            await(container::isListening);
+        }
+        return new Node(cacheManager.getCache(SPEC), registry);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met within 5s").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    private record Node(TwoLevelCache<String> cache, SimpleMeterRegistry registry) {
+
+        double count(String event) {
+            return registry.get("lingoflow.cache.invalidation.messages").tag("event", event).counter().count();
+        }
+    }
+}
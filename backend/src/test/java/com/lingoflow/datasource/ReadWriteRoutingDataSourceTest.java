@@ -0,0 +1,147 @@
+package com.lingoflow.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+
+/**
+ * 读写分离选库：只读事务和副本提示走副本，写事务、写后窗口、副本延迟过大或不可用时走主库
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private static final long MAX_LAG_SECONDS = 10;
+
+    private final DataSource primary = h2("primary");
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private ReplicaLagMonitor lagMonitor;
+
+    @AfterEach
+    void tearDown() {
+        if (lagMonitor != null) {
+            lagMonitor.close();
+        }
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void plainCallsUsePrimary() throws Exception {
+        ReadWriteRoutingDataSource router = router(h2("replica"), "SELECT 0", new ReadYourWritesTracker(60_000));
+
+        assertThat(target(router)).isEqualTo("primary");
+        assertThat(routed("primary", "read_write")).isEqualTo(1);
+    }
+
+    @Test
+    void replicaHintUsesReplica() throws Exception {
+        ReadWriteRoutingDataSource router = router(h2("replica"), "SELECT 0", new ReadYourWritesTracker(60_000));
+
+        Boolean previous = ReadRouting.preferReplica();
+        try {
+            assertThat(target(router)).isEqualTo("replica");
+        } finally {
+            ReadRouting.restore(previous);
+        }
+        assertThat(routed("replica", "read")).isEqualTo(1);
+    }
+
+    @Test
+    void transactionReadOnlyFlagDecides() throws Exception {
+        ReadWriteRoutingDataSource router = router(h2("replica"), "SELECT 0", new ReadYourWritesTracker(60_000));
+
+        assertThat(inTransaction(router, true)).isEqualTo("replica");
+        assertThat(inTransaction(router, false)).isEqualTo("primary");
+
+        // 读写事务内即使带副本提示也不切换
+        Boolean previous = ReadRouting.preferReplica();
+        try {
+            assertThat(inTransaction(router, false)).isEqualTo("primary");
+        } finally {
+            ReadRouting.restore(previous);
+        }
+    }
+
+    @Test
+    void recentWriterReadsFromPrimary() throws Exception {
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(60_000);
+        ReadWriteRoutingDataSource router = router(h2("replica"), "SELECT 0", tracker);
+        ReadYourWritesTrackerTest.loginAs(1L);
+        tracker.recordWrite();
+
+        assertThat(inTransaction(router, true)).isEqualTo("primary");
+        assertThat(routed("primary", "read_your_writes")).isEqualTo(1);
+
+        ReadYourWritesTrackerTest.loginAs(2L);
+        assertThat(inTransaction(router, true)).isEqualTo("replica");
+    }
+
+    @Test
+    void laggingReplicaIsSkipped() throws Exception {
+        ReadWriteRoutingDataSource router = router(h2("replica"), "SELECT " + (MAX_LAG_SECONDS + 1),
+                new ReadYourWritesTracker(60_000));
+
+        assertThat(inTransaction(router, true)).isEqualTo("primary");
+        assertThat(routed("primary", "no_usable_replica")).isEqualTo(1);
+        assertThat(registry.get("lingoflow.datasource.replica.usable").gauge().value()).isZero();
+    }
+
+    @Test
+    void unreachableReplicaFallsBackAndIsMarkedUnavailable() throws Exception {
+        DataSource replica = spy(h2("replica"));
+        ReadWriteRoutingDataSource router = router(replica, "SELECT 0", new ReadYourWritesTracker(60_000));
+        doThrow(new SQLException("connection refused")).when(replica).getConnection();
+
+        assertThat(inTransaction(router, true)).isEqualTo("primary");
+        assertThat(routed("primary", "no_usable_replica")).isEqualTo(1);
+        assertThat(lagMonitor.pick()).isNull();
+    }
+
+    private ReadWriteRoutingDataSource router(DataSource replica, String lagQuery, ReadYourWritesTracker tracker) {
+        // 检测间隔足够长，测试期间只有构造时的一次检测
+        lagMonitor = new ReplicaLagMonitor(List.of(new ReplicaLagMonitor.Replica("replica-1", replica)),
+                lagQuery, MAX_LAG_SECONDS, 3_600_000);
+        ReadWriteRoutingDataSource router = new ReadWriteRoutingDataSource(primary, lagMonitor, tracker);
+        router.bindMetrics(registry);
+        return router;
+    }
+
+    private static String inTransaction(ReadWriteRoutingDataSource router, boolean readOnly) throws SQLException {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+        try {
+            return target(router);
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+    }
+
+    private static String target(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getURL().contains(":primary-") ? "primary" : "replica";
+        }
+    }
+
+    private double routed(String target, String reason) {
+        return registry.get("lingoflow.datasource.connections").tag("target", target).tag("reason", reason)
+                .counter().count();
+    }
+
+    private static DataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID());
+        return dataSource;
+    }
+}
@@ -0,0 +1,60 @@
+package com.lingoflow.datasource;
+
+import com.lingoflow.entity.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 读己之写窗口：只对写入的登录用户生效，窗口结束后恢复
+ */
+class ReadYourWritesTrackerTest {
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void writeMakesOnlyThatUserSticky() {
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(60_000);
+
+        loginAs(1L);
+        assertThat(tracker.isSticky()).isFalse();
+        tracker.recordWrite();
+        assertThat(tracker.isSticky()).isTrue();
+
+        loginAs(2L);
+        assertThat(tracker.isSticky()).isFalse();
+    }
+
+    @Test
+    void windowExpires() throws Exception {
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(50);
+        loginAs(1L);
+        tracker.recordWrite();
+        assertThat(tracker.isSticky()).isTrue();
+
+        Thread.sleep(100);
+        assertThat(tracker.isSticky()).isFalse();
+    }
+
+    @Test
+    void anonymousWritesAreIgnored() {
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(60_000);
+        tracker.recordWrite();
+        assertThat(tracker.isSticky()).isFalse();
+    }
+
+    static void loginAs(long userId) {
+        User user = new User();
+        user.setId(userId);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+}
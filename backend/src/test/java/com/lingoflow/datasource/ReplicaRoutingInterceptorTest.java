@@ -0,0 +1,99 @@
+package com.lingoflow.datasource;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 读路由提示：只在执行 {@link ReadReplica} 查询期间设置，写语句记录读己之写窗口
+ */
+class ReplicaRoutingInterceptorTest {
+
+    private final ReadYourWritesTracker tracker = mock(ReadYourWritesTracker.class);
+    private final ReplicaRoutingInterceptor interceptor = new ReplicaRoutingInterceptor(tracker);
+    private final Executor executor = mock(Executor.class);
+    private final List<Boolean> hints = new ArrayList<>();
+
+    @BeforeEach
+    void recordHints() throws Exception {
+        given(executor.query(any(), any(), any(), any())).willAnswer(invocation -> {
+            hints.add(ReadRouting.isReplicaPreferred());
+            return List.of();
+        });
+    }
+
+    @Test
+    void annotatedMapperPrefersReplicaDuringTheQuery() throws Throwable {
+        query("com.lingoflow.mapper.StatsMapper.countTotalWords");
+
+        assertThat(hints).containsExactly(true);
+        assertThat(ReadRouting.isReplicaPreferred()).isFalse();
+        verify(tracker, never()).recordWrite();
+    }
+
+    @Test
+    void annotatedMethodPrefersReplica() throws Throwable {
+        query("com.lingoflow.mapper.VocabularyMapper.countByUserId");
+        query("com.lingoflow.mapper.VocabularyMapper.findChangedSince");
+
+        assertThat(hints).containsExactly(true, false);
+    }
+
+    @Test
+    void unknownStatementsStayOnPrimary() throws Throwable {
+        query("com.lingoflow.mapper.NoSuchMapper.find");
+        query("selectWithoutNamespace");
+
+        assertThat(hints).containsExactly(false, false);
+    }
+
+    @Test
+    void nestedHintIsRestored() throws Throwable {
+        Boolean previous = ReadRouting.preferReplica();
+        try {
+            query("com.lingoflow.mapper.StatsMapper.countTotalWords");
+            assertThat(ReadRouting.isReplicaPreferred()).isTrue();
+        } finally {
+            ReadRouting.restore(previous);
+        }
+        assertThat(ReadRouting.isReplicaPreferred()).isFalse();
+    }
+
+    @Test
+    void writesRecordReadYourWrites() throws Throwable {
+        MappedStatement statement = statement("com.lingoflow.mapper.VocabularyMapper.insert", SqlCommandType.INSERT);
+        interceptor.intercept(new Invocation(executor,
+                Executor.class.getMethod("update", MappedStatement.class, Object.class),
+                new Object[] { statement, null }));
+
+        verify(tracker).recordWrite();
+        verify(executor).update(statement, null);
+    }
+
+    private void query(String statementId) throws Throwable {
+        interceptor.intercept(new Invocation(executor,
+                Executor.class.getMethod("query", MappedStatement.class, Object.class, RowBounds.class,
+                        ResultHandler.class),
+                new Object[] { statement(statementId, SqlCommandType.SELECT), null, RowBounds.DEFAULT, null }));
+    }
+
+    private static MappedStatement statement(String id, SqlCommandType type) {
+        return new MappedStatement.Builder(new Configuration(), id, parameter -> null, type).build();
+    }
+}
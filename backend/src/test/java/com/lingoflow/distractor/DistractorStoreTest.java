@@ -0,0 +1,85 @@
+package com.lingoflow.distractor;
+
+import com.lingoflow.entity.Word;
+import com.lingoflow.mapper.WordMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 干扰项索引：词库内容变化 (单词数和最大 id 不变，只改释义) 时重建并替换旧索引
+ */
+class DistractorStoreTest {
+
+    private static final String[][] WORDS = {
+            {"apple", "n. 苹果"}, {"apply", "v. 申请"}, {"ample", "adj. 充足的"}, {"maple", "n. 枫树"},
+            {"angle", "n. 角度"}, {"ankle", "n. 脚踝"}, {"amble", "v. 漫步"}, {"apt", "adj. 恰当的"}};
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void rebuildsWhenAMeaningChanges() throws Exception {
+        List<Word> words = words();
+        WordMapper wordMapper = mock(WordMapper.class);
+        given(wordMapper.findAll()).willReturn(words);
+        try (DistractorStore store = new DistractorStore(wordMapper, true, dir.toString(), WORDS.length - 1)) {
+            store.refresh();
+            Path first = onlyIndexFile();
+            assertThat(meanings(store, words)).contains("v. 申请");
+
+            words.get(1).setMeaningCn("v. 应用");
+            store.refresh();
+
+            assertThat(onlyIndexFile()).isNotEqualTo(first);
+            assertThat(meanings(store, words)).contains("v. 应用").doesNotContain("v. 申请");
+
+            // 内容未变时沿用已映射的索引
+            store.refresh();
+            assertThat(onlyIndexFile()).isNotEqualTo(first);
+        }
+    }
+
+    private Path onlyIndexFile() throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            List<Path> indexes = files.filter(f -> f.getFileName().toString().endsWith(".idx")).toList();
+            assertThat(indexes).hasSize(1);
+            return indexes.get(0);
+        }
+    }
+
+    private static Set<String> meanings(DistractorStore store, List<Word> words) {
+        Set<String> seen = new HashSet<>();
+        for (Word word : words) {
+            for (int i = 0; i < 20; i++) {
+                List<String> picked = store.pick(word.getId(), word.getMeaningCn(), 3);
+                assertThat(picked).isNotNull();
+                seen.addAll(picked);
+            }
+        }
+        return seen;
+    }
+
+    private static List<Word> words() {
+        List<Word> words = new ArrayList<>();
+        for (int i = 0; i < WORDS.length; i++) {
+            Word word = new Word();
+            word.setId((long) i + 1);
+            word.setWord(WORDS[i][0]);
+            word.setMeaningCn(WORDS[i][1]);
+            words.add(word);
+        }
+        return words;
+    }
+}
@@ -0,0 +1,153 @@
+package com.lingoflow.leaderboard;
+
+import com.lingoflow.IntegrationTest;
+import com.lingoflow.TestData;
+import com.lingoflow.entity.OutboxEvent;
+import com.lingoflow.leaderboard.Leaderboards.Metric;
+import com.lingoflow.leaderboard.Leaderboards.Period;
+import com.lingoflow.outbox.OutboxEventType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.IsoFields;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 排行榜：按事件增量计分的结果与对账按数据库重建的结果一致，
+ * 对账修正重复投递造成的偏差；周榜键在该周结束一天后过期
+ */
+class LeaderboardReconcileTest extends IntegrationTest {
+
+    @Autowired
+    private LeaderboardProjection projection;
+
+    @Autowired
+    private LeaderboardReconcileJob reconcileJob;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void reconciliationAgreesWithProjectedScores() {
+        TestData data = new TestData(jdbc);
+        long userId = data.user();
+        long unknownThenKnown = data.vocabulary(userId, data.word("n. 对账"));
+        long fuzzy = data.vocabulary(userId, data.word("n. 投影"));
+        long knownUnanswered = data.vocabulary(userId, data.word("n. 增量"));
+
+        // 与 ReviewService 的写入一致：每次 SM-2 更新计一次复习并发布一个 REVIEW_APPLIED
+        review(userId, unknownThenKnown, "unknown", null);
+        review(userId, unknownThenKnown, "known", true);
+        review(userId, fuzzy, "fuzzy", null);
+        // 自评 "known" 但未答题，没有更新 SM-2，也没有事件
+        review(userId, knownUnanswered, "known", null);
+        jdbc.update("UPDATE vocabulary SET review_count = ? WHERE id = ?", 2, unknownThenKnown);
+        jdbc.update("UPDATE vocabulary SET review_count = ? WHERE id = ?", 1, fuzzy);
+
+        LocalDateTime now = LocalDateTime.now();
+        projection.handle(event(userId, OutboxEventType.VOCABULARY_ADDED, now), Map.of("count", 3));
+        for (int i = 0; i < 3; i++) {
+            projection.handle(event(userId, OutboxEventType.REVIEW_APPLIED, now), Map.of());
+        }
+
+        LocalDate today = now.toLocalDate();
+        assertScores(userId, today, 3, 3);
+        assertWeekKeysExpireAfterTheWeek(today);
+
+        // 重试造成的重复计分和丢失的总榜由对账修正
+        projection.handle(event(userId, OutboxEventType.REVIEW_APPLIED, now), Map.of());
+        projection.handle(event(userId, OutboxEventType.VOCABULARY_ADDED, now), Map.of("count", 1));
+        redisTemplate.opsForZSet().remove(key(Metric.REVIEWS, "all"), String.valueOf(userId));
+        reconcileJob.reconcileWeek();
+        reconcileJob.reconcileAllTime();
+
+        assertScores(userId, today, 3, 3);
+        assertWeekKeysExpireAfterTheWeek(today);
+        for (Metric metric : List.of(Metric.WORDS, Metric.REVIEWS)) {
+            assertThat(redisTemplate.hasKey(key(metric, "all") + ":rebuild")).isFalse();
+            assertThat(redisTemplate.hasKey(weekKey(metric, today) + ":rebuild")).isFalse();
+        }
+    }
+
+    @Test
+    void pastWeekBoardsExpire() {
+        long userId = new TestData(jdbc).user();
+        LocalDateTime twoWeeksAgo = LocalDateTime.now().minusWeeks(2);
+
+        projection.handle(event(userId, OutboxEventType.REVIEW_APPLIED, twoWeeksAgo), Map.of());
+
+        // 过期时间已过，周榜键立即删除，只计入总榜
+        assertThat(redisTemplate.hasKey(weekKey(Metric.REVIEWS, twoWeeksAgo.toLocalDate()))).isFalse();
+        assertThat(redisTemplate.opsForZSet().score(key(Metric.REVIEWS, "all"), String.valueOf(userId)))
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void replacingWithNoScoresRemovesTheBoard() {
+        long userId = new TestData(jdbc).user();
+        LocalDate lastWeek = LocalDate.now().minusWeeks(1);
+        Leaderboards leaderboards = new Leaderboards(redisTemplate);
+        String key = weekKey(Metric.SENTENCES, lastWeek);
+        redisTemplate.opsForZSet().add(key, String.valueOf(userId), 10);
+
+        BoardScore zero = new BoardScore();
+        zero.setUserId(userId);
+        zero.setScore(0L);
+        assertThat(leaderboards.replace(Metric.SENTENCES, Period.WEEK, lastWeek, List.of(zero), 10)).isZero();
+
+        assertThat(redisTemplate.hasKey(key)).isFalse();
+        assertThat(redisTemplate.hasKey(key + ":rebuild")).isFalse();
+    }
+
+    private void assertScores(long userId, LocalDate today, long words, long reviews) {
+        String member = String.valueOf(userId);
+        assertThat(redisTemplate.opsForZSet().score(key(Metric.WORDS, "all"), member)).isEqualTo(words);
+        assertThat(redisTemplate.opsForZSet().score(weekKey(Metric.WORDS, today), member)).isEqualTo(words);
+        assertThat(redisTemplate.opsForZSet().score(key(Metric.REVIEWS, "all"), member)).isEqualTo(reviews);
+        assertThat(redisTemplate.opsForZSet().score(weekKey(Metric.REVIEWS, today), member)).isEqualTo(reviews);
+    }
+
+    private void assertWeekKeysExpireAfterTheWeek(LocalDate today) {
+        long expireAt = Leaderboards.weekStart(today).plusDays(8).atZone(ZoneId.systemDefault()).toEpochSecond();
+        long expected = expireAt - System.currentTimeMillis() / 1000;
+        for (Metric metric : List.of(Metric.WORDS, Metric.REVIEWS)) {
+            Long ttl = redisTemplate.getExpire(weekKey(metric, today), TimeUnit.SECONDS);
+            assertThat(ttl).isBetween(expected - 5, expected + 1);
+        }
+        assertThat(redisTemplate.getExpire(key(Metric.WORDS, "all"))).isEqualTo(-1L);
+    }
+
+    private void review(long userId, long vocabularyId, String rating, Boolean correct) {
+        jdbc.update("INSERT INTO review_records (user_id, vocabulary_id, familiarity_rating, is_correct) "
+                + "VALUES (?, ?, ?, ?)", userId, vocabularyId, rating, correct);
+    }
+
+    private static OutboxEvent event(long userId, OutboxEventType type, LocalDateTime createdAt) {
+        OutboxEvent event = new OutboxEvent();
+        event.setUserId(userId);
+        event.setEventType(type.name());
+        event.setCreatedAt(createdAt);
+        return event;
+    }
+
+    private static String key(Metric metric, String suffix) {
+        return "lf:board:" + metric.key() + ":" + suffix;
+    }
+
+    private static String weekKey(Metric metric, LocalDate day) {
+        return key(metric, "w:" + day.get(IsoFields.WEEK_BASED_YEAR) + "-"
+                + day.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+    }
+}
@@ -0,0 +1,154 @@
+package com.lingoflow.metrics;
+
+import com.lingoflow.IntegrationTest;
+import com.lingoflow.TestData;
+import com.lingoflow.mapper.WordMapper;
+import com.lingoflow.security.JwtTokenProvider;
+import com.lingoflow.service.ReviewService;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 应用指标：MyBatis 语句耗时、按路由模板的 HTTP 请求、两级缓存命中和 AI 服务调用都记录到注册表并可被抓取
+ */
+class MetricsEmissionTest extends IntegrationTest {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WordMapper wordMapper;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void mapperCallsAreTimedPerStatement() throws Exception {
+        wordMapper.count();
+
+        Timer timer = meterRegistry.find("mybatis.statement")
+                .tag("statement", "com.lingoflow.mapper.WordMapper.count")
+                .tag("command", "SELECT")
+                .tag("outcome", "success")
+                .timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isPositive();
+        scrape("mybatis_statement_seconds_count{", "statement=\"com.lingoflow.mapper.WordMapper.count\"");
+    }
+
+    @Test
+    void apiRequestsAreTaggedWithTheRouteTemplate() throws Exception {
+        TestData data = new TestData(jdbc);
+        long userId = data.user();
+        long wordId = data.word("n. 指标");
+        String token = jwtTokenProvider.generateAccessToken(userId, "metrics");
+
+        mockMvc.perform(get("/api/words/" + wordId).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        Timer timer = meterRegistry.find("http.server.requests")
+                .tag("uri", "/api/words/{id}")
+                .tag("method", "GET")
+                .tag("status", "200")
+                .timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isPositive();
+        assertThat(meterRegistry.find("http.server.requests").tag("uri", "/api/words/" + wordId).timer()).isNull();
+    }
+
+    @Test
+    void cacheHitsAndMissesAreCounted() {
+        TestData data = new TestData(jdbc);
+        long userId = data.user();
+        data.vocabulary(userId, data.word("n. 缓存"));
+        double misses = cacheGets("miss");
+        double hits = cacheGets("local_hit") + cacheGets("redis_hit");
+
+        reviewService.getReviewQueue(userId);
+        reviewService.getReviewQueue(userId);
+
+        assertThat(meterRegistry.find("lingoflow.cache.gets").tag("cache", "review:queue").functionCounters())
+                .hasSize(3);
+        assertThat(cacheGets("miss")).isEqualTo(misses + 1);
+        assertThat(cacheGets("local_hit") + cacheGets("redis_hit")).isEqualTo(hits + 1);
+        assertThat(meterRegistry.find("lingoflow.cache.hit.ratio").tag("cache", "review:queue").gauge()).isNotNull();
+        assertThat(meterRegistry.find("lingoflow.cache.loads").tag("cache", "review:queue").functionTimer())
+                .isNotNull();
+    }
+
+    @Test
+    void aiServiceCallsAreRecordedAsClientRequests() throws Exception {
+        // AI 服务替身
+        HttpServer ai = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        ai.createContext("/api/evaluate-sentence", exchange -> {
+            byte[] body = "{\"score\":90}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        ai.start();
+        try {
+            String url = "http://127.0.0.1:" + ai.getAddress().getPort() + "/api/evaluate-sentence";
+            restTemplate.postForEntity(url, Map.of("word", "metric"), Map.class);
+        } finally {
+            ai.stop(0);
+        }
+
+        Timer timer = meterRegistry.find("http.client.requests")
+                .tag("uri", "/api/evaluate-sentence")
+                .tag("method", "POST")
+                .tag("status", "200")
+                .tag("client.name", "127.0.0.1")
+                .timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isPositive();
+    }
+
+    private double cacheGets(String result) {
+        FunctionCounter counter = meterRegistry.find("lingoflow.cache.gets")
+                .tag("cache", "review:queue")
+                .tag("result", result)
+                .functionCounter();
+        // 缓存首次使用时才注册指标
+        return counter == null ? 0 : counter.count();
+    }
+
+    private void scrape(String... fragments) throws Exception {
+        var result = mockMvc.perform(get("/actuator/prometheus").with(httpBasic("prometheus", "test-scrape")))
+                .andExpect(status().isOk());
+        for (String fragment : fragments) {
+            result.andExpect(content().string(containsString(fragment)));
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.lingoflow.metrics;
+
+import com.lingoflow.IntegrationTest;
+import com.lingoflow.TestData;
+import com.lingoflow.controller.StatsController;
+import com.lingoflow.controller.VocabularyController;
+import com.lingoflow.entity.User;
+import com.lingoflow.entity.Vocabulary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 各端点的查询预算：语句数不随天数或单词数增长，同一语句不重复执行
+ */
+class QueryBudgetEndpointTest extends IntegrationTest {
+
+    private static final int DAYS = 30;
+    private static final int WORDS = 20;
+
+    @Autowired
+    private StatsController statsController;
+
+    @Autowired
+    private VocabularyController vocabularyController;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private TestData data;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        data = new TestData(jdbc);
+        user = new User();
+        user.setId(data.user());
+    }
+
+    @Test
+    void overviewStaysWithinBudgetForALongStreak() {
+        learnOnEachOfTheLastDays(DAYS);
+        AtomicReference<Map<String, Object>> overview = new AtomicReference<>();
+
+        QueryBudget.Stats stats = QueryCounter.count(
+                () -> overview.set(statsController.getOverview(user).getBody().getData()));
+
+        QueryCounter.assertWithin(stats, 4, 1);
+        assertThat(overview.get()).containsEntry("streakDays", DAYS).containsEntry("totalWords", DAYS);
+    }
+
+    @Test
+    void weeklyStatsStayWithinBudget() {
+        learnOnEachOfTheLastDays(DAYS);
+        jdbc.update("INSERT INTO review_records (user_id, vocabulary_id, familiarity_rating, reviewed_at) "
+                + "SELECT user_id, id, 'fuzzy', created_at FROM vocabulary WHERE user_id = ?", user.getId());
+        AtomicReference<List<Map<String, Object>>> weekly = new AtomicReference<>();
+
+        QueryBudget.Stats stats = QueryCounter.count(
+                () -> weekly.set(statsController.getWeeklyStats(user).getBody().getData()));
+
+        QueryCounter.assertWithin(stats, 2, 1);
+        assertThat(weekly.get()).hasSize(7).allSatisfy(day -> {
+            assertThat(day).containsEntry("count", 1);
+            assertThat(day).containsEntry("reviewCount", 1);
+        });
+    }
+
+    @Test
+    void batchAddStaysWithinBudget() {
+        List<Long> wordIds = new ArrayList<>();
+        for (int i = 0; i < WORDS; i++) {
+            wordIds.add(data.word("n. 预算" + i));
+        }
+        data.vocabulary(user.getId(), wordIds.get(0));
+        AtomicReference<List<Vocabulary>> added = new AtomicReference<>();
+
+        QueryBudget.Stats stats = QueryCounter.count(() -> added.set(vocabularyController
+                .batchAddVocabulary(user, Map.of("wordIds", wordIds)).getBody().getData()));
+
+        // 2 次 findByUserIdAndWordIds (查已有 + 返回结果)，其余语句各一次
+        QueryCounter.assertWithin(stats, 7, 2);
+        assertThat(added.get()).extracting(Vocabulary::getWordId).containsExactlyInAnyOrderElementsOf(wordIds);
+        assertThat(jdbc.queryForObject("SELECT COUNT(DISTINCT sync_version) FROM vocabulary "
+                + "WHERE user_id = ? AND word_id <> ?", Integer.class, user.getId(), wordIds.get(0))).isEqualTo(1);
+    }
+
+    /**
+     * 今天起往前每天新增一个生词
+     */
+    private void learnOnEachOfTheLastDays(int days) {
+        for (int i = 0; i < days; i++) {
+            long vocabularyId = data.vocabulary(user.getId(), data.word("n. 连续" + i));
+            jdbc.update("UPDATE vocabulary SET created_at = DATEADD('DAY', ?, CURRENT_TIMESTAMP) WHERE id = ?",
+                    -i, vocabularyId);
+        }
+    }
+}
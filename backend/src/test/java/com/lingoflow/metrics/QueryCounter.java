@@ -0,0 +1,40 @@
+package com.lingoflow.metrics;
+
+import java.util.Map;
+
+/**
+ * 统计一段代码在当前线程执行的 SQL 语句，供集成测试断言查询预算，例如:
+ * <pre>
+ * QueryCounter.assertWithin(QueryCounter.count(() -> statsController.getWeeklyStats(user)), 2, 1);
+ * </pre>
+ */
+public final class QueryCounter {
+
+    private QueryCounter() {
+    }
+
+    public static QueryBudget.Stats count(Runnable action) {
+        QueryBudget.Stats stats = QueryBudget.begin();
+        try {
+            action.run();
+            return stats;
+        } finally {
+            QueryBudget.end();
+        }
+    }
+
+    /**
+     * 断言语句总数和单条语句的重复次数不超过预算，否则抛出 AssertionError
+     */
+    public static void assertWithin(QueryBudget.Stats stats, int maxStatements, int maxRepeats) {
+        if (stats.getStatementCount() > maxStatements) {
+            throw new AssertionError("Expected at most " + maxStatements + " statements but executed "
+                    + stats.getStatementCount() + ": " + stats.getPerStatement());
+        }
+        Map.Entry<String, Integer> top = stats.getMostRepeated();
+        if (top != null && top.getValue() > maxRepeats) {
+            throw new AssertionError("Statement " + top.getKey() + " executed " + top.getValue()
+                    + " times, limit is " + maxRepeats);
+        }
+    }
+}
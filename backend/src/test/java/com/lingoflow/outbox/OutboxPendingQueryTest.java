@@ -0,0 +1,61 @@
+package com.lingoflow.outbox;
+
+import com.lingoflow.IntegrationTest;
+import com.lingoflow.TestData;
+import com.lingoflow.entity.OutboxEvent;
+import com.lingoflow.mapper.OutboxMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 待投递查询：等待重试的事件和同一用户排在其后的事件不进入批次，其他用户的事件不受影响
+ *
+ * 事件在未提交的事务中写入并回滚，后台投递线程看不到
+ */
+class OutboxPendingQueryTest extends IntegrationTest {
+
+    @Autowired
+    private OutboxMapper outboxMapper;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void skipsBackedOffEventsAndLaterEventsOfTheSameUser() {
+        TestData data = new TestData(jdbc);
+        long blockedUser = data.user();
+        long otherUser = data.user();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            long backedOff = event(blockedUser, "DATEADD('MINUTE', 5, NOW())");
+            long behindBackedOff = event(blockedUser, "NULL");
+            long due = event(otherUser, "DATEADD('MINUTE', -5, NOW())");
+            long fresh = event(otherUser, "NULL");
+
+            List<Long> pending = outboxMapper.findPending(1000).stream()
+                    .filter(e -> Set.of(blockedUser, otherUser).contains(e.getUserId()))
+                    .map(OutboxEvent::getId)
+                    .toList();
+
+            assertThat(pending).containsExactly(due, fresh).doesNotContain(backedOff, behindBackedOff);
+            status.setRollbackOnly();
+        });
+    }
+
+    private long event(long userId, String nextAttemptAt) {
+        jdbc.update("INSERT INTO outbox_events (user_id, event_type, attempts, next_attempt_at) "
+                + "VALUES (?, 'REVIEW_APPLIED', 1, " + nextAttemptAt + ")", userId);
+        return jdbc.queryForObject("SELECT MAX(id) FROM outbox_events WHERE user_id = ?", Long.class, userId);
+    }
+}
@@ -0,0 +1,125 @@
+package com.lingoflow.reminder;
+
+import com.lingoflow.IntegrationTest;
+import com.lingoflow.TestData;
+import com.lingoflow.mapper.ReminderMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+
+/**
+ * 复习提醒：每个有到期单词的用户只通知一次，已完成的分片 (包括获取租约期间被其他节点完成的) 不再处理
+ *
+ * 上下文中的定时任务在 test profile 下关闭，这里直接构造调度器
+ */
+class DueReminderSchedulerTest extends IntegrationTest {
+
+    private static final int SHARDS = 4;
+    private static final int CHUNK_SIZE = 2;
+
+    @Autowired
+    private ReminderMapper reminderMapper;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private final List<DueCount> notified = new CopyOnWriteArrayList<>();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final String prefix = "lf:reminder:" + LocalDate.now() + ":";
+
+    @BeforeEach
+    void setUp() {
+        Set<String> keys = redisTemplate.keys("lf:reminder:*");
+        if (keys != null && !keys.isEmpty()) {
+            redisTemplate.delete(keys);
+        }
+    }
+
+    @Test
+    void notifiesEveryDueUserOnceAndSkipsCompletedShards() {
+        TestData data = new TestData(jdbc);
+        List<Long> userIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            long userId = data.user();
+            for (int j = 0; j <= i; j++) {
+                data.vocabulary(userId, data.word("n. 提醒" + j));
+            }
+            userIds.add(userId);
+        }
+
+        scheduler(redisTemplate).run();
+
+        for (int i = 0; i < userIds.size(); i++) {
+            Long userId = userIds.get(i);
+            assertThat(notified).filteredOn(c -> c.getUserId().equals(userId))
+                    .singleElement()
+                    .extracting(DueCount::getDueCount)
+                    .isEqualTo(i + 1);
+        }
+        assertThat(redisTemplate.opsForHash().entries(prefix + "checkpoint").values())
+                .hasSize(SHARDS)
+                .containsOnly("done");
+        assertThat(counter("completed")).isEqualTo(SHARDS);
+
+        notified.clear();
+        scheduler(redisTemplate).run();
+        assertThat(notified).isEmpty();
+    }
+
+    @Test
+    void skipsShardCompletedByAnotherNodeWhileAcquiringTheLease() {
+        new TestData(jdbc).user();
+        redisTemplate.opsForValue().set(prefix + "plan", reminderMapper.findMaxUserId() + ":2");
+        redisTemplate.opsForHash().putAll(prefix + "checkpoint", Map.of("0", "done", "1", "done"));
+
+        // 第一次读取检查点时分片尚未完成，获取租约后再读时已被其他节点完成
+        StringRedisTemplate racing = spy(redisTemplate);
+        HashOperations<String, Object, Object> hashOps = spy(redisTemplate.<Object, Object>opsForHash());
+        doReturn(hashOps).when(racing).opsForHash();
+        for (String shard : List.of("0", "1")) {
+            doReturn(null).doCallRealMethod().when(hashOps).get(prefix + "checkpoint", shard);
+        }
+
+        scheduler(racing).run();
+
+        assertThat(counter("already_done")).isEqualTo(2);
+        assertThat(counter("completed")).isZero();
+        assertThat(notified).isEmpty();
+        assertThat(redisTemplate.keys(prefix + "lease:*")).isEmpty();
+    }
+
+    private DueReminderScheduler scheduler(StringRedisTemplate redis) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("recording", (DueReminderNotifier) (day, dueCounts) -> notified.addAll(dueCounts));
+        beans.addBean("log", new LogDueReminderNotifier());
+        beans.addBean("meterRegistry", meterRegistry);
+        return new DueReminderScheduler(reminderMapper, beans.getBeanProvider(DueReminderNotifier.class), redis,
+                beans.getBeanProvider(MeterRegistry.class), true, SHARDS, CHUNK_SIZE, 120);
+    }
+
+    private double counter(String result) {
+        var counter = meterRegistry.find("lingoflow.reminder.shards").tag("result", result).counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
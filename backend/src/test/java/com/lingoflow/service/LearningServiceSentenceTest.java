@@ -0,0 +1,128 @@
+package com.lingoflow.service;
+
+import com.lingoflow.IntegrationTest;
+import com.lingoflow.TestData;
+import com.lingoflow.leaderboard.Leaderboards;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+
+/**
+ * 造句只保留每个单词的最高分：并发提交时最高分、残留的造句记录和排行榜增量都要一致
+ */
+class LearningServiceSentenceTest extends IntegrationTest {
+
+    @Autowired
+    private LearningService learningService;
+
+    @Autowired
+    private Leaderboards leaderboards;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private long userId;
+    private long sessionId;
+    private long vocabularyId;
+    private String word;
+
+    @BeforeEach
+    void setUp() {
+        // 句子末尾的数字即评估分数
+        given(sentenceEvaluationBatcher.evaluate(anyString(), anyString(), anyString())).willAnswer(invocation -> {
+            String sentence = invocation.getArgument(2);
+            return Map.of("score", Integer.parseInt(sentence.substring(sentence.lastIndexOf(' ') + 1)));
+        });
+        TestData data = new TestData(jdbc);
+        userId = data.user();
+        long wordId = data.word("n. 测试");
+        word = data.wordText(wordId);
+        vocabularyId = data.vocabulary(userId, wordId);
+        sessionId = data.session(userId, "article");
+    }
+
+    @Test
+    void keepsHighestScoreAndReportsReplacedScore() {
+        assertThat(submit(60)).containsEntry("replaced", false);
+        assertThat(submit(50)).containsEntry("replaced", false).containsEntry("previousScore", 60);
+        assertThat(submit(80)).containsEntry("replaced", true).containsEntry("previousScore", 60);
+
+        assertThat(bestScore()).isEqualTo(80);
+        assertThat(sentenceRows()).isEqualTo(1);
+        awaitSentenceBoard(80);
+    }
+
+    @Test
+    void concurrentSubmissionsLeaveOneBestSentenceAndConsistentDeltas() throws Exception {
+        submit(60);
+        int[] scores = {70, 95, 65, 80, 90, 75};
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(scores.length);
+        try {
+            List<Future<Map<String, Object>>> results = new ArrayList<>();
+            for (int score : scores) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return submit(score);
+                }));
+            }
+            start.countDown();
+            for (Future<Map<String, Object>> result : results) {
+                result.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(bestScore()).isEqualTo(95);
+        assertThat(sentenceRows()).isEqualTo(1);
+        // 各次增量基于加锁后读到的原最高分，累加结果等于最终最高分
+        awaitSentenceBoard(95);
+    }
+
+    private Map<String, Object> submit(int score) {
+        return learningService.submitSentence(userId, sessionId, vocabularyId, "I use " + word + " " + score);
+    }
+
+    private int bestScore() {
+        return jdbc.queryForObject("SELECT score FROM user_word_best_sentence WHERE user_id = ?", Integer.class, userId);
+    }
+
+    private int sentenceRows() {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM session_words WHERE vocabulary_id = ? AND action_type = 'sentence'",
+                Integer.class, vocabularyId);
+    }
+
+    private void awaitSentenceBoard(long expected) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        long score = -1;
+        while (System.currentTimeMillis() < deadline) {
+            Leaderboards.Entry entry = leaderboards.rank(Leaderboards.Metric.SENTENCES, Leaderboards.Period.ALL, userId);
+            score = entry == null ? -1 : entry.score();
+            Integer pending = jdbc.queryForObject("SELECT COUNT(*) FROM outbox_events WHERE user_id = ?", Integer.class, userId);
+            if (score == expected && pending == 0) {
+                return;
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        assertThat(score).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,139 @@
+package com.lingoflow.service;
+
+import com.lingoflow.IntegrationTest;
+import com.lingoflow.TestData;
+import com.lingoflow.archive.ReviewArchiveStore;
+import com.lingoflow.entity.ReviewRecord;
+import com.lingoflow.mapper.ReviewRecordMapper;
+import com.lingoflow.mapper.StatsMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 复习历史：归档按用户分桶读取，review_records 分页读取且不在事务内
+ */
+class ReviewHistoryServiceTest extends IntegrationTest {
+
+    @Autowired
+    private ReviewRecordMapper reviewRecordMapper;
+
+    @Autowired
+    private StatsMapper statsMapper;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @TempDir
+    Path archiveDir;
+
+    private ReviewArchiveStore archiveStore;
+    private ReviewHistoryService historyService;
+    private long userId;
+
+    @BeforeEach
+    void setUp() {
+        archiveStore = new ReviewArchiveStore(archiveDir.toString());
+        historyService = new ReviewHistoryService(reviewRecordMapper, statsMapper, archiveStore);
+        userId = new TestData(jdbc).user();
+    }
+
+    @Test
+    void archiveReadsOnlyTheUsersBucket() throws Exception {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        // userId + 64 落在同一分桶，userId + 1 在另一个分桶
+        List<ReviewRecord> records = List.of(
+                record(1L, userId, from.atTime(9, 0)),
+                record(2L, userId + 64, from.atTime(9, 1)),
+                record(3L, userId + 1, from.atTime(9, 2)),
+                record(4L, userId, from.plusDays(1).atTime(9, 0)));
+        assertThat(archiveStore.write(from, from.plusMonths(1), records)).isEqualTo(4);
+
+        try (Stream<Path> files = Files.list(archiveDir.resolve("review_records_20240101_20240201"))) {
+            assertThat(files.count()).isEqualTo(2);
+        }
+        List<Long> ids = new ArrayList<>();
+        archiveStore.scanUser(archiveStore.periods().get(0), userId, r -> ids.add(r.getId()));
+        assertThat(ids).containsExactly(1L, 4L);
+        assertThat(historyService.countReviewsOn(userId, from)).isEqualTo(1);
+        assertThat(historyService.countReviewsOn(userId + 1, from)).isEqualTo(1);
+
+        // 归档之前的一天从数据库分组统计，已归档的日期只以归档为准
+        jdbc.update("INSERT INTO review_records (user_id, vocabulary_id, familiarity_rating, reviewed_at) "
+                + "VALUES (?, 10, 'known', ?), (?, 10, 'known', ?)",
+                userId, from.minusDays(1).atTime(9, 0), userId, from.atTime(10, 0));
+        assertThat(historyService.countReviewsByDay(userId, from.minusDays(1), from.plusDays(1)))
+                .containsExactlyInAnyOrderEntriesOf(Map.of(from.minusDays(1), 1, from, 1, from.plusDays(1), 1));
+    }
+
+    @Test
+    void legacySingleFileArchiveIsStillRead() throws Exception {
+        Path legacy = archiveDir.resolve("review_records_20230101_20230201.csv.gz");
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(legacy)), StandardCharsets.UTF_8))) {
+            writer.write("id,user_id,vocabulary_id,familiarity_rating,is_correct,response_time_ms,reviewed_at\n");
+            writer.write("7," + userId + ",10,known,true,1200,2023-01-05T08:00\n");
+            writer.write("8," + (userId + 1) + ",10,known,true,1200,2023-01-05T08:00\n");
+        }
+
+        List<Long> ids = new ArrayList<>();
+        historyService.forEachRecord(userId, r -> ids.add(r.getId()));
+        assertThat(ids).containsExactly(7L);
+
+        // 重新归档同一时间段后只保留分桶目录
+        archiveStore.write(LocalDate.of(2023, 1, 1), LocalDate.of(2023, 2, 1),
+                List.of(record(7L, userId, LocalDateTime.of(2023, 1, 5, 8, 0))));
+        assertThat(legacy).doesNotExist();
+        assertThat(archiveStore.periods()).hasSize(1);
+    }
+
+    @Test
+    void forEachRecordPagesThroughTiesWithoutATransaction() {
+        // 同一时间的记录跨越分页边界，需要按 id 续读
+        int total = ReviewHistoryService.PAGE_SIZE + 5;
+        LocalDateTime reviewedAt = LocalDateTime.now().withNano(0);
+        jdbc.batchUpdate("INSERT INTO review_records (user_id, vocabulary_id, familiarity_rating, reviewed_at) "
+                        + "VALUES (?, ?, 'known', ?)",
+                Stream.generate(() -> new Object[] {userId, 1L, reviewedAt}).limit(total).toList());
+
+        List<Long> ids = new ArrayList<>();
+        List<Boolean> inTransaction = new ArrayList<>();
+        historyService.forEachRecord(userId, r -> {
+            ids.add(r.getId());
+            inTransaction.add(TransactionSynchronizationManager.isActualTransactionActive());
+        });
+
+        assertThat(ids).hasSize(total).doesNotHaveDuplicates().isSorted();
+        assertThat(inTransaction).containsOnly(false);
+    }
+
+    private static ReviewRecord record(Long id, Long userId, LocalDateTime reviewedAt) {
+        ReviewRecord r = new ReviewRecord();
+        r.setId(id);
+        r.setUserId(userId);
+        r.setVocabularyId(10L);
+        r.setRating("known");
+        r.setTestPassed(true);
+        r.setResponseTimeMs(1500);
+        r.setCreatedAt(reviewedAt);
+        return r;
+    }
+}
@@ -0,0 +1,153 @@
+package com.lingoflow.service;
+
+import com.lingoflow.IntegrationTest;
+import com.lingoflow.TestData;
+import com.lingoflow.exception.BusinessException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 同一生词的并发评分：成功的请求各自计入一次复习、一个同步版本和一条复习记录，
+ * 冲突重试耗尽的请求不留下任何痕迹，且不因锁等待超时失败；与删除并发时两者按相同顺序加锁，不会死锁
+ */
+class ReviewServiceRatingTest extends IntegrationTest {
+
+    private static final int CONCURRENT_RATINGS = 24;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private VocabularyService vocabularyService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private long userId;
+    private long vocabularyId;
+
+    @BeforeEach
+    void setUp() {
+        TestData data = new TestData(jdbc);
+        userId = data.user();
+        vocabularyId = data.vocabulary(userId, data.word("n. 并发"));
+    }
+
+    @Test
+    void sequentialRatingsEachCountOnce() {
+        long syncBefore = syncVersion();
+        reviewService.submitRating(userId, vocabularyId, "unknown", false);
+        reviewService.submitRating(userId, vocabularyId, "fuzzy", false);
+
+        assertThat(reviewCount()).isEqualTo(2);
+        assertThat(syncVersion() - syncBefore).isEqualTo(2);
+        assertThat(reviewRecords()).isEqualTo(2);
+    }
+
+    @Test
+    void concurrentRatingsKeepCountsInStep() throws Exception {
+        long syncBefore = syncVersion();
+        ExecutorService pool = Executors.newFixedThreadPool(CONCURRENT_RATINGS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < CONCURRENT_RATINGS; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        reviewService.submitRating(userId, vocabularyId, "unknown", false);
+                        return 0;
+                    } catch (BusinessException e) {
+                        return e.getCode();
+                    }
+                }));
+            }
+            start.countDown();
+            int succeeded = 0;
+            for (Future<Integer> result : results) {
+                // 只允许成功或重试耗尽 (3002)，锁等待超时等其他异常会在 get() 时抛出
+                int code = result.get();
+                assertThat(code).isIn(0, 3002);
+                if (code == 0) {
+                    succeeded++;
+                }
+            }
+
+            assertThat(succeeded).isPositive();
+            assertThat(reviewCount()).isEqualTo(succeeded);
+            assertThat(syncVersion() - syncBefore).isEqualTo(succeeded);
+            assertThat(reviewRecords()).isEqualTo(succeeded);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void ratingsRacingADeleteLeaveOnlyTheTombstone() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(CONCURRENT_RATINGS + 1);
+        try {
+            for (int round = 0; round < 5; round++) {
+                long target = new TestData(jdbc).vocabulary(userId, new TestData(jdbc).word("n. 删除" + round));
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Integer>> ratings = new ArrayList<>();
+                for (int i = 0; i < CONCURRENT_RATINGS; i++) {
+                    ratings.add(pool.submit(() -> {
+                        start.await();
+                        try {
+                            reviewService.submitRating(userId, target, "unknown", false);
+                            return 0;
+                        } catch (BusinessException e) {
+                            return e.getCode();
+                        }
+                    }));
+                }
+                Future<?> delete = pool.submit(() -> {
+                    start.await();
+                    vocabularyService.removeFromVocabulary(userId, target);
+                    return null;
+                });
+                start.countDown();
+
+                // 死锁或锁等待超时会在 get() 时抛出
+                delete.get();
+                for (Future<Integer> rating : ratings) {
+                    // 0 成功，3001 生词已被删除，3002 重试耗尽
+                    assertThat(rating.get()).isIn(0, 3001, 3002);
+                }
+                assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM vocabulary WHERE id = ?", Integer.class,
+                        target)).isZero();
+                assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM vocabulary_tombstones WHERE vocabulary_id = ?",
+                        Integer.class, target)).isEqualTo(1);
+                // 删除前提交的评分记录随生词一起删除，删除后的评分不会写入记录
+                assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM review_records WHERE vocabulary_id = ?",
+                        Integer.class, target)).isZero();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private int reviewCount() {
+        return jdbc.queryForObject("SELECT review_count FROM vocabulary WHERE id = ?", Integer.class, vocabularyId);
+    }
+
+    private long syncVersion() {
+        return jdbc.queryForObject("SELECT sync_version FROM users WHERE id = ?", Long.class, userId);
+    }
+
+    private int reviewRecords() {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM review_records WHERE vocabulary_id = ?", Integer.class,
+                vocabularyId);
+    }
+}
@@ -0,0 +1,102 @@
+package com.lingoflow.service;
+
+import com.lingoflow.IntegrationTest;
+import com.lingoflow.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 复习会话：到期的单词都要发出且只发一次，评分后不再到期的单词不能让会话提前结束
+ */
+class ReviewServiceSessionTest extends IntegrationTest {
+
+    private static final int DUE_WORDS = 7;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private long userId;
+    private Set<Long> dueIds;
+
+    @BeforeEach
+    void setUp() {
+        TestData data = new TestData(jdbc);
+        userId = data.user();
+        dueIds = new HashSet<>();
+        for (int i = 0; i < DUE_WORDS; i++) {
+            dueIds.add(data.vocabulary(userId, data.word("n. 单词" + i)));
+        }
+    }
+
+    @Test
+    void servesEveryDueWordWhenCardsAreRatedAsTheyArrive() {
+        List<Long> served = new ArrayList<>();
+        boolean reset = true;
+        for (int round = 0; round < DUE_WORDS * 2; round++) {
+            Map<String, Object> batch = reviewService.getReviewSession(userId, 1, reset);
+            reset = false;
+            for (Long id : ids(batch)) {
+                served.add(id);
+                reviewService.submitRating(userId, id, "unknown", true);
+            }
+            if (!(Boolean) batch.get("hasMore")) {
+                break;
+            }
+        }
+
+        assertThat(served).doesNotHaveDuplicates();
+        assertThat(new HashSet<>(served)).isEqualTo(dueIds);
+    }
+
+    @Test
+    void concurrentRequestsNeverServeTheSameCard() throws Exception {
+        reviewService.getReviewSession(userId, 1, true);
+        int requests = 6;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(requests);
+        List<Long> served = new ArrayList<>();
+        try {
+            List<Future<Map<String, Object>>> results = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return reviewService.getReviewSession(userId, 1, false);
+                }));
+            }
+            start.countDown();
+            for (Future<Map<String, Object>> result : results) {
+                served.addAll(ids(result.get()));
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(served).hasSize(requests).doesNotHaveDuplicates();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Long> ids(Map<String, Object> batch) {
+        List<Long> ids = new ArrayList<>();
+        for (Map<String, Object> card : (List<Map<String, Object>>) batch.get("cards")) {
+            ids.add(((Number) card.get("vocabularyId")).longValue());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,57 @@
+package com.lingoflow.service;
+
+import com.lingoflow.IntegrationTest;
+import com.lingoflow.TestData;
+import com.lingoflow.entity.Vocabulary;
+import com.lingoflow.entity.VocabularyTombstone;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 增量同步：删除的生词以墓碑下发给已同步过的客户端
+ */
+class VocabularySyncTest extends IntegrationTest {
+
+    @Autowired
+    private VocabularyService vocabularyService;
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void deletedVocabularyIsReportedAsTombstone() {
+        TestData data = new TestData(jdbc);
+        long userId = data.user();
+        long wordId = data.word("n. 墓碑");
+        long vocabularyId = ((Number) vocabularyService.addToVocabulary(userId, wordId).get("vocabularyId"))
+                .longValue();
+
+        Map<String, Object> first = syncService.getChanges(userId, 0, 0, 100);
+        assertThat((List<Vocabulary>) first.get("vocabulary")).extracting(Vocabulary::getId)
+                .containsExactly(vocabularyId);
+        long since = (Long) first.get("version");
+
+        vocabularyService.removeFromVocabulary(userId, vocabularyId);
+
+        Map<String, Object> second = syncService.getChanges(userId, since, 0, 100);
+        assertThat((Boolean) second.get("reset")).isFalse();
+        assertThat((List<Vocabulary>) second.get("vocabulary")).isEmpty();
+        assertThat((List<VocabularyTombstone>) second.get("deleted"))
+                .singleElement()
+                .satisfies(tombstone -> {
+                    assertThat(tombstone.getVocabularyId()).isEqualTo(vocabularyId);
+                    assertThat(tombstone.getWordId()).isEqualTo(wordId);
+                    assertThat(tombstone.getSyncVersion()).isEqualTo((Long) second.get("version"));
+                });
+    }
+}
@@ -0,0 +1,184 @@
+-- H2 (MODE=MySQL) 表结构，供 backend 集成测试和 backend-loadtest 使用
+-- 与 backend/src/main/resources/schema.sql 及 db/migration 下的迁移保持一致，修改表结构时请同步更新
+
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    username VARCHAR(50) NOT NULL UNIQUE,
+    email VARCHAR(100) UNIQUE,
+    password_hash VARCHAR(255) NOT NULL,
+    avatar_url VARCHAR(255),
+    daily_goal INT DEFAULT 20,
+    difficulty_level VARCHAR(20) DEFAULT 'medium',
+    sync_version BIGINT NOT NULL DEFAULT 0,
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    INDEX idx_username (username),
+    INDEX idx_email (email)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci;
+
+-- 词库表
+CREATE TABLE IF NOT EXISTS words (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    word VARCHAR(100) NOT NULL UNIQUE,
+    phonetic VARCHAR(100),
+    meaning_cn TEXT NOT NULL,
+    meaning_en TEXT,
+    example_sentence TEXT,
+    difficulty VARCHAR(20) DEFAULT 'medium',
+    level_tags VARCHAR(100) DEFAULT NULL,
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_word (word),
+    INDEX idx_difficulty (difficulty)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci;
+
+-- 用户生词本
+CREATE TABLE IF NOT EXISTS vocabulary (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    word_id BIGINT NOT NULL,
+    familiarity INT DEFAULT 0,
+    review_count INT DEFAULT 0,
+    easiness_factor FLOAT DEFAULT 2.5,
+    interval_days INT DEFAULT 1,
+    next_review_date DATETIME,
+    last_review_date DATETIME,
+    sync_version BIGINT NOT NULL DEFAULT 0,
+    version INT NOT NULL DEFAULT 0,
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE,
+    FOREIGN KEY (word_id) REFERENCES words (id) ON DELETE CASCADE,
+    UNIQUE KEY idx_user_word (user_id, word_id),
+    INDEX idx_next_review (user_id, next_review_date),
+    INDEX idx_user_sync (user_id, sync_version)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci;
+
+-- 已删除生词的墓碑，供增量同步返回删除
+CREATE TABLE IF NOT EXISTS vocabulary_tombstones (
+    user_id BIGINT NOT NULL,
+    vocabulary_id BIGINT NOT NULL,
+    word_id BIGINT NOT NULL,
+    sync_version BIGINT NOT NULL,
+    deleted_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, vocabulary_id),
+    INDEX idx_tombstone_user_sync (user_id, sync_version),
+    FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci;
+
+-- 事务性 outbox，投递成功后删除，status = 1 为死信
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    payload VARCHAR(1000),
+    status TINYINT NOT NULL DEFAULT 0,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME,
+    last_error VARCHAR(500),
+    created_at DATETIME(3) DEFAULT CURRENT_TIMESTAMP(3),
+    INDEX idx_outbox_status (status, id),
+    INDEX idx_outbox_user (user_id, status, id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci;
+
+-- AI 生成内容 (文章、造句反馈)，JSON，超过阈值时 deflate 压缩，按内容哈希去重
+CREATE TABLE IF NOT EXISTS content_blobs (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    content_hash CHAR(64) NOT NULL,
+    encoding VARCHAR(16) NOT NULL,
+    original_size INT NOT NULL,
+    body MEDIUMBLOB NOT NULL,
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE KEY uk_content_hash (content_hash)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci;
+
+-- 学习会话表
+CREATE TABLE IF NOT EXISTS learning_sessions (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    session_type VARCHAR(20) NOT NULL,
+    ai_article TEXT,
+    article_content_id BIGINT DEFAULT NULL,
+    words_learned INT DEFAULT 0,
+    words_correct INT DEFAULT 0,
+    duration_seconds INT DEFAULT 0,
+    theme VARCHAR(50) DEFAULT NULL,
+    difficulty_preference VARCHAR(20) DEFAULT NULL,
+    target_word_count INT DEFAULT 5,
+    started_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    ended_at DATETIME,
+    questions_status VARCHAR(20) DEFAULT NULL,
+    FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE,
+    INDEX idx_user_session (user_id, started_at)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci;
+
+-- 会话单词记录表
+CREATE TABLE IF NOT EXISTS session_words (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    session_id BIGINT NOT NULL,
+    vocabulary_id BIGINT,
+    action_type VARCHAR(20) NOT NULL,
+    user_sentence TEXT,
+    ai_feedback TEXT,
+    feedback_content_id BIGINT DEFAULT NULL,
+    score INT,
+    question_type VARCHAR(30) DEFAULT 'sentence_making',
+    -- H2 的 JSON 类型会把字符串参数存为 JSON 字符串，压测库用 TEXT
+    question_data TEXT,
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (session_id) REFERENCES learning_sessions (id) ON DELETE CASCADE,
+    FOREIGN KEY (vocabulary_id) REFERENCES vocabulary (id) ON DELETE CASCADE,
+    INDEX idx_session (session_id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci;
+
+-- 每个用户每个单词的最高分造句
+CREATE TABLE IF NOT EXISTS user_word_best_sentence (
+    user_id BIGINT NOT NULL,
+    word_id BIGINT NOT NULL,
+    score INT NOT NULL,
+    session_word_id BIGINT NOT NULL,
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, word_id),
+    FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE,
+    FOREIGN KEY (session_word_id) REFERENCES session_words (id) ON DELETE CASCADE
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci;
+
+-- 复习记录表
+CREATE TABLE IF NOT EXISTS review_records (
+    id BIGINT AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    vocabulary_id BIGINT NOT NULL,
+    familiarity_rating VARCHAR(20) NOT NULL,
+    is_correct BOOLEAN,
+    response_time_ms INT,
+    reviewed_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    -- MySQL 上按月分区 (V9)，H2 不支持分区，仅保持相同的主键和索引
+    PRIMARY KEY (id, reviewed_at),
+    INDEX idx_user_review (user_id, reviewed_at),
+    INDEX idx_user_vocab_review (user_id, vocabulary_id, reviewed_at)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci;
+
+-- ========================================
+-- Phase 6: 词典系统
+-- ========================================
+
+-- 词典表
+CREATE TABLE IF NOT EXISTS dictionaries (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '词典ID',
+    name VARCHAR(50) NOT NULL UNIQUE COMMENT '词典名称',
+    description TEXT COMMENT '词典描述',
+    total_words INT DEFAULT 0 COMMENT '总词数',
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间'
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci;
+
+-- 单词-词典关联表
+CREATE TABLE IF NOT EXISTS word_dictionary_tags (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '标签ID',
+    word_id BIGINT NOT NULL COMMENT '单词ID',
+    dictionary_id BIGINT NOT NULL COMMENT '词典ID',
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    FOREIGN KEY (word_id) REFERENCES words (id) ON DELETE CASCADE,
+    FOREIGN KEY (dictionary_id) REFERENCES dictionaries (id) ON DELETE CASCADE,
+    UNIQUE KEY uk_word_dict (word_id, dictionary_id),
+    INDEX idx_word_id (word_id),
+    INDEX idx_dictionary_id (dictionary_id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci;
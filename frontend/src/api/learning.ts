@@ -96,10 +96,17 @@ export function removeFromVocabulary(id: number): Promise<ApiResponse<null>> {
 }
 
 // 生成 AI 文章
-export function generateArticle(vocabularyIds: number[], difficulty?: string, length?: string, theme?: string): Promise<ApiResponse<{ sessionId: number, article: ArticleData }>> {
+export function generateArticle(vocabularyIds: number[], difficulty?: string, length?: string, theme?: string): Promise<ApiResponse<{ sessionId: number, article: ArticleData, questionsStatus?: QuestionsStatus }>> {
     return request.post('/learning/article', { vocabularyIds, difficulty, length, theme })
 }
 
+export type QuestionsStatus = 'generating' | 'ready' | 'partial' | 'failed'
+
+// 获取阅读理解题（文章返回后在后台生成，status 为 generating 时需轮询）
+export function getSessionQuestions(sessionId: number): Promise<ApiResponse<{ status: QuestionsStatus, questions: ComprehensionQuestion[] }>> {
+    return request.get(`/learning/session/${sessionId}/questions`)
+}
+
 // 提交造句
 export function submitSentence(sessionId: number, vocabularyId: number, sentence: string): Promise<ApiResponse<SentenceFeedback>> {
     return request.post('/learning/sentence', { sessionId, vocabularyId, sentence })
@@ -154,6 +161,10 @@ export interface TestQuestion {
     correctAnswer: string
 }
 
+export interface ReviewCard extends ReviewWord {
+    testQuestion: TestQuestion
+}
+
 export interface RatingResult {
     needTest: boolean
     testQuestion?: TestQuestion
@@ -173,9 +184,14 @@ export function getReviewQueue(): Promise<ApiResponse<{ words: ReviewWord[], tot
     return request.get('/review/queue')
 }
 
-// 提交熟悉度自评
-export function submitRating(vocabularyId: number, rating: 'known' | 'unknown' | 'fuzzy'): Promise<ApiResponse<RatingResult>> {
-    return request.post('/review/rating', { vocabularyId, rating })
+// 获取复习会话的下一批卡片 (含预生成的测试题)
+export function getReviewSession(size: number = 10, reset: boolean = false): Promise<ApiResponse<{ cards: ReviewCard[], hasMore: boolean }>> {
+    return request.get(`/review/session?size=${size}&reset=${reset}`)
+}
+
+// 提交熟悉度自评，questionPrefetched 为 true 时服务端不再返回测试题
+export function submitRating(vocabularyId: number, rating: 'known' | 'unknown' | 'fuzzy', questionPrefetched: boolean = false): Promise<ApiResponse<RatingResult>> {
+    return request.post('/review/rating', { vocabularyId, rating, questionPrefetched })
 }
 
 // 提交测试答案
@@ -37,6 +37,9 @@ DB_CONFIG = {
     'database': 'newlingoflow'
 }
 
+# 与 ResourceVersions 中 Scope.DICTIONARY 的键一致
+DICTIONARY_VERSION_KEY = 'lf:version:dictionary'
+
 def connect_db():
     try:
         conn = mysql.connector.connect(**DB_CONFIG)
@@ -126,7 +129,7 @@ def process_file(file_path, cursor, dict_id):
 
     return local_added, local_linked
 
-def import_words(input_source, dictionary_name, dictionary_description=None):
+def import_words(input_source, dictionary_name, dictionary_description=None, redis_url=None):
     conn = connect_db()
     cursor = conn.cursor()
 
@@ -184,20 +187,47 @@ def import_words(input_source, dictionary_name, dictionary_description=None):
         print(f"Import process completed.")
         print(f"Total operations (insert/update): {total_added}")
         print(f"Total new associations: {total_linked}")
-        
+        return bump_dictionary_version(redis_url)
+
     except mysql.connector.Error as err:
         print(f"Database error: {err}")
         conn.rollback()
+        return False
     finally:
         cursor.close()
         conn.close()
 
+def bump_dictionary_version(redis_url):
+    # 词典内容变化后更新资源版本，使 /api/dictionaries、/api/words/{id} 的 ETag 失效。
+    # 后端只在版本键不存在时生成新版本，不会因为导入而自行刷新，因此这一步失败时整个导入按失败处理
+    try:
+        import redis
+        import secrets
+        redis.Redis.from_url(redis_url).set(DICTIONARY_VERSION_KEY, secrets.token_hex(8), ex=24 * 3600)
+        print("Dictionary version bumped.")
+        return True
+    except Exception as err:
+        print(f"Error: words were imported but the dictionary version could not be bumped: {err}")
+        print(f"Clients may keep serving stale dictionary data until '{DICTIONARY_VERSION_KEY}' changes. "
+              f"Fix Redis access and rerun with --bump-only, or run: redis-cli DEL {DICTIONARY_VERSION_KEY}")
+        return False
+
 if __name__ == '__main__':
     parser = argparse.ArgumentParser(description='Import words into LingoFlow database.')
-    parser.add_argument('source', help='Path to the JSON file or directory containing JSON files')
-    parser.add_argument('--name', '-n', required=True, help='Name of the dictionary (e.g., CET-4)')
+    parser.add_argument('source', nargs='?', help='Path to the JSON file or directory containing JSON files')
+    parser.add_argument('--name', '-n', help='Name of the dictionary (e.g., CET-4)')
     parser.add_argument('--desc', '-d', help='Description of the dictionary')
-    
+    parser.add_argument('--redis-url', default=os.environ.get('REDIS_URL', 'redis://localhost:6379/0'),
+                        help='Redis URL used to invalidate dictionary ETags (default: $REDIS_URL or redis://localhost:6379/0)')
+    parser.add_argument('--bump-only', action='store_true',
+                        help='Only bump the dictionary version (after a previous import failed to reach Redis)')
+
     args = parser.parse_args()
-    
-    import_words(args.source, args.name, args.desc)
+
+    if args.bump_only:
+        ok = bump_dictionary_version(args.redis_url)
+    else:
+        if not args.source or not args.name:
+            parser.error('source and --name are required unless --bump-only is given')
+        ok = import_words(args.source, args.name, args.desc, args.redis_url)
+    sys.exit(0 if ok else 1)
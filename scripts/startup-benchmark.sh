@@ -0,0 +1,109 @@
+#!/usr/bin/env bash
+# 后端启动基准: 比较普通可执行 jar、AOT 产物、AOT + AppCDS 及原生可执行文件的启动耗时和内存
+#
+# 每种方式启动 --runs 次，记录从启动进程到 --url 首次返回 2xx 的耗时 (time-to-first-request)
+# 及此时进程的 RSS，输出中位数。任一方式启动失败时退出码非 0
+#
+# 用法:
+#   (cd backend && mvn -Pfast-startup package -DskipTests)
+#   scripts/startup-benchmark.sh [--runs=5] [--port=18090] [--url=/actuator/health/readiness]
+#                                [--modes=jar,aot,aot-cds,native] [-- 传给应用的参数...]
+#   native 模式需要先用 GraalVM 构建: (cd backend && mvn -Pnative package -DskipTests)
+#
+# 应用仍需连接 Redis (本地没有时可用 backend-loadtest/run-loadtest.sh redis 启动替身)；
+# 默认 URL 是不访问数据库的就绪探针，有 MySQL 时可改为业务接口
+set -euo pipefail
+
+cd "$(dirname "$0")/../backend/target"
+
+RUNS=5
+PORT=18090
+URL_PATH=/actuator/health/readiness
+MODES=jar,aot,aot-cds
+TIMEOUT_S=120
+APP_ARGS=()
+while [ $# -gt 0 ]; do
+    case "$1" in
+        --runs=*) RUNS="${1#*=}" ;;
+        --port=*) PORT="${1#*=}" ;;
+        --url=*) URL_PATH="${1#*=}" ;;
+        --modes=*) MODES="${1#*=}" ;;
+        --timeout=*) TIMEOUT_S="${1#*=}" ;;
+        --) shift; APP_ARGS=("$@"); break ;;
+        *) echo "unknown option: $1" >&2; exit 1 ;;
+    esac
+    shift
+done
+
+EXEC_JAR=$(ls lingoflow-backend-*-exec.jar 2>/dev/null | head -1 || true)
+AOT_JAR=$(cd fast-startup 2>/dev/null && ls lingoflow-backend-*-aot.jar 2>/dev/null | head -1 || true)
+
+# AppCDS 要求类路径与训练运行一致 (相对路径)，AOT 产物均在 fast-startup/ 下启动
+command_for() {
+    case "$1" in
+        jar) [ -n "$EXEC_JAR" ] && echo ". java -jar $EXEC_JAR" ;;
+        aot) [ -n "$AOT_JAR" ] && echo "fast-startup java -Dspring.aot.enabled=true -jar $AOT_JAR" ;;
+        aot-cds) [ -n "$AOT_JAR" ] && [ -f fast-startup/application.jsa ] \
+            && echo "fast-startup java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true -jar $AOT_JAR" ;;
+        native) [ -x lingoflow-backend ] && echo ". ./lingoflow-backend" ;;
+        *) echo "unknown mode: $1" >&2; return 1 ;;
+    esac
+}
+
+now_ms() {
+    date +%s%3N
+}
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+# 启动一次，输出 "耗时ms RSS_KB"；超时或进程退出时返回 1
+run_once() {
+    local dir="${1%% *}" cmd="${1#* }" log="$2" start pid elapsed rss
+    start=$(now_ms)
+    (cd "$dir" && exec $cmd --server.port="$PORT" "${APP_ARGS[@]}") > "$log" 2>&1 &
+    pid=$!
+    while true; do
+        if curl -fs -o /dev/null "http://127.0.0.1:$PORT$URL_PATH"; then
+            elapsed=$(( $(now_ms) - start ))
+            rss=$(awk '/^VmRSS:/ { print $2 }' "/proc/$pid/status" 2>/dev/null || echo 0)
+            break
+        fi
+        if ! kill -0 "$pid" 2>/dev/null || [ $(( $(now_ms) - start )) -gt $(( TIMEOUT_S * 1000 )) ]; then
+            kill "$pid" 2>/dev/null || true
+            wait "$pid" 2>/dev/null || true
+            return 1
+        fi
+        sleep 0.05
+    done
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo "$elapsed $rss"
+}
+
+FAILED=0
+printf '%-8s %6s %14s %12s\n' mode runs "first-req(ms)" "rss(MB)"
+for mode in ${MODES//,/ }; do
+    cmd=$(command_for "$mode") || true
+    if [ -z "$cmd" ]; then
+        echo "$mode: artifact not found, build with mvn -Pfast-startup package (native: -Pnative)" >&2
+        FAILED=1
+        continue
+    fi
+    times=() rss=()
+    for i in $(seq 1 "$RUNS"); do
+        log="/tmp/startup-benchmark-$mode-$i.log"
+        if ! result=$(run_once "$cmd" "$log"); then
+            echo "$mode: run $i did not serve $URL_PATH, see $log" >&2
+            FAILED=1
+            continue 2
+        fi
+        times+=("${result% *}")
+        rss+=("${result#* }")
+    done
+    printf '%-8s %6d %14d %12d\n' "$mode" "$RUNS" \
+        "$(printf '%s\n' "${times[@]}" | median)" \
+        "$(( $(printf '%s\n' "${rss[@]}" | median) / 1024 ))"
+done
+exit $FAILED